@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.factories.RandomLengthTestFactory;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.Randomness;
+
+import com.examples.with.different.packagename.benchmarks.TriangleClassification;
+
+/**
+ * Shared setup of the benchmarks that need an instrumented SUT and a test
+ * cluster, mirroring what the TestSuiteGenerator does before the search
+ * starts.
+ */
+public class BenchmarkSetup {
+
+	public static final long SEED = 42;
+
+	private static boolean initialized = false;
+
+	/**
+	 * Analyze and instrument the fixture SUT. Only the first call has an
+	 * effect, as benchmarks of the same fork share the SUT.
+	 */
+	public static synchronized void initializeTargetClass() throws ClassNotFoundException {
+		initializeTargetClass(1);
+	}
+
+	/**
+	 * Same as {@link #initializeTargetClass()}, with the number of test
+	 * execution threads set before the SUT is instrumented, as the bytecode
+	 * the parallel workers copy is only kept if there is more than one.
+	 */
+	public static synchronized void initializeTargetClass(int testExecutionThreads) throws ClassNotFoundException {
+		Randomness.setSeed(SEED);
+		if (initialized)
+			return;
+
+		Properties.getInstance().resetToDefaults();
+		Properties.TEST_EXECUTION_THREADS = testExecutionThreads;
+		Properties.TARGET_CLASS = TriangleClassification.class.getCanonicalName();
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		TestGenerationContext.getInstance().resetContext();
+
+		TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+		String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		DependencyAnalysis.analyzeClass(Properties.TARGET_CLASS, Arrays.asList(cp.split(File.pathSeparator)));
+		initialized = true;
+	}
+
+	/**
+	 * @param numTests
+	 * @return a suite of random tests on the fixture SUT
+	 */
+	public static TestSuiteChromosome createRandomSuite(int numTests) {
+		RandomLengthTestFactory factory = new RandomLengthTestFactory();
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		for (int i = 0; i < numTests; i++) {
+			TestChromosome test = factory.getChromosome();
+			suite.addTest(test);
+		}
+		return suite;
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.ExecutionTraceType;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the callbacks that the instrumented SUT issues on every branch, for
+ * each of the execution trace implementations, with and without the
+ * thread-bound fast path of the tracer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExecutionTracerBenchmark {
+
+	/** Number of distinct branch ids a single invocation passes */
+	private static final int BRANCHES = 256;
+
+	@Param({ "MAP", "ARRAY" })
+	public ExecutionTraceType traceType;
+
+	/** The fast path is only taken with the ARRAY trace type */
+	@Param({ "false", "true" })
+	public boolean tracerFastPath;
+
+	private final Object reference = new Object();
+
+	private final Object otherReference = new Object();
+
+	private int value = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() throws ClassNotFoundException {
+		BenchmarkSetup.initializeTargetClass();
+		Properties.EXECUTION_TRACE_TYPE = traceType;
+		Properties.TRACER_FAST_PATH = tracerFastPath;
+		ExecutionTracer.setThread(Thread.currentThread());
+		ExecutionTracer.enable();
+	}
+
+	@Setup(Level.Iteration)
+	public void clearTrace() {
+		ExecutionTracer.getExecutionTracer().clear();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ExecutionTracer.disable();
+		ExecutionTracer.getExecutionTracer().clear();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BRANCHES)
+	public void passedBranchIntZero() {
+		for (int branch = 1; branch <= BRANCHES; branch++) {
+			ExecutionTracer.passedBranch(value++ & 7, Opcodes.IFEQ, branch, branch);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BRANCHES)
+	public void passedBranchIntInt() {
+		for (int branch = 1; branch <= BRANCHES; branch++) {
+			ExecutionTracer.passedBranch(value++ & 7, 4, Opcodes.IF_ICMPLT, branch, branch);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BRANCHES)
+	public void passedBranchRefRef() {
+		for (int branch = 1; branch <= BRANCHES; branch++) {
+			ExecutionTracer.passedBranch(reference, (branch & 1) == 0 ? reference : otherReference,
+					Opcodes.IF_ACMPEQ, branch, branch);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BRANCHES)
+	public void passedBranchRefNull() {
+		for (int branch = 1; branch <= BRANCHES; branch++) {
+			ExecutionTracer.passedBranch((branch & 1) == 0 ? reference : null, Opcodes.IFNULL, branch, branch);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.Properties;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of executing a suite of random tests for a small fixture SUT
+ * sequentially (one thread) and on the workers of the parallel executor, with
+ * and without resetting static fields after each test. The score is in suites
+ * per second, so the parallel executor is compared to the sequential one by
+ * the ratio of the scores for the same suite size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelExecutionBenchmark {
+
+	@Param({ "10", "50" })
+	public int suiteSize;
+
+	/** 1 executes the tests sequentially */
+	@Param({ "1", "2", "4" })
+	public int threads;
+
+	@Param({ "false", "true" })
+	public boolean resetStaticFields;
+
+	private List<TestCase> tests;
+
+	@Setup(Level.Trial)
+	public void setUp() throws ClassNotFoundException {
+		BenchmarkSetup.initializeTargetClass(threads);
+		Properties.RESET_STATIC_FIELDS = resetStaticFields;
+		Properties.VIRTUAL_FS = false;
+		Properties.VIRTUAL_NET = false;
+		Properties.JEE = false;
+		TestCaseExecutor.initExecutor();
+		tests = new ArrayList<TestCase>();
+		for (TestChromosome test : BenchmarkSetup.createRandomSuite(suiteSize).getTestChromosomes()) {
+			tests.add(test.getTestCase());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		TestCaseExecutor.pullDown();
+	}
+
+	/**
+	 * Executions per second of the whole suite
+	 */
+	@Benchmark
+	public List<ExecutionResult> executeSuite() {
+		return TestCaseExecutor.getInstance().execute(tests);
+	}
+}
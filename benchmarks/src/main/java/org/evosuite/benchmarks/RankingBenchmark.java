@@ -0,0 +1,146 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.FitnessFunctionIndex;
+import org.evosuite.ga.metaheuristics.mosa.CrowdingDistance;
+import org.evosuite.ga.metaheuristics.mosa.FastNonDominatedSorting;
+import org.evosuite.ga.metaheuristics.mosa.RankBasedPreferenceSorting;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.utils.Randomness;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the MOSA ranking on a population with random fitness values for
+ * many goals, with the fitness values of the chromosomes in maps or in dense
+ * arrays, and with the rows of the fitness matrix sorted sequentially or in
+ * parallel. No SUT is needed, as the fitness values are set directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RankingBenchmark {
+
+	/**
+	 * Goal that is only ever used as key of the fitness values set on the
+	 * chromosomes
+	 */
+	private static class Goal extends FitnessFunction<TestChromosome> {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public double getFitness(TestChromosome individual) {
+			return individual.getFitness(this);
+		}
+
+		@Override
+		public boolean isMaximizationFunction() {
+			return false;
+		}
+	}
+
+	@Param({ "50", "100" })
+	public int populationSize;
+
+	@Param({ "100", "1000" })
+	public int numGoals;
+
+	@Param({ "false", "true" })
+	public boolean denseFitnessValues;
+
+	@Param({ "false", "true" })
+	public boolean parallelRanking;
+
+	private List<TestChromosome> population;
+
+	private Set<FitnessFunction<TestChromosome>> goals;
+
+	private List<TestChromosome> firstFront;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Randomness.setSeed(BenchmarkSetup.SEED);
+		Properties.DENSE_FITNESS_VALUES = denseFitnessValues;
+		Properties.PARALLEL_RANKING = parallelRanking;
+		// the ranking with preference sorting stops once a population is ranked
+		Properties.POPULATION = populationSize;
+		FitnessFunctionIndex.reset();
+		goals = new LinkedHashSet<FitnessFunction<TestChromosome>>();
+		for (int i = 0; i < numGoals; i++) {
+			goals.add(new Goal());
+		}
+		population = new ArrayList<TestChromosome>();
+		for (int i = 0; i < populationSize; i++) {
+			TestChromosome individual = new TestChromosome();
+			for (FitnessFunction<TestChromosome> goal : goals) {
+				// few distinct values, such that there are ties
+				individual.setFitness(goal, Randomness.nextInt(10) / 10.0);
+			}
+			population.add(individual);
+		}
+
+		FastNonDominatedSorting<TestChromosome> ranking = new FastNonDominatedSorting<TestChromosome>();
+		ranking.computeRankingAssignment(population, goals);
+		firstFront = ranking.getSubfront(0);
+	}
+
+	@Benchmark
+	public int fastNonDominatedSorting() {
+		FastNonDominatedSorting<TestChromosome> ranking = new FastNonDominatedSorting<TestChromosome>();
+		ranking.computeRankingAssignment(population, goals);
+		return ranking.getNumberOfSubfronts();
+	}
+
+	@Benchmark
+	public int rankBasedPreferenceSorting() {
+		RankBasedPreferenceSorting<TestChromosome> ranking = new RankBasedPreferenceSorting<TestChromosome>();
+		ranking.computeRankingAssignment(population, goals);
+		return ranking.getNumberOfSubfronts();
+	}
+
+	@Benchmark
+	public double subvectorDominanceAssignment() {
+		new CrowdingDistance<TestChromosome>().subvectorDominanceAssignment(firstFront, goals);
+		return firstFront.get(0).getDistance();
+	}
+}
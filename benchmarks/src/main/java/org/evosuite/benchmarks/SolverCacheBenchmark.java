@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.solver.Solver;
+import org.evosuite.symbolic.solver.SolverCache;
+import org.evosuite.symbolic.solver.SolverResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of looking up path conditions in the {@link SolverCache}, which is
+ * dominated by hashing and comparing the constraint expressions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverCacheBenchmark {
+
+	private static final int NUM_QUERIES = 256;
+
+	/**
+	 * Solver that answers immediately, such that only cache misses cost
+	 * anything beyond the lookup
+	 */
+	private static class ConstantSolver extends Solver {
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			Map<String, Object> model = new HashMap<String, Object>();
+			model.put("x0", 0L);
+			return SolverResult.newSAT(model);
+		}
+	}
+
+	@Param({ "5", "20" })
+	public int pathConditionLength;
+
+	private final Solver solver = new ConstantSolver();
+
+	private List<List<Constraint<?>>> cachedQueries;
+
+	private List<List<Constraint<?>>> equalQueries;
+
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		cachedQueries = createQueries();
+		// structurally equal, but distinct, objects as created by a new
+		// concolic execution of the same path
+		equalQueries = createQueries();
+		for (List<Constraint<?>> query : cachedQueries) {
+			SolverCache.getInstance().solve(solver, query);
+		}
+	}
+
+	private List<List<Constraint<?>>> createQueries() {
+		List<List<Constraint<?>>> queries = new ArrayList<List<Constraint<?>>>();
+		for (int q = 0; q < NUM_QUERIES; q++) {
+			List<Constraint<?>> query = new ArrayList<Constraint<?>>();
+			for (int i = 0; i < pathConditionLength; i++) {
+				IntegerVariable x = new IntegerVariable("x" + i, i, Integer.MIN_VALUE, Integer.MAX_VALUE);
+				Expression<Long> sum = new IntegerBinaryExpression(x, Operator.PLUS, new IntegerConstant(q),
+						(long) (i + q));
+				query.add(new IntegerConstraint(sum, i == pathConditionLength - 1 ? Comparator.EQ : Comparator.NE,
+						new IntegerConstant(i * 31L)));
+			}
+			queries.add(query);
+		}
+		return queries;
+	}
+
+	@Benchmark
+	public SolverResult lookupSameQuery() {
+		List<Constraint<?>> query = cachedQueries.get(next);
+		next = (next + 1) % NUM_QUERIES;
+		return SolverCache.getInstance().solve(solver, query);
+	}
+
+	@Benchmark
+	public SolverResult lookupEqualQuery() {
+		List<Constraint<?>> query = equalQueries.get(next);
+		next = (next + 1) % NUM_QUERIES;
+		return SolverCache.getInstance().solve(solver, query);
+	}
+}
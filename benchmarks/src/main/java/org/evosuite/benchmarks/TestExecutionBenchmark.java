@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.ExecutionTraceType;
+import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of test execution and of the branch coverage suite fitness on a
+ * suite of random tests for a small fixture SUT, for each of the execution
+ * trace implementations, with and without reusing the results of identical
+ * tests, and with the full or the incremental suite fitness.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TestExecutionBenchmark {
+
+	@Param({ "10", "50" })
+	public int suiteSize;
+
+	@Param({ "MAP", "ARRAY" })
+	public ExecutionTraceType traceType;
+
+	/** 0 disables the cache of execution results */
+	@Param({ "0", "1000" })
+	public int executionResultCacheSize;
+
+	@Param({ "false", "true" })
+	public boolean incrementalSuiteFitness;
+
+	private TestSuiteChromosome suite;
+
+	private List<TestChromosome> tests;
+
+	private BranchCoverageSuiteFitness fitness;
+
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void setUp() throws ClassNotFoundException {
+		BenchmarkSetup.initializeTargetClass();
+		Properties.EXECUTION_TRACE_TYPE = traceType;
+		Properties.EXECUTION_RESULT_CACHE_SIZE = executionResultCacheSize;
+		Properties.INCREMENTAL_SUITE_FITNESS = incrementalSuiteFitness;
+		TestCaseExecutor.initExecutor();
+		suite = BenchmarkSetup.createRandomSuite(suiteSize);
+		tests = suite.getTestChromosomes();
+		fitness = new BranchCoverageSuiteFitness();
+		// make sure all tests have a cached execution result
+		fitness.getFitness(suite);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		TestCaseExecutor.pullDown();
+	}
+
+	/**
+	 * Executions per second of a single test of the suite
+	 */
+	@Benchmark
+	public ExecutionResult execute() {
+		TestChromosome test = tests.get(next);
+		next = (next + 1) % tests.size();
+		return TestCaseExecutor.getInstance().execute(test.getTestCase());
+	}
+
+	/**
+	 * Suite fitness computation when no test has changed, ie only the
+	 * aggregation of the cached execution results
+	 */
+	@Benchmark
+	public double suiteFitnessCached() {
+		return fitness.getFitness(suite);
+	}
+
+	/**
+	 * Suite fitness computation when every test has to be executed again. With
+	 * the cache of execution results, the tests are not actually executed, as
+	 * they have not changed structurally.
+	 */
+	@Benchmark
+	public double suiteFitnessChanged() {
+		for (TestChromosome test : tests) {
+			test.setChanged(true);
+		}
+		return fitness.getFitness(suite);
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.vfs.VFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of writing and reading back the content of a file of the virtual file
+ * system, either one byte at a time (as the mocked streams without a buffer
+ * do) or in chunks. No SUT is needed, as the file is used directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VirtualFileBenchmark {
+
+	@Param({ "4096", "1048576" })
+	public int fileSize;
+
+	/** Number of bytes per call, 1 meaning the single byte methods */
+	@Param({ "1", "8192" })
+	public int chunkSize;
+
+	private VFile file;
+
+	private byte[] chunk;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		RuntimeSettings.mockJVMNonDeterminism = true;
+		file = new VFile("/benchmark/file", null);
+		chunk = new byte[chunkSize];
+		for (int i = 0; i < chunkSize; i++) {
+			chunk[i] = (byte) i;
+		}
+	}
+
+	@Benchmark
+	public int write() {
+		file.eraseData();
+		for (int written = 0; written < fileSize; written += chunkSize) {
+			file.writeBytes(chunk, 0, Math.min(chunkSize, fileSize - written));
+		}
+		return file.getDataSize();
+	}
+
+	@Benchmark
+	public int writeAndRead() {
+		write();
+		int sum = 0;
+		if (chunkSize == 1) {
+			for (int position = 0; position < fileSize; position++) {
+				sum += file.read(position);
+			}
+		} else {
+			for (int position = 0; position < fileSize; position += chunkSize) {
+				sum += file.read(position, chunk, 0, chunkSize);
+			}
+		}
+		return sum;
+	}
+}
@@ -25,6 +25,8 @@ package org.evosuite;
 import org.dom4j.DocumentFactory;
 import org.dom4j.dom.DOMDocumentFactory;
 import org.evosuite.classpath.ClassPathHacker;
+import org.evosuite.coverage.exception.ExceptionCoverageFactory;
+import org.evosuite.ga.stoppingconditions.RMIStoppingCondition;
 import org.evosuite.junit.writer.TestSuiteWriterUtils;
 import org.evosuite.result.TestGenerationResult;
 import org.evosuite.result.TestGenerationResultBuilder;
@@ -36,6 +38,9 @@ import org.evosuite.runtime.instrumentation.MethodCallReplacementCache;
 import org.evosuite.runtime.mock.MockFramework;
 import org.evosuite.runtime.sandbox.MSecurityManager;
 import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.symbolic.solver.SolverSession;
+import org.evosuite.testcase.execution.ExecutionResultCache;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
 import org.evosuite.utils.LoggingUtils;
 import org.evosuite.utils.Randomness;
 import org.evosuite.utils.SpawnProcessKeepAliveChecker;
@@ -139,6 +144,7 @@ public class ClientProcess {
         RuntimeSettings.maxNumberOfIterationsPerLoop = Properties.MAX_LOOP_ITERATIONS;
         RuntimeSettings.useVNET = Properties.VIRTUAL_NET;
         RuntimeSettings.useSeparateClassLoader = Properties.USE_SEPARATE_CLASSLOADER;
+        RuntimeSettings.resetStaticStateFromSnapshot = Properties.RESET_STATIC_FIELDS_FROM_SNAPSHOT;
 		RuntimeSettings.className = Properties.TARGET_CLASS;
 		RuntimeSettings.useJEE = Properties.JEE;
 		RuntimeSettings.applyUIDTransformation = true;
@@ -146,6 +152,30 @@ public class ClientProcess {
         MethodCallReplacementCache.resetSingleton();
     }
 
+	/**
+	 * Bring this client back to the state it had before its first search, but
+	 * with a different class under test. The SUT classes get loaded again by a
+	 * new instrumenting class loader, so their static state is fresh as well.
+	 *
+	 * @param targetClass
+	 *            the name of the next class under test
+	 */
+	public static void resetForNewTargetClass(String targetClass) {
+		if (Properties.CLIENT_ON_THREAD) {
+			// properties are shared with master, which has already set them up
+			Properties.TARGET_CLASS = targetClass;
+		} else {
+			Properties.reloadForTargetClass(targetClass);
+		}
+		setupRuntimeProperties();
+		TimeController.resetSingleton();
+		RMIStoppingCondition.getInstance().reset();
+		TestGenerationContext.getInstance().resetContext();
+		ClassReInitializer.resetSingleton();
+		ExceptionCoverageFactory.getGoals().clear();
+		ExecutionResultCache.resetSingleton();
+		SolverSession.closeAll();
+	}
 
 	private static void handleShadingSpecialCases(){
 
@@ -120,6 +120,9 @@ public class Properties {
 	@Parameter(key = "reset_static_fields", group = "Test Creation", description = "Call static constructors only after each static field was modified")
 	public static boolean RESET_STATIC_FIELDS = true;
 
+	@Parameter(key = "reset_static_fields_from_snapshot", group = "Test Creation", description = "Reset classes whose static fields only hold immutable values by restoring the values they had after their first reset, instead of calling their static constructors again. Assumes static constructors have no effects other than on their own class")
+	public static boolean RESET_STATIC_FIELDS_FROM_SNAPSHOT = false;
+
 	/** Constant <code>RESET_STATIC_FINAL_FIELDS =false</code> */
 	@Parameter(key = "reset_static_final_fields", group = "Test Creation", description = "Remove the static modifier in target fields")
 	public static boolean RESET_STATIC_FINAL_FIELDS = true;
@@ -145,6 +148,9 @@ public class Properties {
 	@Parameter(key = "test_carving", group = "Test Creation", description = "Enable test carving")
 	public static boolean TEST_CARVING = false;
 
+	@Parameter(key = "capture_log_spill_size", group = "Test Creation", description = "Size in MB of the string parameters a capture log of the test carver keeps in memory before writing them to a temporary file. A negative value keeps them all in memory")
+	public static int CAPTURE_LOG_SPILL_SIZE = 64;
+
 	@Parameter(key = "chop_carved_exceptions", group = "Test Creation", description = "If a carved test throws an exception, either chop it off, or drop it")
 	public static boolean CHOP_CARVED_EXCEPTIONS = true;
 
@@ -347,6 +353,12 @@ public class Properties {
 	@Parameter(key = "ranking_type", group = "Runtime", description = "type of ranking to use in MOSA")
 	public static RankingType RANKING_TYPE = RankingType.PREFERENCE_SORTING;
 
+	@Parameter(key = "parallel_ranking", group = "Runtime", description = "Compute the dominance relations and the subvector dominance distances of the individuals in MOSA in parallel")
+	public static boolean PARALLEL_RANKING = false;
+
+	@Parameter(key = "dense_fitness_values", group = "Runtime", description = "Store the fitness values of chromosomes in arrays indexed by goal, shared with the parent until modified")
+	public static boolean DENSE_FITNESS_VALUES = false;
+
 	/** Constant <code>ALGORITHM</code> */
 	@Parameter(key = "algorithm", group = "Search Algorithm", description = "Search algorithm")
 	public static Algorithm ALGORITHM = Algorithm.MONOTONICGA;
@@ -439,6 +451,15 @@ public class Properties {
 	@Parameter(key = "cvc4_path", group = "DSE", description = "Indicates the path to the CVC4 solver")
 	public static String CVC4_PATH = null;
 
+	@Parameter(key = "dse_solver_cache_file", group = "DSE", description = "File in which solver results are kept across runs and shared between them. No persistent cache is used if not set")
+	public static String DSE_SOLVER_CACHE_FILE = null;
+
+	@Parameter(key = "dse_solver_cache_size", group = "DSE", description = "Maximum number of solver results retained in the persistent solver cache")
+	public static int DSE_SOLVER_CACHE_SIZE = 100000;
+
+	@Parameter(key = "dse_solver_session", group = "DSE", description = "Keep one Z3 or CVC4 process running per client and send it all queries incrementally, instead of starting one process per query")
+	public static boolean DSE_SOLVER_SESSION = false;
+
 
 	// --------- LS ---------
 
@@ -803,6 +824,9 @@ public class Properties {
 	@Parameter(key = "ctg_seeds_ext", group = "Continuous Test Generation", description = "File extension for serialized test files")
 	public static String CTG_SEEDS_EXT = "seed";
 
+	@Parameter(key = "ctg_seeds_compact", group = "Continuous Test Generation", description = "Save serialized tests in a compact binary format instead of using Java serialization")
+	public static boolean CTG_SEEDS_COMPACT = true;
+
 	@Parameter(key = "ctg_project_info", group = "Continuous Test Generation", description = "XML file which stores stats about all CTG executions")
 	public static String CTG_PROJECT_INFO = "project_info.xml";
 
@@ -825,7 +849,7 @@ public class Properties {
 	 * The types of CTG schedules that can be used
 	 */
 	public enum AvailableSchedule {
-		SIMPLE, BUDGET, SEEDING, BUDGET_AND_SEEDING, HISTORY
+		SIMPLE, BUDGET, SEEDING, BUDGET_AND_SEEDING, HISTORY, ADAPTIVE
 	};
 
 	/*
@@ -915,6 +939,9 @@ public class Properties {
 	//this gives quite a few issues. and hopefully the problems it was aimed to fix are no longer
 	public static boolean JUNIT_CHECK_ON_SEPARATE_PROCESS = false;
 
+	@Parameter(key = "junit_check_in_memory", group = "Output", description = "Compile the JUnit test suites checked after the search in memory, instead of writing them to a tmp folder")
+	public static boolean JUNIT_CHECK_IN_MEMORY = false;
+
 	@Parameter(key = "junit_suffix", group = "Output", description = "Suffix that is appended at each generated JUnit file name")
 	public static String JUNIT_SUFFIX = "_ESTest";
 
@@ -974,6 +1001,9 @@ public class Properties {
 	@Deprecated
 	public static boolean MINIMIZE_OLD = false;
 
+	@Parameter(key = "minimize_chunks", group = "Output", description = "Before removing single statements, try to remove whole chunks of a test together with all statements using them (delta debugging)")
+	public static boolean MINIMIZE_CHUNKS = true;
+
 	/** Constant <code>MINIMIZE_VALUES=false</code> */
 	@Parameter(key = "minimize_values", group = "Output", description = "Minimize constants and method calls")
 	public static boolean MINIMIZE_VALUES = false;
@@ -1080,6 +1110,9 @@ public class Properties {
 	@Parameter(key = "max_mutants_per_test", group = "Output", description = "How many mutants to use when trying to find assertions for a test")
 	public static int MAX_MUTANTS_PER_TEST = 100;
 
+	@Parameter(key = "assertion_early_exit", group = "Output", description = "Stop executing a test on further mutants as soon as each of its candidate assertions kills at least one mutant")
+	public static boolean ASSERTION_EARLY_EXIT = false;
+
 	@Parameter(key = "max_mutants_per_method", group = "Output", description = "How many mutants can be inserted into a single method")
 	public static int MAX_MUTANTS_PER_METHOD = 700;
 
@@ -1131,7 +1164,7 @@ public class Properties {
 	public static boolean SERIALIZE_GA = false;
 
 	public enum StatisticsBackend {
-		NONE, CONSOLE, CSV, HTML, DEBUG;
+		NONE, CONSOLE, CSV, HTML, DEBUG, STREAM;
 	}
 
 	@Parameter(key = "statistics_backend", group = "Output", description = "Which backend to use to collect data")
@@ -1250,6 +1283,9 @@ public class Properties {
 	@Parameter(key = "instrumentation_skip_debug", description = "Skip debug information in bytecode instrumentation (needed for compatibility with classes transformed by Emma code instrumentation due to an ASM bug)")
 	public static boolean INSTRUMENTATION_SKIP_DEBUG = false;
 
+	@Parameter(key = "instrumentation_cache_dir", description = "Directory in which instrumented bytecode of classes that are not analyzed is kept across runs and shared between them. No instrumentation cache is used if not set")
+	public static String INSTRUMENTATION_CACHE_DIR = null;
+
 	/** Constant <code>INSTRUMENT_PARENT=false</code> */
 	@Parameter(key = "instrument_parent", description = "Also count coverage goals in superclasses")
 	public static boolean INSTRUMENT_PARENT = false;
@@ -1281,6 +1317,9 @@ public class Properties {
 	@Parameter(key = "test_archive", description = "Use an archive of covered goals during test generation")
 	public static boolean TEST_ARCHIVE = true;
 
+	@Parameter(key = "incremental_suite_fitness", description = "Update the branch coverage suite fitness by the contributions of the changed tests only, rather than analyzing all tests on each evaluation")
+	public static boolean INCREMENTAL_SUITE_FITNESS = false;
+
 	/** Constant <code>TEST_FACTORY</code> */
 	@Parameter(key = "test_factory", description = "Which factory creates tests")
 	public static TestFactory TEST_FACTORY = TestFactory.ARCHIVE;
@@ -1422,6 +1461,23 @@ public class Properties {
     @Parameter(key = "max_loop_iterations", group = "Test Execution", description = "Max number of iterations allowed per loop. A negative value means no check is done.")
     public static long MAX_LOOP_ITERATIONS = RuntimeSettings.maxNumberOfIterationsPerLoop;
 
+	public enum ExecutionTraceType {
+		MAP, ARRAY
+	}
+
+	@Parameter(key = "execution_trace_type", group = "Test Execution", description = "Data structure used to record branch executions and distances: synchronized maps, or primitive arrays indexed by branch id. tracer_fast_path only applies to ARRAY")
+	public static ExecutionTraceType EXECUTION_TRACE_TYPE = ExecutionTraceType.MAP;
+
+	@Parameter(key = "tracer_fast_path", group = "Test Execution", description = "Record the events of the instrumented code through a binding of the test thread, checking for timeouts only every few events. Requires execution_trace_type=ARRAY, otherwise it is ignored with a warning")
+	public static boolean TRACER_FAST_PATH = false;
+
+	@Parameter(key = "test_execution_threads", group = "Test Execution", description = "Number of worker threads used to execute independent tests of a suite, or a test on several mutants, concurrently, each on its own copy of the instrumented classes. 1 means sequential execution")
+	public static int TEST_EXECUTION_THREADS = 1;
+
+	@Parameter(key = "execution_result_cache_size", group = "Test Execution", description = "Number of execution results of recently executed tests that are reused for structurally identical tests during the search. Only used if static fields are reset. 0 means no cache")
+	@IntValue(min = 0)
+	public static int EXECUTION_RESULT_CACHE_SIZE = 0;
+
     // ---------------------------------------------------------------
 	// Debugging
 
@@ -1653,6 +1709,9 @@ public class Properties {
 	@Parameter(key = "client_on_thread", group = "Runtime", description = "Run client process on same JVM of master in separate thread. To be used only for debugging purposes")
 	public static volatile boolean CLIENT_ON_THREAD = false;
 
+	@Parameter(key = "reuse_client", group = "Runtime", description = "When generating tests for several classes (eg with -prefix or -target), keep the client process alive and reuse it for the following classes instead of starting a new JVM for each of them. Does not apply to continuous test generation, which runs each class as a separate job")
+	public static boolean REUSE_CLIENT = false;
+
 
 	@Parameter(key = "is_running_a_system_test", group = "Runtime", description = "Specify that a system test is running. To be used only for debugging purposes")
 	public static volatile boolean IS_RUNNING_A_SYSTEM_TEST = false;
@@ -2365,6 +2424,21 @@ public class Properties {
 		}
 	}
 
+	/**
+	 * Restore the configuration this process was started with, but for a
+	 * different class under test. This is needed when the same client process
+	 * generates tests for several classes one after the other.
+	 *
+	 * @param targetClass
+	 *            the name of the new class under test
+	 */
+	public static void reloadForTargetClass(String targetClass) {
+		getInstance().resetToDefaults();
+		getInstance().loadProperties(true);
+		TARGET_CLASS = targetClass;
+		setClassPrefix();
+	}
+
 	private static void setClassPrefix() {
 		if (TARGET_CLASS != null && !TARGET_CLASS.equals("")) {
 			if (TARGET_CLASS.contains(".")) {
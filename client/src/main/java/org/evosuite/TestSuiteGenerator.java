@@ -36,6 +36,7 @@ import org.evosuite.coverage.TestFitnessFactory;
 import org.evosuite.coverage.branch.Branch;
 import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.coverage.dataflow.DefUseCoverageSuiteFitness;
+import org.evosuite.ga.FitnessFunctionIndex;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.junit.JUnitAnalyzer;
@@ -137,6 +138,8 @@ public class TestSuiteGenerator {
 		LoopCounter.getInstance().setActive(false);
 
 		TestCaseExecutor.initExecutor();
+		// Fitness functions of previous searches in this JVM are not used anymore
+		FitnessFunctionIndex.reset();
 		try {
 			initializeTargetClass();
 		} catch (Throwable e) {
@@ -114,4 +114,12 @@ public class ArrayTraceEntry implements OutputTraceEntry {
 		return new ArrayTraceEntry(var, Arrays.copyOf(value, value.length));
 	}
 
+	/* (non-Javadoc)
+	 * @see org.evosuite.assertion.OutputTraceEntry#cloneEntry(org.evosuite.assertion.OutputTraceTranslator)
+	 */
+	@Override
+	public OutputTraceEntry cloneEntry(OutputTraceTranslator translator) {
+		return new ArrayTraceEntry(translator.translate(var), translator.translate(value));
+	}
+
 }
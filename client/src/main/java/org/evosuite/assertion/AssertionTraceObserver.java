@@ -76,7 +76,7 @@ public abstract class AssertionTraceObserver<T extends OutputTraceEntry> extends
 	 *            a {@link org.evosuite.testcase.execution.Scope} object.
 	 */
 	protected void visitDependencies(Statement statement, Scope scope) {
-		Set<VariableReference> dependencies = currentTest.getDependencies(statement.getReturnValue());
+		Set<VariableReference> dependencies = getCurrentTest().getDependencies(statement.getReturnValue());
 		
 		if(Properties.isRegression()){
 			if (!hasCUT(statement, dependencies)){
@@ -114,7 +114,7 @@ public abstract class AssertionTraceObserver<T extends OutputTraceEntry> extends
 	protected void visitReturnValue(Statement statement, Scope scope) {
 		
 		if(Properties.isRegression()){
-			Set<VariableReference> dependencies = currentTest.getDependencies(statement.getReturnValue());
+			Set<VariableReference> dependencies = getCurrentTest().getDependencies(statement.getReturnValue());
 			if (!hasCUT(statement, dependencies)){
 				return;
 			}
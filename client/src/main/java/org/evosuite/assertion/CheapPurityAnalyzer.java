@@ -70,6 +70,76 @@ public class CheapPurityAnalyzer {
 		return instance;
 	}
 
+	/**
+	 * Facts added by the current thread while a class is being instrumented.
+	 * Each fact is the name of the method that added it followed by its
+	 * arguments.
+	 */
+	private final ThreadLocal<List<String[]>> recordedFacts = new ThreadLocal<List<String[]>>();
+
+	/**
+	 * Remember the facts added by the current thread, such that they can be
+	 * added again without instrumenting the class they come from
+	 */
+	public void startRecording() {
+		recordedFacts.set(new ArrayList<String[]>());
+	}
+
+	/**
+	 * Stop recording the facts added by the current thread
+	 * 
+	 * @return the facts added since the last call to {@link #startRecording()}
+	 */
+	public List<String[]> stopRecording() {
+		List<String[]> facts = recordedFacts.get();
+		recordedFacts.remove();
+		return facts == null ? new ArrayList<String[]>() : facts;
+	}
+
+	/**
+	 * Add facts previously returned by {@link #stopRecording()}
+	 * 
+	 * @param facts
+	 */
+	public void addRecordedFacts(List<String[]> facts) {
+		for (String[] fact : facts) {
+			switch (fact[0]) {
+			case "addMethod":
+				addMethod(fact[1], fact[2], fact[3]);
+				break;
+			case "addUpdatesFieldMethod":
+				addUpdatesFieldMethod(fact[1], fact[2], fact[3]);
+				break;
+			case "addInterfaceMethod":
+				addInterfaceMethod(fact[1], fact[2], fact[3]);
+				break;
+			case "addMethodWithBody":
+				addMethodWithBody(fact[1], fact[2], fact[3]);
+				break;
+			case "addStaticCall":
+				addStaticCall(fact[1], fact[2], fact[3], fact[4], fact[5], fact[6]);
+				break;
+			case "addVirtualCall":
+				addVirtualCall(fact[1], fact[2], fact[3], fact[4], fact[5], fact[6]);
+				break;
+			case "addInterfaceCall":
+				addInterfaceCall(fact[1], fact[2], fact[3], fact[4], fact[5], fact[6]);
+				break;
+			case "addSpecialCall":
+				addSpecialCall(fact[1], fact[2], fact[3], fact[4], fact[5], fact[6]);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown purity fact: " + fact[0]);
+			}
+		}
+	}
+
+	private void record(String... fact) {
+		List<String[]> facts = recordedFacts.get();
+		if (facts != null)
+			facts.add(fact);
+	}
+
 	public List<String> getPureMethods(String className) {
 		ArrayList<String> list = new ArrayList<>();
 		for (MethodEntry m : methodEntries) {
@@ -417,6 +487,7 @@ public class CheapPurityAnalyzer {
 
 	public void addMethod(String className, String methodName,
 			String methodDescriptor) {
+		record("addMethod", className, methodName, methodDescriptor);
 		MethodEntry entry = new MethodEntry(className, methodName,
 				methodDescriptor);
 		methodEntries.add(entry);
@@ -424,6 +495,7 @@ public class CheapPurityAnalyzer {
 
 	public void addUpdatesFieldMethod(String className, String methodName,
 			String descriptor) {
+		record("addUpdatesFieldMethod", className, methodName, descriptor);
 		String classNameWithDots = className.replace('/', '.');
 		MethodEntry entry = new MethodEntry(classNameWithDots, methodName,
 				descriptor);
@@ -438,6 +510,9 @@ public class CheapPurityAnalyzer {
 	public void addStaticCall(String sourceClassName, String sourceMethodName,
 			String sourceDescriptor, String targetClassName,
 			String targetMethodName, String targetDescriptor) {
+		record("addStaticCall", sourceClassName, sourceMethodName,
+				sourceDescriptor, targetClassName, targetMethodName,
+				targetDescriptor);
 
 		addCall(staticCalls, sourceClassName, sourceMethodName,
 				sourceDescriptor, targetClassName, targetMethodName,
@@ -448,6 +523,9 @@ public class CheapPurityAnalyzer {
 	public void addVirtualCall(String sourceClassName, String sourceMethodName,
 			String sourceDescriptor, String targetClassName,
 			String targetMethodName, String targetDescriptor) {
+		record("addVirtualCall", sourceClassName, sourceMethodName,
+				sourceDescriptor, targetClassName, targetMethodName,
+				targetDescriptor);
 
 		addCall(virtualCalls, sourceClassName, sourceMethodName,
 				sourceDescriptor, targetClassName, targetMethodName,
@@ -459,6 +537,9 @@ public class CheapPurityAnalyzer {
 			String sourceMethodName, String sourceDescriptor,
 			String targetClassName, String targetMethodName,
 			String targetDescriptor) {
+		record("addInterfaceCall", sourceClassName, sourceMethodName,
+				sourceDescriptor, targetClassName, targetMethodName,
+				targetDescriptor);
 
 		addCall(interfaceCalls, sourceClassName, sourceMethodName,
 				sourceDescriptor, targetClassName, targetMethodName,
@@ -484,6 +565,9 @@ public class CheapPurityAnalyzer {
 	public void addSpecialCall(String sourceClassName, String sourceMethodName,
 			String sourceDescriptor, String targetClassName,
 			String targetMethodName, String targetDescriptor) {
+		record("addSpecialCall", sourceClassName, sourceMethodName,
+				sourceDescriptor, targetClassName, targetMethodName,
+				targetDescriptor);
 
 		addCall(specialCalls, sourceClassName, sourceMethodName,
 				sourceDescriptor, targetClassName, targetMethodName,
@@ -496,6 +580,7 @@ public class CheapPurityAnalyzer {
 
 	public void addInterfaceMethod(String className, String methodName,
 			String methodDescriptor) {
+		record("addInterfaceMethod", className, methodName, methodDescriptor);
 		MethodEntry entry = new MethodEntry(className, methodName,
 				methodDescriptor);
 		interfaceMethodEntries.add(entry);
@@ -503,6 +588,7 @@ public class CheapPurityAnalyzer {
 
 	public void addMethodWithBody(String className, String methodName,
 			String methodDescriptor) {
+		record("addMethodWithBody", className, methodName, methodDescriptor);
 		MethodEntry entry = new MethodEntry(className, methodName,
 				methodDescriptor);
 		methodsWithBodies.add(entry);
@@ -168,6 +168,22 @@ public class ComparisonTraceEntry implements OutputTraceEntry {
 		return copy;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.evosuite.assertion.OutputTraceEntry#cloneEntry(org.evosuite.assertion.OutputTraceTranslator)
+	 */
+	/** {@inheritDoc} */
+	@Override
+	public OutputTraceEntry cloneEntry(OutputTraceTranslator translator) {
+		ComparisonTraceEntry copy = new ComparisonTraceEntry(translator.translate(var));
+		for (VariableReference other : equalityMap.keySet()) {
+			if (other == null)
+				copy.equalityMap.put(null, equalityMap.get(null));
+			else
+				copy.addEntry(translator.translate(other), equalityMap.get(other));
+		}
+		return copy;
+	}
+
 	public static boolean equals(Object a, Object b) {
 		if (a == null) {
 			return b == null;
@@ -65,7 +65,7 @@ public class ComparisonTraceObserver extends AssertionTraceObserver<ComparisonTr
                 if(otherPos >= position)
                     continue; // Don't compare with variables that are not defined - may happen with primitives?
 
-				Statement otherStatement = currentTest.getStatement(otherPos);
+				Statement otherStatement = getCurrentTest().getStatement(otherPos);
 
 				if (statement instanceof PrimitiveStatement && otherStatement instanceof PrimitiveStatement)
 					continue; // Don't compare two primitives
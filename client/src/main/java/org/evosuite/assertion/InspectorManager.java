@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -254,7 +255,7 @@ public class InspectorManager {
 	 *            a {@link java.lang.Class} object.
 	 * @return a {@link java.util.List} object.
 	 */
-	public List<Inspector> getInspectors(Class<?> clazz) {
+	public synchronized List<Inspector> getInspectors(Class<?> clazz) {
 		if (!inspectors.containsKey(clazz)) {
 			determineInspectors(clazz);
 		}
@@ -271,9 +272,25 @@ public class InspectorManager {
 	 * @param inspector
 	 *            a {@link org.evosuite.assertion.Inspector} object.
 	 */
-	public void removeInspector(Class<?> clazz, Inspector inspector) {
+	public synchronized void removeInspector(Class<?> clazz, Inspector inspector) {
 		if (inspectors.containsKey(clazz)) {
 			inspectors.get(clazz).remove(inspector);
 		}
 	}
+
+	/**
+	 * Forget the inspectors of all classes defined by the given class loader,
+	 * such that the class loader can be garbage collected
+	 *
+	 * @param loader
+	 *            a class loader that is no longer used
+	 */
+	public synchronized void removeInspectors(ClassLoader loader) {
+		Iterator<Class<?>> iterator = inspectors.keySet().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().getClassLoader() == loader) {
+				iterator.remove();
+			}
+		}
+	}
 }
@@ -191,4 +191,17 @@ public class InspectorTraceEntry implements OutputTraceEntry {
 		return copy;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.evosuite.assertion.OutputTraceEntry#cloneEntry(org.evosuite.assertion.OutputTraceTranslator)
+	 */
+	/** {@inheritDoc} */
+	@Override
+	public OutputTraceEntry cloneEntry(OutputTraceTranslator translator) {
+		InspectorTraceEntry copy = new InspectorTraceEntry(translator.translate(var));
+		for (Inspector inspector : inspectorMap.keySet()) {
+			copy.addValue(translator.translate(inspector), translator.translate(inspectorMap.get(inspector)));
+		}
+		return copy;
+	}
+
 }
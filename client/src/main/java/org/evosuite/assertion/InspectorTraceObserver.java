@@ -46,7 +46,7 @@ public class InspectorTraceObserver extends AssertionTraceObserver<InspectorTrac
 		// TODO: Check the variable class is complex?
 
 		// We don't want inspector checks on string constants
-		Statement declaringStatement = currentTest.getStatement(var.getStPosition());
+		Statement declaringStatement = getCurrentTest().getStatement(var.getStPosition());
 		if (declaringStatement instanceof PrimitiveStatement<?>)
 			return;
 		
@@ -20,16 +20,21 @@
 package org.evosuite.assertion;
 
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.evosuite.Properties;
 import org.evosuite.Properties.Criterion;
+import org.evosuite.TestGenerationContext;
 import org.evosuite.coverage.mutation.Mutation;
 import org.evosuite.coverage.mutation.MutationObserver;
 import org.evosuite.coverage.mutation.MutationPool;
@@ -39,7 +44,9 @@ import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testcase.execution.ExecutionObserver;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
 import org.evosuite.testcase.statements.ConstructorStatement;
@@ -156,6 +163,83 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 		return result;
 	}
 
+	/**
+	 * Execute a test case on several mutants. If the executions can be
+	 * isolated from each other (see
+	 * {@link ParallelTestCaseExecutor#canIsolateExecutions()}), they run in
+	 * parallel, each with observers of its own, and the resulting traces are
+	 * translated back to the test and to the classes of the SUT class loader.
+	 * Otherwise the mutants are executed one after the other.
+	 * 
+	 * @param test
+	 *            The test case that should be executed
+	 * @param mutants
+	 *            The mutants on which the test case shall be executed
+	 * @return the results, in the same order as the mutants
+	 */
+	protected List<ExecutionResult> runTests(TestCase test, List<Mutation> mutants) {
+		if (mutants.size() < 2 || !ParallelTestCaseExecutor.canIsolateExecutions()) {
+			List<ExecutionResult> results = new ArrayList<ExecutionResult>(mutants.size());
+			for (Mutation mutant : mutants) {
+				results.add(runTest(test, mutant));
+			}
+			return results;
+		}
+		return runTestsInParallel(test, mutants);
+	}
+
+	/**
+	 * Execute a test case on several mutants at the same time, on the workers
+	 * of the {@link ParallelTestCaseExecutor}
+	 * 
+	 * @param test
+	 *            The test case that should be executed
+	 * @param mutants
+	 *            The mutants on which the test case shall be executed
+	 * @return the results, in the same order as the mutants
+	 */
+	protected List<ExecutionResult> runTestsInParallel(TestCase test, List<Mutation> mutants) {
+		List<ExecutionResult> results = new ArrayList<ExecutionResult>(mutants.size());
+		List<Map<Class<?>, AssertionTraceObserver<?>>> observers = new ArrayList<Map<Class<?>, AssertionTraceObserver<?>>>();
+		List<Set<ExecutionObserver>> observerSets = new ArrayList<Set<ExecutionObserver>>();
+		for (int i = 0; i < mutants.size(); i++) {
+			Map<Class<?>, AssertionTraceObserver<?>> mutantObservers = createObservers();
+			observers.add(mutantObservers);
+			observerSets.add(new LinkedHashSet<ExecutionObserver>(mutantObservers.values()));
+		}
+
+		logger.debug("Executing test on {} mutants in parallel", mutants.size());
+		List<ExecutionResult> mutantResults = TestCaseExecutor.getInstance().executeOnMutants(test, mutants,
+				observerSets);
+
+		OutputTraceTranslator translator = new OutputTraceTranslator(test,
+				TestGenerationContext.getInstance().getClassLoaderForSUT());
+		for (int i = 0; i < mutants.size(); i++) {
+			ExecutionResult result = mutantResults.get(i);
+			MaxStatementsStoppingCondition.statementsExecuted(test.size());
+			for (Entry<Class<?>, AssertionTraceObserver<?>> observer : observers.get(i).entrySet()) {
+				result.setTrace(observer.getValue().getTrace().clone(translator), observer.getKey());
+			}
+			results.add(result);
+		}
+		return results;
+	}
+
+	/**
+	 * @return a new observer for each of the {@link #observerClasses}
+	 */
+	private static Map<Class<?>, AssertionTraceObserver<?>> createObservers() {
+		Map<Class<?>, AssertionTraceObserver<?>> observers = new LinkedHashMap<Class<?>, AssertionTraceObserver<?>>();
+		observers.put(ComparisonTraceEntry.class, new ComparisonTraceObserver());
+		observers.put(SameTraceEntry.class, new SameTraceObserver());
+		observers.put(PrimitiveTraceEntry.class, new PrimitiveTraceObserver());
+		observers.put(InspectorTraceEntry.class, new InspectorTraceObserver());
+		observers.put(PrimitiveFieldTraceEntry.class, new PrimitiveFieldTraceObserver());
+		observers.put(NullTraceEntry.class, new NullTraceObserver());
+		observers.put(ArrayTraceEntry.class, new ArrayTraceObserver());
+		return observers;
+	}
+
 	protected Criterion[] oldCriterion = Properties.CRITERION;
 
 	/**
@@ -129,4 +129,13 @@ public class NullTraceEntry implements OutputTraceEntry {
 		return new NullTraceEntry(var, isNull);
 	}
 
+	/* (non-Javadoc)
+	 * @see org.evosuite.assertion.OutputTraceEntry#cloneEntry(org.evosuite.assertion.OutputTraceTranslator)
+	 */
+	/** {@inheritDoc} */
+	@Override
+	public OutputTraceEntry cloneEntry(OutputTraceTranslator translator) {
+		return new NullTraceEntry(translator.translate(var), isNull);
+	}
+
 }
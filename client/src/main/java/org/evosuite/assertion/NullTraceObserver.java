@@ -57,8 +57,8 @@ public class NullTraceObserver extends AssertionTraceObserver<NullTraceEntry> {
 			        || var.isPrimitive()
 			        //|| var.isWrapperType() // TODO: Wrapper types might make sense but there were failing assertions...
 			        || var.isEnum()
-			        || currentTest.getStatement(var.getStPosition()) instanceof PrimitiveStatement
-			        || currentTest.getStatement(var.getStPosition()).isAssignmentStatement())
+			        || getCurrentTest().getStatement(var.getStPosition()) instanceof PrimitiveStatement
+			        || getCurrentTest().getStatement(var.getStPosition()).isAssignmentStatement())
 				return;
 
 			if(var.getType() != null && var.getType().equals(Void.class)){
@@ -19,7 +19,9 @@
  */
 package org.evosuite.assertion;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.evosuite.Properties;
@@ -226,6 +228,23 @@ public class OutputTrace<T extends OutputTraceEntry> implements Cloneable {
 		return num;
 	}
 
+	/**
+	 * Get all possible assertions, without adding them to the test
+	 * 
+	 * @return a {@link java.util.List} object.
+	 */
+	public synchronized List<Assertion> getAllAssertions() {
+		List<Assertion> assertions = new ArrayList<Assertion>();
+
+		for (Integer statement : trace.keySet()) {
+			for (Integer var : trace.get(statement).keySet()) {
+				assertions.addAll(trace.get(statement).get(var).getAssertions());
+			}
+		}
+
+		return assertions;
+	}
+
 	/**
 	 * Check if this trace makes the assertion fail
 	 * 
@@ -267,6 +286,26 @@ public class OutputTrace<T extends OutputTraceEntry> implements Cloneable {
 		}
 		return copy;
 	}
+
+	/**
+	 * Copy this trace, translating all entries with the given translator
+	 * 
+	 * @param translator
+	 *            a {@link org.evosuite.assertion.OutputTraceTranslator} object.
+	 * @return a {@link org.evosuite.assertion.OutputTrace} object.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized OutputTrace<T> clone(OutputTraceTranslator translator) {
+		OutputTrace<T> copy = new OutputTrace<T>();
+		for (Integer position : trace.keySet()) {
+			copy.trace.put(position, new HashMap<Integer, T>());
+			for (Integer var : trace.get(position).keySet()) {
+				copy.trace.get(position).put(var,
+				                             (T) trace.get(position).get(var).cloneEntry(translator));
+			}
+		}
+		return copy;
+	}
 	
 	@Override
 	public String toString() {
@@ -69,4 +69,13 @@ public interface OutputTraceEntry {
 	 */
 	public OutputTraceEntry cloneEntry();
 
+	/**
+	 * Copy this entry such that it refers to the test and classes of the
+	 * given translator
+	 *
+	 * @param translator a {@link org.evosuite.assertion.OutputTraceTranslator} object.
+	 * @return a {@link org.evosuite.assertion.OutputTraceEntry} object.
+	 */
+	public OutputTraceEntry cloneEntry(OutputTraceTranslator translator);
+
 }
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.assertion;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.variable.VariableReference;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Translates output trace entries that were recorded while executing a copy
+ * of a test on classes of another class loader, such that they refer to the
+ * original test and to the classes of the original class loader again.
+ * Variables are mapped by their position in the test, enum constants by
+ * their ordinal, and fields and inspectors by the names of their classes and
+ * members.
+ */
+public class OutputTraceTranslator {
+
+	private static final Logger logger = LoggerFactory.getLogger(OutputTraceTranslator.class);
+
+	private final TestCase test;
+
+	private final ClassLoader loader;
+
+	private final Map<Field, Field> fields = new HashMap<Field, Field>();
+
+	private final Map<Inspector, Inspector> inspectors = new HashMap<Inspector, Inspector>();
+
+	/**
+	 * @param test
+	 *            the test whose variables the translated entries refer to
+	 * @param loader
+	 *            the class loader whose classes the translated entries refer to
+	 */
+	public OutputTraceTranslator(TestCase test, ClassLoader loader) {
+		this.test = test;
+		this.loader = loader;
+	}
+
+	public VariableReference translate(VariableReference var) {
+		if (var == null)
+			return null;
+		return var.copy(test, 0);
+	}
+
+	/**
+	 * Values recorded in traces are primitives, strings and enum constants,
+	 * only the latter depend on the class loader
+	 */
+	public Object translate(Object value) {
+		if (!(value instanceof Enum))
+			return value;
+
+		Enum<?> constant = (Enum<?>) value;
+		try {
+			Class<?> enumClass = loader.loadClass(constant.getDeclaringClass().getName());
+			Object[] constants = enumClass.getEnumConstants();
+			if (constants != null && constant.ordinal() < constants.length)
+				return constants[constant.ordinal()];
+		} catch (ClassNotFoundException e) {
+			logger.debug("Cannot translate enum constant " + constant + ": " + e);
+		}
+		return value;
+	}
+
+	public Object[] translate(Object[] values) {
+		Object[] copy = new Object[values.length];
+		for (int i = 0; i < values.length; i++) {
+			copy[i] = translate(values[i]);
+		}
+		return copy;
+	}
+
+	public Field translate(Field field) {
+		Field translated = fields.get(field);
+		if (translated == null) {
+			translated = field;
+			try {
+				Class<?> clazz = loader.loadClass(field.getDeclaringClass().getName());
+				if (clazz != field.getDeclaringClass()) {
+					translated = clazz.getDeclaredField(field.getName());
+					translated.setAccessible(true);
+				}
+			} catch (ClassNotFoundException | NoSuchFieldException | SecurityException e) {
+				logger.debug("Cannot translate field " + field + ": " + e);
+			}
+			fields.put(field, translated);
+		}
+		return translated;
+	}
+
+	public Inspector translate(Inspector inspector) {
+		Inspector translated = inspectors.get(inspector);
+		if (translated == null) {
+			translated = inspector;
+			try {
+				Class<?> clazz = loader.loadClass(inspector.getClassName());
+				for (Inspector candidate : InspectorManager.getInstance().getInspectors(clazz)) {
+					if (isSameMethod(candidate.getMethod(), inspector.getMethod())) {
+						translated = candidate;
+						break;
+					}
+				}
+			} catch (ClassNotFoundException e) {
+				logger.debug("Cannot translate inspector " + inspector.getMethodCall() + ": " + e);
+			}
+			inspectors.put(inspector, translated);
+		}
+		return translated;
+	}
+
+	private static boolean isSameMethod(Method m1, Method m2) {
+		return m1.getName().equals(m2.getName())
+		        && m1.getDeclaringClass().getName().equals(m2.getDeclaringClass().getName())
+		        && Type.getMethodDescriptor(m1).equals(Type.getMethodDescriptor(m2));
+	}
+}
@@ -164,4 +164,17 @@ public class PrimitiveFieldTraceEntry implements OutputTraceEntry {
 		return copy;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.evosuite.assertion.OutputTraceEntry#cloneEntry(org.evosuite.assertion.OutputTraceTranslator)
+	 */
+	/** {@inheritDoc} */
+	@Override
+	public OutputTraceEntry cloneEntry(OutputTraceTranslator translator) {
+		PrimitiveFieldTraceEntry copy = new PrimitiveFieldTraceEntry(translator.translate(var));
+		for (Field field : fieldMap.keySet()) {
+			copy.addValue(translator.translate(field), translator.translate(fieldMap.get(field)));
+		}
+		return copy;
+	}
+
 }
@@ -133,4 +133,13 @@ public class PrimitiveTraceEntry implements OutputTraceEntry {
 		return new PrimitiveTraceEntry(var, value);
 	}
 
+	/* (non-Javadoc)
+	 * @see org.evosuite.assertion.OutputTraceEntry#cloneEntry(org.evosuite.assertion.OutputTraceTranslator)
+	 */
+	/** {@inheritDoc} */
+	@Override
+	public OutputTraceEntry cloneEntry(OutputTraceTranslator translator) {
+		return new PrimitiveTraceEntry(translator.translate(var), translator.translate(value));
+	}
+
 }
@@ -173,4 +173,20 @@ public class SameTraceEntry implements OutputTraceEntry {
 		return copy;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.evosuite.assertion.OutputTraceEntry#cloneEntry(org.evosuite.assertion.OutputTraceTranslator)
+	 */
+	/** {@inheritDoc} */
+	@Override
+	public OutputTraceEntry cloneEntry(OutputTraceTranslator translator) {
+		SameTraceEntry copy = new SameTraceEntry(translator.translate(var));
+		for (VariableReference other : equalityMap.keySet()) {
+			if (other == null)
+				copy.equalityMap.put(null, equalityMap.get(null));
+			else
+				copy.addEntry(translator.translate(other), equalityMap.get(other));
+		}
+		return copy;
+	}
+
 }
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -40,6 +41,7 @@ import org.evosuite.rmi.service.ClientStateInformation;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.variable.VariableReference;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.statements.MethodStatement;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.Randomness;
@@ -50,7 +52,6 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 
 	private final static Logger logger = LoggerFactory.getLogger(SimpleMutationAssertionGenerator.class);
 
-
 	@Override
 	public void addAssertions(TestSuiteChromosome suite) {
 		
@@ -115,6 +116,81 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 		filterRedundantNonnullAssertions(test);
 	}
 
+	/**
+	 * Execute the test on a batch of mutants and add the assertions that
+	 * distinguish them from the original
+	 * 
+	 * @param candidates
+	 *            assertions that have not killed a mutant yet, or null if all
+	 *            mutants are executed anyway
+	 */
+	private void runMutants(TestCase test, ExecutionResult origResult, List<Mutation> batch,
+	        Map<Mutation, List<OutputTrace<?>>> mutationTraces, Set<Integer> killed,
+	        List<Assertion> candidates) {
+		if (batch.size() == 1)
+			logger.debug("Running test on mutation {}",  batch.get(0).getMutationName());
+		else
+			logger.debug("Running test on {} mutations", batch.size());
+		List<ExecutionResult> mutantResults = runTests(test, batch);
+
+		for (int i = 0; i < batch.size(); i++) {
+			Mutation m = batch.get(i);
+			ExecutionResult mutantResult = mutantResults.get(i);
+
+			int numKilled = 0;
+			for (Class<?> observerClass : observerClasses) {
+				if (mutantResult.getTrace(observerClass) == null
+				        || origResult.getTrace(observerClass) == null)
+					continue;
+				numKilled += origResult.getTrace(observerClass).getAssertions(test,
+				                                                              mutantResult.getTrace(observerClass));
+			}
+
+			List<OutputTrace<?>> traces = new ArrayList<OutputTrace<?>>(
+			        mutantResult.getTraces());
+			mutationTraces.put(m, traces);
+
+			if (candidates != null) {
+				Iterator<Assertion> iterator = candidates.iterator();
+				while (iterator.hasNext()) {
+					Assertion candidate = iterator.next();
+					for (OutputTrace<?> trace : traces) {
+						if (trace.isDetectedBy(candidate)) {
+							iterator.remove();
+							break;
+						}
+					}
+				}
+			}
+
+			if (mutantResult.hasTimeout()) {
+				logger.debug("Increasing timeout count!");
+				if (!timedOutMutations.containsKey(m)) {
+					timedOutMutations.put(m, 1);
+				} else {
+					timedOutMutations.put(m, timedOutMutations.get(m) + 1);
+				}
+				MutationTimeoutStoppingCondition.timeOut(m);
+				
+			} else if (!mutantResult.noThrownExceptions()
+			        && origResult.noThrownExceptions()) {
+				logger.debug("Increasing exception count.");
+				if (!exceptionMutations.containsKey(m)) {
+					exceptionMutations.put(m, 1);
+				} else {
+					exceptionMutations.put(m, exceptionMutations.get(m) + 1);
+				}
+				MutationTimeoutStoppingCondition.raisedException(m);
+			}
+
+			if (numKilled > 0
+			        || mutantResult.hasTimeout()
+			        || (!mutantResult.noThrownExceptions() && origResult.noThrownExceptions())) {
+				killed.add(m.getId());
+			}
+		}
+	}
+
 	/**
 	 * Add assertions to current test set for given set of mutants
 	 * 
@@ -157,6 +233,20 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 		Randomness.shuffle(executedMutants);
 		logger.debug("Executed mutants: "+origResult.getTrace().getTouchedMutants());
 
+		// Mutants are executed in batches, as many at a time as there are workers
+		int batchSize = ParallelTestCaseExecutor.canIsolateExecutions() ? Properties.TEST_EXECUTION_THREADS : 1;
+		List<Mutation> batch = new ArrayList<Mutation>();
+
+		// Assertions that have not been shown to kill a mutant yet
+		List<Assertion> candidates = null;
+		if (Properties.ASSERTION_EARLY_EXIT) {
+			candidates = new ArrayList<Assertion>();
+			for (Class<?> observerClass : observerClasses) {
+				if (origResult.getTrace(observerClass) != null)
+					candidates.addAll(origResult.getTrace(observerClass).getAllAssertions());
+			}
+		}
+
 		int numExecutedMutants = 0;
 		for (Mutation m : executedMutants) {
 
@@ -196,48 +286,19 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 			}
 			*/
 
-			logger.debug("Running test on mutation {}",  m.getMutationName());
-			ExecutionResult mutantResult = runTest(test, m);
-
-			int numKilled = 0;
-			for (Class<?> observerClass : observerClasses) {
-				if (mutantResult.getTrace(observerClass) == null
-				        || origResult.getTrace(observerClass) == null)
-					continue;
-				numKilled += origResult.getTrace(observerClass).getAssertions(test,
-				                                                              mutantResult.getTrace(observerClass));
-			}
-
-			List<OutputTrace<?>> traces = new ArrayList<OutputTrace<?>>(
-			        mutantResult.getTraces());
-			mutationTraces.put(m, traces);
-
-			if (mutantResult.hasTimeout()) {
-				logger.debug("Increasing timeout count!");
-				if (!timedOutMutations.containsKey(m)) {
-					timedOutMutations.put(m, 1);
-				} else {
-					timedOutMutations.put(m, timedOutMutations.get(m) + 1);
+			batch.add(m);
+			if (batch.size() >= batchSize) {
+				runMutants(test, origResult, batch, mutationTraces, killed, candidates);
+				batch.clear();
+				if (candidates != null && candidates.isEmpty()) {
+					logger.debug("All candidate assertions kill a mutant, skipping remaining mutants");
+					break;
 				}
-				MutationTimeoutStoppingCondition.timeOut(m);
-				
-			} else if (!mutantResult.noThrownExceptions()
-			        && origResult.noThrownExceptions()) {
-				logger.debug("Increasing exception count.");
-				if (!exceptionMutations.containsKey(m)) {
-					exceptionMutations.put(m, 1);
-				} else {
-					exceptionMutations.put(m, exceptionMutations.get(m) + 1);
-				}
-				MutationTimeoutStoppingCondition.raisedException(m);
-			}
-
-			if (numKilled > 0
-			        || mutantResult.hasTimeout()
-			        || (!mutantResult.noThrownExceptions() && origResult.noThrownExceptions())) {
-				killed.add(m.getId());
 			}
 		}
+		// also when out of time, as the mutants of the last batch have already been picked
+		if (!batch.isEmpty())
+			runMutants(test, origResult, batch, mutationTraces, killed, candidates);
 
 		List<Assertion> assertions = test.getAssertions();
 		logger.info("Got " + assertions.size() + " assertions");
@@ -77,6 +77,9 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 	
 	// Total coverage value, used by Regression
 	public double totalCovered = 0.0;	
+
+	// Incremented whenever goals are removed, which invalidates the cached contributions of tests
+	private int goalsVersion = 0;
 	
 	/**
 	 * <p>
@@ -212,16 +215,38 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 			// If a specific target method is set we need to check
 			// if this is a target branch or not
 			if (branchlessMethodCoverageMap.containsKey(entry.getKey())) {
-				result.test.addCoveredGoal(branchlessMethodCoverageMap.get(entry.getKey()));
-				if (Properties.TEST_ARCHIVE) {
-					TestsArchive.instance.putTest(this, branchlessMethodCoverageMap.get(entry.getKey()), result);
-					toRemoveRootBranches.add(entry.getKey());
-					suite.isToBeUpdated(true);
-				}
+				coveredBranchlessMethod(suite, result, entry.getKey());
 			}
 		}
 	}
 
+	private void coveredBranchlessMethod(AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite, ExecutionResult result, String method) {
+		result.test.addCoveredGoal(branchlessMethodCoverageMap.get(method));
+		if (Properties.TEST_ARCHIVE) {
+			TestsArchive.instance.putTest(this, branchlessMethodCoverageMap.get(method), result);
+			toRemoveRootBranches.add(method);
+			suite.isToBeUpdated(true);
+		}
+	}
+
+	private void coveredTrueBranch(AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite, ExecutionResult result, Integer branch) {
+		result.test.addCoveredGoal(branchCoverageTrueMap.get(branch));
+		if(Properties.TEST_ARCHIVE) {
+			TestsArchive.instance.putTest(this, branchCoverageTrueMap.get(branch), result);
+			toRemoveBranchesT.add(branch);
+			suite.isToBeUpdated(true);
+		}
+	}
+
+	private void coveredFalseBranch(AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite, ExecutionResult result, Integer branch) {
+		result.test.addCoveredGoal(branchCoverageFalseMap.get(branch));
+		if(Properties.TEST_ARCHIVE) {
+			TestsArchive.instance.putTest(this, branchCoverageFalseMap.get(branch), result);
+			toRemoveBranchesF.add(branch);
+			suite.isToBeUpdated(true);
+		}
+	}
+
 	protected void handlePredicateCount(AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite, ExecutionResult result, Map<Integer, Integer> predicateCount) {
 		for (Entry<Integer, Integer> entry : result.getTrace().getPredicateExecutionCount().entrySet()) {
 			if (!branchesId.contains(entry.getKey())
@@ -249,12 +274,7 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 								entry.getValue()));
 			}
 			if ((Double.compare(entry.getValue(), 0.0) == 0)) {
-				result.test.addCoveredGoal(branchCoverageTrueMap.get(entry.getKey()));
-				if(Properties.TEST_ARCHIVE) {
-					TestsArchive.instance.putTest(this, branchCoverageTrueMap.get(entry.getKey()), result);
-					toRemoveBranchesT.add(entry.getKey());
-					suite.isToBeUpdated(true);
-				}
+				coveredTrueBranch(suite, result, entry.getKey());
 			}
 		}
 
@@ -271,12 +291,7 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 								entry.getValue()));
 			}
 			if ((Double.compare(entry.getValue(), 0.0) == 0)) {
-				result.test.addCoveredGoal(branchCoverageFalseMap.get(entry.getKey()));
-				if(Properties.TEST_ARCHIVE) {
-					TestsArchive.instance.putTest(this, branchCoverageFalseMap.get(entry.getKey()), result);
-					toRemoveBranchesF.add(entry.getKey());
-					suite.isToBeUpdated(true);
-				}
+				coveredFalseBranch(suite, result, entry.getKey());
 			}
 		}
 
@@ -310,6 +325,328 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		}
 		return hasTimeoutOrTestException;
 	}
+
+	/**
+	 * Same as {@link #analyzeTraces}, but the suite keeps the sum of the
+	 * contributions of its tests (see {@link SuiteContributions}). Only the
+	 * traces of tests that were executed since the last evaluation (or since
+	 * goals were removed) are analyzed, and the sum is updated by the
+	 * contributions of the tests that were removed, changed or added.
+	 * 
+	 * @return the contributions of all tests of the suite
+	 */
+	private SuiteContributions updateContributions(AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite,
+	        List<ExecutionResult> results) {
+		SuiteContributions sum = (SuiteContributions) suite.getFitnessSummary(this);
+		if (sum == null || sum.goalsVersion != goalsVersion) {
+			sum = new SuiteContributions(goalsVersion, suite);
+			suite.setFitnessSummary(this, sum);
+		} else if (sum.owner != suite) {
+			// The sum is still shared with the suite this one was cloned from
+			sum = new SuiteContributions(sum, suite);
+			suite.setFitnessSummary(this, sum);
+		}
+
+		Map<TestContribution, Integer> current = new IdentityHashMap<TestContribution, Integer>();
+		for (ExecutionResult result : results) {
+			if (result.hasTimeout() || result.hasTestException())
+				continue;
+
+			TestContribution contribution = (TestContribution) result.getTraceSummary(this);
+			if (contribution == null || contribution.goalsVersion != goalsVersion) {
+				Map<Integer, Integer> testPredicateCount = new HashMap<Integer, Integer>();
+				Map<String, Integer> testCallCount = new HashMap<String, Integer>();
+				Map<Integer, Double> testTrueDistance = new HashMap<Integer, Double>();
+				Map<Integer, Double> testFalseDistance = new HashMap<Integer, Double>();
+				handleBranchlessMethods(suite, result, testCallCount);
+				handlePredicateCount(suite, result, testPredicateCount);
+				handleTrueDistances(suite, result, testTrueDistance);
+				handleFalseDistances(suite, result, testFalseDistance);
+				contribution = new TestContribution(goalsVersion, testPredicateCount, testCallCount,
+				        testTrueDistance, testFalseDistance);
+				result.setTraceSummary(this, contribution);
+			} else {
+				// The goals covered by the test are reported for every suite it is part of
+				for (String method : contribution.methods) {
+					if (branchlessMethodCoverageMap.containsKey(method))
+						coveredBranchlessMethod(suite, result, method);
+				}
+				for (int branch : contribution.coveredTrueBranches)
+					coveredTrueBranch(suite, result, branch);
+				for (int branch : contribution.coveredFalseBranches)
+					coveredFalseBranch(suite, result, branch);
+			}
+			Integer count = current.get(contribution);
+			current.put(contribution, count == null ? 1 : count + 1);
+		}
+		sum.update(current);
+		return sum;
+	}
+
+	/**
+	 * The relevant part of the trace of one test, in compact form
+	 */
+	private static final class TestContribution {
+
+		private final int goalsVersion;
+
+		private final int[] predicates;
+		private final int[] predicateCounts;
+
+		private final String[] methods;
+		private final int[] methodCounts;
+
+		private final int[] trueBranches;
+		private final double[] trueDistances;
+
+		private final int[] falseBranches;
+		private final double[] falseDistances;
+
+		private final int[] coveredTrueBranches;
+		private final int[] coveredFalseBranches;
+
+		TestContribution(int goalsVersion, Map<Integer, Integer> predicateCount, Map<String, Integer> callCount,
+		        Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
+			this.goalsVersion = goalsVersion;
+
+			predicates = new int[predicateCount.size()];
+			predicateCounts = new int[predicateCount.size()];
+			int i = 0;
+			for (Entry<Integer, Integer> entry : predicateCount.entrySet()) {
+				predicates[i] = entry.getKey();
+				predicateCounts[i++] = entry.getValue();
+			}
+
+			methods = new String[callCount.size()];
+			methodCounts = new int[callCount.size()];
+			i = 0;
+			for (Entry<String, Integer> entry : callCount.entrySet()) {
+				methods[i] = entry.getKey();
+				methodCounts[i++] = entry.getValue();
+			}
+
+			trueBranches = new int[trueDistance.size()];
+			trueDistances = new double[trueDistance.size()];
+			i = 0;
+			for (Entry<Integer, Double> entry : trueDistance.entrySet()) {
+				trueBranches[i] = entry.getKey();
+				trueDistances[i++] = entry.getValue();
+			}
+
+			falseBranches = new int[falseDistance.size()];
+			falseDistances = new double[falseDistance.size()];
+			i = 0;
+			for (Entry<Integer, Double> entry : falseDistance.entrySet()) {
+				falseBranches[i] = entry.getKey();
+				falseDistances[i++] = entry.getValue();
+			}
+
+			coveredTrueBranches = getCovered(trueBranches, trueDistances);
+			coveredFalseBranches = getCovered(falseBranches, falseDistances);
+		}
+
+		private static int[] getCovered(int[] branches, double[] distances) {
+			int num = 0;
+			for (double distance : distances) {
+				if (Double.compare(distance, 0.0) == 0)
+					num++;
+			}
+			int[] covered = new int[num];
+			num = 0;
+			for (int i = 0; i < branches.length; i++) {
+				if (Double.compare(distances[i], 0.0) == 0)
+					covered[num++] = branches[i];
+			}
+			return covered;
+		}
+	}
+
+	/**
+	 * The sum of the contributions of the tests of a suite: predicate and
+	 * method counts are added up, and for each branch the minimal distance is
+	 * kept, together with the number of contributions that reach it. When
+	 * the last contribution with the minimal distance of a branch is
+	 * subtracted, the distance is recomputed from the remaining ones.
+	 */
+	private static final class SuiteContributions {
+
+		private final int goalsVersion;
+
+		/** The suite this sum is updated for; clones get their own copy */
+		private final AbstractTestSuiteChromosome<?> owner;
+
+		/** How often each contribution is part of the sum */
+		private final Map<TestContribution, Integer> included;
+
+		private final Map<Integer, Integer> predicateCount;
+		private final Map<String, Integer> callCount;
+		private final Map<Integer, Double> trueDistance;
+		private final Map<Integer, Double> falseDistance;
+
+		/** Number of contributions that reach the minimal distance of a branch */
+		private final Map<Integer, Integer> trueMinCount;
+		private final Map<Integer, Integer> falseMinCount;
+
+		SuiteContributions(int goalsVersion, AbstractTestSuiteChromosome<?> owner) {
+			this.goalsVersion = goalsVersion;
+			this.owner = owner;
+			included = new IdentityHashMap<TestContribution, Integer>();
+			predicateCount = new HashMap<Integer, Integer>();
+			callCount = new HashMap<String, Integer>();
+			trueDistance = new HashMap<Integer, Double>();
+			falseDistance = new HashMap<Integer, Double>();
+			trueMinCount = new HashMap<Integer, Integer>();
+			falseMinCount = new HashMap<Integer, Integer>();
+		}
+
+		SuiteContributions(SuiteContributions source, AbstractTestSuiteChromosome<?> owner) {
+			this.goalsVersion = source.goalsVersion;
+			this.owner = owner;
+			included = new IdentityHashMap<TestContribution, Integer>(source.included);
+			predicateCount = new HashMap<Integer, Integer>(source.predicateCount);
+			callCount = new HashMap<String, Integer>(source.callCount);
+			trueDistance = new HashMap<Integer, Double>(source.trueDistance);
+			falseDistance = new HashMap<Integer, Double>(source.falseDistance);
+			trueMinCount = new HashMap<Integer, Integer>(source.trueMinCount);
+			falseMinCount = new HashMap<Integer, Integer>(source.falseMinCount);
+		}
+
+		/**
+		 * Subtract the contributions that are no longer part of the suite,
+		 * and add the new ones
+		 * 
+		 * @param current
+		 *            how often each contribution is part of the suite now
+		 */
+		void update(Map<TestContribution, Integer> current) {
+			Set<Integer> staleTrue = new HashSet<Integer>();
+			Set<Integer> staleFalse = new HashSet<Integer>();
+			for (Entry<TestContribution, Integer> entry : new ArrayList<Entry<TestContribution, Integer>>(
+			        included.entrySet())) {
+				Integer now = current.get(entry.getKey());
+				int removed = entry.getValue() - (now == null ? 0 : now);
+				if (removed > 0)
+					subtract(entry.getKey(), removed, staleTrue, staleFalse);
+			}
+			for (Entry<TestContribution, Integer> entry : current.entrySet()) {
+				Integer before = included.get(entry.getKey());
+				int added = entry.getValue() - (before == null ? 0 : before);
+				if (added > 0)
+					add(entry.getKey(), added);
+			}
+			recompute(staleTrue, staleFalse);
+		}
+
+		private void add(TestContribution contribution, int times) {
+			Integer count = included.get(contribution);
+			included.put(contribution, count == null ? times : count + times);
+
+			for (int i = 0; i < contribution.predicates.length; i++)
+				addCount(predicateCount, contribution.predicates[i], times * contribution.predicateCounts[i]);
+			for (int i = 0; i < contribution.methods.length; i++)
+				addCount(callCount, contribution.methods[i], times * contribution.methodCounts[i]);
+			for (int i = 0; i < contribution.trueBranches.length; i++)
+				addDistance(trueDistance, trueMinCount, contribution.trueBranches[i],
+				            contribution.trueDistances[i], times);
+			for (int i = 0; i < contribution.falseBranches.length; i++)
+				addDistance(falseDistance, falseMinCount, contribution.falseBranches[i],
+				            contribution.falseDistances[i], times);
+		}
+
+		private void subtract(TestContribution contribution, int times, Set<Integer> staleTrue,
+		        Set<Integer> staleFalse) {
+			int count = included.get(contribution) - times;
+			if (count == 0)
+				included.remove(contribution);
+			else
+				included.put(contribution, count);
+
+			for (int i = 0; i < contribution.predicates.length; i++)
+				addCount(predicateCount, contribution.predicates[i], -times * contribution.predicateCounts[i]);
+			for (int i = 0; i < contribution.methods.length; i++)
+				addCount(callCount, contribution.methods[i], -times * contribution.methodCounts[i]);
+			for (int i = 0; i < contribution.trueBranches.length; i++)
+				subtractDistance(trueDistance, trueMinCount, contribution.trueBranches[i],
+				                 contribution.trueDistances[i], times, staleTrue);
+			for (int i = 0; i < contribution.falseBranches.length; i++)
+				subtractDistance(falseDistance, falseMinCount, contribution.falseBranches[i],
+				                 contribution.falseDistances[i], times, staleFalse);
+		}
+
+		/**
+		 * Recompute the minimal distances of branches whose last contribution
+		 * with the minimal distance was subtracted, from the remaining ones
+		 */
+		private void recompute(Set<Integer> staleTrue, Set<Integer> staleFalse) {
+			removeStale(trueDistance, trueMinCount, staleTrue);
+			removeStale(falseDistance, falseMinCount, staleFalse);
+			if (staleTrue.isEmpty() && staleFalse.isEmpty())
+				return;
+
+			for (Entry<TestContribution, Integer> entry : included.entrySet()) {
+				TestContribution contribution = entry.getKey();
+				for (int i = 0; i < contribution.trueBranches.length; i++) {
+					if (staleTrue.contains(contribution.trueBranches[i]))
+						addDistance(trueDistance, trueMinCount, contribution.trueBranches[i],
+						            contribution.trueDistances[i], entry.getValue());
+				}
+				for (int i = 0; i < contribution.falseBranches.length; i++) {
+					if (staleFalse.contains(contribution.falseBranches[i]))
+						addDistance(falseDistance, falseMinCount, contribution.falseBranches[i],
+						            contribution.falseDistances[i], entry.getValue());
+				}
+			}
+		}
+
+		/**
+		 * Forget the distances of stale branches, unless a contribution that
+		 * was added afterwards reaches the minimal distance again
+		 */
+		private static void removeStale(Map<Integer, Double> distance, Map<Integer, Integer> minCount,
+		        Set<Integer> stale) {
+			Iterator<Integer> iterator = stale.iterator();
+			while (iterator.hasNext()) {
+				Integer branch = iterator.next();
+				if (minCount.get(branch) > 0) {
+					iterator.remove();
+				} else {
+					distance.remove(branch);
+					minCount.remove(branch);
+				}
+			}
+		}
+
+		private static <K> void addCount(Map<K, Integer> counts, K key, int delta) {
+			Integer count = counts.get(key);
+			int sum = (count == null ? 0 : count) + delta;
+			if (sum == 0)
+				counts.remove(key);
+			else
+				counts.put(key, sum);
+		}
+
+		private static void addDistance(Map<Integer, Double> distance, Map<Integer, Integer> minCount,
+		        int branch, double value, int times) {
+			Double min = distance.get(branch);
+			if (min == null || value < min) {
+				distance.put(branch, value);
+				minCount.put(branch, times);
+			} else if (value == min) {
+				minCount.put(branch, minCount.get(branch) + times);
+			}
+		}
+
+		private static void subtractDistance(Map<Integer, Double> distance, Map<Integer, Integer> minCount,
+		        int branch, double value, int times, Set<Integer> stale) {
+			Double min = distance.get(branch);
+			if (min != null && value == min) {
+				int count = minCount.get(branch) - times;
+				minCount.put(branch, count);
+				if (count == 0)
+					stale.add(branch);
+			}
+		}
+	}
 	
 	@Override
 	public boolean updateCoveredGoals() {
@@ -359,6 +696,8 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 			}
 		}
 		
+		if (!toRemoveRootBranches.isEmpty() || !toRemoveBranchesT.isEmpty() || !toRemoveBranchesF.isEmpty())
+			goalsVersion++;
 		toRemoveRootBranches.clear();
 		toRemoveBranchesF.clear();
 		toRemoveBranchesT.clear();
@@ -379,15 +718,33 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		double fitness = 0.0;
 
 		List<ExecutionResult> results = runTestSuite(suite);
-		Map<Integer, Double> trueDistance = new HashMap<Integer, Double>();
-		Map<Integer, Double> falseDistance = new HashMap<Integer, Double>();
-		Map<Integer, Integer> predicateCount = new HashMap<Integer, Integer>();
-		Map<String, Integer> callCount = new HashMap<String, Integer>();
+		Map<Integer, Double> trueDistance;
+		Map<Integer, Double> falseDistance;
+		Map<Integer, Integer> predicateCount;
+		Map<String, Integer> callCount;
 
 		// Collect stats in the traces 
-		boolean hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
-		                                                  callCount, trueDistance,
-		                                                  falseDistance);
+		boolean hasTimeoutOrTestException = false;
+		if (Properties.INCREMENTAL_SUITE_FITNESS) {
+			SuiteContributions contributions = updateContributions(suite, results);
+			for (ExecutionResult result : results) {
+				if (result.hasTimeout() || result.hasTestException())
+					hasTimeoutOrTestException = true;
+			}
+			// Only read from here on, apart from the call count
+			trueDistance = contributions.trueDistance;
+			falseDistance = contributions.falseDistance;
+			predicateCount = contributions.predicateCount;
+			callCount = new HashMap<String, Integer>(contributions.callCount);
+		} else {
+			trueDistance = new HashMap<Integer, Double>();
+			falseDistance = new HashMap<Integer, Double>();
+			predicateCount = new HashMap<Integer, Integer>();
+			callCount = new HashMap<String, Integer>();
+			hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
+			                                          callCount, trueDistance,
+			                                          falseDistance);
+		}
 		// In case there were exceptions in a constructor
 		handleConstructorExceptions(suite, results, callCount);
 
@@ -32,6 +32,68 @@ public class MutationObserver {
 	/** Constant <code>activeMutation=-1</code> */
 	public static int activeMutation = -1;
 
+	/**
+	 * Mutations activated for single threads, which take precedence over
+	 * {@link #activeMutation} on these threads. Only used when mutants are
+	 * executed concurrently.
+	 */
+	private static final ThreadLocal<int[]> threadMutation = new ThreadLocal<int[]>();
+
+	/** Set while at least one thread has a mutation of its own */
+	private static volatile boolean hasThreadMutations = false;
+
+	/** Number of threads with a mutation of their own */
+	private static int numThreadMutations = 0;
+
+	/**
+	 * Called by the instrumented code to determine which mutation is active
+	 *
+	 * @return the id of the active mutation, or -1 if no mutation is active
+	 */
+	public static int getActiveMutation() {
+		if (hasThreadMutations) {
+			int[] id = threadMutation.get();
+			if (id != null)
+				return id[0];
+		}
+		return activeMutation;
+	}
+
+	/**
+	 * Activate a mutation only for the current thread, regardless of the
+	 * mutation activated for all other threads
+	 *
+	 * @param mutation the mutation to activate, or null to execute the
+	 *        original code on the current thread
+	 */
+	public static void activateMutationOnCurrentThread(Mutation mutation) {
+		int id = mutation == null ? -1 : mutation.getId();
+		int[] current = threadMutation.get();
+		if (current != null) {
+			current[0] = id;
+			return;
+		}
+		threadMutation.set(new int[] { id });
+		synchronized (threadMutation) {
+			numThreadMutations++;
+			hasThreadMutations = true;
+		}
+	}
+
+	/**
+	 * Let the current thread follow {@link #activeMutation} again. Once no
+	 * thread has a mutation of its own, the threads are no longer checked.
+	 */
+	public static void deactivateMutationOnCurrentThread() {
+		if (threadMutation.get() == null)
+			return;
+		threadMutation.remove();
+		synchronized (threadMutation) {
+			if (--numThreadMutations == 0)
+				hasThreadMutations = false;
+		}
+	}
+
 	/**
 	 * <p>mutationTouched</p>
 	 *
@@ -106,6 +106,13 @@ public abstract class MutationSuiteFitness extends TestSuiteFitnessFunction {
 		return runTest(test, null);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public boolean canRunTestsInParallel() {
+		// tests are executed through the mutation specific runTest
+		return false;
+	}
+
 	public int getNumMutants() {
 		return mutationGoals.size();
 	}
@@ -93,6 +93,13 @@ public abstract class MutationTestFitness extends TestFitnessFunction {
 		return runTest(test, null);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public boolean canRunTestsInParallel() {
+		// tests are executed through the mutation specific runTest
+		return false;
+	}
+
 	/**
 	 * <p>
 	 * runTest
@@ -23,6 +23,7 @@ import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.evosuite.Properties;
 import org.evosuite.ga.localsearch.LocalSearchObjective;
 import org.evosuite.utils.PublicCloneable;
 import org.slf4j.Logger;
@@ -49,10 +50,10 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	}
 	protected boolean toBeUpdated=false;
 	/** Last recorded fitness value */
-	private LinkedHashMap<FitnessFunction<?>, Double> fitnessValues = new LinkedHashMap<FitnessFunction<?>, Double>();
+	private Map<FitnessFunction<?>, Double> fitnessValues = newDoubleValues();
 	
 	/** Previous fitness, to see if there was an improvement */
-	private LinkedHashMap<FitnessFunction<?>, Double> previousFitnessValues = new LinkedHashMap<FitnessFunction<?>, Double>();
+	private Map<FitnessFunction<?>, Double> previousFitnessValues = newDoubleValues();
 
 	/** Has this chromosome changed since its fitness was last evaluated? */
 	private boolean changed = true;
@@ -60,11 +61,11 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	/** Has local search been applied to this individual since it was last changed? */
 	private boolean localSearchApplied = false;
 
-	private LinkedHashMap<FitnessFunction<?>, Double> coverageValues = new LinkedHashMap<FitnessFunction<?>, Double>();
+	private Map<FitnessFunction<?>, Double> coverageValues = newDoubleValues();
 
-	private LinkedHashMap<FitnessFunction<?>, Integer> numsNotCoveredGoals = new LinkedHashMap<FitnessFunction<?>, Integer>();
+	private Map<FitnessFunction<?>, Integer> numsNotCoveredGoals = newIntegerValues();
 
-	private LinkedHashMap<FitnessFunction<?>, Integer> numsCoveredGoals = new LinkedHashMap<FitnessFunction<?>, Integer>();
+	private Map<FitnessFunction<?>, Integer> numsCoveredGoals = newIntegerValues();
 
 	
 	// protected double coverage = 0.0;
@@ -80,6 +81,23 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	/** */
 	protected double distance = 0.0;
 
+	/**
+	 * With {@code Properties.DENSE_FITNESS_VALUES}, values are stored in
+	 * arrays indexed by the id of the fitness function, and shared with the
+	 * parent until either is written to.
+	 */
+	private static Map<FitnessFunction<?>, Double> newDoubleValues() {
+		if (Properties.DENSE_FITNESS_VALUES)
+			return new DenseFitnessMap.OfDouble();
+		return new LinkedHashMap<FitnessFunction<?>, Double>();
+	}
+
+	private static Map<FitnessFunction<?>, Integer> newIntegerValues() {
+		if (Properties.DENSE_FITNESS_VALUES)
+			return new DenseFitnessMap.OfInteger();
+		return new LinkedHashMap<FitnessFunction<?>, Integer>();
+	}
+
 	/**
 	 * Return current fitness value
 	 * 
@@ -88,8 +106,8 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	public double getFitness() {
 		if (fitnessValues.size() > 1) {
 			double sumFitnesses = 0.0;
-			for (FitnessFunction<?> fitnessFunction : fitnessValues.keySet()) {
-				sumFitnesses += fitnessValues.get(fitnessFunction);
+			for (double fitness : fitnessValues.values()) {
+				sumFitnesses += fitness;
 			}
 			return sumFitnesses;
 		} else
@@ -384,8 +402,8 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 	 */
 	public double getCoverage() {
         double sum = 0;
-        for (FitnessFunction<?> fitnessFunction : coverageValues.keySet()) {
-            sum += coverageValues.get(fitnessFunction);
+        for (double coverage : coverageValues.values()) {
+            sum += coverage;
         }
         double cov = coverageValues.isEmpty() ? 0.0 : sum / coverageValues.size();
         assert (cov >= 0.0 && cov <= 1.0) : "Incorrect coverage value " + cov + ". Expected value between 0 and 1";
@@ -394,16 +412,16 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 
 	public int getNumOfCoveredGoals() {
         int sum = 0;
-        for (FitnessFunction<?> fitnessFunction : numsCoveredGoals.keySet()) {
-            sum += numsCoveredGoals.get(fitnessFunction);
+        for (int numCoveredGoals : numsCoveredGoals.values()) {
+            sum += numCoveredGoals;
         }
         return sum;
     }
 	
 	public int getNumOfNotCoveredGoals() {
         int sum = 0;
-        for (FitnessFunction<?> fitnessFunction : numsNotCoveredGoals.keySet()) {
-            sum += numsNotCoveredGoals.get(fitnessFunction);
+        for (int numNotCoveredGoals : numsNotCoveredGoals.values()) {
+            sum += numNotCoveredGoals;
         }
         return sum;
     }
@@ -424,7 +442,7 @@ public abstract class Chromosome implements Comparable<Chromosome>, Serializable
 		return this.numsCoveredGoals;
 	}
 	
-	public LinkedHashMap<FitnessFunction<?>, Integer> getNumsNotCoveredGoals() {
+	public Map<FitnessFunction<?>, Integer> getNumsNotCoveredGoals() {
 		return numsNotCoveredGoals;
 	}
 	
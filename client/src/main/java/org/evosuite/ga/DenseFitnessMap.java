@@ -0,0 +1,318 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map from fitness functions to numbers, stored in a primitive array indexed
+ * by the id the fitness function got from {@link FitnessFunctionIndex}.
+ *
+ * Copying a map into an empty map of the same kind with
+ * {@link #putAll(Map)} shares the arrays of the source; whichever of the two
+ * is written to first takes a private copy. This makes cloning chromosomes
+ * cheap, as most offspring are re-evaluated before their inherited values
+ * would be read anyway.
+ *
+ * Entries are iterated in the order of the ids, which is the order in which
+ * the fitness functions were first registered. Null values are not supported.
+ * If the index is reset while the map holds entries, e.g. because a
+ * chromosome outlives the search it was created in, the entries are moved to
+ * the ids of the new epoch when the map is accessed next.
+ * When serialized, the map is replaced by a {@link LinkedHashMap}, as ids are
+ * not valid outside the current JVM.
+ */
+abstract class DenseFitnessMap<V extends Number> extends AbstractMap<FitnessFunction<?>, V>
+		implements Serializable {
+
+	private static final long serialVersionUID = 4297335467839221052L;
+
+	private static final double[] NO_VALUES = new double[0];
+
+	private static final long[] NO_BITS = new long[0];
+
+	private static final FitnessFunction<?>[] NO_KEYS = new FitnessFunction<?>[0];
+
+	/** Values indexed by fitness function id */
+	private double[] values = NO_VALUES;
+
+	/** Bit i is set iff {@code values[i]} holds a value */
+	private long[] present = NO_BITS;
+
+	/** The keys of the entries, indexed by fitness function id */
+	private FitnessFunction<?>[] keys = NO_KEYS;
+
+	private int size = 0;
+
+	/** Epoch of the {@link FitnessFunctionIndex} the ids belong to */
+	private int epoch = FitnessFunctionIndex.getEpoch();
+
+	/** Are the arrays possibly referenced by another map? */
+	private boolean shared = false;
+
+	/**
+	 * Converts a stored value back to the value type of the map
+	 */
+	protected abstract V box(double value);
+
+	private boolean isSet(int id) {
+		int word = id >>> 6;
+		return word < present.length && (present[word] & (1L << id)) != 0;
+	}
+
+	/**
+	 * Moves the entries to the ids of the current epoch, if the index was
+	 * reset since they were stored
+	 */
+	private void checkEpoch() {
+		int current = FitnessFunctionIndex.getEpoch();
+		if (epoch == current)
+			return;
+
+		FitnessFunction<?>[] oldKeys = keys;
+		double[] oldValues = values;
+		long[] oldPresent = present;
+		values = NO_VALUES;
+		present = NO_BITS;
+		keys = NO_KEYS;
+		size = 0;
+		shared = false;
+		epoch = current;
+		for (int id = 0; id < oldKeys.length; id++) {
+			if ((oldPresent[id >>> 6] & (1L << id)) != 0)
+				store(FitnessFunctionIndex.register(oldKeys[id]), oldKeys[id], oldValues[id]);
+		}
+	}
+
+	private int idOf(Object key) {
+		if (!(key instanceof FitnessFunction))
+			return -1;
+		return FitnessFunctionIndex.indexOf((FitnessFunction<?>) key);
+	}
+
+	/**
+	 * Makes sure the arrays are private to this map and can hold the given id
+	 */
+	private void ensureWritable(int id) {
+		if (!shared && id < values.length)
+			return;
+
+		int length = Math.max(values.length, id + 1);
+		if (length > values.length)
+			length = Math.max(length, values.length * 2);
+		values = Arrays.copyOf(values, length);
+		present = Arrays.copyOf(present, (length + 63) >>> 6);
+		keys = Arrays.copyOf(keys, length);
+		shared = false;
+	}
+
+	private void store(int id, FitnessFunction<?> key, double value) {
+		ensureWritable(id);
+		if (!isSet(id)) {
+			present[id >>> 6] |= 1L << id;
+			keys[id] = key;
+			size++;
+		}
+		values[id] = value;
+	}
+
+	@Override
+	public int size() {
+		checkEpoch();
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		checkEpoch();
+		int id = idOf(key);
+		return id >= 0 && isSet(id);
+	}
+
+	@Override
+	public V get(Object key) {
+		checkEpoch();
+		int id = idOf(key);
+		if (id < 0 || !isSet(id))
+			return null;
+		return box(values[id]);
+	}
+
+	@Override
+	public V put(FitnessFunction<?> key, V value) {
+		if (value == null)
+			throw new NullPointerException("Null values are not supported");
+
+		checkEpoch();
+		int id = FitnessFunctionIndex.register(key);
+		V old = isSet(id) ? box(values[id]) : null;
+		store(id, key, value.doubleValue());
+		return old;
+	}
+
+	@Override
+	public V remove(Object key) {
+		checkEpoch();
+		int id = idOf(key);
+		if (id < 0 || !isSet(id))
+			return null;
+
+		ensureWritable(id);
+		V old = box(values[id]);
+		present[id >>> 6] &= ~(1L << id);
+		keys[id] = null;
+		size--;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		values = NO_VALUES;
+		present = NO_BITS;
+		keys = NO_KEYS;
+		size = 0;
+		shared = false;
+		epoch = FitnessFunctionIndex.getEpoch();
+	}
+
+	@Override
+	public void putAll(Map<? extends FitnessFunction<?>, ? extends V> m) {
+		checkEpoch();
+		if (size == 0 && m != this && m.getClass() == getClass()) {
+			DenseFitnessMap<?> other = (DenseFitnessMap<?>) m;
+			other.checkEpoch();
+			values = other.values;
+			present = other.present;
+			keys = other.keys;
+			size = other.size;
+			shared = true;
+			other.shared = true;
+		} else {
+			super.putAll(m);
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<FitnessFunction<?>, V>> entrySet() {
+		return new AbstractSet<Map.Entry<FitnessFunction<?>, V>>() {
+			@Override
+			public Iterator<Map.Entry<FitnessFunction<?>, V>> iterator() {
+				checkEpoch();
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return DenseFitnessMap.this.size();
+			}
+		};
+	}
+
+	protected Object writeReplace() {
+		return new LinkedHashMap<FitnessFunction<?>, V>(this);
+	}
+
+	private final class EntryIterator implements Iterator<Map.Entry<FitnessFunction<?>, V>> {
+
+		private int next = nextSetBit(0);
+
+		private FitnessFunction<?> last = null;
+
+		private int nextSetBit(int from) {
+			int word = from >>> 6;
+			if (word >= present.length)
+				return -1;
+			long bits = present[word] & (-1L << from);
+			while (true) {
+				if (bits != 0)
+					return (word << 6) + Long.numberOfTrailingZeros(bits);
+				if (++word == present.length)
+					return -1;
+				bits = present[word];
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public Map.Entry<FitnessFunction<?>, V> next() {
+			if (next < 0)
+				throw new NoSuchElementException();
+			int id = next;
+			next = nextSetBit(id + 1);
+			last = keys[id];
+			return new Entry(last, box(values[id]));
+		}
+
+		@Override
+		public void remove() {
+			if (last == null)
+				throw new IllegalStateException();
+			DenseFitnessMap.this.remove(last);
+			last = null;
+		}
+	}
+
+	private final class Entry extends AbstractMap.SimpleEntry<FitnessFunction<?>, V> {
+
+		private static final long serialVersionUID = -2915187383950329318L;
+
+		Entry(FitnessFunction<?> key, V value) {
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(V value) {
+			put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+
+	static final class OfDouble extends DenseFitnessMap<Double> {
+
+		private static final long serialVersionUID = -1742391537254372166L;
+
+		@Override
+		protected Double box(double value) {
+			return value;
+		}
+	}
+
+	static final class OfInteger extends DenseFitnessMap<Integer> {
+
+		private static final long serialVersionUID = 8131722915470069358L;
+
+		@Override
+		protected Integer box(double value) {
+			return (int) value;
+		}
+	}
+}
@@ -36,6 +36,11 @@ public abstract class FitnessFunction<T extends Chromosome> implements Serializa
 	/** Constant <code>logger</code> */
 	protected static final Logger logger = LoggerFactory.getLogger(FitnessFunction.class);
 
+	/** Id assigned by {@link FitnessFunctionIndex}, valid in {@link #indexEpoch} */
+	private transient int index;
+
+	private transient volatile int indexEpoch;
+
 	/**
 	 * Make sure that the individual gets to know about its fitness
 	 * 
@@ -107,4 +112,19 @@ public abstract class FitnessFunction<T extends Chromosome> implements Serializa
 	public boolean updateCoveredGoals(){
 		return false;
 	}
+
+	int getIndex() {
+		return index;
+	}
+
+	int getIndexEpoch() {
+		return indexEpoch;
+	}
+
+	void setIndex(int index, int epoch) {
+		// The epoch is volatile and written last, so a reader that sees the
+		// current epoch also sees the matching id
+		this.index = index;
+		this.indexEpoch = epoch;
+	}
 }
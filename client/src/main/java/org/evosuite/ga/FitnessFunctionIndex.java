@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns stable integer ids to fitness functions, so that chromosomes can
+ * store their fitness values in arrays indexed by goal instead of in maps.
+ *
+ * Ids are handed out in registration order and are never reused. Fitness
+ * functions that are equal get the same id, which keeps the semantics of the
+ * map based storage. Ids are only valid within the current JVM, and until
+ * the next {@link #reset()}, which starts a new epoch.
+ */
+public final class FitnessFunctionIndex {
+
+	private static final Map<FitnessFunction<?>, Integer> ids = new HashMap<FitnessFunction<?>, Integer>();
+
+	private static final List<FitnessFunction<?>> functions = new ArrayList<FitnessFunction<?>>();
+
+	/**
+	 * Ids cached in a fitness function are only valid for the epoch they were
+	 * assigned in. Starts at 1, as 0 is the epoch of a fitness function that
+	 * never got an id (or was deserialized).
+	 */
+	private static volatile int epoch = 1;
+
+	private FitnessFunctionIndex() {
+		// static helper
+	}
+
+	/**
+	 * Registers the given fitness function if necessary, and returns its id
+	 *
+	 * @param ff
+	 *            a fitness function
+	 * @return the id of {@code ff}
+	 */
+	public static int register(FitnessFunction<?> ff) {
+		if (ff.getIndexEpoch() == epoch)
+			return ff.getIndex();
+
+		synchronized (ids) {
+			Integer known = ids.get(ff);
+			if (known == null) {
+				known = functions.size();
+				ids.put(ff, known);
+				functions.add(ff);
+			}
+			ff.setIndex(known, epoch);
+			return known;
+		}
+	}
+
+	/**
+	 * Returns the id of the given fitness function, or -1 if it has not been
+	 * registered yet
+	 *
+	 * @param ff
+	 *            a fitness function
+	 * @return the id of {@code ff}, or -1
+	 */
+	public static int indexOf(FitnessFunction<?> ff) {
+		if (ff.getIndexEpoch() == epoch)
+			return ff.getIndex();
+
+		synchronized (ids) {
+			Integer known = ids.get(ff);
+			if (known == null)
+				return -1;
+			ff.setIndex(known, epoch);
+			return known;
+		}
+	}
+
+	/**
+	 * Returns the fitness function that was registered first with the given id
+	 *
+	 * @param id
+	 *            an id returned by {@link #register(FitnessFunction)}
+	 * @return the fitness function with id {@code id}
+	 */
+	public static FitnessFunction<?> get(int id) {
+		synchronized (ids) {
+			return functions.get(id);
+		}
+	}
+
+	/**
+	 * Returns the number of registered fitness functions
+	 *
+	 * @return the number of ids handed out so far
+	 */
+	public static int size() {
+		synchronized (ids) {
+			return functions.size();
+		}
+	}
+
+	/**
+	 * Returns the current epoch, which changes with each {@link #reset()}
+	 *
+	 * @return the epoch the ids handed out now belong to
+	 */
+	static int getEpoch() {
+		return epoch;
+	}
+
+	/**
+	 * Forgets all registered fitness functions, e.g. when a new search starts.
+	 * Fitness values stored before the reset are moved to the new ids when
+	 * they are accessed next.
+	 */
+	public static void reset() {
+		synchronized (ids) {
+			ids.clear();
+			functions.clear();
+			epoch++;
+		}
+	}
+}
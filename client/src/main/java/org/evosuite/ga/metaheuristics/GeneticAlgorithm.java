@@ -39,6 +39,7 @@ import org.evosuite.ga.Archive;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.ChromosomeFactory;
 import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.FitnessFunctionIndex;
 import org.evosuite.ga.bloatcontrol.BloatControlFunction;
 import org.evosuite.ga.localsearch.DefaultLocalSearchObjective;
 import org.evosuite.ga.localsearch.LocalSearchBudget;
@@ -49,9 +50,12 @@ import org.evosuite.ga.operators.selection.RankSelection;
 import org.evosuite.ga.operators.selection.SelectionFunction;
 import org.evosuite.ga.populationlimit.IndividualPopulationLimit;
 import org.evosuite.ga.populationlimit.PopulationLimit;
+import org.evosuite.ga.stoppingconditions.MaxFitnessEvaluationsStoppingCondition;
 import org.evosuite.ga.stoppingconditions.MaxGenerationStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.symbolic.DSEStats;
+import org.evosuite.testcase.execution.ExecutionBatch;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.LoggingUtils;
@@ -449,6 +453,7 @@ public abstract class GeneticAlgorithm<T extends Chromosome> implements SearchAl
 	 *            a {@link org.evosuite.ga.FitnessFunction} object.
 	 */
 	public void addFitnessFunction(FitnessFunction<T> function) {
+		FitnessFunctionIndex.register(function);
 		fitnessFunctions.add(function);
 		localObjective.addFitnessFunction(function);
 	}
@@ -584,6 +589,8 @@ public abstract class GeneticAlgorithm<T extends Chromosome> implements SearchAl
 	protected void calculateFitnessAndSortPopulation() {
 		logger.debug("Calculating fitness for " + population.size() + " individuals");
 
+		int executed = 0;
+		int index = 0;
 		Iterator<T> iterator = population.iterator();
 		while (iterator.hasNext()) {
 			T c = iterator.next();
@@ -591,17 +598,69 @@ public abstract class GeneticAlgorithm<T extends Chromosome> implements SearchAl
 				if (c.isChanged())
 					iterator.remove();
 			} else {
+				if (index >= executed)
+					executed = executeNextBatch(population, index);
 				for (FitnessFunction<T> fitnessFunction : fitnessFunctions) {
 					fitnessFunction.getFitness(c);
 					notifyEvaluation(c);
 				}
 			}
+			index++;
 		}
 
 		// Sort population
 		sortPopulation();
 	}
 
+	/**
+	 * Number of individuals whose tests are executed together in one batch:
+	 * one per worker (see {@link Properties#TEST_EXECUTION_THREADS}), and no
+	 * more than the fitness evaluations or tests left in the search budget,
+	 * such that a batch does not overshoot the budget
+	 * 
+	 * @return the batch size, at least 1
+	 */
+	protected int getBatchSize() {
+		long size = Properties.TEST_EXECUTION_THREADS;
+		for (StoppingCondition condition : stoppingConditions) {
+			if (condition instanceof MaxFitnessEvaluationsStoppingCondition
+			        || condition instanceof MaxTestsStoppingCondition) {
+				size = Math.min(size, condition.getLimit() - condition.getCurrentValue());
+			}
+		}
+		return (int) Math.max(size, 1L);
+	}
+
+	/**
+	 * Execute the tests of the next batch of individuals that are about to be
+	 * evaluated (see {@link #getBatchSize()}). Callers check the stopping
+	 * conditions again before the next batch.
+	 * 
+	 * @param individuals
+	 *            the individuals that are evaluated in this order
+	 * @param from
+	 *            index of the first individual of the batch
+	 * @return index after the last individual of the batch
+	 */
+	protected int executeNextBatch(List<T> individuals, int from) {
+		int to = Math.min(individuals.size(), from + getBatchSize());
+		executeChanged(individuals.subList(from, to));
+		return to;
+	}
+
+	/**
+	 * Execute the tests of all given individuals that are out of date in one
+	 * batch, such that they can be executed in parallel (see
+	 * {@link Properties#TEST_EXECUTION_THREADS}). The fitness values are
+	 * calculated afterwards, one individual after the other as usual.
+	 * 
+	 * @param individuals
+	 *            the individuals that are about to be evaluated
+	 */
+	protected void executeChanged(List<T> individuals) {
+		ExecutionBatch.executeChanged(individuals, fitnessFunctions);
+	}
+
 	/**
 	 * <p>
 	 * getPopulationSize
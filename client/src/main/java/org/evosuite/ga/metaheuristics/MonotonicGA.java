@@ -20,6 +20,7 @@
 package org.evosuite.ga.metaheuristics;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.evosuite.Properties;
@@ -133,6 +134,8 @@ public class MonotonicGA<T extends Chromosome> extends GeneticAlgorithm<T> {
 				offspring2.updateAge(currentIteration);
 			}
 
+			executeNextBatch(Arrays.asList(offspring1, offspring2), 0);
+
 			// The two offspring replace the parents if and only if one of
 			// the offspring is not worse than the best parent.
 			for (FitnessFunction<T> fitnessFunction : fitnessFunctions) {
@@ -19,6 +19,8 @@
  */
 package org.evosuite.ga.metaheuristics;
 
+import java.util.Arrays;
+
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.ChromosomeFactory;
@@ -89,6 +91,8 @@ public class SteadyStateGA<T extends Chromosome> extends MonotonicGA<T> {
 			return;
 		} 
 		
+		executeNextBatch(Arrays.asList(offspring1, offspring2), 0);
+
 		// The two offspring replace the parents if and only if one of
 		// the offspring is not worse than the best parent.
 	    for (FitnessFunction<T> fitnessFunction : fitnessFunctions) {
@@ -101,6 +101,9 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 	@SuppressWarnings("unchecked")
 	protected List<T> breedNextGeneration() {
 		List<T> offspringPopulation = new ArrayList<T>(Properties.POPULATION);
+		// if tests are executed in parallel, offspring are evaluated in batches
+		boolean inBatch = Properties.TEST_EXECUTION_THREADS > 1;
+		List<T> pending = new ArrayList<T>();
 		// we apply only Properties.POPULATION/2 iterations since in each generation
 		// we generate two offsprings
 		for (int i=0; i < Properties.POPULATION/2 && !isFinished(); i++){
@@ -127,8 +130,12 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 			if (offspring1.isChanged()) {
 				clearCachedResults(offspring1);
 				offspring1.updateAge(currentIteration);
-				calculateFitness(offspring1); 
-				offspringPopulation.add(offspring1);
+				if (inBatch) {
+					pending.add(offspring1);
+				} else {
+					calculateFitness(offspring1);
+					offspringPopulation.add(offspring1);
+				}
 			}
 
 			// apply mutation on offspring2
@@ -136,12 +143,22 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 			if (offspring2.isChanged()) {
 				clearCachedResults(offspring2);
 				offspring2.updateAge(currentIteration);
-				calculateFitness(offspring2);
-				offspringPopulation.add(offspring2);
+				if (inBatch) {
+					pending.add(offspring2);
+				} else {
+					calculateFitness(offspring2);
+					offspringPopulation.add(offspring2);
+				}
 			}	
+			if (pending.size() >= getBatchSize())
+				calculateFitnessInBatch(pending, offspringPopulation);
 		}
+		calculateFitnessInBatch(pending, offspringPopulation);
+
 		// Add new randomly generate tests
 		for (int i = 0; i<Properties.POPULATION * Properties.P_TEST_INSERTION; i++){
+			if (inBatch && isFinished())
+				break;
 			T tch = null;
 			if (this.getCoveredGoals().size() == 0 || Randomness.nextBoolean()){
 				tch = this.chromosomeFactory.getChromosome();
@@ -152,10 +169,17 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 			}
 			if (tch.isChanged()) {
 				tch.updateAge(currentIteration);
-				calculateFitness(tch);
-				offspringPopulation.add(tch);
+				if (inBatch) {
+					pending.add(tch);
+					if (pending.size() >= getBatchSize())
+						calculateFitnessInBatch(pending, offspringPopulation);
+				} else {
+					calculateFitness(tch);
+					offspringPopulation.add(tch);
+				}
 			}
 		}
+		calculateFitnessInBatch(pending, offspringPopulation);
 		logger.info("Number of offsprings = {}", offspringPopulation.size());
 		return offspringPopulation;
 	}
@@ -281,6 +305,8 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 	protected void calculateFitness() {
 		logger.debug("Calculating fitness for " + population.size() + " individuals");
 
+		int executed = 0;
+		int index = 0;
 		Iterator<T> iterator = population.iterator();
 		while (iterator.hasNext()) {
 			T c = iterator.next();
@@ -288,8 +314,11 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 				if (c.isChanged())
 					iterator.remove();
 			} else {
+				if (index >= executed)
+					executed = executeNextBatch(population, index);
 				calculateFitness(c);
 			}
+			index++;
 		}
 	}
 
@@ -317,6 +346,24 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
 		return bests;
 	}
 
+	/**
+	 * Calculate the fitness of the pending offspring one after the other,
+	 * after executing their tests in batches, and add them to the offspring
+	 * population. Offspring that are left once the search budget is used up
+	 * are dropped.
+	 */
+	private void calculateFitnessInBatch(List<T> pending, List<T> offspringPopulation) {
+		int executed = 0;
+		for (int i = 0; i < pending.size() && !isFinished(); i++) {
+			if (i >= executed)
+				executed = executeNextBatch(pending, i);
+			T c = pending.get(i);
+			calculateFitness(c);
+			offspringPopulation.add(c);
+		}
+		pending.clear();
+	}
+
 	/** 
 	 * This method computes the fitness scores only for the current goals
 	 * @param c chromosome
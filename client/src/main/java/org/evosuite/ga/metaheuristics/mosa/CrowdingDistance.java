@@ -79,28 +79,10 @@ public class CrowdingDistance<T extends Chromosome> {
 			return;
 		}
 
+		FitnessMatrix<T> matrix = new FitnessMatrix<T>(front, set);
+		double[] distances = matrix.getSubvectorDominanceDistances();
 		for (int i = 0; i < size; i++)
-			front.get(i).setDistance(Double.MAX_VALUE);
-
-		int dominate1, dominate2;
-		for (int i = 0; i<front.size()-1; i++){
-			T p1 = front.get(i);
-			for (int j = i+1; j<front.size(); j++){
-				T p2 = front.get(j);
-				dominate1 = 0;
-				dominate2 = 0;
-				for (final FitnessFunction<T> ff : set) {
-					double value1 = p1.getFitness(ff);
-					double value2 = p2.getFitness(ff);
-					if (value1 < value2)
-						dominate1++;
-					else if (value1 > value2)
-						dominate2++;
-				}
-				p1.setDistance(Math.min(dominate1, p1.getDistance()));
-				p2.setDistance(Math.min(dominate2, p2.getDistance()));
-			}
-		}
+			front.get(i).setDistance(distances[i]);
 	}
 
 	/**
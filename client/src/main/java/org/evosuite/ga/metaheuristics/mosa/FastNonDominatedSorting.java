@@ -2,15 +2,12 @@ package org.evosuite.ga.metaheuristics.mosa;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.metaheuristics.mosa.comparators.MOSADominanceComparator;
 
 /**
  * This class ranks the test cases according to the 
@@ -50,85 +47,59 @@ public class FastNonDominatedSorting<T extends Chromosome> implements Ranking<T>
 	@SuppressWarnings("unchecked")
 	private List<T>[] getNextNonDominatedFronts(List<T> solutionSet, Set<FitnessFunction<T>> uncovered_goals) {
 
-		MOSADominanceComparator<T> criterion_ = new MOSADominanceComparator<T>(uncovered_goals);
-		List<T> solutionSet_ = solutionSet;
+		FitnessMatrix<T> matrix = new FitnessMatrix<T>(solutionSet, uncovered_goals);
+		int size = matrix.size();
 
-		// dominateMe[i] contains the number of solutions dominating i
-		int[] dominateMe = new int[solutionSet_.size()];
-
-		// iDominate[k] contains the list of solutions dominated by k
-		List<Integer>[] iDominate = new List[solutionSet_.size()];
-
-		// front[i] contains the list of individuals belonging to the front i
-		List<Integer>[] front = new List[solutionSet_.size() + 1];
+		// iDominate[k] contains the solutions dominated by k
+		int[][] iDominate = matrix.getDominatedSolutions();
 
-		// flagDominate is an auxiliary encodings.variable
-		int flagDominate;
-
-		// Initialize the fronts
-		for (int i = 0; i < front.length; i++)
-			front[i] = new LinkedList<Integer>();
+		// dominateMe[i] contains the number of solutions dominating i
+		int[] dominateMe = new int[size];
+		for (int p = 0; p < size; p++) {
+			for (int q : iDominate[p])
+				dominateMe[q]++;
+		}
 
 		// Initialize distance
-		for (int p = 0; p < (solutionSet_.size()); p++) {
+		for (int p = 0; p < size; p++) {
 			solutionSet.get(p).setDistance(Double.MAX_VALUE);
 		}
 
-		// -> Fast non dominated sorting algorithm
-		for (int p = 0; p < solutionSet_.size(); p++) {
-			// Initialize the list of individuals that i dominate and the number
-			// of individuals that dominate me
-			iDominate[p] = new LinkedList<Integer>();
-			dominateMe[p] = 0;
-		}
-
-		for (int p = 0; p < (solutionSet_.size() - 1); p++) {
-			// For all q individuals , calculate if p dominates q or vice versa
-			for (int q = p + 1; q < solutionSet_.size(); q++) {
-				flagDominate = criterion_.compare(solutionSet.get(p), solutionSet.get(q));
-
-				if (flagDominate == -1) {
-					iDominate[p].add(q);
-					dominateMe[q]++;
-				} else if (flagDominate == 1) {
-					iDominate[q].add(p);
-					dominateMe[p]++;
-				}
-			}
-			// If nobody dominates p, p belongs to the first front
-		}
-		for (int p = 0; p < solutionSet_.size(); p++) {
+		// The fronts are stored one after the other in order; frontStart[i]
+		// is the position of the first solution of front i
+		int[] order = new int[size];
+		int[] frontStart = new int[size + 2];
+		int end = 0;
+		// If nobody dominates p, p belongs to the first front
+		for (int p = 0; p < size; p++) {
 			if (dominateMe[p] == 0) {
-				front[0].add(p);
+				order[end++] = p;
 				solutionSet.get(p).setRank(1);
 			}
 		}
 
 		// Obtain the rest of fronts
 		int i = 0;
-		Iterator<Integer> it1, it2; // Iterators
-		while (front[i].size() != 0) {
+		frontStart[1] = end;
+		while (frontStart[i + 1] > frontStart[i]) {
 			i++;
-			it1 = front[i - 1].iterator();
-			while (it1.hasNext()) {
-				it2 = iDominate[it1.next()].iterator();
-				while (it2.hasNext()) {
-					int index = it2.next();
+			for (int k = frontStart[i - 1]; k < frontStart[i]; k++) {
+				for (int index : iDominate[order[k]]) {
 					dominateMe[index]--;
 					if (dominateMe[index] == 0) {
-						front[i].add(index);
-						solutionSet_.get(index).setRank(i+1);
+						order[end++] = index;
+						solutionSet.get(index).setRank(i + 1);
 					}
 				}
 			}
+			frontStart[i + 1] = end;
 		}
 		List<T>[] fronts = new ArrayList[i];
 		// 0,1,2,....,i-1 are front, then i fronts
 		for (int j = 0; j < i; j++) {
-			fronts[j] = new ArrayList<T>();
-			it1 = front[j].iterator();
-			while (it1.hasNext()) {
-				fronts[j].add(solutionSet.get(it1.next()));
+			fronts[j] = new ArrayList<T>(frontStart[j + 1] - frontStart[j]);
+			for (int k = frontStart[j]; k < frontStart[j + 1]; k++) {
+				fronts[j].add(solutionSet.get(order[k]));
 			}
 		}
 		return fronts;
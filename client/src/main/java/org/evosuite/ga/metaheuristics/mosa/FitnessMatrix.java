@@ -0,0 +1,201 @@
+package org.evosuite.ga.metaheuristics.mosa;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+
+/**
+ * Snapshot of the fitness values of a list of test cases for a set of goals,
+ * stored in a dense matrix with one row per test case and one column per goal.
+ * Dominance checks and substitute distances are computed on the rows of the
+ * matrix rather than by looking up each goal in the fitness map of the
+ * chromosomes, which is what dominates the cost of ranking large populations
+ * on classes with many goals.
+ *
+ * <p>The values are read when the matrix is created, hence the matrix must be
+ * discarded as soon as the fitness of one of the test cases changes.</p>
+ */
+public class FitnessMatrix<T extends Chromosome> {
+
+	private final List<T> solutions;
+
+	/** values[i][j] is the fitness of the i-th test case for the j-th goal */
+	private final double[][] values;
+
+	private final int numGoals;
+
+	/**
+	 * Read the fitness values of the given test cases
+	 * @param solutions test cases, which become the rows of the matrix
+	 * @param goals goals/targets (e.g., branches), which become the columns of the matrix
+	 */
+	public FitnessMatrix(List<T> solutions, Collection<FitnessFunction<T>> goals) {
+		this.solutions = new ArrayList<T>(solutions);
+		this.numGoals = goals.size();
+		this.values = new double[solutions.size()][];
+		// The fitness of a goal may need to be computed, which is not thread safe
+		for (int i = 0; i < values.length; i++) {
+			T solution = this.solutions.get(i);
+			double[] row = new double[numGoals];
+			int j = 0;
+			for (FitnessFunction<T> goal : goals) {
+				row[j++] = solution.getFitness(goal);
+			}
+			values[i] = row;
+		}
+	}
+
+	/**
+	 * Number of test cases, i.e., rows of the matrix
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * Number of goals, i.e., columns of the matrix
+	 */
+	public int getNumberOfGoals() {
+		return numGoals;
+	}
+
+	/**
+	 * Returns the test case of the given row
+	 */
+	public T getSolution(int index) {
+		return solutions.get(index);
+	}
+
+	/**
+	 * Returns the fitness of the test case of the given row for the goal of the given column
+	 */
+	public double getFitness(int index, int goal) {
+		return values[index][goal];
+	}
+
+	/**
+	 * Compares two test cases focusing only on the goals of the matrix, like
+	 * {@link org.evosuite.ga.metaheuristics.mosa.comparators.MOSADominanceComparator}
+	 *
+	 * @param p row of the first test case
+	 * @param q row of the second test case
+	 * @return -1, or 0, or 1 if p dominates q, both are non-dominated, or p is dominated by q, respectively.
+	 */
+	public int compare(int p, int q) {
+		double[] row1 = values[p];
+		double[] row2 = values[q];
+		boolean dominate1 = false;
+		boolean dominate2 = false;
+		for (int j = 0; j < numGoals; j++) {
+			double value1 = row1[j];
+			double value2 = row2[j];
+			if (value1 < value2) {
+				dominate1 = true;
+				if (dominate2)
+					return 0;
+			} else if (value1 > value2) {
+				dominate2 = true;
+				if (dominate1)
+					return 0;
+			}
+		}
+		if (dominate1 == dominate2)
+			return 0;
+		return dominate1 ? -1 : 1;
+	}
+
+	/**
+	 * Computes the dominance relation between all pairs of test cases. If
+	 * {@link Properties#PARALLEL_RANKING} is set, the rows are processed in
+	 * parallel, at the price of comparing each pair twice.
+	 *
+	 * @return for each row p, the rows q such that p dominates q
+	 */
+	public int[][] getDominatedSolutions() {
+		final int size = values.length;
+		final int[][] dominated = new int[size][];
+		if (Properties.PARALLEL_RANKING) {
+			IntStream.range(0, size).parallel().forEach(p -> {
+				int[] buffer = new int[size];
+				int count = 0;
+				for (int q = 0; q < size; q++) {
+					if (q != p && compare(p, q) == -1)
+						buffer[count++] = q;
+				}
+				dominated[p] = Arrays.copyOf(buffer, count);
+			});
+			return dominated;
+		}
+
+		int[][] buffers = new int[size][size];
+		int[] counts = new int[size];
+		for (int p = 0; p < size - 1; p++) {
+			for (int q = p + 1; q < size; q++) {
+				int flag = compare(p, q);
+				if (flag == -1)
+					buffers[p][counts[p]++] = q;
+				else if (flag == 1)
+					buffers[q][counts[q]++] = p;
+			}
+		}
+		for (int p = 0; p < size; p++)
+			dominated[p] = Arrays.copyOf(buffers[p], counts[p]);
+		return dominated;
+	}
+
+	/**
+	 * Computes the "subvector-dominance" distance of each test case, i.e., the
+	 * minimum over all other test cases of the number of goals for which the
+	 * test case is better than the other one. If
+	 * {@link Properties#PARALLEL_RANKING} is set, the rows are processed in
+	 * parallel, at the price of comparing each pair twice.
+	 *
+	 * @return the distance of each row; {@link Double#MAX_VALUE} if there are no other rows
+	 */
+	public double[] getSubvectorDominanceDistances() {
+		final int size = values.length;
+		final double[] distances = new double[size];
+		Arrays.fill(distances, Double.MAX_VALUE);
+		if (Properties.PARALLEL_RANKING) {
+			IntStream.range(0, size).parallel().forEach(p -> {
+				double[] row1 = values[p];
+				for (int q = 0; q < size && distances[p] > 0; q++) {
+					if (q == p)
+						continue;
+					double[] row2 = values[q];
+					int better = 0;
+					for (int j = 0; j < numGoals; j++) {
+						if (row1[j] < row2[j])
+							better++;
+					}
+					distances[p] = Math.min(better, distances[p]);
+				}
+			});
+			return distances;
+		}
+
+		for (int p = 0; p < size - 1; p++) {
+			double[] row1 = values[p];
+			for (int q = p + 1; q < size; q++) {
+				double[] row2 = values[q];
+				int dominate1 = 0;
+				int dominate2 = 0;
+				for (int j = 0; j < numGoals; j++) {
+					if (row1[j] < row2[j])
+						dominate1++;
+					else if (row1[j] > row2[j])
+						dominate2++;
+				}
+				distances[p] = Math.min(dominate1, distances[p]);
+				distances[q] = Math.min(dominate2, distances[q]);
+			}
+		}
+		return distances;
+	}
+}
@@ -10,7 +10,6 @@ import java.util.Set;
 import org.evosuite.Properties;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
-import org.evosuite.ga.metaheuristics.mosa.comparators.MOSADominanceComparator;
 import org.evosuite.ga.metaheuristics.mosa.comparators.PreferenceSortingComparator;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
@@ -43,16 +42,18 @@ public class RankBasedPreferenceSorting<T extends Chromosome> implements Ranking
 
 		if (zero_front.size() < Properties.POPULATION){
 			int rankedSolutions = zero_front.size();
-			MOSADominanceComparator<T> comparator =  new MOSADominanceComparator<T>(uncovered_goals);
 
 			List<T> remaining = new ArrayList<T>(solutions.size());
 			remaining.addAll(solutions);
 			remaining.removeAll(zero_front);
+			FitnessMatrix<T> matrix = new FitnessMatrix<T>(remaining, uncovered_goals);
+			boolean[] ranked = new boolean[matrix.size()];
+			int numRemaining = matrix.size();
 			int front_index = 1;
-			while(rankedSolutions < Properties.POPULATION && remaining.size()>0){
-				List<T> new_front = getNonDominatedSolutions(remaining, comparator);
+			while(rankedSolutions < Properties.POPULATION && numRemaining>0){
+				List<T> new_front = getNonDominatedSolutions(matrix, ranked);
 				fronts.put(front_index, new_front);
-				remaining.removeAll(new_front);
+				numRemaining -= new_front.size();
 				front_index++;
 				rankedSolutions += new_front.size();
 			}
@@ -91,28 +92,47 @@ public class RankBasedPreferenceSorting<T extends Chromosome> implements Ranking
 		return list;
 	}
 
-	private List<T> getNonDominatedSolutions(List<T> solutions, MOSADominanceComparator<T> comparator){
-		List<T> front = new ArrayList<T>(solutions.size());
+	/**
+	 * Determines the non-dominated solutions among those that are not ranked
+	 * yet, and marks them as ranked
+	 * @param matrix fitness values of the solutions
+	 * @param ranked ranked[i] is true if the i-th solution of the matrix has been assigned to a front
+	 * @return the non-dominated solutions
+	 */
+	private List<T> getNonDominatedSolutions(FitnessMatrix<T> matrix, boolean[] ranked){
+		int[] front = new int[matrix.size()];
+		int frontSize = 0;
 		boolean isDominated;
-		for (T p : solutions){
+		for (int p = 0; p < matrix.size(); p++){
+			if (ranked[p])
+				continue;
 			isDominated = false;
-			List<T> dominatedSolutions = new ArrayList<T>(solutions.size());
-			for (T best : front){
-				int flag = comparator.compare(p, best);
-				if (flag == -1) {
-					dominatedSolutions.add(best);
-				}
+			int kept = 0;
+			for (int i = 0; i < frontSize; i++){
+				int best = front[i];
+				int flag = matrix.compare(p, best);
 				if (flag == +1){
+					// by transitivity, p does not dominate any solution of the front
 					isDominated = true;
-				}	
+					break;
+				}
+				// keep the solutions that are not dominated by p
+				if (flag != -1)
+					front[kept++] = best;
 			}
 			if (isDominated)
 				continue;
 
-			front.add(p);
-			front.removeAll(dominatedSolutions);
+			frontSize = kept;
+			front[frontSize++] = p;
+		}
+
+		List<T> solutions = new ArrayList<T>(frontSize);
+		for (int i = 0; i < frontSize; i++){
+			ranked[front[i]] = true;
+			solutions.add(matrix.getSolution(front[i]));
 		}
-		return front;
+		return solutions;
 	}
 
 	/* (non-Javadoc)
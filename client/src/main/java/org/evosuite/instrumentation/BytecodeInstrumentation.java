@@ -148,11 +148,6 @@ public class BytecodeInstrumentation {
 	 */
 	public byte[] transformBytes(ClassLoader classLoader, String className, ClassReader reader) {
 
-		int readFlags = ClassReader.SKIP_FRAMES;
-
-		if (Properties.INSTRUMENTATION_SKIP_DEBUG)
-			readFlags |= ClassReader.SKIP_DEBUG;
-
 		String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
 
 		if (!checkIfCanInstrument(classNameWithDots)) {
@@ -160,6 +155,29 @@ public class BytecodeInstrumentation {
 					+ ")! Load by parent (JVM) classloader.");
 		}
 
+		InstrumentationCache cache = InstrumentationCache.getInstance();
+		if (cache == null || !isCacheable(classNameWithDots)) {
+			return instrument(classLoader, className, classNameWithDots, reader);
+		}
+
+		byte[] cached = cache.load(className, reader.b);
+		if (cached != null) {
+			logger.debug("Using cached instrumentation of class " + classNameWithDots);
+			registerFinalModifiers(className, reader);
+			return cached;
+		}
+		return cache.instrumentAndStore(className, reader.b,
+				() -> instrument(classLoader, className, classNameWithDots, reader));
+	}
+
+	private byte[] instrument(ClassLoader classLoader, String className, String classNameWithDots,
+			ClassReader reader) {
+
+		int readFlags = ClassReader.SKIP_FRAMES;
+
+		if (Properties.INSTRUMENTATION_SKIP_DEBUG)
+			readFlags |= ClassReader.SKIP_DEBUG;
+
 		TransformationStatistics.reset();
 
 		/*
@@ -285,6 +303,31 @@ public class BytecodeInstrumentation {
 		return writer.toByteArray();
 	}
 
+	/**
+	 * Only the instrumentation of classes that are neither analyzed nor
+	 * testability transformed is cached: for the other classes we derive the
+	 * CFGs and coverage goals while instrumenting them.
+	 */
+	private boolean isCacheable(String classNameWithDots) {
+		return !Properties.TEST_CARVING
+				&& !DependencyAnalysis.shouldAnalyze(classNameWithDots)
+				&& !(Properties.TT && classNameWithDots.startsWith(Properties.CLASS_PREFIX))
+				&& !shouldTransform(classNameWithDots);
+	}
+
+	/**
+	 * Record the final classes and static fields whose modifiers the
+	 * instrumentation removes, without instrumenting the class again. This only
+	 * visits the structure of the class, not its methods.
+	 */
+	private static void registerFinalModifiers(String className, ClassReader reader) {
+		ClassVisitor cv = new NonTargetClassAdapter(new ClassWriter(0), className);
+		if (Properties.RESET_STATIC_FIELDS) {
+			cv = new CreateClassResetClassAdapter(cv, className, Properties.RESET_STATIC_FINAL_FIELDS);
+		}
+		reader.accept(cv, ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+	}
+
 	private byte[] handleCarving(String className, ClassWriter writer) {
 		ClassReader cr = new ClassReader(writer.toByteArray());
 		ClassNode cn2 = new ClassNode();
@@ -0,0 +1,478 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.evosuite.Properties;
+import org.evosuite.assertion.CheapPurityAnalyzer;
+import org.evosuite.junit.writer.TestSuiteWriterUtils;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.seeding.ConstantPoolManager;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Instrumented bytecode kept on disk, such that classes do not need to be
+ * instrumented again by every client JVM.
+ * 
+ * Each entry is a file in the cache directory named after the hash of the
+ * original bytecode, the class name, the EvoSuite build and the properties
+ * that influence the instrumentation. Besides the bytecode, an entry contains
+ * what instrumenting the class added to the {@link ConstantPoolManager}, to
+ * the {@link CheapPurityAnalyzer} and which loop indices of the
+ * {@link LoopCounter} it used, such that these can be restored on a hit. The
+ * loop indices are moved to fresh ones if needed.
+ * Entries are written to a temporary file first and then renamed, so several
+ * JVMs can share the same directory.
+ * 
+ * Only classes that are not analyzed should be cached: the CFGs and coverage
+ * goals of the classes under test are derived from the ASM nodes built while
+ * instrumenting them.
+ */
+public class InstrumentationCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(InstrumentationCache.class);
+
+	private static final int MAGIC = 0x45534943;
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final byte NULL_CONSTANT = 0;
+
+	private static final byte INT_CONSTANT = 1;
+
+	private static final byte LONG_CONSTANT = 2;
+
+	private static final byte FLOAT_CONSTANT = 3;
+
+	private static final byte DOUBLE_CONSTANT = 4;
+
+	private static final byte STRING_CONSTANT = 5;
+
+	private static final byte TYPE_CONSTANT = 6;
+
+	private static InstrumentationCache instance = null;
+
+	private final File directory;
+
+	private final String buildIdentity;
+
+	/** Set while the current thread instruments a class to be stored */
+	private final ThreadLocal<Boolean> recording = new ThreadLocal<Boolean>();
+
+	private int hits = 0;
+
+	private int misses = 0;
+
+	/**
+	 * Get the cache in the directory set by
+	 * {@link Properties#INSTRUMENTATION_CACHE_DIR}
+	 * 
+	 * @return the cache, or <code>null</code> if no cache should be used
+	 */
+	public static synchronized InstrumentationCache getInstance() {
+		if (Properties.INSTRUMENTATION_CACHE_DIR == null || Properties.INSTRUMENTATION_CACHE_DIR.isEmpty()) {
+			return null;
+		}
+		File directory = new File(Properties.INSTRUMENTATION_CACHE_DIR);
+		if (instance == null || !instance.directory.equals(directory)) {
+			instance = new InstrumentationCache(directory);
+		}
+		return instance;
+	}
+
+	public InstrumentationCache(File directory) {
+		this.directory = directory;
+		this.buildIdentity = computeBuildIdentity();
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public synchronized int getNumberOfHits() {
+		return hits;
+	}
+
+	public synchronized int getNumberOfMisses() {
+		return misses;
+	}
+
+	/**
+	 * Look up the instrumented bytecode of a class, and restore the side
+	 * effects of its instrumentation
+	 * 
+	 * @param className
+	 *            the name of the class, with slashes
+	 * @param originalBytes
+	 *            the bytecode of the class as read from the classpath
+	 * @return the instrumented bytecode, or <code>null</code> if it is not
+	 *         cached or cannot be used in this JVM
+	 */
+	public byte[] load(String className, byte[] originalBytes) {
+		File file = getFile(className, originalBytes);
+		if (!file.exists()) {
+			countMiss();
+			return null;
+		}
+
+		Entry entry;
+		try {
+			entry = Entry.read(Files.readAllBytes(file.toPath()));
+		} catch (IOException e) {
+			logger.warn("Ignoring unreadable instrumentation cache entry " + file + ": " + e.getMessage());
+			file.delete();
+			countMiss();
+			return null;
+		}
+		if (!entry.className.equals(className)) {
+			countMiss();
+			return null;
+		}
+
+		/*
+		 * The bytecode refers to loop indices directly, so these have to be
+		 * moved to indices that are not used in this JVM yet
+		 */
+		byte[] bytes = entry.bytes;
+		if (entry.numLoopIndices > 0) {
+			int first = LoopCounter.getInstance().getNewIndices(entry.numLoopIndices);
+			if (first != entry.firstLoopIndex) {
+				ClassReader reader = new ClassReader(bytes);
+				ClassWriter writer = new ClassWriter(0);
+				reader.accept(new LoopIndexRelocationClassAdapter(writer, first - entry.firstLoopIndex), 0);
+				bytes = writer.toByteArray();
+			}
+		}
+		ConstantPoolManager.getInstance().addNonSUTConstants(entry.constants);
+		CheapPurityAnalyzer.getInstance().addRecordedFacts(entry.purityFacts);
+
+		synchronized (this) {
+			hits++;
+		}
+		return bytes;
+	}
+
+	/**
+	 * Instrument a class and keep the result in the cache
+	 * 
+	 * @param className
+	 *            the name of the class, with slashes
+	 * @param originalBytes
+	 *            the bytecode of the class as read from the classpath
+	 * @param instrumentation
+	 *            instruments the class
+	 * @return the instrumented bytecode
+	 */
+	public byte[] instrumentAndStore(String className, byte[] originalBytes, Supplier<byte[]> instrumentation) {
+		if (recording.get() != null) {
+			// Side effects of nested instrumentation end up in the outer recording
+			return instrumentation.get();
+		}
+
+		ConstantPoolManager constantPool = ConstantPoolManager.getInstance();
+		CheapPurityAnalyzer purityAnalyzer = CheapPurityAnalyzer.getInstance();
+
+		Entry entry = new Entry();
+		entry.className = className;
+		entry.firstLoopIndex = LoopCounter.getInstance().getNextIndex();
+
+		recording.set(Boolean.TRUE);
+		constantPool.startRecordingNonSUTConstants();
+		purityAnalyzer.startRecording();
+		try {
+			entry.bytes = instrumentation.get();
+		} finally {
+			entry.constants = constantPool.stopRecordingNonSUTConstants();
+			entry.purityFacts = purityAnalyzer.stopRecording();
+			recording.remove();
+		}
+		entry.numLoopIndices = LoopCounter.getInstance().getNextIndex() - entry.firstLoopIndex;
+
+		File file = getFile(className, originalBytes);
+		try {
+			byte[] data = entry.write();
+			if (data != null) {
+				store(file, data);
+			}
+		} catch (IOException e) {
+			logger.warn("Could not write instrumentation cache entry " + file + ": " + e.getMessage());
+		}
+		return entry.bytes;
+	}
+
+	private synchronized void countMiss() {
+		misses++;
+	}
+
+	private void store(File file, byte[] data) throws IOException {
+		if (!directory.exists() && !directory.mkdirs() && !directory.isDirectory()) {
+			throw new IOException("Cannot create directory " + directory);
+		}
+		File tmp = File.createTempFile(file.getName(), ".tmp", directory);
+		try {
+			Files.write(tmp.toPath(), data);
+			try {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			if (tmp.exists()) {
+				tmp.delete();
+			}
+		}
+	}
+
+	private File getFile(String className, byte[] originalBytes) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			digest.update(buildIdentity.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(getConfiguration().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(className.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(originalBytes);
+
+			StringBuilder name = new StringBuilder();
+			for (byte b : digest.digest()) {
+				name.append(String.format("%02x", b));
+			}
+			name.append(".bin");
+			return new File(directory, name.toString());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * The properties that change the instrumentation of classes that are not
+	 * analyzed
+	 */
+	private static String getConfiguration() {
+		StringBuilder configuration = new StringBuilder();
+		configuration.append(FORMAT_VERSION);
+		configuration.append(";skipDebug=").append(Properties.INSTRUMENTATION_SKIP_DEBUG);
+		configuration.append(";resetStatic=").append(Properties.RESET_STATIC_FIELDS);
+		configuration.append(";resetStaticFinal=").append(Properties.RESET_STATIC_FINAL_FIELDS);
+		configuration.append(";pureInspectors=").append(Properties.PURE_INSPECTORS);
+		configuration.append(";loops=").append(Properties.MAX_LOOP_ITERATIONS >= 0);
+		configuration.append(";accessible=").append(Properties.MAKE_ACCESSIBLE);
+		if (Properties.MAKE_ACCESSIBLE) {
+			configuration.append(";classPrefix=").append(Properties.CLASS_PREFIX);
+		}
+		configuration.append(";agent=").append(TestSuiteWriterUtils.needToUseAgent());
+		configuration.append(";jvmNonDeterminism=").append(RuntimeSettings.mockJVMNonDeterminism);
+		configuration.append(";systemIn=").append(RuntimeSettings.mockSystemIn);
+		configuration.append(";gui=").append(RuntimeSettings.mockGUI);
+		configuration.append(";vfs=").append(RuntimeSettings.useVFS);
+		configuration.append(";vnet=").append(RuntimeSettings.useVNET);
+		configuration.append(";jee=").append(RuntimeSettings.useJEE);
+		configuration.append(";uid=").append(RuntimeSettings.applyUIDTransformation);
+		return configuration.toString();
+	}
+
+	/**
+	 * Identify the EvoSuite build doing the instrumentation by the location,
+	 * size and modification time of the jar (or directory) it is loaded from
+	 */
+	private static String computeBuildIdentity() {
+		CodeSource source = InstrumentationCache.class.getProtectionDomain().getCodeSource();
+		if (source == null || source.getLocation() == null) {
+			return "unknown";
+		}
+		URL location = source.getLocation();
+		StringBuilder identity = new StringBuilder(location.toString());
+		try {
+			File file = new File(location.toURI());
+			identity.append(';').append(file.length()).append(';').append(file.lastModified());
+		} catch (Exception e) {
+			logger.debug("Cannot access " + location + ": " + e.getMessage());
+		}
+		return identity.toString();
+	}
+
+	/**
+	 * The content of a cache file
+	 */
+	private static class Entry {
+
+		private String className;
+
+		private byte[] bytes;
+
+		private int firstLoopIndex;
+
+		private int numLoopIndices;
+
+		private List<Object> constants;
+
+		private List<String[]> purityFacts;
+
+		/**
+		 * @return the serialized entry, or <code>null</code> if it contains
+		 *         constants that cannot be serialized
+		 */
+		private byte[] write() throws IOException {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length + 1024);
+			DataOutputStream out = new DataOutputStream(buffer);
+			out.writeInt(MAGIC);
+			out.writeUTF(className);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+			out.writeInt(firstLoopIndex);
+			out.writeInt(numLoopIndices);
+
+			out.writeInt(constants.size());
+			for (Object constant : constants) {
+				if (!writeConstant(out, constant)) {
+					return null;
+				}
+			}
+
+			out.writeInt(purityFacts.size());
+			for (String[] fact : purityFacts) {
+				out.writeByte(fact.length);
+				for (String s : fact) {
+					writeString(out, s);
+				}
+			}
+			out.flush();
+			return buffer.toByteArray();
+		}
+
+		private static Entry read(byte[] data) throws IOException {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not an instrumentation cache entry");
+			}
+			Entry entry = new Entry();
+			entry.className = in.readUTF();
+			entry.bytes = new byte[in.readInt()];
+			in.readFully(entry.bytes);
+			entry.firstLoopIndex = in.readInt();
+			entry.numLoopIndices = in.readInt();
+
+			int numConstants = in.readInt();
+			entry.constants = new ArrayList<Object>(numConstants);
+			for (int i = 0; i < numConstants; i++) {
+				entry.constants.add(readConstant(in));
+			}
+
+			int numFacts = in.readInt();
+			entry.purityFacts = new ArrayList<String[]>(numFacts);
+			for (int i = 0; i < numFacts; i++) {
+				String[] fact = new String[in.readUnsignedByte()];
+				for (int j = 0; j < fact.length; j++) {
+					fact[j] = readString(in);
+				}
+				entry.purityFacts.add(fact);
+			}
+			return entry;
+		}
+
+		private static boolean writeConstant(DataOutputStream out, Object constant) throws IOException {
+			if (constant == null) {
+				out.writeByte(NULL_CONSTANT);
+			} else if (constant instanceof Integer) {
+				out.writeByte(INT_CONSTANT);
+				out.writeInt((Integer) constant);
+			} else if (constant instanceof Long) {
+				out.writeByte(LONG_CONSTANT);
+				out.writeLong((Long) constant);
+			} else if (constant instanceof Float) {
+				out.writeByte(FLOAT_CONSTANT);
+				out.writeFloat((Float) constant);
+			} else if (constant instanceof Double) {
+				out.writeByte(DOUBLE_CONSTANT);
+				out.writeDouble((Double) constant);
+			} else if (constant instanceof String) {
+				out.writeByte(STRING_CONSTANT);
+				writeString(out, (String) constant);
+			} else if (constant instanceof Type) {
+				out.writeByte(TYPE_CONSTANT);
+				writeString(out, ((Type) constant).getDescriptor());
+			} else {
+				// eg method handles
+				return false;
+			}
+			return true;
+		}
+
+		private static Object readConstant(DataInputStream in) throws IOException {
+			byte tag = in.readByte();
+			switch (tag) {
+			case NULL_CONSTANT:
+				return null;
+			case INT_CONSTANT:
+				return in.readInt();
+			case LONG_CONSTANT:
+				return in.readLong();
+			case FLOAT_CONSTANT:
+				return in.readFloat();
+			case DOUBLE_CONSTANT:
+				return in.readDouble();
+			case STRING_CONSTANT:
+				return readString(in);
+			case TYPE_CONSTANT:
+				return Type.getType(readString(in));
+			default:
+				throw new IOException("Unknown constant tag " + tag);
+			}
+		}
+
+		/*
+		 * Strings in class files can be longer than what writeUTF supports
+		 */
+		private static void writeString(DataOutputStream out, String s) throws IOException {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		private static String readString(DataInputStream in) throws IOException {
+			byte[] bytes = new byte[in.readInt()];
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -19,6 +19,7 @@
  */
 package org.evosuite.instrumentation;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -29,6 +30,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
@@ -56,6 +58,14 @@ public class InstrumentingClassLoader extends ClassLoader {
 	private final BytecodeInstrumentation instrumentation;
 	private final ClassLoader classLoader;
 	private final Map<String, Class<?>> classes = new HashMap<>();
+
+	/**
+	 * Instrumented bytecode of the loaded classes, only kept if tests are
+	 * executed on isolated copies of the classes. Read by the
+	 * {@link IsolatedClassLoader}s of the worker threads without holding the
+	 * lock of this loader.
+	 */
+	private final Map<String, byte[]> instrumentedBytes = new ConcurrentHashMap<>();
 	private boolean isRegression = false;
 	
 	/**
@@ -105,24 +115,40 @@ public class InstrumentingClassLoader extends ClassLoader {
 	
 	public Class<?> loadClassFromFile(String fullyQualifiedTargetClass, String fileName) throws ClassNotFoundException {
 
-		String className = fullyQualifiedTargetClass.replace('.', '/');
-
 		try(InputStream is = new FileInputStream(new File(fileName))) {
+			Class<?> result = defineClassFromStream(fullyQualifiedTargetClass, is);
+			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
+			return result;
+		} catch (Throwable t) {
+			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
+			throw new ClassNotFoundException(t.getMessage(), t);
+		}
+	}
 
-			byte[] byteBuffer = getTransformedBytes(className, is);
-
-			createPackageDefinition(fullyQualifiedTargetClass);
-			Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
-
-			classes.put(fullyQualifiedTargetClass, result);
+	public Class<?> loadClassFromBytes(String fullyQualifiedTargetClass, byte[] bytes) throws ClassNotFoundException {
 
-			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
+		try(InputStream is = new ByteArrayInputStream(bytes)) {
+			Class<?> result = defineClassFromStream(fullyQualifiedTargetClass, is);
+			logger.info("Loaded class " + fullyQualifiedTargetClass + " from memory");
 			return result;
 		} catch (Throwable t) {
 			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
 			throw new ClassNotFoundException(t.getMessage(), t);
 		}
 	}
+
+	private Class<?> defineClassFromStream(String fullyQualifiedTargetClass, InputStream is) throws IOException {
+
+		String className = fullyQualifiedTargetClass.replace('.', '/');
+		byte[] byteBuffer = getTransformedBytes(className, is);
+
+		createPackageDefinition(fullyQualifiedTargetClass);
+		Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
+
+		classes.put(fullyQualifiedTargetClass, result);
+		retainInstrumentedBytes(fullyQualifiedTargetClass, byteBuffer);
+		return result;
+	}
 	
 	@Override
 	public Class<?> loadClass(String name) throws ClassNotFoundException {
@@ -193,6 +219,7 @@ public class InstrumentingClassLoader extends ClassLoader {
 			createPackageDefinition(fullyQualifiedTargetClass);
 			Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0,byteBuffer.length);
 			classes.put(fullyQualifiedTargetClass, result);
+			retainInstrumentedBytes(fullyQualifiedTargetClass, byteBuffer);
 
 			logger.info("Loaded class: " + fullyQualifiedTargetClass);
 			return result;
@@ -209,6 +236,26 @@ public class InstrumentingClassLoader extends ClassLoader {
 		}
 	}
 
+	private void retainInstrumentedBytes(String className, byte[] bytes) {
+		if (Properties.TEST_EXECUTION_THREADS > 1) {
+			instrumentedBytes.put(className, bytes);
+		}
+	}
+
+	/**
+	 * Return the instrumented bytecode this loader defined the given class
+	 * with, such that the class can be defined again in an
+	 * {@link IsolatedClassLoader}
+	 * 
+	 * @param className
+	 *            fully qualified name of the class
+	 * @return the bytecode, or null if the class was not instrumented by this
+	 *         loader while parallel test execution was enabled
+	 */
+	public byte[] getInstrumentedBytes(String className) {
+		return instrumentedBytes.get(className);
+	}
+
 	/**
 	 * Before a new class is defined, we need to create a package definition for it
 	 * 
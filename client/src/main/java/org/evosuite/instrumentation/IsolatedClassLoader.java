@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.evosuite.runtime.instrumentation.RuntimeInstrumentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class loader that defines its own copies of the classes instrumented by an
+ * {@link InstrumentingClassLoader}, reusing the bytecode that loader already
+ * produced. As the bytecode is identical, the instrumentation refers to the
+ * same branch ids, whereas the static state of the copies is independent of
+ * the static state of the original classes and of any other copy.
+ * 
+ * Classes that the original loader has not seen yet are first instrumented by
+ * it (which registers them in the pools of that loader), and then copied.
+ */
+public class IsolatedClassLoader extends ClassLoader {
+
+	private final static Logger logger = LoggerFactory.getLogger(IsolatedClassLoader.class);
+
+	private final InstrumentingClassLoader source;
+
+	private final Map<String, Class<?>> classes = new HashMap<>();
+
+	/**
+	 * @param source
+	 *            the loader that instrumented the classes
+	 */
+	public IsolatedClassLoader(InstrumentingClassLoader source) {
+		super(InstrumentingClassLoader.class.getClassLoader());
+		this.source = source;
+	}
+
+	@Override
+	public synchronized Class<?> loadClass(String name) throws ClassNotFoundException {
+		if (!RuntimeInstrumentation.checkIfCanInstrument(name)) {
+			return source.loadClass(name);
+		}
+
+		Class<?> result = classes.get(name);
+		if (result != null) {
+			return result;
+		}
+
+		byte[] bytes = source.getInstrumentedBytes(name);
+		if (bytes == null) {
+			Class<?> original;
+			synchronized (source) {
+				original = source.loadClass(name);
+			}
+			bytes = source.getInstrumentedBytes(name);
+			if (bytes == null) {
+				// e.g., entity classes shared with the database, which we cannot copy
+				logger.debug("No instrumented bytecode for {}, sharing the original class", name);
+				classes.put(name, original);
+				return original;
+			}
+		}
+
+		int i = name.lastIndexOf('.');
+		if (i != -1) {
+			String packageName = name.substring(0, i);
+			if (getPackage(packageName) == null) {
+				definePackage(packageName, null, null, null, null, null, null, null);
+			}
+		}
+		result = defineClass(name, bytes, 0, bytes.length);
+		classes.put(name, result);
+		return result;
+	}
+
+	/**
+	 * @return the loader the classes are copied from
+	 */
+	public InstrumentingClassLoader getSource() {
+		return source;
+	}
+}
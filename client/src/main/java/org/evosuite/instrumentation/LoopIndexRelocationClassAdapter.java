@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.instrumentation.LoopCounterMethodAdapter;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Shifts the loop indices in bytecode instrumented by the
+ * {@link LoopCounterMethodAdapter}, such that they do not clash with the
+ * indices assigned in this JVM. The indices are the integer constants loaded
+ * right after the call to {@link LoopCounter#getInstance()}.
+ */
+public class LoopIndexRelocationClassAdapter extends ClassVisitor {
+
+	private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+	private final int offset;
+
+	/**
+	 * @param cv
+	 * @param offset
+	 *            the value to add to each loop index
+	 */
+	public LoopIndexRelocationClassAdapter(ClassVisitor cv, int offset) {
+		super(Opcodes.ASM5, cv);
+		this.offset = offset;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public MethodVisitor visitMethod(int access, String name, String desc, String signature,
+			String[] exceptions) {
+		MethodVisitor mv = super.visitMethod(access, name, desc, signature, exceptions);
+		return new LoopIndexRelocationMethodAdapter(mv);
+	}
+
+	private class LoopIndexRelocationMethodAdapter extends MethodVisitor {
+
+		private boolean loadsLoopCounter = false;
+
+		public LoopIndexRelocationMethodAdapter(MethodVisitor mv) {
+			super(Opcodes.ASM5, mv);
+		}
+
+		@Override
+		public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+			loadsLoopCounter = opcode == Opcodes.INVOKESTATIC && owner.equals(LOOP_COUNTER)
+					&& name.equals("getInstance");
+			super.visitMethodInsn(opcode, owner, name, desc, itf);
+		}
+
+		@Override
+		public void visitLdcInsn(Object cst) {
+			if (loadsLoopCounter && cst instanceof Integer) {
+				cst = (Integer) cst + offset;
+			}
+			loadsLoopCounter = false;
+			super.visitLdcInsn(cst);
+		}
+
+		@Override
+		public void visitInsn(int opcode) {
+			loadsLoopCounter = false;
+			super.visitInsn(opcode);
+		}
+
+		@Override
+		public void visitIntInsn(int opcode, int operand) {
+			loadsLoopCounter = false;
+			super.visitIntInsn(opcode, operand);
+		}
+
+		@Override
+		public void visitVarInsn(int opcode, int var) {
+			loadsLoopCounter = false;
+			super.visitVarInsn(opcode, var);
+		}
+
+		@Override
+		public void visitTypeInsn(int opcode, String type) {
+			loadsLoopCounter = false;
+			super.visitTypeInsn(opcode, type);
+		}
+
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String desc) {
+			loadsLoopCounter = false;
+			super.visitFieldInsn(opcode, owner, name, desc);
+		}
+
+		@Override
+		public void visitJumpInsn(int opcode, Label label) {
+			loadsLoopCounter = false;
+			super.visitJumpInsn(opcode, label);
+		}
+
+		@Override
+		public void visitLabel(Label label) {
+			loadsLoopCounter = false;
+			super.visitLabel(label);
+		}
+	}
+}
@@ -51,7 +51,6 @@ import org.evosuite.testcase.execution.ExecutionTracer;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.tree.AbstractInsnNode;
-import org.objectweb.asm.tree.FieldInsnNode;
 import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.JumpInsnNode;
 import org.objectweb.asm.tree.LabelNode;
@@ -295,8 +294,9 @@ public class MutationInstrumentation implements MethodInstrumentation {
 
 			LdcInsnNode mutationId = new LdcInsnNode(mutation.getId());
 			instructions.add(mutationId);
-			FieldInsnNode activeId = new FieldInsnNode(Opcodes.GETSTATIC,
-			        Type.getInternalName(MutationObserver.class), "activeMutation", "I");
+			MethodInsnNode activeId = new MethodInsnNode(Opcodes.INVOKESTATIC,
+			        Type.getInternalName(MutationObserver.class), "getActiveMutation",
+			        Type.getMethodDescriptor(Type.INT_TYPE), false);
 			instructions.add(activeId);
 			instructions.add(new JumpInsnNode(Opcodes.IF_ICMPNE, nextLabel));
 			instructions.add(mutation.getMutation());
@@ -0,0 +1,294 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.util.JarPathing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles generated test sources without going through the file system:
+ * sources are read from strings, and the bytecode is kept in memory.
+ *
+ * <p>
+ * The file manager, and so the index of the jars and folders on the
+ * classpath, is kept between compilations as long as the classpath does not
+ * change. Each source is its own compilation unit, and errors are reported
+ * per unit, so that a caller can drop the units that do not compile and
+ * recompile only the remaining ones.
+ */
+public class InMemoryTestCompiler {
+
+	private static final Logger logger = LoggerFactory.getLogger(InMemoryTestCompiler.class);
+
+	private static InMemoryTestCompiler instance = null;
+
+	private final JavaCompiler compiler;
+
+	private final StandardJavaFileManager fileManager;
+
+	/** Classpath the file manager was set up for */
+	private String classpath = null;
+
+	private InMemoryTestCompiler(JavaCompiler compiler) {
+		this.compiler = compiler;
+		this.fileManager = compiler.getStandardFileManager(null, Locale.getDefault(),
+		                                                   Charset.forName("UTF-8"));
+	}
+
+	/**
+	 * Returns the shared compiler, or {@code null} if no Java compiler is
+	 * available
+	 */
+	public static synchronized InMemoryTestCompiler getInstance() {
+		if (instance == null) {
+			JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+			if (compiler == null) {
+				logger.error("No Java compiler is available");
+				return null;
+			}
+			instance = new InMemoryTestCompiler(compiler);
+		}
+		return instance;
+	}
+
+	/**
+	 * Result of compiling a set of sources
+	 */
+	public static class Result {
+
+		private final Map<String, byte[]> classes;
+
+		private final Set<String> failedUnits;
+
+		private final boolean success;
+
+		private Result(boolean success, Map<String, byte[]> classes, Set<String> failedUnits) {
+			this.success = success;
+			this.classes = classes;
+			this.failedUnits = failedUnits;
+		}
+
+		public boolean wasSuccessful() {
+			return success;
+		}
+
+		/**
+		 * @return the bytecode of all generated classes, including inner and
+		 *         anonymous ones, by fully qualified name. Empty if the
+		 *         compilation failed.
+		 */
+		public Map<String, byte[]> getClasses() {
+			return classes;
+		}
+
+		/**
+		 * @return the names of the sources that have errors. Can be empty even
+		 *         if the compilation failed, if javac could not attribute an
+		 *         error to a source.
+		 */
+		public Set<String> getFailedUnits() {
+			return failedUnits;
+		}
+	}
+
+	/**
+	 * Compile the given sources against the target project and EvoSuite
+	 * classpath
+	 *
+	 * @param packageName
+	 *            package of all the sources, possibly empty
+	 * @param sources
+	 *            source code by simple class name
+	 * @return the result of the compilation
+	 * @throws IOException
+	 *             if the classpath cannot be read
+	 */
+	public synchronized Result compile(String packageName, Map<String, String> sources) throws IOException {
+
+		updateClasspath();
+
+		String prefix = packageName.isEmpty() ? "" : packageName + ".";
+		Map<String, JavaFileObject> units = new LinkedHashMap<String, JavaFileObject>();
+		for (Map.Entry<String, String> source : sources.entrySet()) {
+			units.put(source.getKey(), new SourceFile(prefix + source.getKey(), source.getValue()));
+		}
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		MemoryFileManager memoryFileManager = new MemoryFileManager(fileManager);
+		List<String> optionList = Arrays.asList("-Xmaxerrs", Integer.toString(Integer.MAX_VALUE));
+		CompilationTask task = compiler.getTask(null, memoryFileManager, diagnostics,
+		                                        optionList, null, units.values());
+		boolean compiled;
+		try {
+			compiled = task.call();
+		} finally {
+			memoryFileManager.flush();
+		}
+
+		Set<String> failedUnits = new LinkedHashSet<String>();
+		if (!compiled) {
+			for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+				if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+					continue;
+				}
+				logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
+				        + diagnostic.getLineNumber());
+				for (Map.Entry<String, JavaFileObject> unit : units.entrySet()) {
+					if (unit.getValue() == diagnostic.getSource()) {
+						failedUnits.add(unit.getKey());
+					}
+				}
+			}
+		}
+		if (!compiled) {
+			return new Result(false, new LinkedHashMap<String, byte[]>(), failedUnits);
+		}
+		return new Result(true, memoryFileManager.getClasses(), failedUnits);
+	}
+
+	/**
+	 * Only set the classpath if it changed, as this drops the cached
+	 * content of all jars and folders on the classpath
+	 */
+	private void updateClasspath() throws IOException {
+		String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
+		if(JarPathing.containsAPathingJar(evosuiteCP)){
+			evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
+		}
+
+		String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		if(JarPathing.containsAPathingJar(targetProjectCP)){
+			targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+		}
+
+		String cp = targetProjectCP + File.pathSeparator + evosuiteCP;
+		if (cp.equals(classpath)) {
+			return;
+		}
+
+		List<File> entries = new ArrayList<File>();
+		for (String entry : cp.split(File.pathSeparator)) {
+			if (!entry.isEmpty()) {
+				entries.add(new File(entry));
+			}
+		}
+		fileManager.setLocation(StandardLocation.CLASS_PATH, entries);
+		classpath = cp;
+	}
+
+	private static URI uriOf(String className, Kind kind) {
+		return URI.create("string:///" + className.replace('.', '/') + kind.extension);
+	}
+
+	private static class SourceFile extends SimpleJavaFileObject {
+
+		private final String code;
+
+		SourceFile(String className, String code) {
+			super(uriOf(className, Kind.SOURCE), Kind.SOURCE);
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	private static class ClassFile extends SimpleJavaFileObject {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		ClassFile(String className) {
+			super(uriOf(className, Kind.CLASS), Kind.CLASS);
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return bytes;
+		}
+	}
+
+	/**
+	 * Reads from the shared file manager, but keeps all output in memory
+	 */
+	private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+		private final Map<String, ClassFile> classFiles = new LinkedHashMap<String, ClassFile>();
+
+		MemoryFileManager(StandardJavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind,
+		        FileObject sibling) throws IOException {
+			if (kind != Kind.CLASS) {
+				return super.getJavaFileForOutput(location, className, kind, sibling);
+			}
+			ClassFile file = new ClassFile(className);
+			classFiles.put(className, file);
+			return file;
+		}
+
+		@Override
+		public void close() {
+			// the wrapped file manager is reused by the next compilation
+		}
+
+		Map<String, byte[]> getClasses() {
+			Map<String, byte[]> classes = new LinkedHashMap<String, byte[]>();
+			for (Map.Entry<String, ClassFile> entry : classFiles.entrySet()) {
+				classes.put(entry.getKey(), entry.getValue().bytes.toByteArray());
+			}
+			return classes;
+		}
+	}
+}
@@ -83,6 +83,10 @@ public class JUnitAnalyzer {
 			return;
 		}
 
+		if (Properties.JUNIT_CHECK_IN_MEMORY && removeTestsThatDoNotCompileInMemory(tests)) {
+			return;
+		}
+
 		Iterator<TestCase> iter = tests.iterator();
 
 		while (iter.hasNext()) {
@@ -123,6 +127,96 @@ public class JUnitAnalyzer {
 		} // end of while
 	}
 
+	/**
+	 * Compile each test as a separate suite, but all of them in a single call
+	 * to the compiler. The suites with errors are removed, and the remaining
+	 * ones are compiled again, until all of them compile.
+	 *
+	 * @param tests
+	 * @return false if the in-memory compiler could not be used, in which case
+	 *         the tests still need to be checked on disk
+	 */
+	private static boolean removeTestsThatDoNotCompileInMemory(List<TestCase> tests) {
+
+		InMemoryTestCompiler compiler = InMemoryTestCompiler.getInstance();
+		if (compiler == null) {
+			return false;
+		}
+
+		Map<String, String> sources = new LinkedHashMap<>();
+		Map<String, TestCase> testOfUnit = new LinkedHashMap<>();
+		for (TestCase test : tests) {
+			if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
+				break;
+			}
+			Map<String, String> suite = getTestSuiteSources(Collections.singletonList(test), getNewSuiteName());
+			for (String unit : suite.keySet()) {
+				testOfUnit.put(unit, test);
+			}
+			sources.putAll(suite);
+		}
+
+		try {
+			while (!sources.isEmpty()) {
+				InMemoryTestCompiler.Result result = compiler.compile(Properties.CLASS_PREFIX, sources);
+				if (result.wasSuccessful()) {
+					return true;
+				}
+
+				Set<TestCase> failed = Collections.newSetFromMap(new IdentityHashMap<TestCase, Boolean>());
+				for (String unit : result.getFailedUnits()) {
+					failed.add(testOfUnit.get(unit));
+				}
+
+				if (failed.isEmpty()) {
+					/*
+					 * javac could not tell which source is at fault, so
+					 * fall back to compiling each test on its own
+					 */
+					for (TestCase test : new LinkedHashSet<>(testOfUnit.values())) {
+						Map<String, String> suite = new LinkedHashMap<>();
+						for (Map.Entry<String, TestCase> unit : testOfUnit.entrySet()) {
+							if (unit.getValue() == test) {
+								suite.put(unit.getKey(), sources.get(unit.getKey()));
+							}
+						}
+						if (!compiler.compile(Properties.CLASS_PREFIX, suite).wasSuccessful()) {
+							failed.add(test);
+						}
+					}
+					if (failed.isEmpty()) {
+						logger.error("Test cases compile one at a time, but not together");
+						return true;
+					}
+				}
+
+				for (TestCase test : failed) {
+					Iterator<TestCase> iter = tests.iterator();
+					while (iter.hasNext()) {
+						if (iter.next() == test) {
+							iter.remove();
+						}
+					}
+					logger.error("Failed to compile test case:\n" + test.toCode());
+				}
+
+				Iterator<Map.Entry<String, TestCase>> units = testOfUnit.entrySet().iterator();
+				while (units.hasNext()) {
+					Map.Entry<String, TestCase> unit = units.next();
+					if (failed.contains(unit.getValue())) {
+						sources.remove(unit.getKey());
+						units.remove();
+					}
+				}
+			}
+		} catch (IOException e) {
+			logger.error("Failed to compile test cases in memory: " + e, e);
+			return false;
+		}
+
+		return true;
+	}
+
 	/**
 	 * Compile and run all the test cases, and mark as "unstable" all the ones
 	 * that fail during execution (ie, unstable assertions).
@@ -143,16 +237,27 @@ public class JUnitAnalyzer {
 			return numUnstable;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.error("Failed to create tmp dir");
-			return numUnstable;
+		File dir = null;
+		if (!Properties.JUNIT_CHECK_IN_MEMORY) {
+			dir = createNewTmpDir();
+			if (dir == null) {
+				logger.error("Failed to create tmp dir");
+				return numUnstable;
+			}
+			logger.debug("Created tmp folder: " + dir.getAbsolutePath());
 		}
-		logger.debug("Created tmp folder: " + dir.getAbsolutePath());
 
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			List<File> generated = null;
+			Map<String, String> sources = null;
+			InMemoryTestCompiler.Result compiled = null;
+			if (dir != null) {
+				generated = compileTests(tests, dir);
+			} else {
+				sources = getTestSuiteSources(tests, getNewSuiteName());
+				compiled = compileInMemory(sources);
+			}
+			if (generated == null && (compiled == null || !compiled.wasSuccessful())) {
 				/*
 				 * Note: in theory this shouldn't really happen, as check for compilation
 				 * is done before calling this method
@@ -168,7 +273,8 @@ public class JUnitAnalyzer {
 
             // Create a new classloader so that each test gets freshly loaded classes
 			loader = new NonInstrumentingClassLoader();
-            Class<?>[] testClasses = loadTests(generated);
+            Class<?>[] testClasses = generated != null ? loadTests(generated)
+                    : loadTests(sources, compiled.getClasses());
 
 			if (testClasses == null) {
 				logger.error("Found no classes for compiled tests");
@@ -341,15 +447,39 @@ public class JUnitAnalyzer {
 	// EvoSuite classloader, and thus cannot easily be re-loaded
 	private static int NUM = 0;
 
+	private static String getNewSuiteName() {
+        //to get name, remove all package before last '.'
+        int beginIndex = Properties.TARGET_CLASS.lastIndexOf(".") + 1;
+		String name = Properties.TARGET_CLASS.substring(beginIndex);
+		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
+		return name;
+	}
+
+	private static Map<String, String> getTestSuiteSources(List<TestCase> tests, String name) {
+		TestSuiteWriter suite = new TestSuiteWriter();
+		suite.insertAllTests(tests);
+		return suite.getTestSuiteSources(name, Collections.EMPTY_LIST);
+	}
+
+	private static InMemoryTestCompiler.Result compileInMemory(Map<String, String> sources) {
+		InMemoryTestCompiler compiler = InMemoryTestCompiler.getInstance();
+		if (compiler == null) {
+			return null;
+		}
+		try {
+			return compiler.compile(Properties.CLASS_PREFIX, sources);
+		} catch (IOException e) {
+			logger.error("" + e, e);
+			return null;
+		}
+	}
+
 	private static List<File> compileTests(List<TestCase> tests, File dir) {
 
 		TestSuiteWriter suite = new TestSuiteWriter();
 		suite.insertAllTests(tests);
 
-        //to get name, remove all package before last '.'
-        int beginIndex = Properties.TARGET_CLASS.lastIndexOf(".") + 1;
-		String name = Properties.TARGET_CLASS.substring(beginIndex);
-		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
+		String name = getNewSuiteName();
 
 		try {
 			//now generate the JUnit test case
@@ -483,6 +613,64 @@ public class JUnitAnalyzer {
 		return testClasses;
 	}
 
+	/**
+	 * Same as {@link #loadTests(List)}, but for classes compiled in memory
+	 *
+	 * @param sources the compiled sources, by simple class name
+	 * @param classes the generated bytecode, by fully qualified class name
+	 */
+	private static Class<?>[] loadTests(Map<String, String> sources, Map<String, byte[]> classes) {
+
+		String packagePrefix = Properties.CLASS_PREFIX;
+		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
+			packagePrefix += ".";
+		}
+
+		/*
+		 * scaffoldings first, then the tests that depend on them, and then
+		 * all remaining (e.g., anonymous) classes
+		 */
+		Set<String> loaded = new LinkedHashSet<>();
+		for (String name : sources.keySet()) {
+			if (isScaffolding(name)) {
+				loadClass(packagePrefix + name, classes, loaded);
+			}
+		}
+
+		List<Class<?>> testClasses = new ArrayList<>();
+		for (String name : sources.keySet()) {
+			if (!isScaffolding(name)) {
+				Class<?> clazz = loadClass(packagePrefix + name, classes, loaded);
+				if (clazz != null) {
+					testClasses.add(clazz);
+				}
+			}
+		}
+
+		for (String className : classes.keySet()) {
+			if (!loaded.contains(className)) {
+				loadClass(className, classes, loaded);
+			}
+		}
+
+		return testClasses.toArray(new Class<?>[testClasses.size()]);
+	}
+
+	private static Class<?> loadClass(String className, Map<String, byte[]> classes, Set<String> loaded) {
+		byte[] bytes = classes.get(className);
+		if (bytes == null) {
+			return null;
+		}
+		loaded.add(className);
+		try {
+			logger.info("Loading class " + className);
+			return loader.loadClassFromBytes(className, bytes);
+		} catch (ClassNotFoundException e) {
+			logger.error("Failed to load test case " + className + " from memory, error " + e, e);
+			return null;
+		}
+	}
+
 	private static List<File> listOnlyFiles(List<File> tests) throws IllegalArgumentException{
 		if(tests==null || tests.isEmpty()){
 			return null;
@@ -663,6 +851,10 @@ public class JUnitAnalyzer {
 		return name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+JAVA) || 
 				name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+CLASS);
 	}
+
+	private static boolean isScaffolding(String className){
+		return className.endsWith("_"+Properties.SCAFFOLDING_SUFFIX);
+	}
 	
 	private static Class<?> loadClass(File file){
 		if (!file.isFile()) {
@@ -97,7 +97,7 @@ public class JUnitRunListener extends RunListener {
 		LoggingUtils.getEvoLogger().info("* Finished: " + "ClassName: " + description.getClassName() + ", MethodName: " + description.getMethodName());
 
 		this.testResult.setRuntime(System.nanoTime() - this.start);
-		this.testResult.setExecutionTrace(ExecutionTracer.getExecutionTracer().getTrace());
+		this.testResult.setExecutionTrace(ExecutionTracer.getExecutionTracer().getTrace().lazyClone());
 		this.testResult.incrementRunCount();
 		ExecutionTracer.getExecutionTracer().clear();
 
@@ -26,11 +26,15 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.evosuite.ClientProcess;
 import org.evosuite.Properties;
 import org.evosuite.Properties.NoSuchParameterException;
 import org.evosuite.TestGenerationContext;
@@ -83,6 +87,17 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	 */
 	protected volatile CountDownLatch finishedLatch;
 
+	/**
+	 * A latch used to wait till the search on the current class under test is done.
+	 * Differently from doneLatch, this is renewed each time the client is given a new class
+	 */
+	protected volatile CountDownLatch targetDoneLatch;
+
+	/**
+	 * Whether this client will be given another class under test once the current search is done
+	 */
+	private volatile boolean reusable = false;
+
 
 	protected Registry registry;
 
@@ -90,6 +105,11 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 
 	private final BlockingQueue<OutputVariable> outputVariableQueue = new LinkedBlockingQueue<OutputVariable>();
 
+	/**
+	 * Number of output variables tracked but not sent to master yet
+	 */
+	private final AtomicInteger pendingOutputVariables = new AtomicInteger(0);
+
 	private Thread statisticsThread; 
 
 	//only for testing
@@ -105,6 +125,7 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		clientRmiIdentifier = "ClientNode";
 		doneLatch = new CountDownLatch(1);
 		finishedLatch = new CountDownLatch(1);
+		targetDoneLatch = new CountDownLatch(1);
 	}
 
 	private static class OutputVariable {
@@ -191,6 +212,56 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		return finishedLatch.await(timeoutInMs, TimeUnit.MILLISECONDS);
 	}
 
+	@Override
+	public synchronized void setReusable(boolean reusable) throws RemoteException {
+		this.reusable = reusable;
+		if (!reusable && state.equals(ClientState.DONE)) {
+			doneLatch.countDown();
+		}
+	}
+
+	@Override
+	public void changeTargetClass(final String targetClass) throws RemoteException {
+		if (!state.equals(ClientState.DONE)) {
+			throw new IllegalStateException("Search on " + Properties.TARGET_CLASS + " is not done yet");
+		}
+
+		/*
+		 * The reset is done on the search thread, to be sure that it does not
+		 * overlap with what is left of the previous search
+		 */
+		Future<?> reset = searchExecutor.submit(new Runnable() {
+			@Override
+			public void run() {
+				ClientProcess.resetForNewTargetClass(targetClass);
+			}
+		});
+		try {
+			reset.get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RemoteException("Failed to reset client for class " + targetClass, e);
+		}
+
+		targetDoneLatch = new CountDownLatch(1);
+		changeState(ClientState.NOT_STARTED);
+	}
+
+	@Override
+	public boolean waitUntilTargetIsDone(long timeoutInMs) throws RemoteException, InterruptedException {
+		long start = System.currentTimeMillis();
+		if (!targetDoneLatch.await(timeoutInMs, TimeUnit.MILLISECONDS)) {
+			return false;
+		}
+		//statistics are sent asynchronously, so master needs to wait for them before writing them
+		while (pendingOutputVariables.get() > 0) {
+			if (System.currentTimeMillis() - start > timeoutInMs) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+
 	@Override
 	public void waitUntilDone() {
 		try {
@@ -221,7 +292,10 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		}
 
 		if (this.state.equals(ClientState.DONE)) {
-			doneLatch.countDown();
+			targetDoneLatch.countDown();
+			if (!reusable) {
+				doneLatch.countDown();
+			}
 		}
 
 		if (this.state.equals(ClientState.FINISHED)) {
@@ -270,6 +344,7 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 		 * As this code might be called from unsafe blocks, we just put the values
 		 * on a queue, and have a privileged thread doing the RMI connection to master
 		 */
+		pendingOutputVariables.incrementAndGet();
 		outputVariableQueue.offer(new OutputVariable(variable, value));
 	}
 
@@ -326,6 +401,8 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 				} catch (RemoteException e) {
 					logger.error("Error when exporting statistics: "+ov.variable+"="+ov.value, e);
 					break;
+				} finally {
+					pendingOutputVariables.decrementAndGet();
 				}
 			}
 
@@ -355,7 +432,11 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 						OutputVariable ov = null;
 						try {
 							ov = outputVariableQueue.take(); //this is blocking
-							masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
+							try {
+								masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
+							} finally {
+								pendingOutputVariables.decrementAndGet();
+							}
 						} catch (InterruptedException e) {
 							break;
 						} catch (RemoteException e) {
@@ -45,6 +45,36 @@ public interface ClientNodeRemote extends Remote {
 	public boolean waitUntilFinished(long timeoutInMs) throws RemoteException,
 	        InterruptedException;
 
+	/**
+	 * Define whether this client will be given another class under test once
+	 * the current search is done. A reusable client does not shut down when
+	 * reaching the {@link ClientState#DONE} state.
+	 * 
+	 * @param reusable
+	 * @throws RemoteException
+	 */
+	public void setReusable(boolean reusable) throws RemoteException;
+
+	/**
+	 * Reset all the state of the previous search (class loaders, pools, test
+	 * cluster, static state, properties), and get ready to start a new search
+	 * on the given class. Can only be called once the previous search is done.
+	 * 
+	 * @param targetClass  name of the next class under test
+	 * @throws RemoteException
+	 */
+	public void changeTargetClass(String targetClass) throws RemoteException;
+
+	/**
+	 * 
+	 * @param timeoutInMs  maximum amount of time we can wait for the search on the current class to be done
+	 * @return <code>true</code> if the search is done and all its statistics have been sent to master
+	 * @throws RemoteException
+	 * @throws InterruptedException
+	 */
+	public boolean waitUntilTargetIsDone(long timeoutInMs) throws RemoteException,
+	        InterruptedException;
+
 	public void doCoverageAnalysis() throws RemoteException;
 	
 	public void doDependencyAnalysis(String fileName) throws RemoteException;
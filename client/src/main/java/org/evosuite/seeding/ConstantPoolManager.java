@@ -22,6 +22,9 @@
  */
 package org.evosuite.seeding;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.evosuite.Properties;
 import org.evosuite.utils.Randomness;
 
@@ -42,6 +45,14 @@ public class ConstantPoolManager {
 	 */
 	private static final int DYNAMIC_POOL_INDEX = 2;
 
+	/** Dynamic constants buffered by threads executing tests concurrently */
+	private final ThreadLocal<List<Object>> threadConstants = new ThreadLocal<List<Object>>();
+
+	private volatile boolean collectingOnThreads = false;
+
+	/** Non-SUT constants recorded while the current thread instruments a class */
+	private final ThreadLocal<List<Object>> recordedNonSUTConstants = new ThreadLocal<List<Object>>();
+
 	private ConstantPoolManager() {
 		init();
 	}
@@ -95,13 +106,79 @@ public class ConstantPoolManager {
 	}
 
 	public void addNonSUTConstant(Object value) {
+		List<Object> recorded = recordedNonSUTConstants.get();
+		if (recorded != null) {
+			recorded.add(value);
+		}
 		pools[1].add(value);
 	}
 
+	/**
+	 * Remember the non-SUT constants added by the current thread, such that
+	 * they can be added again without instrumenting the class they come from
+	 */
+	public void startRecordingNonSUTConstants() {
+		recordedNonSUTConstants.set(new ArrayList<Object>());
+	}
+
+	/**
+	 * Stop recording the non-SUT constants of the current thread
+	 *
+	 * @return the constants added since the last call to
+	 *         {@link #startRecordingNonSUTConstants()}
+	 */
+	public List<Object> stopRecordingNonSUTConstants() {
+		List<Object> recorded = recordedNonSUTConstants.get();
+		recordedNonSUTConstants.remove();
+		return recorded == null ? new ArrayList<Object>() : recorded;
+	}
+
+	public void addNonSUTConstants(List<Object> values) {
+		for (Object value : values) {
+			pools[1].add(value);
+		}
+	}
+
 	public void addDynamicConstant(Object value) {
+		if (collectingOnThreads) {
+			List<Object> constants = threadConstants.get();
+			if (constants != null) {
+				constants.add(value);
+				return;
+			}
+		}
 		pools[DYNAMIC_POOL_INDEX].add(value);
 	}
 
+	/**
+	 * Keep the dynamic constants observed by the current thread in a buffer
+	 * rather than adding them to the pool right away. This is used when tests
+	 * are executed concurrently, such that the pool can be filled in the order
+	 * of the tests afterwards.
+	 */
+	public void startCollectingDynamicConstants() {
+		threadConstants.set(new ArrayList<Object>());
+		collectingOnThreads = true;
+	}
+
+	/**
+	 * Stop buffering the dynamic constants of the current thread
+	 *
+	 * @return the constants collected since the last call to
+	 *         {@link #startCollectingDynamicConstants()}
+	 */
+	public List<Object> stopCollectingDynamicConstants() {
+		List<Object> constants = threadConstants.get();
+		threadConstants.remove();
+		return constants == null ? new ArrayList<Object>() : constants;
+	}
+
+	public void addDynamicConstants(List<Object> values) {
+		for (Object value : values) {
+			pools[DYNAMIC_POOL_INDEX].add(value);
+		}
+	}
+
 	public ConstantPool getConstantPool() {
 		double p = Randomness.nextDouble();
 		double k = 0d;
@@ -110,7 +110,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 * @see org.evosuite.primitives.ConstantPool#add(java.lang.Object)
 	 */
 	@Override
-	public void add(Object object) {
+	public synchronized void add(Object object) {
 		// We don't add null because this is explicitly handled in the TestFactory
 		if (object == null)
 			return;
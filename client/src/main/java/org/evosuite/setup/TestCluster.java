@@ -23,11 +23,13 @@
 package org.evosuite.setup;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.ClassUtils;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.coverage.archive.TestsArchive;
@@ -80,6 +82,15 @@ public class TestCluster {
 	/** Cached information about how to generate types */
 	private final static Map<GenericClass, Set<GenericAccessibleObject<?>>> generatorCache = new LinkedHashMap<>();
 
+	/** Cached types whose generators were instantiated using the cast classes */
+	private final static Set<GenericClass> castDependentCache = new LinkedHashSet<>();
+
+	/**
+	 * Generator types that can possibly produce instances of a raw class, in
+	 * the order in which they were added to {@link #generators}
+	 */
+	private final static Map<Class<?>, List<GenericClass>> generatorIndex = new LinkedHashMap<>();
+
 	/** Static information about how to modify types */
 	private final static Map<GenericClass, Set<GenericAccessibleObject<?>>> modifiers = new LinkedHashMap<>();
 
@@ -114,6 +125,8 @@ public class TestCluster {
 		testMethods.clear();
 		generators.clear();
 		generatorCache.clear();
+		castDependentCache.clear();
+		generatorIndex.clear();
 		modifiers.clear();
 		CastClassManager.getInstance().clear();
 
@@ -126,7 +139,7 @@ public class TestCluster {
 	 */
 	public void removeUnusableGenerators(){
 
-		generatorCache.clear();
+		clearGeneratorCache();
 		Set<GenericClass> removed = new LinkedHashSet<>();
 
 
@@ -163,7 +176,7 @@ public class TestCluster {
 
 		removeDirectCycle();
 		
-		generatorCache.clear();
+		clearGeneratorCache();
 	}
 
 
@@ -275,8 +288,14 @@ public class TestCluster {
 		while(iter.hasNext()){
 			Map.Entry entry = iter.next();
 			GenericClass gen = (GenericClass) entry.getKey();
+			// The raw check is cheap and rules out most types before resolving generics
+			if(isIndexable(gen) && isIndexable(klass)
+			        && !ClassUtils.isAssignable(klass.getRawClass(), gen.getRawClass(), true)){
+				continue;
+			}
 			if(gen.isAssignableFrom(klass)){
 				iter.remove();
+				castDependentCache.remove(gen);
 			}
 		}
 	}
@@ -335,7 +354,7 @@ public class TestCluster {
 	 */
 	public void addGenerator(GenericClass target, GenericAccessibleObject<?> call) {
 		if (!generators.containsKey(target))
-			generators.put(target, new LinkedHashSet<GenericAccessibleObject<?>>());
+			addGeneratorType(target);
 
 		logger.debug("Adding generator for class " + target + ": " + call);
 		generators.get(target).add(call);
@@ -403,6 +422,7 @@ public class TestCluster {
 		logger.debug("1. Caching generators for {}", clazz);
 
 		Set<GenericAccessibleObject<?>> targetGenerators = new LinkedHashSet<>();
+		boolean castDependent = false;
 		if (clazz.isObject()) {
 			logger.debug("2. Target class is object: {}", clazz);
 			for (GenericClass generatorClazz : generators.keySet()) {
@@ -412,8 +432,13 @@ public class TestCluster {
 			}
 		} else {
 			logger.debug("2. Target class is not object: {}", clazz);
-			for (GenericClass generatorClazz : generators.keySet()) {
+			castDependent = !isIndexable(clazz) || clazz.isParameterizedType() || clazz.hasWildcardOrTypeVariables();
+			for (GenericClass generatorClazz : getCandidateGeneratorTypes(clazz)) {
 				// logger.debug("3. Considering original generator: " + generatorClazz + " for " + clazz);
+				// Generic types can only be instantiated to the target if their raw class fits
+				if (generatorClazz.hasWildcardOrTypeVariables() && (!isIndexable(generatorClazz)
+				        || ClassUtils.isAssignable(generatorClazz.getRawClass(), clazz.getRawClass(), true)))
+					castDependent = true;
 
 				if (generatorClazz.canBeInstantiatedTo(clazz)) {
 					//logger.debug("4. generator " + generatorClazz + " can be instantiated to " + clazz);
@@ -457,6 +482,9 @@ public class TestCluster {
 								// newGenerator = newGenerator.getGenericInstantiation(clazz);
 							}
 
+							if (hadTypeParameters)
+								castDependent = true;
+
 							logger.debug("Current generator: {}", newGenerator);
 							if ((!hadTypeParameters && generatorClazz.equals(clazz))
 							        || clazz.isAssignableFrom(newGenerator.getGeneratedType())) {
@@ -494,15 +522,97 @@ public class TestCluster {
 
 		logger.debug("]");
 		generatorCache.put(clazz, targetGenerators);
+		if (castDependent)
+			castDependentCache.add(clazz);
 	}
 
 	/**
-	 * Forget everything we have cached
+	 * Register a new type in the generators, and add it to the candidates of
+	 * all raw classes indexed so far
+	 *
+	 * @param target
+	 */
+	private void addGeneratorType(GenericClass target) {
+		generators.put(target, new LinkedHashSet<GenericAccessibleObject<?>>());
+		for (Entry<Class<?>, List<GenericClass>> entry : generatorIndex.entrySet()) {
+			if (isGeneratorCandidate(target, entry.getKey()))
+				entry.getValue().add(target);
+		}
+	}
+
+	/**
+	 * Determine the generator types that need to be checked when caching the
+	 * generators of the given type. For plain and parameterized types, this
+	 * is looked up in an index by raw class that is built on first use;
+	 * anything else has to be checked against all generator types.
+	 *
+	 * @param clazz
+	 * @return
+	 */
+	private Collection<GenericClass> getCandidateGeneratorTypes(GenericClass clazz) {
+		if (!isIndexable(clazz))
+			return new ArrayList<>(generators.keySet());
+
+		Class<?> rawClass = clazz.getRawClass();
+		List<GenericClass> candidates = generatorIndex.get(rawClass);
+		if (candidates == null) {
+			candidates = new ArrayList<>();
+			for (GenericClass generatorClazz : generators.keySet()) {
+				if (isGeneratorCandidate(generatorClazz, rawClass))
+					candidates.add(generatorClazz);
+			}
+			generatorIndex.put(rawClass, candidates);
+		}
+		return candidates;
+	}
+
+	/**
+	 * True if the raw class of the type decides about assignability, i.e.,
+	 * if it is neither a type variable, nor a wildcard, nor a generic array
+	 *
+	 * @param clazz
+	 * @return
+	 */
+	private static boolean isIndexable(GenericClass clazz) {
+		return clazz.getType() instanceof Class || clazz.getType() instanceof ParameterizedType;
+	}
+
+	/**
+	 * A generator type that is not generic can only be instantiated to a
+	 * type if its raw class is assignable, allowing for (un)boxing. Generic
+	 * types are always candidates, as their bounds are added as cast classes
+	 * when they cannot be instantiated.
+	 *
+	 * @param generatorClazz
+	 * @param rawClass
+	 * @return
+	 */
+	private static boolean isGeneratorCandidate(GenericClass generatorClazz, Class<?> rawClass) {
+		if (!isIndexable(generatorClazz) || generatorClazz.hasWildcardOrTypeVariables())
+			return true;
+
+		return ClassUtils.isAssignable(generatorClazz.getRawClass(), rawClass, true);
+	}
+
+	/**
+	 * Forget the cached generators that depend on the cast classes, after a
+	 * new cast class was added
 	 *
 	 * @param target
 	 */
 	public void clearGeneratorCache(GenericClass target) {
+		for (GenericClass clazz : castDependentCache) {
+			generatorCache.remove(clazz);
+		}
+		castDependentCache.clear();
+	}
+
+	/**
+	 * Forget everything we have cached
+	 */
+	private void clearGeneratorCache() {
 		generatorCache.clear();
+		castDependentCache.clear();
 	}
 
 	/**
@@ -907,7 +1017,7 @@ public class TestCluster {
 			generatorCache.put(clazz, new LinkedHashSet<GenericAccessibleObject<?>>());
 		}
 		if (!generators.containsKey(clazz)) {
-			generators.put(clazz, new LinkedHashSet<GenericAccessibleObject<?>>());
+			addGeneratorType(clazz);
 		}
 		logger.info("addNumericConstructor for class " + clazz);
 		for (Constructor<?> constructor : clazz.getRawClass().getConstructors()) {
@@ -214,6 +214,9 @@ public class DSEStats {
 			percentFormat.setMaximumFractionDigits(1);
 			String hit_rate_str = percentFormat.format(SolverCache.getInstance().getHitRate());
 			logger.info(String.format("* DSE)   Cache hit rate: %s", hit_rate_str));
+
+			final int numberOfPersistentHits = SolverCache.getInstance().getNumberOfPersistentHits();
+			logger.info(String.format("* DSE)   Results found in persistent cache: %s", numberOfPersistentHits));
 		}
 	}
 
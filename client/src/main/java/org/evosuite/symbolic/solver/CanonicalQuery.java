@@ -0,0 +1,431 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.ExpressionVisitor;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.expr.bv.IntegerBinaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerComparison;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerUnaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.bv.RealComparison;
+import org.evosuite.symbolic.expr.bv.RealToIntegerCast;
+import org.evosuite.symbolic.expr.bv.RealUnaryToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringBinaryComparison;
+import org.evosuite.symbolic.expr.bv.StringBinaryToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringMultipleComparison;
+import org.evosuite.symbolic.expr.bv.StringMultipleToIntegerExpression;
+import org.evosuite.symbolic.expr.bv.StringToIntegerCast;
+import org.evosuite.symbolic.expr.bv.StringUnaryToIntegerExpression;
+import org.evosuite.symbolic.expr.fp.IntegerToRealCast;
+import org.evosuite.symbolic.expr.fp.RealBinaryExpression;
+import org.evosuite.symbolic.expr.fp.RealConstant;
+import org.evosuite.symbolic.expr.fp.RealUnaryExpression;
+import org.evosuite.symbolic.expr.fp.RealVariable;
+import org.evosuite.symbolic.expr.reader.StringReaderExpr;
+import org.evosuite.symbolic.expr.ref.GetFieldExpression;
+import org.evosuite.symbolic.expr.ref.ReferenceConstant;
+import org.evosuite.symbolic.expr.ref.ReferenceVariable;
+import org.evosuite.symbolic.expr.str.IntegerToStringCast;
+import org.evosuite.symbolic.expr.str.RealToStringCast;
+import org.evosuite.symbolic.expr.str.StringBinaryExpression;
+import org.evosuite.symbolic.expr.str.StringConstant;
+import org.evosuite.symbolic.expr.str.StringMultipleExpression;
+import org.evosuite.symbolic.expr.str.StringUnaryExpression;
+import org.evosuite.symbolic.expr.str.StringVariable;
+import org.evosuite.symbolic.expr.token.HasMoreTokensExpr;
+import org.evosuite.symbolic.expr.token.NewTokenizerExpr;
+import org.evosuite.symbolic.expr.token.NextTokenizerExpr;
+import org.evosuite.symbolic.expr.token.StringNextTokenExpr;
+
+/**
+ * A constraint system in a normal form that does not depend on the names of
+ * its variables or on the order of its constraints, such that equivalent
+ * queries issued by different executions (or different runs of EvoSuite) map to
+ * the same key.
+ * 
+ * The constraints are ordered by their text with all variables masked, and the
+ * variables are then renamed to <code>v0</code>, <code>v1</code>, ... in order
+ * of their first occurrence. Variable bounds are part of the key, their
+ * concrete values are not.
+ */
+public final class CanonicalQuery {
+
+	private final String key;
+
+	/** Original variable name to canonical variable name */
+	private final Map<String, String> canonicalNames;
+
+	/** Canonical variable name to original variable name */
+	private final Map<String, String> originalNames;
+
+	private CanonicalQuery(String key, Map<String, String> canonicalNames) {
+		this.key = key;
+		this.canonicalNames = canonicalNames;
+		this.originalNames = new HashMap<String, String>();
+		for (Map.Entry<String, String> entry : canonicalNames.entrySet()) {
+			originalNames.put(entry.getValue(), entry.getKey());
+		}
+	}
+
+	/**
+	 * Build the normal form of a constraint system
+	 * 
+	 * @param solverName
+	 *            identifies the solver, as results of different solvers are
+	 *            not interchangeable
+	 * @param constraints
+	 * @return null if the constraints contain expressions that cannot be
+	 *         represented in the normal form (e.g., references)
+	 */
+	public static CanonicalQuery create(String solverName, Collection<Constraint<?>> constraints) {
+		try {
+			List<Constraint<?>> ordered = new ArrayList<Constraint<?>>(constraints);
+			final Map<Constraint<?>, String> shapeOf = new HashMap<Constraint<?>, String>();
+			for (Constraint<?> constraint : ordered) {
+				shapeOf.put(constraint, print(constraint, null));
+			}
+			Collections.sort(ordered, new Comparator<Constraint<?>>() {
+				@Override
+				public int compare(Constraint<?> c1, Constraint<?> c2) {
+					return shapeOf.get(c1).compareTo(shapeOf.get(c2));
+				}
+			});
+
+			Map<String, String> names = new HashMap<String, String>();
+			StringBuilder key = new StringBuilder(solverName);
+			for (Constraint<?> constraint : ordered) {
+				key.append('\n');
+				key.append(print(constraint, names));
+			}
+			return new CanonicalQuery(key.toString(), names);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static String print(Constraint<?> constraint, Map<String, String> names) {
+		KeyPrinter printer = new KeyPrinter(names);
+		StringBuilder buffer = new StringBuilder();
+		buffer.append(constraint.getClass().getSimpleName());
+		buffer.append('(');
+		constraint.getLeftOperand().accept(printer, buffer);
+		buffer.append(' ').append(constraint.getComparator().name()).append(' ');
+		constraint.getRightOperand().accept(printer, buffer);
+		buffer.append(')');
+		return buffer.toString();
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * Rename the variables of a model of this query to their canonical names
+	 * 
+	 * @param model
+	 * @return null if the model refers to unknown variables
+	 */
+	public Map<String, Object> toCanonicalModel(Map<String, Object> model) {
+		return rename(model, canonicalNames);
+	}
+
+	/**
+	 * Rename the variables of a model in canonical form to the names used by
+	 * this query
+	 * 
+	 * @param model
+	 * @return null if the model refers to unknown variables
+	 */
+	public Map<String, Object> fromCanonicalModel(Map<String, Object> model) {
+		return rename(model, originalNames);
+	}
+
+	private static Map<String, Object> rename(Map<String, Object> model, Map<String, String> names) {
+		Map<String, Object> renamed = new HashMap<String, Object>();
+		for (Map.Entry<String, Object> entry : model.entrySet()) {
+			String name = names.get(entry.getKey());
+			if (name == null) {
+				return null;
+			}
+			renamed.put(name, entry.getValue());
+		}
+		return renamed;
+	}
+
+	/**
+	 * Prints an expression unambiguously. If no name mapping is given, all
+	 * variables are printed as placeholders.
+	 */
+	private static final class KeyPrinter implements ExpressionVisitor<Void, StringBuilder> {
+
+		private final Map<String, String> names;
+
+		KeyPrinter(Map<String, String> names) {
+			this.names = names;
+		}
+
+		private void variable(String type, Variable<?> v, StringBuilder buffer) {
+			buffer.append(type).append('[');
+			constant(v.getMinValue(), buffer);
+			buffer.append(',');
+			constant(v.getMaxValue(), buffer);
+			buffer.append(']');
+			if (names != null) {
+				String name = names.get(v.getName());
+				if (name == null) {
+					name = "v" + names.size();
+					names.put(v.getName(), name);
+				}
+				buffer.append(name);
+			} else {
+				buffer.append('?');
+			}
+		}
+
+		private void constant(Object value, StringBuilder buffer) {
+			if (value == null) {
+				buffer.append("null");
+			} else if (value instanceof String) {
+				String s = (String) value;
+				buffer.append('"').append(s.length()).append(':').append(s).append('"');
+			} else {
+				buffer.append(value);
+			}
+		}
+
+		private Void node(String name, Operator op, StringBuilder buffer, Expression<?>... children) {
+			buffer.append(name);
+			if (op != null) {
+				buffer.append('.').append(op.name());
+			}
+			buffer.append('(');
+			for (int i = 0; i < children.length; i++) {
+				if (i > 0) {
+					buffer.append(',');
+				}
+				children[i].accept(this, buffer);
+			}
+			buffer.append(')');
+			return null;
+		}
+
+		private Void multiple(String name, Operator op, Expression<?> left, Expression<?> right,
+				List<Expression<?>> other, StringBuilder buffer) {
+			List<Expression<?>> children = new ArrayList<Expression<?>>();
+			children.add(left);
+			children.add(right);
+			children.addAll(other);
+			return node(name, op, buffer, children.toArray(new Expression<?>[children.size()]));
+		}
+
+		@Override
+		public Void visit(IntegerBinaryExpression n, StringBuilder arg) {
+			return node("ib", n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand());
+		}
+
+		@Override
+		public Void visit(IntegerComparison n, StringBuilder arg) {
+			return node("icmp", null, arg, n.getLeftOperant(), n.getRightOperant());
+		}
+
+		@Override
+		public Void visit(IntegerConstant n, StringBuilder arg) {
+			arg.append('I');
+			constant(n.getConcreteValue(), arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(IntegerUnaryExpression n, StringBuilder arg) {
+			return node("iu", n.getOperator(), arg, n.getOperand());
+		}
+
+		@Override
+		public Void visit(IntegerVariable n, StringBuilder arg) {
+			variable("I", n, arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(RealComparison n, StringBuilder arg) {
+			return node("rcmp", null, arg, n.getLeftOperant(), n.getRightOperant());
+		}
+
+		@Override
+		public Void visit(RealToIntegerCast n, StringBuilder arg) {
+			return node("r2i", null, arg, n.getArgument());
+		}
+
+		@Override
+		public Void visit(RealUnaryToIntegerExpression n, StringBuilder arg) {
+			return node("ru2i", n.getOperator(), arg, n.getOperand());
+		}
+
+		@Override
+		public Void visit(StringBinaryComparison n, StringBuilder arg) {
+			return node("sbc", n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand());
+		}
+
+		@Override
+		public Void visit(StringBinaryToIntegerExpression n, StringBuilder arg) {
+			return node("sb2i", n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand());
+		}
+
+		@Override
+		public Void visit(StringMultipleComparison n, StringBuilder arg) {
+			return multiple("smc", n.getOperator(), n.getLeftOperand(), n.getRightOperand(), n.getOther(), arg);
+		}
+
+		@Override
+		public Void visit(StringMultipleToIntegerExpression n, StringBuilder arg) {
+			return multiple("sm2i", n.getOperator(), n.getLeftOperand(), n.getRightOperand(), n.getOther(), arg);
+		}
+
+		@Override
+		public Void visit(StringToIntegerCast n, StringBuilder arg) {
+			return node("s2i", null, arg, n.getArgument());
+		}
+
+		@Override
+		public Void visit(StringUnaryToIntegerExpression n, StringBuilder arg) {
+			return node("su2i", n.getOperator(), arg, n.getOperand());
+		}
+
+		@Override
+		public Void visit(IntegerToRealCast n, StringBuilder arg) {
+			return node("i2r", null, arg, n.getArgument());
+		}
+
+		@Override
+		public Void visit(RealBinaryExpression n, StringBuilder arg) {
+			return node("rb", n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand());
+		}
+
+		@Override
+		public Void visit(RealConstant n, StringBuilder arg) {
+			arg.append('R');
+			constant(n.getConcreteValue(), arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(RealUnaryExpression n, StringBuilder arg) {
+			return node("ru", n.getOperator(), arg, n.getOperand());
+		}
+
+		@Override
+		public Void visit(RealVariable n, StringBuilder arg) {
+			variable("R", n, arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(StringReaderExpr n, StringBuilder arg) {
+			arg.append("reader").append(n.getReaderPosition());
+			return node("", null, arg, n.getString());
+		}
+
+		@Override
+		public Void visit(IntegerToStringCast n, StringBuilder arg) {
+			return node("i2s", null, arg, n.getArgument());
+		}
+
+		@Override
+		public Void visit(RealToStringCast n, StringBuilder arg) {
+			return node("r2s", null, arg, n.getArgument());
+		}
+
+		@Override
+		public Void visit(StringBinaryExpression n, StringBuilder arg) {
+			return node("sb", n.getOperator(), arg, n.getLeftOperand(), n.getRightOperand());
+		}
+
+		@Override
+		public Void visit(StringConstant n, StringBuilder arg) {
+			arg.append('S');
+			constant(n.getConcreteValue(), arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(StringMultipleExpression n, StringBuilder arg) {
+			return multiple("sm", n.getOperator(), n.getLeftOperand(), n.getRightOperand(), n.getOther(), arg);
+		}
+
+		@Override
+		public Void visit(StringUnaryExpression n, StringBuilder arg) {
+			return node("su", n.getOperator(), arg, n.getOperand());
+		}
+
+		@Override
+		public Void visit(StringVariable n, StringBuilder arg) {
+			variable("S", n, arg);
+			return null;
+		}
+
+		@Override
+		public Void visit(HasMoreTokensExpr n, StringBuilder arg) {
+			return node("hasMoreTokens", null, arg, n.getTokenizerExpr());
+		}
+
+		@Override
+		public Void visit(NewTokenizerExpr n, StringBuilder arg) {
+			return node("newTokenizer", null, arg, n.getString(), n.getDelimiter());
+		}
+
+		@Override
+		public Void visit(NextTokenizerExpr n, StringBuilder arg) {
+			return node("nextTokenizer", null, arg, n.getTokenizerExpr());
+		}
+
+		@Override
+		public Void visit(StringNextTokenExpr n, StringBuilder arg) {
+			return node("nextToken", null, arg, n.getTokenizerExpr());
+		}
+
+		@Override
+		public Void visit(ReferenceConstant r, StringBuilder arg) {
+			throw new IllegalArgumentException("References have no canonical form");
+		}
+
+		@Override
+		public Void visit(ReferenceVariable r, StringBuilder arg) {
+			throw new IllegalArgumentException("References have no canonical form");
+		}
+
+		@Override
+		public Void visit(GetFieldExpression r, StringBuilder arg) {
+			throw new IllegalArgumentException("References have no canonical form");
+		}
+	}
+}
@@ -0,0 +1,319 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Solver results kept in an append-only file, such that they survive the
+ * client JVM and can be shared by several runs of EvoSuite, also concurrently.
+ * 
+ * Entries are indexed by the key of their {@link CanonicalQuery}, and models
+ * are stored with canonical variable names. The file is read once when the
+ * cache is opened; every new result is appended to it while holding a file
+ * lock. At most <code>maxEntries</code> results are kept in memory, evicting
+ * the least recently used ones, and the file is compacted to the retained
+ * entries once it holds too many records.
+ */
+public final class PersistentSolverCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(PersistentSolverCache.class);
+
+	private static final int MAGIC = 0x45534331;
+
+	private static final byte UNSAT = 0;
+
+	private static final byte SAT = 1;
+
+	private static final byte LONG_VALUE = 'L';
+
+	private static final byte DOUBLE_VALUE = 'D';
+
+	private static final byte STRING_VALUE = 'S';
+
+	private final File file;
+
+	private final int maxEntries;
+
+	private final FileChannel channel;
+
+	private final LinkedHashMap<String, SolverResult> entries;
+
+	/** Number of records in the file, including stale and evicted ones */
+	private int records = 0;
+
+	/**
+	 * Open the cache in the given file, creating it if necessary
+	 * 
+	 * @param file
+	 * @param maxEntries
+	 *            the maximum number of results retained
+	 * @throws IOException
+	 *             if the file cannot be opened or is not a solver cache
+	 */
+	@SuppressWarnings("resource")
+	public PersistentSolverCache(File file, final int maxEntries) throws IOException {
+		this.file = file;
+		this.maxEntries = Math.max(maxEntries, 1);
+		this.entries = new LinkedHashMap<String, SolverResult>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, SolverResult> eldest) {
+				return size() > PersistentSolverCache.this.maxEntries;
+			}
+		};
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists()) {
+			parent.mkdirs();
+		}
+		channel = new RandomAccessFile(file, "rw").getChannel();
+		try (FileLock lock = channel.lock()) {
+			load();
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @param query
+	 * @return the stored result with the variable names of the query, or null
+	 *         if no result is known
+	 */
+	public synchronized SolverResult get(CanonicalQuery query) {
+		SolverResult stored = entries.get(query.getKey());
+		if (stored == null || stored.isUNSAT()) {
+			return stored;
+		}
+		Map<String, Object> model = query.fromCanonicalModel(stored.getModel());
+		return model == null ? null : SolverResult.newSAT(model);
+	}
+
+	/**
+	 * Store the result of a query. Models with values of unsupported types
+	 * are not stored.
+	 * 
+	 * @param query
+	 * @param result
+	 */
+	public synchronized void put(CanonicalQuery query, SolverResult result) {
+		SolverResult canonical = result;
+		if (result.isSAT()) {
+			Map<String, Object> model = query.toCanonicalModel(result.getModel());
+			if (model == null) {
+				return;
+			}
+			canonical = SolverResult.newSAT(model);
+		}
+		byte[] record = encode(query.getKey(), canonical);
+		if (record == null) {
+			return;
+		}
+		entries.put(query.getKey(), canonical);
+
+		try (FileLock lock = channel.lock()) {
+			if (records >= 2 * maxEntries) {
+				compact();
+			} else {
+				channel.write(ByteBuffer.wrap(record), channel.size());
+				records++;
+			}
+		} catch (IOException e) {
+			logger.warn("Could not write to solver cache " + file + ": " + e.getMessage());
+		}
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			logger.debug("Could not close solver cache " + file + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Read all records of the file. A truncated last record (e.g., of a
+	 * process that was killed while writing) is ignored and overwritten later.
+	 */
+	private void load() throws IOException {
+		records = 0;
+		long size = channel.size();
+		if (size == 0) {
+			ByteBuffer header = ByteBuffer.allocate(4);
+			header.putInt(MAGIC);
+			header.flip();
+			channel.write(header, 0);
+			return;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, Integer.MAX_VALUE));
+		while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+			// read whole file
+		}
+		buffer.flip();
+		if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+			throw new IOException(file + " is not a solver cache");
+		}
+
+		while (buffer.remaining() >= 4) {
+			int start = buffer.position();
+			int length = buffer.getInt();
+			if (length <= 0 || length > buffer.remaining()) {
+				buffer.position(start);
+				break;
+			}
+			byte[] record = new byte[length];
+			buffer.get(record);
+			decode(record);
+			records++;
+		}
+		if (buffer.hasRemaining()) {
+			channel.truncate(buffer.position());
+		}
+	}
+
+	/**
+	 * Rewrite the file with the retained entries, after merging in the
+	 * records appended by other processes in the meantime
+	 */
+	private void compact() throws IOException {
+		Map<String, SolverResult> retained = new LinkedHashMap<String, SolverResult>(entries);
+		load();
+		entries.putAll(retained);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		for (Map.Entry<String, SolverResult> entry : entries.entrySet()) {
+			out.write(encode(entry.getKey(), entry.getValue()));
+		}
+		out.flush();
+		channel.truncate(0);
+		channel.write(ByteBuffer.wrap(bytes.toByteArray()), 0);
+		records = entries.size();
+	}
+
+	private static byte[] encode(String key, SolverResult result) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			writeString(out, key);
+			if (result.isUNSAT()) {
+				out.writeByte(UNSAT);
+			} else {
+				Map<String, Object> model = result.getModel();
+				out.writeByte(SAT);
+				out.writeInt(model.size());
+				for (Map.Entry<String, Object> entry : model.entrySet()) {
+					writeString(out, entry.getKey());
+					Object value = entry.getValue();
+					if (value instanceof Long) {
+						out.writeByte(LONG_VALUE);
+						out.writeLong((Long) value);
+					} else if (value instanceof Double) {
+						out.writeByte(DOUBLE_VALUE);
+						out.writeDouble((Double) value);
+					} else if (value instanceof String) {
+						out.writeByte(STRING_VALUE);
+						writeString(out, (String) value);
+					} else {
+						return null;
+					}
+				}
+			}
+			out.flush();
+
+			ByteBuffer record = ByteBuffer.allocate(4 + bytes.size());
+			record.putInt(bytes.size());
+			record.put(bytes.toByteArray());
+			return record.array();
+		} catch (IOException e) {
+			// cannot happen on a byte array
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void decode(byte[] record) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+		String key = readString(in);
+		byte type = in.readByte();
+		if (type == UNSAT) {
+			entries.put(key, SolverResult.newUNSAT());
+			return;
+		}
+		int size = in.readInt();
+		Map<String, Object> model = new HashMap<String, Object>();
+		for (int i = 0; i < size; i++) {
+			String name = readString(in);
+			byte tag = in.readByte();
+			switch (tag) {
+			case LONG_VALUE:
+				model.put(name, in.readLong());
+				break;
+			case DOUBLE_VALUE:
+				model.put(name, in.readDouble());
+				break;
+			case STRING_VALUE:
+				model.put(name, readString(in));
+				break;
+			default:
+				throw new IOException("Corrupted solver cache " + file);
+			}
+		}
+		entries.put(key, SolverResult.newSAT(model));
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -19,14 +19,20 @@
  */
 package org.evosuite.symbolic.solver;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 
+import org.evosuite.Properties;
 import org.evosuite.symbolic.expr.Constraint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public final class SolverCache {
 
+	private static final Logger logger = LoggerFactory.getLogger(SolverCache.class);
+
 	/**
 	 * 
 	 * @param solver
@@ -39,6 +45,21 @@ public final class SolverCache {
 			return cached_solution;
 		}
 
+		PersistentSolverCache persistentCache = getPersistentCache();
+		CanonicalQuery query = null;
+		if (persistentCache != null) {
+			query = CanonicalQuery.create(solver.getClass().getName(), constraints);
+			if (query != null) {
+				SolverResult storedResult = persistentCache.get(query);
+				if (storedResult != null) {
+					number_of_hits++;
+					number_of_persistent_hits++;
+					cached_solver_results.put(constraints, storedResult);
+					return storedResult;
+				}
+			}
+		}
+
 		SolverResult solverResult;
 		try {
 			solverResult = solver.solve(constraints);
@@ -47,6 +68,9 @@ public final class SolverCache {
 			} else {
 				addSAT(constraints, solverResult);
 			}
+			if (query != null) {
+				persistentCache.put(query, solverResult);
+			}
 		} catch (SolverTimeoutException | IOException | SolverParseException | SolverEmptyQueryException
 				| SolverErrorException e) {
 			solverResult = null;
@@ -72,6 +96,14 @@ public final class SolverCache {
 
 	private int number_of_accesses = 0;
 	private int number_of_hits = 0;
+	private int number_of_persistent_hits = 0;
+
+	/**
+	 * Results kept on disk across runs, see
+	 * {@link org.evosuite.Properties#DSE_SOLVER_CACHE_FILE}
+	 */
+	private PersistentSolverCache persistentCache = null;
+	private boolean persistentCacheFailed = false;
 
 	private SolverCache() {
 		/* empty constructor */
@@ -108,6 +140,33 @@ public final class SolverCache {
 		}
 	}
 
+	/**
+	 * @return the number of results that were found in the persistent cache
+	 */
+	public int getNumberOfPersistentHits() {
+		return number_of_persistent_hits;
+	}
+
+	private PersistentSolverCache getPersistentCache() {
+		if (Properties.DSE_SOLVER_CACHE_FILE == null || persistentCacheFailed) {
+			return null;
+		}
+		File file = new File(Properties.DSE_SOLVER_CACHE_FILE);
+		if (persistentCache != null && !persistentCache.getFile().equals(file)) {
+			persistentCache.close();
+			persistentCache = null;
+		}
+		if (persistentCache == null) {
+			try {
+				persistentCache = new PersistentSolverCache(file, Properties.DSE_SOLVER_CACHE_SIZE);
+			} catch (IOException e) {
+				logger.warn("Cannot use solver cache " + file + ": " + e.getMessage());
+				persistentCacheFailed = true;
+			}
+		}
+		return persistentCache;
+	}
+
 	public double getHitRate() {
 		return (double) this.number_of_hits / (double) this.number_of_accesses;
 	}
@@ -0,0 +1,450 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.exec.CommandLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived SMT solver process that answers a sequence of queries over its
+ * standard input and output, instead of starting one process per query.
+ *
+ * Each query is split into its header (<code>set-logic</code>,
+ * <code>set-option</code>), its declarations and its assertions. The header
+ * is sent once when the process is started. Every assertion is asserted on
+ * its own assertion level, together with the declarations it needs, and the
+ * levels are kept after the query was answered. A following query only pops
+ * the levels that are not a prefix of its own assertions, so sibling queries
+ * generated from the same path condition share the solver state of their
+ * common prefix.
+ *
+ * The end of an answer is recognised by an <code>echo</code> marker. If the
+ * solver does not answer within the timeout or dies, the process is killed
+ * and a new one is started for the next query.
+ */
+public final class SolverSession {
+
+	private static final Logger logger = LoggerFactory.getLogger(SolverSession.class);
+
+	private static final String MARKER = "evosuite-solver-session-done";
+
+	private static final Map<String, SolverSession> sessions = new HashMap<String, SolverSession>();
+
+	/**
+	 * Return the session running the given solver command, creating it if
+	 * necessary
+	 *
+	 * @param solverCmd
+	 * @return
+	 */
+	public static synchronized SolverSession getSession(String solverCmd) {
+		SolverSession session = sessions.get(solverCmd);
+		if (session == null) {
+			session = new SolverSession(solverCmd);
+			sessions.put(solverCmd, session);
+		}
+		return session;
+	}
+
+	/**
+	 * Kill all the solver processes that were started
+	 */
+	public static synchronized void closeAll() {
+		for (SolverSession session : sessions.values()) {
+			session.close();
+		}
+		sessions.clear();
+	}
+
+	/**
+	 * One assertion level of the solver, holding an assertion and the
+	 * declarations it introduced
+	 */
+	private static final class Level {
+
+		private final String assertion;
+
+		private final List<String> declarations;
+
+		private Level(String assertion, List<String> declarations) {
+			this.assertion = assertion;
+			this.declarations = declarations;
+		}
+	}
+
+	/**
+	 * The commands of a query, grouped by their kind
+	 */
+	static final class SplitQuery {
+
+		final List<String> header = new ArrayList<String>();
+
+		/** Declarations by the name of the declared symbol, in query order */
+		final LinkedHashMap<String, String> declarations = new LinkedHashMap<String, String>();
+
+		final List<String> assertions = new ArrayList<String>();
+	}
+
+	private final String solverCmd;
+
+	private Process process = null;
+
+	private Writer stdin = null;
+
+	private BlockingQueue<String> stdout = null;
+
+	private List<String> header = null;
+
+	private final List<Level> levels = new ArrayList<Level>();
+
+	private int queries = 0;
+
+	private int reusedLevels = 0;
+
+	private SolverSession(String solverCmd) {
+		this.solverCmd = solverCmd;
+	}
+
+	/**
+	 * Answer the query, writing the output of the solver for it to
+	 * <code>outputStream</code>. The output is the same a solver process
+	 * started for this query only would have written.
+	 *
+	 * @param smtQuery
+	 *            the query, as it would be sent to a new solver process
+	 * @param hard_timeout
+	 *            milliseconds to wait for the answer
+	 * @param outputStream
+	 * @return 0 if the solver answered, -1 otherwise
+	 * @throws IOException
+	 *             if the query cannot be interpreted as a sequence of SMT-LIB
+	 *             commands
+	 */
+	public synchronized int solve(String smtQuery, int hard_timeout, OutputStream outputStream) throws IOException {
+		SplitQuery query = split(smtQuery);
+		if (query == null) {
+			throw new IOException("Cannot split SMT query into commands");
+		}
+
+		long start_time_millis = System.currentTimeMillis();
+		try {
+			if (process == null || !query.header.equals(header)) {
+				restart(query.header);
+			}
+			queries++;
+
+			StringBuilder commands = new StringBuilder();
+			int common = retainCommonPrefix(query, commands);
+			reusedLevels += common;
+			pushLevels(query, common, commands);
+
+			commands.append("(check-sat)\n");
+			commands.append("(get-model)\n");
+			commands.append("(echo \"" + MARKER + "\")\n");
+			stdin.write(commands.toString());
+			stdin.flush();
+
+			long deadline = start_time_millis + hard_timeout;
+			StringBuilder answer = new StringBuilder();
+			while (true) {
+				long remaining = deadline - System.currentTimeMillis();
+				String line = remaining > 0 ? stdout.poll(remaining, TimeUnit.MILLISECONDS) : null;
+				if (line == null) {
+					logger.debug("Solver session stopped due to solver timeout");
+					kill();
+					return -1;
+				}
+				if (line.contains(MARKER)) {
+					break;
+				}
+				answer.append(line).append("\n");
+			}
+			outputStream.write(answer.toString().getBytes(StandardCharsets.UTF_8));
+			return 0;
+
+		} catch (IOException ex) {
+			logger.debug("An IO Exception occurred while talking to the solver session: " + ex.getMessage());
+			kill();
+			return -1;
+		} catch (InterruptedException ex) {
+			kill();
+			Thread.currentThread().interrupt();
+			return -1;
+		} finally {
+			long duration_millis = System.currentTimeMillis() - start_time_millis;
+			logger.debug("Solver session query time was {}ms", duration_millis);
+		}
+	}
+
+	/**
+	 * Pop the levels that are not a prefix of the assertions of the query
+	 *
+	 * @return the number of levels kept
+	 */
+	private int retainCommonPrefix(SplitQuery query, StringBuilder commands) {
+		Set<String> declarations = new HashSet<String>(query.declarations.values());
+		int common = 0;
+		while (common < levels.size() && common < query.assertions.size()) {
+			Level level = levels.get(common);
+			if (level.assertion == null || !level.assertion.equals(query.assertions.get(common))
+					|| !declarations.containsAll(level.declarations)) {
+				break;
+			}
+			common++;
+		}
+		// A trailing level without assertion only holds unused declarations
+		if (common == levels.size() - 1 && levels.get(common).assertion == null
+				&& common == query.assertions.size()
+				&& declarations.containsAll(levels.get(common).declarations)) {
+			common++;
+		}
+		int pops = levels.size() - common;
+		if (pops > 0) {
+			commands.append("(pop " + pops + ")\n");
+			levels.subList(common, levels.size()).clear();
+		}
+		return common;
+	}
+
+	/**
+	 * Push one level per remaining assertion, declaring the symbols it uses
+	 */
+	private void pushLevels(SplitQuery query, int common, StringBuilder commands) {
+		Set<String> declared = new HashSet<String>();
+		for (Level level : levels) {
+			declared.addAll(level.declarations);
+		}
+		for (int i = common; i < query.assertions.size(); i++) {
+			String assertion = query.assertions.get(i);
+			List<String> needed = neededDeclarations(assertion, query, declared);
+			commands.append("(push 1)\n");
+			for (String declaration : needed) {
+				commands.append(declaration).append("\n");
+			}
+			commands.append(assertion).append("\n");
+			levels.add(new Level(assertion, needed));
+		}
+		List<String> unused = new ArrayList<String>();
+		for (String declaration : query.declarations.values()) {
+			if (declared.add(declaration)) {
+				unused.add(declaration);
+			}
+		}
+		if (!unused.isEmpty()) {
+			commands.append("(push 1)\n");
+			for (String declaration : unused) {
+				commands.append(declaration).append("\n");
+			}
+			levels.add(new Level(null, unused));
+		}
+	}
+
+	/**
+	 * The declarations of the query that the command refers to, directly or
+	 * through other declarations, and that are not declared yet. They are
+	 * returned in the order of the query and added to <code>declared</code>.
+	 */
+	private static List<String> neededDeclarations(String command, SplitQuery query, Set<String> declared) {
+		Set<String> needed = new HashSet<String>();
+		List<String> pending = new ArrayList<String>();
+		pending.add(command);
+		while (!pending.isEmpty()) {
+			String text = pending.remove(pending.size() - 1);
+			StringTokenizer tokenizer = new StringTokenizer(text, "() \n\t\r");
+			while (tokenizer.hasMoreTokens()) {
+				String declaration = query.declarations.get(tokenizer.nextToken());
+				if (declaration != null && !declared.contains(declaration) && needed.add(declaration)) {
+					pending.add(declaration);
+				}
+			}
+		}
+		List<String> ordered = new ArrayList<String>();
+		for (String declaration : query.declarations.values()) {
+			if (needed.contains(declaration)) {
+				ordered.add(declaration);
+				declared.add(declaration);
+			}
+		}
+		return ordered;
+	}
+
+	private void restart(List<String> newHeader) throws IOException {
+		kill();
+		String[] cmd = CommandLine.parse(solverCmd).toStrings();
+		logger.debug("Starting solver session: {}", Arrays.toString(cmd));
+		ProcessBuilder builder = new ProcessBuilder(cmd);
+		builder.redirectErrorStream(true);
+		final Process newProcess = builder.start();
+		final BlockingQueue<String> lines = new LinkedBlockingQueue<String>();
+		Thread reader = new Thread("solver-session-reader") {
+			@Override
+			public void run() {
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(newProcess.getInputStream(), StandardCharsets.UTF_8));
+				try {
+					String line;
+					while ((line = in.readLine()) != null) {
+						lines.add(line);
+					}
+				} catch (IOException e) {
+					// the process was killed
+				}
+			}
+		};
+		reader.setDaemon(true);
+		reader.start();
+
+		process = newProcess;
+		stdout = lines;
+		stdin = new OutputStreamWriter(newProcess.getOutputStream(), StandardCharsets.UTF_8);
+		header = new ArrayList<String>(newHeader);
+		StringBuilder commands = new StringBuilder();
+		for (String command : header) {
+			commands.append(command).append("\n");
+		}
+		stdin.write(commands.toString());
+		stdin.flush();
+	}
+
+	private void kill() {
+		if (process != null) {
+			process.destroy();
+		}
+		process = null;
+		stdin = null;
+		stdout = null;
+		header = null;
+		levels.clear();
+	}
+
+	private synchronized void close() {
+		logger.debug("Solver session answered {} queries, reusing {} assertion levels", queries, reusedLevels);
+		kill();
+	}
+
+	/**
+	 * Split a query into its commands. <code>check-sat</code>,
+	 * <code>get-model</code> and <code>exit</code> are dropped.
+	 *
+	 * @param smtQuery
+	 * @return null if the query contains other commands or is not well formed
+	 */
+	static SplitQuery split(String smtQuery) {
+		SplitQuery query = new SplitQuery();
+		int depth = 0;
+		int start = -1;
+		int i = 0;
+		int length = smtQuery.length();
+		while (i < length) {
+			char c = smtQuery.charAt(i);
+			if (c == '"') {
+				// string literal, quotes are escaped by doubling them
+				i++;
+				while (i < length) {
+					char d = smtQuery.charAt(i);
+					if (d == '\\' && i + 1 < length) {
+						i++;
+					} else if (d == '"') {
+						if (i + 1 < length && smtQuery.charAt(i + 1) == '"') {
+							i++;
+						} else {
+							break;
+						}
+					}
+					i++;
+				}
+				if (i >= length) {
+					return null;
+				}
+			} else if (c == '|') {
+				i = smtQuery.indexOf('|', i + 1);
+				if (i < 0) {
+					return null;
+				}
+			} else if (c == ';') {
+				int end = smtQuery.indexOf('\n', i);
+				i = end < 0 ? length : end;
+				continue;
+			} else if (c == '(') {
+				if (depth == 0) {
+					start = i;
+				}
+				depth++;
+			} else if (c == ')') {
+				depth--;
+				if (depth < 0) {
+					return null;
+				}
+				if (depth == 0 && !addCommand(query, smtQuery.substring(start, i + 1))) {
+					return null;
+				}
+			} else if (depth == 0 && !Character.isWhitespace(c)) {
+				return null;
+			}
+			i++;
+		}
+		if (depth != 0) {
+			return null;
+		}
+		return query;
+	}
+
+	private static boolean addCommand(SplitQuery query, String command) {
+		StringTokenizer tokenizer = new StringTokenizer(command, "() \n\t\r");
+		if (!tokenizer.hasMoreTokens()) {
+			return false;
+		}
+		String name = tokenizer.nextToken();
+		if (name.equals("set-logic") || name.equals("set-option") || name.equals("set-info")) {
+			query.header.add(command);
+		} else if (name.equals("declare-fun") || name.equals("declare-const") || name.equals("define-fun")) {
+			if (!tokenizer.hasMoreTokens()) {
+				return false;
+			}
+			query.declarations.put(tokenizer.nextToken(), command);
+		} else if (name.equals("assert")) {
+			query.assertions.add(command);
+		} else if (!name.equals("check-sat") && !name.equals("get-model") && !name.equals("exit")) {
+			return false;
+		}
+		return true;
+	}
+}
@@ -23,6 +23,7 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import org.evosuite.Properties;
 import org.evosuite.utils.ProcessLauncher;
 import org.evosuite.utils.ProcessTimeoutException;
 
@@ -36,6 +37,22 @@ public abstract class SubProcessSolver extends Solver {
 		super();
 	}
 
+	/**
+	 * Send the query to the solver, either through the long-lived
+	 * {@link SolverSession} of the command if solver sessions are enabled, or
+	 * to a new process otherwise
+	 */
+	protected static int launchSolver(String solverCmd, String smtQuery, int hard_timeout, OutputStream outputStream) throws IOException {
+		if (Properties.DSE_SOLVER_SESSION) {
+			try {
+				return SolverSession.getSession(solverCmd).solve(smtQuery, hard_timeout, outputStream);
+			} catch (IOException ex) {
+				logger.debug("Query cannot be sent to a solver session: " + ex.getMessage());
+			}
+		}
+		return launchNewProcess(solverCmd, smtQuery, hard_timeout, outputStream);
+	}
+
 	protected static int launchNewProcess(String solverCmd, String smtQuery, int hard_timeout, OutputStream outputStream) throws IOException {
 
 		ByteArrayInputStream input = new ByteArrayInputStream(smtQuery.getBytes());
@@ -134,7 +134,7 @@ public final class CVC4Solver extends SubProcessSolver {
 		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
 
 		try {
-			launchNewProcess(cvc4Cmd, smtQueryStr, (int) cvcTimeout, stdout);
+			launchSolver(cvc4Cmd, smtQueryStr, (int) cvcTimeout, stdout);
 
 			String cvc4ResultStr = stdout.toString("UTF-8");
 
@@ -274,7 +274,13 @@ public final class CVC4Solver extends SubProcessSolver {
 		 * More details on both of these points can be found in Sections 5.2 -
 		 * 5.4 of http://homepage.cs.uiowa.edu/~ajreynol/thesis.pdf.
 		 */
-		cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+		if (Properties.DSE_SOLVER_SESSION) {
+			cmd += " --incremental"; // allow push and pop
+			cmd += " --continued-execution"; // keep running after an error
+			cmd += " --tlimit-per=" + cvcTimeout; // set timeout of each query
+		} else {
+			cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+		}
 		return cmd;
 	}
 
@@ -101,7 +101,7 @@ public class Z3Solver extends SubProcessSolver {
 
 		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
 
-		launchNewProcess(z3Cmd, smtQueryStr, (int) hard_timeout, stdout);
+		launchSolver(z3Cmd, smtQueryStr, (int) hard_timeout, stdout);
 
 		String z3ResultStr = stdout.toString("UTF-8");
 
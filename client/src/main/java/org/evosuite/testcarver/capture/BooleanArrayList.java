@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+/**
+ * Growable list of booleans that keeps one bit per element
+ */
+final class BooleanArrayList extends AbstractList<Boolean> implements RandomAccess {
+
+	private final BitSet elements = new BitSet();
+
+	private int size = 0;
+
+	@Override
+	public Boolean get(int index) {
+		checkIndex(index);
+		return elements.get(index);
+	}
+
+	@Override
+	public Boolean set(int index, Boolean element) {
+		checkIndex(index);
+		boolean previous = elements.get(index);
+		elements.set(index, element);
+		return previous;
+	}
+
+	@Override
+	public boolean add(Boolean element) {
+		elements.set(size++, element);
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		elements.clear();
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+}
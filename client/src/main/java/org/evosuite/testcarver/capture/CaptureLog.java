@@ -34,6 +34,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.evosuite.PackageInfo;
+import org.evosuite.Properties;
 import org.evosuite.testcarver.instrument.TransformerUtil;
 import org.objectweb.asm.Type;
 import org.slf4j.Logger;
@@ -141,21 +142,36 @@ public final class CaptureLog implements Cloneable {
 	 * Main constructor
 	 */
 	public CaptureLog() {
-		this.objectIds = new ArrayList<Integer>();
-		this.methodNames = new ArrayList<String>();
-		this.params = new ArrayList<Object[]>();
-		this.captureIds = new ArrayList<Integer>();
+		this(Properties.CAPTURE_LOG_SPILL_SIZE < 0 ? -1L
+		        : Properties.CAPTURE_LOG_SPILL_SIZE * 1024L * 1024L);
+	}
+
+	/**
+	 * The columns of the log are kept in primitive arrays, and method names,
+	 * descriptors and class names are interned in a table shared by the log
+	 * 
+	 * @param spillThreshold
+	 *            number of bytes of string parameters kept in memory before
+	 *            they are written to a temporary file, negative for never
+	 */
+	CaptureLog(final long spillThreshold) {
+		final InternedStringList.Table names = new InternedStringList.Table();
+
+		this.objectIds = new IntArrayList();
+		this.methodNames = new InternedStringList(names);
+		this.params = new SpillingParamList(spillThreshold);
+		this.captureIds = new IntArrayList();
 		this.returnValues = new ArrayList<Object>();
-		this.descList = new ArrayList<String>();
+		this.descList = new InternedStringList(names);
 
 		this.oidRecMapping = new LinkedHashMap<Integer, Integer>();
-		this.oidInitRecNo = new ArrayList<Integer>();
-		this.oidClassNames = new ArrayList<String>();
-		this.oids = new ArrayList<Integer>();
-		this.oidFirstInits = new ArrayList<Integer>();
-		this.oidDependencies = new ArrayList<Integer>();
+		this.oidInitRecNo = new IntArrayList();
+		this.oidClassNames = new InternedStringList(names);
+		this.oids = new IntArrayList();
+		this.oidFirstInits = new IntArrayList();
+		this.oidDependencies = new IntArrayList();
 
-		this.isStaticCallList = new ArrayList<Boolean>();
+		this.isStaticCallList = new BooleanArrayList();
 
 		this.oidNamesOfAccessedFields = new LinkedHashMap<Integer, String>();
 
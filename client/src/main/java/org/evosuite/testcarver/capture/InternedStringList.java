@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * List of strings that stores an index into a table of distinct strings per
+ * element. Method names, descriptors and class names of a capture log repeat
+ * for most records, such that each of them is only kept once in the table.
+ * Several lists can share the same table
+ */
+final class InternedStringList extends AbstractList<String> implements RandomAccess {
+
+	/**
+	 * Distinct strings, and their position in the table
+	 */
+	static final class Table {
+
+		private final List<String> strings = new ArrayList<String>();
+
+		private final Map<String, Integer> indices = new HashMap<String, Integer>();
+
+		int intern(String string) {
+			Integer index = indices.get(string);
+			if (index == null) {
+				index = strings.size();
+				strings.add(string);
+				indices.put(string, index);
+			}
+			return index;
+		}
+
+		String get(int index) {
+			return strings.get(index);
+		}
+
+		int size() {
+			return strings.size();
+		}
+
+		void clear() {
+			strings.clear();
+			indices.clear();
+		}
+	}
+
+	private final Table table;
+
+	private final IntArrayList indices = new IntArrayList();
+
+	InternedStringList(Table table) {
+		this.table = table;
+	}
+
+	@Override
+	public String get(int index) {
+		return table.get(indices.getInt(index));
+	}
+
+	@Override
+	public String set(int index, String element) {
+		return table.get(indices.set(index, table.intern(element)));
+	}
+
+	@Override
+	public boolean add(String element) {
+		indices.add(table.intern(element));
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Only clears the indices of this list, the table may still be used by
+	 * other lists
+	 */
+	@Override
+	public void clear() {
+		indices.clear();
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return indices.size();
+	}
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * List of the parameters of the records of a capture log. The strings among
+ * the parameters (mostly the serialized states of objects whose construction
+ * was not observed) dominate the size of a log. Once they exceed a threshold,
+ * they are written to a temporary file, and only their position is kept in
+ * memory. Strings added later on are written to the file right away, and are
+ * read back whenever their record is accessed
+ */
+final class SpillingParamList extends AbstractList<Object[]> implements RandomAccess {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpillingParamList.class);
+
+	/** Position of a string in the spill file */
+	private static final class SpilledString {
+
+		private final long offset;
+
+		private final int length;
+
+		private SpilledString(long offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	/** Number of bytes of strings kept in memory before spilling, negative for never */
+	private long threshold;
+
+	private final List<Object[]> entries = new ArrayList<Object[]>();
+
+	/** Records with at least one string in the spill file */
+	private final BitSet spilled = new BitSet();
+
+	/** Estimated number of bytes of the strings kept in memory */
+	private long bufferedBytes = 0;
+
+	private File spillFile = null;
+
+	private RandomAccessFile spillData = null;
+
+	private long spillLength = 0;
+
+	SpillingParamList(long threshold) {
+		this.threshold = threshold;
+	}
+
+	/**
+	 * @return true if strings are written to a temporary file
+	 */
+	boolean isSpilling() {
+		return spillData != null;
+	}
+
+	@Override
+	public Object[] get(int index) {
+		Object[] params = entries.get(index);
+		if (!spilled.get(index))
+			return params;
+
+		Object[] copy = params.clone();
+		for (int i = 0; i < copy.length; i++) {
+			if (copy[i] instanceof SpilledString)
+				copy[i] = read((SpilledString) copy[i]);
+		}
+		return copy;
+	}
+
+	@Override
+	public Object[] set(int index, Object[] params) {
+		Object[] previous = get(index);
+		entries.set(index, params);
+		spilled.clear(index);
+		return previous;
+	}
+
+	@Override
+	public boolean add(Object[] params) {
+		int index = entries.size();
+		if (isSpilling()) {
+			entries.add(spill(index, params));
+		} else {
+			entries.add(params);
+			bufferedBytes += estimateSize(params);
+			if (threshold >= 0 && bufferedBytes > threshold)
+				startSpilling();
+		}
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Also deletes the spill file
+	 */
+	@Override
+	public void clear() {
+		entries.clear();
+		spilled.clear();
+		bufferedBytes = 0;
+		closeSpillFile();
+		modCount++;
+	}
+
+	private static long estimateSize(Object[] params) {
+		long size = 0;
+		for (Object param : params) {
+			if (param instanceof String)
+				size += 2L * ((String) param).length();
+		}
+		return size;
+	}
+
+	private void startSpilling() {
+		try {
+			spillFile = File.createTempFile("EvoSuite_capture_log_", ".tmp");
+			spillFile.deleteOnExit();
+			spillData = new RandomAccessFile(spillFile, "rw");
+			spillLength = 0;
+		} catch (IOException e) {
+			logger.warn("Cannot create file to spill the capture log to, keeping it in memory: " + e);
+			threshold = -1;
+			closeSpillFile();
+			return;
+		}
+		logger.info("Capture log exceeds {} bytes, spilling to {}", threshold, spillFile);
+		for (int i = 0; i < entries.size(); i++) {
+			entries.set(i, spill(i, entries.get(i)));
+		}
+		bufferedBytes = 0;
+	}
+
+	private Object[] spill(int index, Object[] params) {
+		Object[] stored = null;
+		for (int i = 0; i < params.length; i++) {
+			if (!(params[i] instanceof String))
+				continue;
+
+			SpilledString position = write((String) params[i]);
+			if (position == null) {
+				bufferedBytes += 2L * ((String) params[i]).length();
+				continue;
+			}
+			if (stored == null)
+				stored = params.clone();
+			stored[i] = position;
+		}
+		if (stored == null)
+			return params;
+
+		spilled.set(index);
+		return stored;
+	}
+
+	private SpilledString write(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		try {
+			spillData.seek(spillLength);
+			spillData.write(bytes);
+		} catch (IOException e) {
+			logger.warn("Cannot spill capture log: " + e);
+			return null;
+		}
+		SpilledString position = new SpilledString(spillLength, bytes.length);
+		spillLength += bytes.length;
+		return position;
+	}
+
+	private String read(SpilledString position) {
+		byte[] bytes = new byte[position.length];
+		try {
+			spillData.seek(position.offset);
+			spillData.readFully(bytes);
+		} catch (IOException e) {
+			throw new IllegalStateException("Cannot read spilled capture log from " + spillFile, e);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private void closeSpillFile() {
+		if (spillData != null) {
+			try {
+				spillData.close();
+			} catch (IOException e) {
+				logger.debug("Cannot close spill file: " + e);
+			}
+			spillData = null;
+		}
+		if (spillFile != null) {
+			if (!spillFile.delete())
+				logger.debug("Cannot delete spill file " + spillFile);
+			spillFile = null;
+		}
+		spillLength = 0;
+	}
+
+	/**
+	 * Logs are serialized with all their strings, such that they do not
+	 * depend on the spill file
+	 */
+	private Object writeReplace() {
+		return new ArrayList<Object[]>(this);
+	}
+}
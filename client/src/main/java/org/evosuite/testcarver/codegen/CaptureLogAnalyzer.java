@@ -61,22 +61,29 @@ public final class CaptureLogAnalyzer implements ICaptureLogAnalyzer
 			throw new IllegalArgumentException("array of observed classes must not be empty");
 
 		final CaptureLog log = originalLog.clone();
+		try
+		{
+			final HashSet<String> observedClassNames = extractObservedClassNames(observedClasses);
+			CaptureLogAnalyzerException.check(! CollectionUtil.isNullOrEmpty(observedClassNames), "could not extract class names for ", Arrays.toString(observedClasses));
 
-		final HashSet<String> observedClassNames = extractObservedClassNames(observedClasses);
-		CaptureLogAnalyzerException.check(! CollectionUtil.isNullOrEmpty(observedClassNames), "could not extract class names for ", Arrays.toString(observedClasses));
+			final List<Integer> targetOIDs = log.getTargetOIDs(observedClassNames);
+			if(targetOIDs.isEmpty())
+			{
+				logger.info("could not find any oids for {} -> {} ==> no code is generated\n", observedClassNames, Arrays.toString(observedClasses));
+				return;
+			} else {
+				logger.debug("Target oids: {}", targetOIDs);
+			}
 
-		final List<Integer> targetOIDs = log.getTargetOIDs(observedClassNames);
-		if(targetOIDs.isEmpty())
+			final int[] oidExchange = analyzeLog(generator, blackList, log, targetOIDs);
+			logger.debug("Going to postprocess stage");
+			postProcessLog(originalLog, generator, blackList, log, oidExchange, observedClasses);
+		}
+		finally
 		{
-			logger.info("could not find any oids for {} -> {} ==> no code is generated\n", observedClassNames, Arrays.toString(observedClasses));
-			return;
-		} else {
-			logger.debug("Target oids: {}", targetOIDs);
+			// the copy may have spilled its parameters into a temporary file of its own
+			log.clear();
 		}
-
-		final int[] oidExchange = analyzeLog(generator, blackList, log, targetOIDs);
-		logger.debug("Going to postprocess stage");
-		postProcessLog(originalLog, generator, blackList, log, oidExchange, observedClasses);
 	}
 
 	private void postProcessLog(final CaptureLog originalLog,
@@ -76,6 +76,10 @@ public class CarvingRunListener extends RunListener {
 			LoggingUtils.getEvoLogger().info(" - Carving test {}.{}", description.getClassName(), description.getMethodName());
 			this.processLog(description, log);
 		}
+		if (log != null) {
+			// releases the spilled part of the log
+			log.clear();
+		}
 		Capturer.clear();
 	}
 
@@ -29,9 +29,13 @@ import org.evosuite.testcase.variable.VariableReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Remove all statements from a test case that do not contribute to the fitness
@@ -132,6 +136,10 @@ public class TestCaseMinimizer {
 			return;
 		}
 		
+		if (Properties.MINIMIZE_CHUNKS && !removeChunks(c)) {
+			return;
+		}
+
 		boolean changed = true;
 
 		while (changed) {
@@ -202,6 +210,106 @@ public class TestCaseMinimizer {
 
 	}
 
+	/**
+	 * Delta debugging phase of the minimization: try to remove chunks of
+	 * statements at once, starting with halves of the test and refining the
+	 * chunks whenever none of them can be removed. Each chunk is closed under
+	 * references, i.e., all statements that use a value defined in the chunk
+	 * are removed together with it, so the remaining test needs no repair. The
+	 * chunks never get smaller than two statements; single statements are
+	 * left to the statement-wise minimization.
+	 * 
+	 * @param c
+	 *            a {@link org.evosuite.testcase.TestChromosome} object.
+	 * @return false if the timeout was reached
+	 */
+	private boolean removeChunks(TestChromosome c) {
+		int numChunks = 2;
+		while (numChunks <= c.test.size() / 2) {
+			int size = c.test.size();
+			boolean removed = false;
+
+			// Later statements are more likely to be removable, so start at the end
+			for (int chunk = numChunks - 1; chunk >= 0 && !removed; chunk--) {
+				if (isTimeoutReached()) {
+					logger.debug("Timeout reached before removing chunk {} of {}", chunk, numChunks);
+					return false;
+				}
+
+				Set<Integer> positions = getClosure(c.test, chunk * size / numChunks,
+				                                    (chunk + 1) * size / numChunks);
+				if (positions.size() == size)
+					continue;
+
+				logger.debug("Deleting {} statements", positions.size());
+				TestChromosome copy = (TestChromosome) c.clone();
+				for (Integer position : positions) {
+					c.test.remove(position);
+				}
+				c.setChanged(true);
+
+				if (isTimeoutReached()) {
+					logger.debug("Keeping original version due to timeout");
+					restoreTestCase(c, copy);
+					return false;
+				}
+
+				if (!isWorse(fitnessFunction, copy, c)) {
+					logger.debug("Keeping shorter version");
+					removed = true;
+				} else {
+					logger.debug("Keeping original version");
+					restoreTestCase(c, copy);
+				}
+			}
+
+			if (removed) {
+				numChunks = Math.max(numChunks - 1, 2);
+			} else {
+				numChunks *= 2;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determine the statements that have to be removed together with the
+	 * statements in the given range: all statements referencing their values,
+	 * and all statements that depend on them through constraints
+	 * 
+	 * @param test
+	 *            a {@link org.evosuite.testcase.TestCase} object.
+	 * @param from
+	 *            first position of the range
+	 * @param to
+	 *            position after the range
+	 * @return the positions, in descending order
+	 */
+	static Set<Integer> getClosure(TestCase test, int from, int to) {
+		Set<Integer> positions = new TreeSet<Integer>(Collections.reverseOrder());
+		Deque<Integer> pending = new ArrayDeque<Integer>();
+		for (int position = from; position < to; position++) {
+			pending.add(position);
+		}
+		while (!pending.isEmpty()) {
+			int position = pending.poll();
+			if (!positions.add(position))
+				continue;
+
+			// The return value of an assignment is a field or array reference,
+			// whose position is the one of its owner, so track positions directly
+			VariableReference var = test.getReturnValue(position);
+			for (int i = position + 1; i < test.size(); i++) {
+				Statement statement = test.getStatement(i);
+				if (statement.references(var)
+				        || statement.references(var.getAdditionalVariableReference()))
+					pending.add(i);
+			}
+			pending.addAll(ConstraintVerifier.dependentPositions(test, position));
+		}
+		return positions;
+	}
+
 	private static void restoreTestCase(TestChromosome c, TestChromosome copy) {
 		c.test = copy.test;
 		c.copyCachedResults(copy);
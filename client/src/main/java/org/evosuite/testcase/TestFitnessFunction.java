@@ -23,6 +23,7 @@ import java.util.List;
 
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionResultCache;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testsuite.TestSuiteChromosome;
 
@@ -88,7 +89,18 @@ public abstract class TestFitnessFunction extends FitnessFunction<TestChromosome
 
 	/** {@inheritDoc} */
 	public ExecutionResult runTest(TestCase test) {
-		return TestCaseExecutor.runTest(test);
+		return ExecutionResultCache.getInstance().getOrExecute(test, TestCaseExecutor::runTest);
+	}
+
+	/**
+	 * Whether tests can be executed with
+	 * {@link TestCaseExecutor#execute(java.util.List)} rather than with
+	 * {@link #runTest(TestCase)}
+	 * 
+	 * @return true unless the execution of a test needs to be customized
+	 */
+	public boolean canRunTestsInParallel() {
+		return true;
 	}
 
 	/**
@@ -0,0 +1,349 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.branch.BranchPool;
+
+/**
+ * Execution trace that keeps the per-branch counters and distances in dense
+ * primitive arrays indexed by the branch id of the {@link BranchPool}, rather
+ * than in synchronized maps of boxed values.
+ *
+ * The arrays are sized by the number of branches known when the trace is
+ * created and grow on demand if classes are instrumented later on. Only the
+ * branches that were actually reached are remembered, such that clearing and
+ * copying the trace is linear in the number of reached branches. The map based
+ * views required by {@link ExecutionTrace} are built lazily and cached until
+ * the trace changes.
+ *
+ * This trace is not synchronized: it relies on the {@link ExecutionTracer}
+ * ignoring events of threads other than the test thread. This includes the
+ * collections inherited from {@link ExecutionTraceImpl} (e.g., covered
+ * methods and finished calls), which are plain collections from the start.
+ */
+public class ArrayExecutionTraceImpl extends ExecutionTraceImpl {
+
+	private int[] predicateCount;
+
+	private int[] trueCount;
+
+	private int[] falseCount;
+
+	private double[] trueDistance;
+
+	private double[] falseDistance;
+
+	private double[] trueDistanceSum;
+
+	private double[] falseDistanceSum;
+
+	private boolean[] reached;
+
+	/** Ids of the branches reached so far, in order of first execution */
+	private int[] touched;
+
+	private int numTouched = 0;
+
+	private Map<Integer, Integer> predicateCountView = null;
+
+	private Map<Integer, Double> trueDistanceView = null;
+
+	private Map<Integer, Double> falseDistanceView = null;
+
+	private Map<Integer, Double> trueDistanceSumView = null;
+
+	private Map<Integer, Double> falseDistanceSumView = null;
+
+	/**
+	 * Create a trace sized for all branches currently known to the
+	 * {@link BranchPool} of the SUT
+	 */
+	public ArrayExecutionTraceImpl() {
+		this(BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getBranchCounter()
+				+ 1);
+	}
+
+	/**
+	 * Create a trace with room for the given number of branch ids
+	 *
+	 * @param capacity
+	 */
+	public ArrayExecutionTraceImpl(int capacity) {
+		super();
+		// replaces the synchronized collections the superclass starts with
+		super.clear();
+		capacity = Math.max(capacity, 1);
+		predicateCount = new int[capacity];
+		trueCount = new int[capacity];
+		falseCount = new int[capacity];
+		trueDistance = new double[capacity];
+		falseDistance = new double[capacity];
+		trueDistanceSum = new double[capacity];
+		falseDistanceSum = new double[capacity];
+		reached = new boolean[capacity];
+		touched = new int[Math.min(capacity, 16)];
+	}
+
+	private void ensureCapacity(int branch) {
+		if (branch < reached.length)
+			return;
+
+		int capacity = Math.max(branch + 1, reached.length * 2);
+		predicateCount = Arrays.copyOf(predicateCount, capacity);
+		trueCount = Arrays.copyOf(trueCount, capacity);
+		falseCount = Arrays.copyOf(falseCount, capacity);
+		trueDistance = Arrays.copyOf(trueDistance, capacity);
+		falseDistance = Arrays.copyOf(falseDistance, capacity);
+		trueDistanceSum = Arrays.copyOf(trueDistanceSum, capacity);
+		falseDistanceSum = Arrays.copyOf(falseDistanceSum, capacity);
+		reached = Arrays.copyOf(reached, capacity);
+	}
+
+	private void touch(int branch) {
+		if (numTouched == touched.length)
+			touched = Arrays.copyOf(touched, touched.length * 2);
+		touched[numTouched++] = branch;
+		reached[branch] = true;
+	}
+
+	private void invalidateViews() {
+		predicateCountView = null;
+		trueDistanceView = null;
+		falseDistanceView = null;
+		trueDistanceSumView = null;
+		falseDistanceSumView = null;
+	}
+
+	private boolean isReached(int branch) {
+		return branch >= 0 && branch < reached.length && reached[branch];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void updateBranchCoverage(int branch, double true_distance, double false_distance) {
+		ensureCapacity(branch);
+		predicateCount[branch]++;
+		if (true_distance == 0.0)
+			trueCount[branch]++;
+		if (false_distance == 0.0)
+			falseCount[branch]++;
+		predicateCountView = null;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected void updateBranchDistances(int branch, double true_distance, double false_distance) {
+		ensureCapacity(branch);
+		if (!reached[branch]) {
+			touch(branch);
+			trueDistance[branch] = true_distance;
+			falseDistance[branch] = false_distance;
+			trueDistanceSum[branch] = true_distance;
+			falseDistanceSum[branch] = false_distance;
+		} else {
+			trueDistance[branch] = Math.min(trueDistance[branch], true_distance);
+			falseDistance[branch] = Math.min(falseDistance[branch], false_distance);
+			trueDistanceSum[branch] += true_distance;
+			falseDistanceSum[branch] += false_distance;
+		}
+		invalidateViews();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected boolean isCoveredTrue(int branch) {
+		return branch >= 0 && branch < trueCount.length && trueCount[branch] > 0;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	protected boolean isCoveredFalse(int branch) {
+		return branch >= 0 && branch < falseCount.length && falseCount[branch] > 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Only the entries of reached branches are reset
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		for (int i = 0; i < numTouched; i++) {
+			int branch = touched[i];
+			predicateCount[branch] = 0;
+			trueCount[branch] = 0;
+			falseCount[branch] = 0;
+			trueDistance[branch] = 0.0;
+			falseDistance[branch] = 0.0;
+			trueDistanceSum[branch] = 0.0;
+			falseDistanceSum[branch] = 0.0;
+			reached[branch] = false;
+		}
+		numTouched = 0;
+		invalidateViews();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The arrays of the copy only reach up to the highest reached branch, as
+	 * copies are mostly kept by execution results and not written to again
+	 */
+	@Override
+	public ArrayExecutionTraceImpl clone() {
+		int maxBranch = -1;
+		for (int i = 0; i < numTouched; i++) {
+			maxBranch = Math.max(maxBranch, touched[i]);
+		}
+		ArrayExecutionTraceImpl copy = new ArrayExecutionTraceImpl(maxBranch + 1);
+		copyInto(copy);
+		for (int i = 0; i < numTouched; i++) {
+			int branch = touched[i];
+			copy.touch(branch);
+			copy.predicateCount[branch] = predicateCount[branch];
+			copy.trueCount[branch] = trueCount[branch];
+			copy.falseCount[branch] = falseCount[branch];
+			copy.trueDistance[branch] = trueDistance[branch];
+			copy.falseDistance[branch] = falseDistance[branch];
+			copy.trueDistanceSum[branch] = trueDistanceSum[branch];
+			copy.falseDistanceSum[branch] = falseDistanceSum[branch];
+		}
+		return copy;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredPredicates() {
+		return getPredicateExecutionCount().keySet();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredTrueBranches() {
+		Set<Integer> covered = new HashSet<Integer>();
+		for (int i = 0; i < numTouched; i++) {
+			if (trueDistance[touched[i]] == 0.0)
+				covered.add(touched[i]);
+		}
+		return covered;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Integer> getCoveredFalseBranches() {
+		Set<Integer> covered = new HashSet<Integer>();
+		for (int i = 0; i < numTouched; i++) {
+			if (falseDistance[touched[i]] == 0.0)
+				covered.add(touched[i]);
+		}
+		return covered;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Integer> getPredicateExecutionCount() {
+		if (predicateCountView == null) {
+			Map<Integer, Integer> view = new HashMap<Integer, Integer>();
+			for (int i = 0; i < numTouched; i++) {
+				int branch = touched[i];
+				if (predicateCount[branch] > 0)
+					view.put(branch, predicateCount[branch]);
+			}
+			predicateCountView = view;
+		}
+		return predicateCountView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasTrueDistance(int predicateId) {
+		return isReached(predicateId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean hasFalseDistance(int predicateId) {
+		return isReached(predicateId);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getTrueDistance(int branchId) {
+		if (!isReached(branchId))
+			throw new IllegalArgumentException("Branch " + branchId + " was not reached");
+		return trueDistance[branchId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public double getFalseDistance(int branchId) {
+		if (!isReached(branchId))
+			throw new IllegalArgumentException("Branch " + branchId + " was not reached");
+		return falseDistance[branchId];
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistances() {
+		if (trueDistanceView == null)
+			trueDistanceView = toMap(trueDistance);
+		return trueDistanceView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistances() {
+		if (falseDistanceView == null)
+			falseDistanceView = toMap(falseDistance);
+		return falseDistanceView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getTrueDistancesSum() {
+		if (trueDistanceSumView == null)
+			trueDistanceSumView = toMap(trueDistanceSum);
+		return trueDistanceSumView;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Map<Integer, Double> getFalseDistancesSum() {
+		if (falseDistanceSumView == null)
+			falseDistanceSumView = toMap(falseDistanceSum);
+		return falseDistanceSumView;
+	}
+
+	private Map<Integer, Double> toMap(double[] values) {
+		Map<Integer, Double> view = new HashMap<Integer, Double>();
+		for (int i = 0; i < numTouched; i++) {
+			view.put(touched[i], values[touched[i]]);
+		}
+		return view;
+	}
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.testcase.ExecutableChromosome;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteFitnessFunction;
+
+/**
+ * Executes the tests of several individuals in one go, such that the
+ * {@link TestCaseExecutor} can execute them in parallel. The results are
+ * stored in the test chromosomes, and the fitness functions then find them up
+ * to date: fitness values are still calculated one individual after the
+ * other, in the usual order.
+ */
+public class ExecutionBatch {
+
+	private ExecutionBatch() {
+	}
+
+	/**
+	 * Execute all tests of the given individuals that have changed since their
+	 * last execution. Nothing happens unless tests can be executed in
+	 * parallel, and all fitness functions would execute the tests in the
+	 * default way.
+	 * 
+	 * @param individuals
+	 *            test chromosomes or test suite chromosomes
+	 * @param fitnessFunctions
+	 *            the fitness functions the individuals are going to be
+	 *            evaluated with
+	 */
+	public static void executeChanged(Collection<? extends Chromosome> individuals,
+	        Collection<? extends FitnessFunction<?>> fitnessFunctions) {
+		if (Properties.TEST_EXECUTION_THREADS <= 1)
+			return;
+
+		for (FitnessFunction<?> fitnessFunction : fitnessFunctions) {
+			if (!usesDefaultExecution(fitnessFunction))
+				return;
+		}
+
+		// The same test may be part of several individuals
+		Set<TestChromosome> changed = Collections.newSetFromMap(new IdentityHashMap<TestChromosome, Boolean>());
+		List<TestChromosome> order = new ArrayList<TestChromosome>();
+		for (Chromosome individual : individuals) {
+			if (individual instanceof TestChromosome) {
+				addIfChanged((TestChromosome) individual, changed, order);
+			} else if (individual instanceof AbstractTestSuiteChromosome<?>) {
+				for (ExecutableChromosome test : ((AbstractTestSuiteChromosome<?>) individual).getTestChromosomes()) {
+					if (!(test instanceof TestChromosome))
+						return;
+					addIfChanged((TestChromosome) test, changed, order);
+				}
+			} else {
+				return;
+			}
+		}
+		if (ExecutionResultCache.getInstance().isEnabled()) {
+			executeDistinct(order);
+			return;
+		}
+		if (order.size() < 2)
+			return;
+
+		List<TestCase> tests = new ArrayList<TestCase>(order.size());
+		for (TestChromosome test : order) {
+			tests.add(test.getTestCase());
+		}
+		List<ExecutionResult> results = TestCaseExecutor.getInstance().execute(tests);
+		for (int i = 0; i < order.size(); i++) {
+			ExecutionResult result = results.get(i);
+			MaxStatementsStoppingCondition.statementsExecuted(result.getExecutedStatements());
+			order.get(i).setLastExecutionResult(result);
+			order.get(i).setChanged(false);
+		}
+	}
+
+	/**
+	 * Take the results of tests that were already executed from the
+	 * {@link ExecutionResultCache}, and execute only one of each group of
+	 * structurally identical tests among the others
+	 */
+	private static void executeDistinct(List<TestChromosome> order) {
+		ExecutionResultCache cache = ExecutionResultCache.getInstance();
+		Map<TestCaseFingerprint, List<TestChromosome>> toExecute = new LinkedHashMap<TestCaseFingerprint, List<TestChromosome>>();
+		List<TestChromosome> uncacheable = new ArrayList<TestChromosome>();
+		for (TestChromosome test : order) {
+			if (!cache.canBeCached(test.getTestCase())) {
+				uncacheable.add(test);
+				continue;
+			}
+			TestCaseFingerprint fingerprint = TestCaseFingerprint.of(test.getTestCase());
+			List<TestChromosome> duplicates = toExecute.get(fingerprint);
+			if (duplicates != null) {
+				duplicates.add(test);
+				continue;
+			}
+			ExecutionResult cached = cache.get(fingerprint, test.getTestCase());
+			if (cached != null) {
+				test.setLastExecutionResult(cached);
+				test.setChanged(false);
+			} else {
+				duplicates = new ArrayList<TestChromosome>();
+				duplicates.add(test);
+				toExecute.put(fingerprint, duplicates);
+			}
+		}
+
+		List<TestCase> tests = new ArrayList<TestCase>();
+		for (List<TestChromosome> duplicates : toExecute.values()) {
+			tests.add(duplicates.get(0).getTestCase());
+		}
+		for (TestChromosome test : uncacheable) {
+			tests.add(test.getTestCase());
+		}
+		if (tests.size() < 2) {
+			// Left to the fitness functions, which execute them one by one
+			return;
+		}
+
+		List<ExecutionResult> results = TestCaseExecutor.getInstance().execute(tests);
+		int i = 0;
+		for (Map.Entry<TestCaseFingerprint, List<TestChromosome>> entry : toExecute.entrySet()) {
+			ExecutionResult result = results.get(i++);
+			MaxStatementsStoppingCondition.statementsExecuted(result.getExecutedStatements());
+			boolean deterministic = cache.put(entry.getKey(), result);
+			for (TestChromosome test : entry.getValue()) {
+				ExecutionResult copy = result;
+				if (test != entry.getValue().get(0)) {
+					if (!deterministic)
+						continue; // executed on its own by the fitness function
+					copy = result.clone();
+					copy.setTest(test.getTestCase());
+				}
+				test.setLastExecutionResult(copy);
+				test.setChanged(false);
+			}
+		}
+		for (TestChromosome test : uncacheable) {
+			ExecutionResult result = results.get(i++);
+			MaxStatementsStoppingCondition.statementsExecuted(result.getExecutedStatements());
+			test.setLastExecutionResult(result);
+			test.setChanged(false);
+		}
+	}
+
+	private static void addIfChanged(TestChromosome test, Set<TestChromosome> changed, List<TestChromosome> order) {
+		if ((test.isChanged() || test.getLastExecutionResult() == null) && changed.add(test)) {
+			order.add(test);
+		}
+	}
+
+	private static boolean usesDefaultExecution(FitnessFunction<?> fitnessFunction) {
+		if (fitnessFunction instanceof TestSuiteFitnessFunction)
+			return ((TestSuiteFitnessFunction) fitnessFunction).canRunTestsInParallel();
+		if (fitnessFunction instanceof TestFitnessFunction)
+			return ((TestFitnessFunction) fitnessFunction).canRunTestsInParallel();
+		return false;
+	}
+}
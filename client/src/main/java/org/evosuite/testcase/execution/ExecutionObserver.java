@@ -37,6 +37,19 @@ public abstract class ExecutionObserver {
 	/** The test case being monitored and executed */
 	protected static TestCase currentTest = null;
 
+	/**
+	 * Test cases monitored on single threads, which take precedence over
+	 * {@link #currentTest} on these threads. Only used when observed tests are
+	 * executed concurrently.
+	 */
+	private static final ThreadLocal<TestCase> threadTest = new ThreadLocal<TestCase>();
+
+	/** Set while at least one thread has a test case of its own */
+	private static volatile boolean hasThreadTests = false;
+
+	/** Number of threads with a test case of their own */
+	private static int numThreadTests = 0;
+
 	/** Constant <code>WRAPPER_TYPES</code> */
 	protected static final Set<Class<?>> WRAPPER_TYPES = new HashSet<Class<?>>(
 	        Arrays.asList(Boolean.class, Character.class, Byte.class, Short.class,
@@ -72,9 +85,44 @@ public abstract class ExecutionObserver {
 	 * @return a {@link org.evosuite.testcase.TestCase} object.
 	 */
 	public static TestCase getCurrentTest() {
+		if (hasThreadTests) {
+			TestCase test = threadTest.get();
+			if (test != null)
+				return test;
+		}
 		return currentTest;
 	}
 
+	/**
+	 * Set the test case monitored by the observers running on the current
+	 * thread only
+	 * 
+	 * @param test
+	 *            the test case, or null to let the current thread use the
+	 *            test case set with {@link #setCurrentTest(TestCase)} again
+	 */
+	public static void setCurrentTestOfThread(TestCase test) {
+		boolean hadTest = threadTest.get() != null;
+		if (test == null) {
+			if (!hadTest)
+				return;
+			threadTest.remove();
+			synchronized (threadTest) {
+				// once no thread has a test case of its own, the threads are no longer checked
+				if (--numThreadTests == 0)
+					hasThreadTests = false;
+			}
+		} else {
+			threadTest.set(test);
+			if (hadTest)
+				return;
+			synchronized (threadTest) {
+				numThreadTests++;
+				hasThreadTests = true;
+			}
+		}
+	}
+
 	/**
 	 * This is called with the console output of each statement
 	 * 
@@ -127,7 +175,7 @@ public abstract class ExecutionObserver {
 		Set<VariableReference> dependencies = new HashSet<VariableReference>();
 		for (VariableReference var : statement.getVariableReferences()) {
 			dependencies.add(var);
-			dependencies.addAll(currentTest.getDependencies(var));
+			dependencies.addAll(getCurrentTest().getDependencies(var));
 		}
 		return dependencies;
 	}
@@ -97,6 +97,13 @@ public class ExecutionResult implements Cloneable {
 
     private Map<Integer, Set<OutputCoverageGoal>> outputGoals = new LinkedHashMap<>();
 
+	/**
+	 * Summaries of the trace computed by fitness functions, keyed by the
+	 * fitness function. As the trace is not changed after execution, they are
+	 * shared with clones of this result.
+	 */
+	private Map<Object, Object> traceSummaries = null;
+
 	// experiment .. tried to remember intermediately calculated ControlFlowDistances .. no real speed up
 	//	public Map<Branch, ControlFlowDistance> intermediateDistances;
 
@@ -284,6 +291,7 @@ public class ExecutionResult implements Cloneable {
 			throw new IllegalArgumentException("Trace cannot be null");
 		}
 		this.trace = trace;
+		this.traceSummaries = null;
 	}
 
 	/**
@@ -431,6 +439,8 @@ public class ExecutionResult implements Cloneable {
 		copy.trace = trace.lazyClone();
 		copy.explicitExceptions.putAll(explicitExceptions);
 		copy.executionTime = executionTime;
+		copy.executedStatements = executedStatements;
+		copy.hasSecurityException = hasSecurityException;
 		copy.regressionObjectDistance = regressionObjectDistance;
 		copy.inputGoals = new LinkedHashMap<>(inputGoals);
 		copy.outputGoals = new LinkedHashMap<>(outputGoals);
@@ -442,6 +452,9 @@ public class ExecutionResult implements Cloneable {
 			copy.readProperties.addAll(readProperties);
 		}
 		copy.wasAnyPropertyWritten = wasAnyPropertyWritten;
+		if (traceSummaries != null) {
+			copy.traceSummaries = new HashMap<Object, Object>(traceSummaries);
+		}
 
 		return copy;
 	}
@@ -491,4 +504,27 @@ public class ExecutionResult implements Cloneable {
 		return outputGoals;
 	}
 
+	/**
+	 * @param owner
+	 *            the fitness function that computed the summary
+	 * @return the summary of the trace previously stored by the owner, or null
+	 */
+	public Object getTraceSummary(Object owner) {
+		return traceSummaries == null ? null : traceSummaries.get(owner);
+	}
+
+	/**
+	 * Remember a summary of the trace, which is dropped if the trace is replaced
+	 * 
+	 * @param owner
+	 *            the fitness function that computed the summary
+	 * @param summary
+	 */
+	public void setTraceSummary(Object owner, Object summary) {
+		if (traceSummaries == null) {
+			traceSummaries = new HashMap<Object, Object>();
+		}
+		traceSummaries.put(owner, summary);
+	}
+
 }
@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.evosuite.Properties;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers the execution results of recently executed tests by their
+ * {@link TestCaseFingerprint}, such that a test that is structurally
+ * identical to one that was already executed (e.g., an unchanged offspring,
+ * or a clone from the archive) does not need to be executed again.
+ *
+ * <p>
+ * This is only sound if executing a test always gives the same result, so
+ * the cache is only used if static state is reset after each test (see
+ * {@link Properties#RESET_STATIC_FIELDS}), and results with timeouts,
+ * internal errors or written system properties are not stored. As the
+ * results contain the output traces of the execution observers, the cache is
+ * cleared whenever the observers change.
+ */
+public class ExecutionResultCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionResultCache.class);
+
+	private static ExecutionResultCache instance = null;
+
+	/** Least recently used entry first */
+	private final LinkedHashMap<TestCaseFingerprint, ExecutionResult> results = new LinkedHashMap<TestCaseFingerprint, ExecutionResult>(
+	        16, 0.75f, true) {
+		private static final long serialVersionUID = -3473021556216813546L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TestCaseFingerprint, ExecutionResult> eldest) {
+			return size() > Properties.EXECUTION_RESULT_CACHE_SIZE;
+		}
+	};
+
+	private int hits = 0;
+
+	private int misses = 0;
+
+	private ExecutionResultCache() {
+	}
+
+	public static synchronized ExecutionResultCache getInstance() {
+		if (instance == null) {
+			instance = new ExecutionResultCache();
+		}
+		return instance;
+	}
+
+	public static synchronized void resetSingleton() {
+		instance = null;
+	}
+
+	/**
+	 * @return whether results are cached at all
+	 */
+	public boolean isEnabled() {
+		return Properties.EXECUTION_RESULT_CACHE_SIZE > 0 && Properties.RESET_STATIC_FIELDS;
+	}
+
+	/**
+	 * @return whether the result of executing the given test may be reused
+	 *         for structurally identical tests
+	 */
+	public boolean canBeCached(TestCase test) {
+		if (!isEnabled())
+			return false;
+		// Tests executed on a different version of the SUT are not comparable
+		return !(test instanceof DefaultTestCase) || ((DefaultTestCase) test).getChangedClassLoader() == null;
+	}
+
+	private static boolean isDeterministic(ExecutionResult result) {
+		return result.mutation == null && !result.hasTimeout() && !result.hasTestException()
+		        && !result.wasAnyPropertyWritten();
+	}
+
+	/**
+	 * Return a copy of the result stored for a test with the given
+	 * fingerprint, bound to the given test
+	 * 
+	 * @return the copy, or null if there is no result for the fingerprint
+	 */
+	public synchronized ExecutionResult get(TestCaseFingerprint fingerprint, TestCase test) {
+		ExecutionResult result = results.get(fingerprint);
+		if (result == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		ExecutionResult copy = result.clone();
+		copy.setTest(test);
+		return copy;
+	}
+
+	/**
+	 * Store a copy of the given result, unless it might not be reproducible
+	 * 
+	 * @return whether the result was stored
+	 */
+	public synchronized boolean put(TestCaseFingerprint fingerprint, ExecutionResult result) {
+		if (!isDeterministic(result))
+			return false;
+		results.put(fingerprint, result.clone());
+		return true;
+	}
+
+	/**
+	 * Return the cached result for the test if there is one, and otherwise
+	 * execute it and cache the result
+	 * 
+	 * @param test
+	 *            the test to execute
+	 * @param execution
+	 *            how to execute the test if there is no cached result
+	 * @return the result of the execution
+	 */
+	public ExecutionResult getOrExecute(TestCase test, Function<TestCase, ExecutionResult> execution) {
+		if (!canBeCached(test))
+			return execution.apply(test);
+
+		TestCaseFingerprint fingerprint = TestCaseFingerprint.of(test);
+		ExecutionResult result = get(fingerprint, test);
+		if (result == null) {
+			result = execution.apply(test);
+			put(fingerprint, result);
+		}
+		return result;
+	}
+
+	public synchronized void clear() {
+		if (!results.isEmpty()) {
+			logger.debug("Clearing cache of execution results after " + hits + " hits and " + misses
+			        + " misses");
+			results.clear();
+		}
+	}
+
+	public synchronized int getHits() {
+		return hits;
+	}
+
+	public synchronized int getMisses() {
+		return misses;
+	}
+}
@@ -19,12 +19,16 @@
  */
 package org.evosuite.testcase.execution;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import org.evosuite.Properties;
 import org.evosuite.coverage.dataflow.DefUsePool;
 import org.evosuite.coverage.dataflow.Definition;
 import org.evosuite.coverage.dataflow.Use;
 import org.evosuite.instrumentation.testability.BooleanHelper;
+import org.evosuite.runtime.util.AtMostOnceLogger;
 import org.evosuite.seeding.ConstantPoolManager;
 import org.objectweb.asm.Opcodes;
 import org.slf4j.Logger;
@@ -42,6 +46,15 @@ public class ExecutionTracer {
 
 	private static ExecutionTracer instance = null;
 
+	/**
+	 * Tracers of the worker threads that execute tests in parallel. Threads
+	 * without an own tracer use the shared instance
+	 */
+	private static final ThreadLocal<ExecutionTracer> threadTracer = new ThreadLocal<ExecutionTracer>();
+
+	/** Only look up thread tracers once a worker thread has been bound */
+	private static volatile boolean hasThreadTracers = false;
+
 	/**
 	 * We need to disable the execution tracer sometimes, e.g. when calling
 	 * equals in the branch distance function
@@ -49,12 +62,21 @@ public class ExecutionTracer {
 	private boolean disabled = true;
 
 	/** Flag that is used to kill threads that are stuck in endless loops */
-	private boolean killSwitch = false;
+	private volatile boolean killSwitch = false;
 
 	private int num_statements = 0;
 
+	/** Number of events recorded on the fast path since the last clear */
+	private int num_events = 0;
+
 	private ExecutionTrace trace;
 
+	/**
+	 * The array trace of this tracer, which is reused for all executions
+	 * rather than created again for each of them
+	 */
+	private ReusedTraceProxy arrayTrace = null;
+
 
 	private static boolean checkCallerThread = true;
 
@@ -64,6 +86,86 @@ public class ExecutionTracer {
 	 */
 	private static volatile Thread currentThread = null;
 
+	/**
+	 * With the fast path, the kill switch is only looked at every that many
+	 * events. Has to be a power of two
+	 */
+	private static final int TIMEOUT_CHECK_INTERVAL = 64;
+
+	/**
+	 * Association of a thread with the tracer its instrumentation writes to on
+	 * the fast path. The tracer is null if events of the thread are ignored
+	 */
+	private static final class ThreadBinding {
+
+		private final Thread thread;
+
+		private volatile ExecutionTracer tracer;
+
+		private ThreadBinding(Thread thread, ExecutionTracer tracer) {
+			this.thread = thread;
+			this.tracer = tracer;
+		}
+	}
+
+	/**
+	 * Proxy of the array trace a tracer keeps. Copies handed out with
+	 * {@link #lazyClone()}, e.g. to execution results, share the array trace
+	 * until the tracer writes to it again, usually when it is cleared for the
+	 * next execution. Only then they take a copy of their own, rather than the
+	 * tracer, such that the tracer can reset its array trace in place.
+	 */
+	private static final class ReusedTraceProxy extends ExecutionTraceProxy {
+
+		private final List<ExecutionTraceProxy> copies = new ArrayList<ExecutionTraceProxy>();
+
+		private ReusedTraceProxy(ArrayExecutionTraceImpl trace) {
+			super(trace);
+		}
+
+		@Override
+		public ExecutionTrace lazyClone() {
+			ExecutionTraceProxy copy = (ExecutionTraceProxy) super.lazyClone();
+			copies.add(copy);
+			return copy;
+		}
+
+		@Override
+		public void copyOnWrite() {
+			if (!copies.isEmpty()) {
+				for (ExecutionTraceProxy copy : copies) {
+					copy.copyOnWrite();
+				}
+				copies.clear();
+			}
+			// copies of the copies still share the array trace
+			super.copyOnWrite();
+		}
+	}
+
+	/** Binding of the thread set with {@link #setThread(Thread)} */
+	private static volatile ThreadBinding testThreadBinding = null;
+
+	/**
+	 * Binding of each thread, looked up once per thread. Threads other than
+	 * the test thread end up with a binding without tracer, such that their
+	 * events are dropped without comparing threads on each event
+	 */
+	private static final ThreadLocal<ThreadBinding> fastPathBinding = new ThreadLocal<ThreadBinding>() {
+		@Override
+		protected ThreadBinding initialValue() {
+			ThreadBinding binding = testThreadBinding;
+			if (binding == null) {
+				// as on the slow path, the first thread is taken if none was set
+				setThread(Thread.currentThread());
+				return testThreadBinding;
+			}
+			if (binding.thread == Thread.currentThread())
+				return binding;
+			return new ThreadBinding(Thread.currentThread(), null);
+		}
+	};
+
 	/**
 	 * <p>
 	 * setThread
@@ -74,6 +176,21 @@ public class ExecutionTracer {
 	 */
 	public static void setThread(Thread thread) {
 		currentThread = thread;
+
+		ThreadBinding previous = testThreadBinding;
+		if (previous != null && previous.thread == thread)
+			return;
+		// a stalled test thread must not write into the traces of later tests
+		if (previous != null)
+			previous.tracer = null;
+		if (thread == null) {
+			testThreadBinding = null;
+			return;
+		}
+		ThreadBinding binding = new ThreadBinding(thread, getExecutionTracer());
+		testThreadBinding = binding;
+		if (thread == Thread.currentThread())
+			fastPathBinding.set(binding);
 	}
 
 	/**
@@ -183,19 +300,95 @@ public class ExecutionTracer {
 	 * @return a {@link org.evosuite.testcase.execution.ExecutionTracer} object.
 	 */
 	public static ExecutionTracer getExecutionTracer() {
+		if (hasThreadTracers) {
+			ExecutionTracer tracer = threadTracer.get();
+			if (tracer != null)
+				return tracer;
+		}
 		if (instance == null) {
 			instance = new ExecutionTracer();
 		}
 		return instance;
 	}
 
+	/**
+	 * Give the current thread its own tracer, such that the test it executes
+	 * is traced independently of tests executed by other threads
+	 * 
+	 * @return the new tracer of the current thread
+	 */
+	public static ExecutionTracer bindToCurrentThread() {
+		ExecutionTracer tracer = new ExecutionTracer();
+		threadTracer.set(tracer);
+		hasThreadTracers = true;
+		fastPathBinding.set(new ThreadBinding(Thread.currentThread(), tracer));
+		return tracer;
+	}
+
+	/**
+	 * Let the current thread use the shared tracer again
+	 */
+	public static void unbindFromCurrentThread() {
+		threadTracer.remove();
+		fastPathBinding.remove();
+	}
+
 	/**
 	 * Reset for new execution
 	 */
 	public void clear() {
-		trace = new ExecutionTraceProxy();
+		if (Properties.EXECUTION_TRACE_TYPE == Properties.ExecutionTraceType.ARRAY) {
+			if (arrayTrace == null)
+				arrayTrace = new ReusedTraceProxy(new ArrayExecutionTraceImpl());
+			else
+				arrayTrace.clear();
+			trace = arrayTrace;
+		} else {
+			if (Properties.TRACER_FAST_PATH)
+				AtMostOnceLogger.warn(logger, "tracer_fast_path is ignored, as it requires execution_trace_type="
+						+ Properties.ExecutionTraceType.ARRAY + " rather than " + Properties.EXECUTION_TRACE_TYPE);
+			trace = new ExecutionTraceProxy();
+		}
 		BooleanHelper.clearStack();
 		num_statements = 0;
+		num_events = 0;
+	}
+
+	/**
+	 * Determine the tracer an event of the instrumented code is recorded in.
+	 * 
+	 * On the fast path, the tracer is found through the binding of the current
+	 * thread, and the kill switch is only checked every
+	 * {@link #TIMEOUT_CHECK_INTERVAL} events. The fast path is not used if the
+	 * caller thread is not checked, as then events of any thread are recorded,
+	 * nor if the execution trace type is not {@code ARRAY}
+	 * 
+	 * @param checkTimeout
+	 *            whether the event has to check the kill switch
+	 * @return the tracer, or null if the event is to be ignored
+	 */
+	private static ExecutionTracer getActiveTracer(boolean checkTimeout) {
+		if (Properties.TRACER_FAST_PATH && checkCallerThread
+				&& Properties.EXECUTION_TRACE_TYPE == Properties.ExecutionTraceType.ARRAY) {
+			ExecutionTracer tracer = fastPathBinding.get().tracer;
+			if (tracer == null || tracer.disabled)
+				return null;
+
+			if (checkTimeout && (++tracer.num_events & (TIMEOUT_CHECK_INTERVAL - 1)) == 0)
+				tracer.checkKillSwitch();
+			return tracer;
+		}
+
+		ExecutionTracer tracer = getExecutionTracer();
+		if (tracer.disabled)
+			return null;
+
+		if (isThreadNeqCurrentThread())
+			return null;
+
+		if (checkTimeout)
+			checkTimeout();
+		return tracer;
 	}
 
 	/**
@@ -209,6 +402,13 @@ public class ExecutionTracer {
 		if (!checkCallerThread) {
 			return false;
 		}
+		if (Thread.currentThread() == currentThread) {
+			return false;
+		}
+		// worker threads executing tests in parallel only ever see their own tracer
+		if (hasThreadTracers && threadTracer.get() != null) {
+			return false;
+		}
 		if (currentThread == null) {
 			logger.error("CurrentThread has not been set!");
 			Map<Thread, StackTraceElement[]> map = Thread.getAllStackTraces();
@@ -220,8 +420,9 @@ public class ExecutionTracer {
 				logger.error(msg);
 			}
 			currentThread = Thread.currentThread();
+			return false;
 		}
-		return Thread.currentThread() != currentThread;
+		return true;
 	}
 
 	/**
@@ -261,16 +462,10 @@ public class ExecutionTracer {
 	 */
 	public static void enteredMethod(String classname, String methodname, Object caller)
 	        throws TestCaseExecutor.TimeoutExceeded {
-		ExecutionTracer tracer = getExecutionTracer();
-
-		if (tracer.disabled)
+		ExecutionTracer tracer = getActiveTracer(true);
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
-
 		//logger.trace("Entering method " + classname + "." + methodname);
 		tracer.trace.enteredMethod(classname, methodname, caller);
 	}
@@ -286,11 +481,8 @@ public class ExecutionTracer {
 	 *            a {@link java.lang.String} object.
 	 */
 	public static void returnValue(int value, String className, String methodName) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getActiveTracer(false);
+		if (tracer == null)
 			return;
 
 		//logger.trace("Return value: " + value);
@@ -362,11 +554,8 @@ public class ExecutionTracer {
 	 *            a {@link java.lang.String} object.
 	 */
 	public static void leftMethod(String classname, String methodname) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getActiveTracer(false);
+		if (tracer == null)
 			return;
 
 		tracer.trace.exitMethod(classname, methodname);
@@ -381,7 +570,11 @@ public class ExecutionTracer {
 		if (tracer.disabled)
 			return;
 
-		if (tracer.killSwitch) {
+		tracer.checkKillSwitch();
+	}
+
+	private void checkKillSwitch() {
+		if (killSwitch) {
 			// logger.info("Raising TimeoutException as kill switch is active - passedLine");
 			if(!isInStaticInit())
 				throw new TestCaseExecutor.TimeoutExceeded();
@@ -407,15 +600,10 @@ public class ExecutionTracer {
 	 *            a {@link java.lang.String} object.
 	 */
 	public static void passedLine(String className, String methodName, int line) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
+		ExecutionTracer tracer = getActiveTracer(true);
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
-
 		tracer.trace.linePassed(className, methodName, line);
 	}
 
@@ -432,11 +620,8 @@ public class ExecutionTracer {
 	 *            a int.
 	 */
 	public static void passedUnconditionalBranch(int opcode, int branch, int bytecode_id) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getActiveTracer(false);
+		if (tracer == null)
 			return;
 
 		// Add current branch to control trace
@@ -457,16 +642,11 @@ public class ExecutionTracer {
 	 */
 	public static void passedBranch(int val, int opcode, int branch, int bytecode_id) {
 
-		ExecutionTracer tracer = getExecutionTracer();
+		ExecutionTracer tracer = getActiveTracer(true);
 		// logger.info("passedBranch val="+val+", opcode="+opcode+", branch="+branch+", bytecode_id="+bytecode_id);
-		if (tracer.disabled)
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
-
 		ConstantPoolManager.getInstance().addDynamicConstant(val);
 
 		// logger.trace("Called passedBranch1 with opcode "+AbstractVisitor.OPCODES[opcode]+" and val "+val+" in branch "+branch);
@@ -519,14 +699,9 @@ public class ExecutionTracer {
 	}
 
 	public static void passedPutStatic(String classNameWithDots, String fieldName) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getActiveTracer(true);
+		if (tracer == null)
 			return;
-
-		checkTimeout();
 		
 		tracer.trace.putStaticPassed(classNameWithDots, fieldName);
 	}
@@ -560,15 +735,10 @@ public class ExecutionTracer {
 	 * @param fieldName
 	 */
 	public static void passedGetStatic(String classNameWithDots, String fieldName) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
+		ExecutionTracer tracer = getActiveTracer(true);
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
-
 		tracer.trace.getStaticPassed(classNameWithDots, fieldName);
 	}
 
@@ -589,14 +759,9 @@ public class ExecutionTracer {
 	 */
 	public static void passedBranch(int val1, int val2, int opcode, int branch,
 	        int bytecode_id) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getActiveTracer(true);
+		if (tracer == null)
 			return;
-
-		checkTimeout();
 		
 		ConstantPoolManager.getInstance().addDynamicConstant(val1);
 		ConstantPoolManager.getInstance().addDynamicConstant(val2);
@@ -670,15 +835,10 @@ public class ExecutionTracer {
 	 */
 	public static void passedBranch(Object val1, Object val2, int opcode, int branch,
 	        int bytecode_id) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getActiveTracer(true);
+		if (tracer == null)
 			return;
 
-		checkTimeout();
-
 		// logger.trace("Called passedBranch3 with opcode "
 		//        + AbstractVisitor.OPCODES[opcode]); // +", val1="+val1+", val2="+val2+" in branch "+branch);
 		double distance_true = 0;
@@ -737,15 +897,10 @@ public class ExecutionTracer {
 	 *            a int.
 	 */
 	public static void passedBranch(Object val, int opcode, int branch, int bytecode_id) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getActiveTracer(true);
+		if (tracer == null)
 			return;
 
-		checkTimeout();
-
 		double distance_true = 0;
 		double distance_false = 0;
 		switch (opcode) {
@@ -778,12 +933,11 @@ public class ExecutionTracer {
 	 *            a int.
 	 */
 	public static void passedDefinition(Object object, Object caller, int defID) {
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getActiveTracer(false);
+		if (tracer == null)
 			return;
 
-		ExecutionTracer tracer = getExecutionTracer();
-		if (!tracer.disabled)
-			tracer.trace.definitionPassed(object, caller, defID);
+		tracer.trace.definitionPassed(object, caller, defID);
 	}
 
 	/**
@@ -796,11 +950,8 @@ public class ExecutionTracer {
 	 */
 	public static void passedUse(Object object, Object caller, int useID) {
 
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getActiveTracer(false);
+		if (tracer == null)
 			return;
 
 		tracer.trace.usePassed(object, caller, useID);
@@ -817,11 +968,8 @@ public class ExecutionTracer {
 	 * @param defuseId
 	 */
 	public static void passedFieldMethodCall(Object callee, Object caller, int defuseId) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
-			return;
-
-		if (isThreadNeqCurrentThread())
+		ExecutionTracer tracer = getActiveTracer(false);
+		if (tracer == null)
 			return;
 
 		if (DefUsePool.isKnownAsDefinition(defuseId)) {
@@ -847,15 +995,10 @@ public class ExecutionTracer {
 	 *            a int.
 	 */
 	public static void passedMutation(double distance, int mutationId) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
+		ExecutionTracer tracer = getActiveTracer(true);
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
-
 		tracer.trace.mutationPassed(mutationId, distance);
 	}
 
@@ -873,15 +1016,10 @@ public class ExecutionTracer {
 	 */
 	public static void exceptionThrown(Object exception, String className,
 	        String methodName) {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
+		ExecutionTracer tracer = getActiveTracer(true);
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
-
 		tracer.trace.setExplicitException((Throwable) exception);
 
 	}
@@ -892,15 +1030,10 @@ public class ExecutionTracer {
 	 * </p>
 	 */
 	public static void statementExecuted() {
-		ExecutionTracer tracer = getExecutionTracer();
-		if (tracer.disabled)
+		ExecutionTracer tracer = getActiveTracer(true);
+		if (tracer == null)
 			return;
 
-		if (isThreadNeqCurrentThread())
-			return;
-
-		checkTimeout();
-
 		tracer.num_statements++;
 	}
 
@@ -915,6 +1048,16 @@ public class ExecutionTracer {
 		return num_statements;
 	}
 
+	/**
+	 * Set the kill switch of this tracer, rather than of the tracer of the
+	 * current thread
+	 * 
+	 * @param value
+	 */
+	void setTracerKillSwitch(boolean value) {
+		killSwitch = value;
+	}
+
 	private ExecutionTracer() {
 		trace = new ExecutionTraceProxy();
 	}
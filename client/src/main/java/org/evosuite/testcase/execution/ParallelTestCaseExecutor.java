@@ -0,0 +1,533 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.Properties;
+import org.evosuite.assertion.InspectorManager;
+import org.evosuite.coverage.mutation.Mutation;
+import org.evosuite.coverage.mutation.MutationObserver;
+import org.evosuite.instrumentation.InstrumentingClassLoader;
+import org.evosuite.instrumentation.IsolatedClassLoader;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.Random;
+import org.evosuite.runtime.Runtime;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.classhandling.ClassResetter;
+import org.evosuite.seeding.ConstantPoolManager;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.testcase.statements.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Executes independent test cases concurrently on a fixed number of worker
+ * threads, and returns their results in the order of the tests.
+ * </p>
+ * 
+ * <p>
+ * Each worker traces the test it executes with its own
+ * {@link ExecutionTracer}, and executes it on its own copy of the
+ * instrumented classes (see {@link IsolatedClassLoader}), such that tests on
+ * different workers do not share the static state of the SUT. A worker keeps
+ * its copy for its whole life; if static fields are reset after each test, it
+ * resets the classes of its copy like the {@link TestCaseExecutor} does for
+ * the original classes (see {@link ClassReInitializer}), on its own thread.
+ * The mocked {@link Random} and time are bound to the
+ * worker thread as well, so that the values a test sees do not depend on the
+ * tests running next to it.
+ * </p>
+ * 
+ * <p>
+ * The virtual file system and network, the JEE support and the execution
+ * observers are shared by the whole JVM, so if any of them is in use the
+ * {@link TestCaseExecutor} executes tests sequentially instead. Observers
+ * and mutations that only concern a single execution are supported though.
+ * </p>
+ */
+public class ParallelTestCaseExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelTestCaseExecutor.class);
+
+	private final InstrumentingClassLoader source;
+
+	private final List<Worker> workers = new ArrayList<Worker>();
+
+	/** Tasks are put here by the workers once they are done with them */
+	private final BlockingQueue<Task> finished = new LinkedBlockingQueue<Task>();
+
+	private int workerCounter = 0;
+
+	/**
+	 * @param source
+	 *            class loader whose instrumented classes are copied for the
+	 *            workers
+	 * @param numWorkers
+	 *            number of tests executed concurrently
+	 */
+	public ParallelTestCaseExecutor(InstrumentingClassLoader source, int numWorkers) {
+		if (numWorkers < 1) {
+			throw new IllegalArgumentException("Need at least one worker, not " + numWorkers);
+		}
+		this.source = source;
+		for (int i = 0; i < numWorkers; i++) {
+			workers.add(new Worker());
+		}
+	}
+
+	/**
+	 * Check whether tests can currently be executed in parallel
+	 * 
+	 * @param observers
+	 *            the observers that need to be informed about the execution
+	 * @return true if test_execution_threads is greater than one and no state
+	 *         shared by the whole JVM is involved in the execution
+	 */
+	public static boolean canExecuteInParallel(Collection<ExecutionObserver> observers) {
+		return observers.isEmpty() && canIsolateExecutions();
+	}
+
+	/**
+	 * Check whether tests can currently be executed in parallel if each
+	 * execution is informed only by observers of its own
+	 * 
+	 * @return true if test_execution_threads is greater than one and no state
+	 *         shared by the whole JVM is involved in the execution
+	 */
+	public static boolean canIsolateExecutions() {
+		return Properties.TEST_EXECUTION_THREADS > 1 && !Properties.VIRTUAL_FS && !Properties.VIRTUAL_NET
+		        && !Properties.JEE;
+	}
+
+	public InstrumentingClassLoader getSource() {
+		return source;
+	}
+
+	public int getNumWorkers() {
+		return workers.size();
+	}
+
+	/**
+	 * Execute all tests, at most one per worker at a time
+	 * 
+	 * @param tests
+	 *            the tests to execute; they are not modified
+	 * @param timeout
+	 *            milliseconds each test is allowed to run
+	 * @return the results, in the same order as the tests
+	 */
+	public List<ExecutionResult> execute(List<TestCase> tests, int timeout) {
+		return execute(tests, null, null, timeout);
+	}
+
+	/**
+	 * Execute all tests, at most one per worker at a time, each with a
+	 * mutation activated on the worker and its own observers. The observers
+	 * see a copy of the test whose classes are those of the worker, see
+	 * {@link ExecutionObserver#getCurrentTest()}.
+	 * 
+	 * @param tests
+	 *            the tests to execute; they are not modified
+	 * @param mutants
+	 *            the mutation to activate for each test, or null to execute
+	 *            all tests on the original code
+	 * @param observers
+	 *            the observers of each test, or null if there are none
+	 * @param timeout
+	 *            milliseconds each test is allowed to run
+	 * @return the results, in the same order as the tests
+	 */
+	public List<ExecutionResult> execute(List<TestCase> tests, List<Mutation> mutants,
+	        List<Set<ExecutionObserver>> observers, int timeout) {
+		// The runtime state shared by all workers is reset once for the whole batch
+		Runtime.getInstance().resetRuntime();
+
+		ExecutionResult[] results = new ExecutionResult[tests.size()];
+		List<List<Object>> constants = new ArrayList<List<Object>>(Collections.<List<Object>> nCopies(tests.size(),
+				null));
+		Deque<Worker> idle = new ArrayDeque<Worker>(workers);
+		Set<Task> running = new LinkedHashSet<Task>();
+		boolean interrupted = false;
+		int next = 0;
+
+		while (next < tests.size() || !running.isEmpty()) {
+			while (next < tests.size() && !idle.isEmpty()) {
+				Mutation mutant = mutants == null ? null : mutants.get(next);
+				Set<ExecutionObserver> testObservers = observers == null ? Collections.<ExecutionObserver> emptySet()
+				        : observers.get(next);
+				running.add(idle.poll().submit(next, tests.get(next), mutant, testObservers, timeout));
+				next++;
+			}
+
+			long now = System.currentTimeMillis();
+			long deadline = Long.MAX_VALUE;
+			for (Task task : running) {
+				deadline = Math.min(deadline, task.deadline);
+			}
+
+			Task done = null;
+			try {
+				done = finished.poll(Math.max(deadline - now, 0L), TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+
+			if (done != null) {
+				// Tasks of workers that were given up on earlier may still show up here
+				if (running.remove(done)) {
+					results[done.index] = done.getResult();
+					constants.set(done.index, done.constants);
+					idle.add(done.worker);
+				}
+				continue;
+			}
+
+			now = System.currentTimeMillis();
+			for (Task task : new ArrayList<Task>(running)) {
+				if (task.deadline > now) {
+					continue;
+				}
+				if (task.escalateTimeout(now)) {
+					running.remove(task);
+					results[task.index] = task.getResult();
+					idle.add(replace(task.worker));
+				}
+			}
+		}
+
+		// Dynamic constants are added in the order of the tests, as if they had been executed sequentially
+		for (List<Object> values : constants) {
+			if (values != null) {
+				ConstantPoolManager.getInstance().addDynamicConstants(values);
+			}
+		}
+
+		// As after a sequential execution, the initialized classes are reset in the generated tests
+		if (Properties.RESET_STATIC_FIELDS) {
+			for (ExecutionResult result : results) {
+				ClassReInitializer.getInstance().addInitializedClasses(result.getTrace().getInitializedClasses());
+			}
+		}
+
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Stop all worker threads
+	 */
+	public void shutdown() {
+		for (Worker worker : workers) {
+			worker.executor.shutdownNow();
+			worker.discardLoader();
+		}
+	}
+
+	private Worker replace(Worker worker) {
+		worker.kill();
+		Worker replacement = new Worker();
+		workers.set(workers.indexOf(worker), replacement);
+		return replacement;
+	}
+
+	/**
+	 * Reset the runtime state bound to the current worker thread
+	 */
+	private static void resetThreadRuntime() {
+		if (RuntimeSettings.mockJVMNonDeterminism) {
+			Random.reset();
+			org.evosuite.runtime.System.resetThreadState();
+		}
+		LoopCounter.getInstance().reset();
+	}
+
+	/**
+	 * A thread with its own tracer and its own copy of the SUT classes
+	 */
+	private class Worker implements ThreadFactory {
+
+		private final ExecutorService executor;
+
+		private final String name;
+
+		private volatile ExecutionTracer tracer = null;
+
+		private volatile Thread thread = null;
+
+		private final IsolatedClassLoader loader;
+
+		/** Only used by the worker thread */
+		private final ClassReInitializer reInitializer;
+
+		Worker() {
+			name = TestCaseExecutor.TEST_EXECUTION_THREAD + "_worker_" + workerCounter++;
+			loader = new IsolatedClassLoader(source);
+			reInitializer = ClassReInitializer.forIsolatedLoader(loader);
+			executor = Executors.newSingleThreadExecutor(this);
+		}
+
+		@Override
+		public Thread newThread(final Runnable r) {
+			ThreadGroup group = new ThreadGroup(TestCaseExecutor.TEST_EXECUTION_THREAD_GROUP);
+			thread = new Thread(group, new Runnable() {
+				@Override
+				public void run() {
+					tracer = ExecutionTracer.bindToCurrentThread();
+					Random.bindToCurrentThread();
+					org.evosuite.runtime.System.bindToCurrentThread();
+					try {
+						r.run();
+					} finally {
+						ExecutionObserver.setCurrentTestOfThread(null);
+						MutationObserver.deactivateMutationOnCurrentThread();
+						org.evosuite.runtime.System.unbindFromCurrentThread();
+						Random.unbindFromCurrentThread();
+						ExecutionTracer.unbindFromCurrentThread();
+					}
+				}
+			});
+			thread.setName(name);
+			thread.setDaemon(true);
+			thread.setContextClassLoader(loader);
+			return thread;
+		}
+
+		Task submit(int index, TestCase test, Mutation mutant, Set<ExecutionObserver> observers, int timeout) {
+			Task task = new Task(this, index, test, mutant, observers, timeout);
+			task.future = executor.submit(task);
+			return task;
+		}
+
+		/**
+		 * Executed by the worker thread
+		 */
+		ExecutionResult run(TestCase test, Mutation mutant, Set<ExecutionObserver> observers) {
+			TestCase copy = test.clone();
+			for (Statement statement : copy) {
+				statement.changeClassLoader(loader);
+			}
+
+			tracer.setTracerKillSwitch(false);
+			tracer.clear();
+			MutationObserver.activateMutationOnCurrentThread(mutant);
+			ExecutionObserver.setCurrentTestOfThread(copy);
+			try {
+				ExecutionResult result = new WorkerRunnable(copy, new Scope(), observers).call();
+				if (Properties.RESET_STATIC_FIELDS) {
+					resetClasses(copy, result);
+				}
+				result.setTest(test);
+				return result;
+			} finally {
+				ExecutionObserver.setCurrentTestOfThread(null);
+				MutationObserver.deactivateMutationOnCurrentThread();
+			}
+		}
+
+		/**
+		 * Reset the classes of the copy the test wrote to, with the mutation
+		 * and the tracer of the worker switched off, such that the next test
+		 * on this worker starts from the same static state
+		 */
+		private void resetClasses(TestCase copy, ExecutionResult result) {
+			ExecutionTracer.disable();
+			MutationObserver.activateMutationOnCurrentThread(null);
+			resetThreadRuntime();
+			reInitializer.reInitializeClassesAfterTestExecution(copy, result);
+		}
+
+		/**
+		 * Drop what is kept about the copy of the classes once the worker is
+		 * no longer used
+		 */
+		void discardLoader() {
+			InspectorManager.getInstance().removeInspectors(loader);
+			ClassResetter.getInstance().forgetClassLoader(loader);
+		}
+
+		@SuppressWarnings("deprecation")
+		void kill() {
+			logger.info("Test still running on {}, replacing worker", name);
+			executor.shutdownNow();
+			Thread t = thread;
+			if (t != null && t.isAlive()) {
+				try {
+					t.stop();
+				} catch (Throwable e) {
+					logger.info("Throwable: " + e);
+				}
+			}
+			discardLoader();
+		}
+	}
+
+	/**
+	 * The execution of one test on a worker
+	 */
+	private class Task implements Callable<ExecutionResult> {
+
+		private final Worker worker;
+
+		private final int index;
+
+		private final TestCase test;
+
+		private final Mutation mutant;
+
+		private final Set<ExecutionObserver> observers;
+
+		private Future<ExecutionResult> future;
+
+		private volatile ExecutionResult result = null;
+
+		/** Dynamic constants observed while executing the test */
+		private volatile List<Object> constants = null;
+
+		private long deadline;
+
+		/** 0: running, 1: kill switch set, 2: thread interrupted */
+		private int timeoutStage = 0;
+
+		Task(Worker worker, int index, TestCase test, Mutation mutant, Set<ExecutionObserver> observers, int timeout) {
+			this.worker = worker;
+			this.index = index;
+			this.test = test;
+			this.mutant = mutant;
+			this.observers = observers;
+			this.deadline = System.currentTimeMillis() + timeout;
+		}
+
+		@Override
+		public ExecutionResult call() {
+			ConstantPoolManager.getInstance().startCollectingDynamicConstants();
+			try {
+				result = worker.run(test, mutant, observers);
+				return result;
+			} finally {
+				constants = ConstantPoolManager.getInstance().stopCollectingDynamicConstants();
+				finished.add(this);
+			}
+		}
+
+		/**
+		 * Take the next step to stop a test that ran out of time, in the same
+		 * way as the {@link TestCaseExecutor}: first set the kill switch, then
+		 * interrupt the thread, and eventually give up on it
+		 * 
+		 * @return true if the worker has to be replaced
+		 */
+		boolean escalateTimeout(long now) {
+			timeoutStage++;
+			deadline = now + Properties.SHUTDOWN_TIMEOUT;
+			if (timeoutStage == 1) {
+				if (Properties.LOG_TIMEOUT) {
+					logger.warn("Timeout occurred for " + Properties.TARGET_CLASS);
+				}
+				ExecutionTracer tracer = worker.tracer;
+				if (tracer != null) {
+					tracer.setTracerKillSwitch(true);
+				}
+				return false;
+			} else if (timeoutStage == 2) {
+				future.cancel(true);
+				return false;
+			}
+			return true;
+		}
+
+		ExecutionResult getResult() {
+			ExecutionResult executionResult = result;
+			if (executionResult == null) {
+				try {
+					executionResult = future.isDone() ? future.get() : null;
+				} catch (CancellationException | InterruptedException e) {
+					executionResult = null;
+				} catch (ExecutionException e) {
+					logger.error("ExecutionException (this is likely a serious error in the framework)", e);
+					if (e.getCause() instanceof Error) {
+						throw (Error) e.getCause();
+					} else if (e.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) e.getCause();
+					}
+				}
+			}
+			if (executionResult == null) {
+				executionResult = new ExecutionResult(test, null);
+				ExecutionTracer tracer = worker.tracer;
+				executionResult.setTrace(tracer != null ? tracer.getTrace().lazyClone() : new ExecutionTraceImpl());
+			}
+			if (timeoutStage > 0 && !executionResult.hasTimeout()) {
+				executionResult.reportNewThrownException(test.size(), new TestCaseExecutor.TimeoutExceeded());
+			}
+			return executionResult;
+		}
+	}
+
+	/**
+	 * Output and the shared runtime state are handled for all workers together
+	 */
+	private static class WorkerRunnable extends TestRunnable {
+
+		WorkerRunnable(TestCase tc, Scope scope, Set<ExecutionObserver> observers) {
+			super(tc, scope, observers);
+		}
+
+		/**
+		 * Only reset the state bound to the worker thread, as the tests of
+		 * the other workers are still running on the shared one
+		 */
+		@Override
+		protected void resetRuntime() {
+			resetThreadRuntime();
+		}
+
+		@Override
+		protected void muteOutput() {
+			// output is muted by the TestCaseExecutor for the whole batch
+		}
+
+		@Override
+		protected void restoreOutput() {
+		}
+	}
+}
@@ -20,9 +20,13 @@
 package org.evosuite.testcase.execution;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -33,16 +37,21 @@ import java.util.concurrent.TimeoutException;
 
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.mutation.Mutation;
 import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.instrumentation.InstrumentingClassLoader;
 import org.evosuite.runtime.LoopCounter;
 import org.evosuite.runtime.sandbox.PermissionStatistics;
 import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.runtime.thread.KillSwitch;
+import org.evosuite.runtime.thread.ThreadStopper;
 import org.evosuite.runtime.util.JOptionPaneInputs;
 import org.evosuite.runtime.util.SystemInUtil;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +89,9 @@ public class TestCaseExecutor implements ThreadFactory {
 
 	private ExecutorService executor;
 
+	/** Created on demand if tests are executed in parallel */
+	private ParallelTestCaseExecutor parallelExecutor = null;
+
 	private Thread currentThread = null;
 
 	private ThreadGroup threadGroup = null;
@@ -176,6 +188,10 @@ public class TestCaseExecutor implements ThreadFactory {
 				instance.executor.shutdownNow();
 				instance.executor = null;
 			}
+			if (instance.parallelExecutor != null) {
+				instance.parallelExecutor.shutdown();
+				instance.parallelExecutor = null;
+			}
 		}
 	}
 
@@ -208,6 +224,7 @@ public class TestCaseExecutor implements ThreadFactory {
 		if (!observers.contains(observer)) {
 			logger.debug("Adding observer");
 			observers.add(observer);
+			ExecutionResultCache.getInstance().clear();
 		}
 		// FIXXME: Find proper solution for this
 		// for (ExecutionObserver o : observers)
@@ -229,6 +246,7 @@ public class TestCaseExecutor implements ThreadFactory {
 		if (observers.contains(observer)) {
 			logger.debug("Removing observer");
 			observers.remove(observer);
+			ExecutionResultCache.getInstance().clear();
 		}
 	}
 
@@ -239,6 +257,7 @@ public class TestCaseExecutor implements ThreadFactory {
 	 */
 	public void newObservers() {
 		observers = new LinkedHashSet<>();
+		ExecutionResultCache.getInstance().clear();
 	}
 
 	public Set<ExecutionObserver> getExecutionObservers() {
@@ -281,6 +300,102 @@ public class TestCaseExecutor implements ThreadFactory {
 		return result;
 	}
 
+	/**
+	 * Execute several independent test cases. If possible, they are executed
+	 * in parallel (see {@link Properties#TEST_EXECUTION_THREADS}), otherwise
+	 * one after the other.
+	 * 
+	 * @param tests
+	 *            the test cases to execute
+	 * @return the results, in the same order as the test cases
+	 */
+	public List<ExecutionResult> execute(List<TestCase> tests) {
+		if (tests.size() < 2 || !ParallelTestCaseExecutor.canExecuteInParallel(observers)) {
+			List<ExecutionResult> results = new ArrayList<ExecutionResult>(tests.size());
+			for (TestCase tc : tests) {
+				results.add(execute(tc));
+			}
+			return results;
+		}
+		return executeInParallel(tests, null, null);
+	}
+
+	/**
+	 * Execute a test case once for each of the given mutants, in parallel.
+	 * Each execution informs only its own observers, which see a copy of the
+	 * test (see {@link ExecutionObserver#getCurrentTest()}) whose classes are
+	 * not those of the SUT class loader. This is only possible if
+	 * {@link ParallelTestCaseExecutor#canIsolateExecutions()}.
+	 * 
+	 * @param tc
+	 *            the test case to execute
+	 * @param mutants
+	 *            the mutation to activate for each execution
+	 * @param observers
+	 *            the observers of each execution
+	 * @return the results, in the same order as the mutants
+	 */
+	public List<ExecutionResult> executeOnMutants(TestCase tc, List<Mutation> mutants,
+	        List<Set<ExecutionObserver>> observers) {
+		return executeInParallel(Collections.nCopies(mutants.size(), tc), mutants, observers);
+	}
+
+	private List<ExecutionResult> executeInParallel(List<TestCase> tests, List<Mutation> mutants,
+	        List<Set<ExecutionObserver>> observers) {
+		InstrumentingClassLoader loader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		if (parallelExecutor == null || parallelExecutor.getSource() != loader
+		        || parallelExecutor.getNumWorkers() != Properties.TEST_EXECUTION_THREADS) {
+			if (parallelExecutor != null) {
+				parallelExecutor.shutdown();
+			}
+			parallelExecutor = new ParallelTestCaseExecutor(loader, Properties.TEST_EXECUTION_THREADS);
+		}
+
+		for (int i = 0; i < tests.size(); i++) {
+			MaxTestsStoppingCondition.testExecuted();
+		}
+		long startTime = System.currentTimeMillis();
+
+		// SUT threads report to the shared tracer, not to the ones of the workers
+		Set<String> threadsToIgnore = new LinkedHashSet<>();
+		threadsToIgnore.add(TEST_EXECUTION_THREAD);
+		threadsToIgnore.addAll(Arrays.asList(Properties.IGNORE_THREADS));
+		ThreadStopper threadStopper = new ThreadStopper(new KillSwitch() {
+			@Override
+			public void setKillSwitch(boolean kill) {
+				ExecutionTracer.setKillSwitch(kill);
+			}
+		}, threadsToIgnore, Properties.TIMEOUT);
+		threadStopper.storeCurrentThreads();
+		threadStopper.startRecordingTime();
+
+		// important to call it before setting up the sandbox
+		SystemInUtil.getInstance().initForTestCase();
+		JOptionPaneInputs.getInstance().initForTestCase();
+
+		List<ExecutionResult> results;
+		if (!Properties.PRINT_TO_SYSTEM) {
+			LoggingUtils.muteCurrentOutAndErrStream();
+		}
+		Sandbox.goingToExecuteSUTCode();
+		try {
+			results = parallelExecutor.execute(tests, mutants, observers, Properties.TIMEOUT);
+		} finally {
+			Sandbox.doneWithExecutingSUTCode();
+			if (!Properties.PRINT_TO_SYSTEM) {
+				LoggingUtils.restorePreviousOutAndErrStream();
+			}
+		}
+		threadStopper.killAndJoinClientThreads();
+
+		timeExecuted += System.currentTimeMillis() - startTime;
+		testsExecuted += tests.size();
+		for (TestCase tc : new LinkedHashSet<TestCase>(tests)) {
+			TestCluster.getInstance().handleRuntimeAccesses(tc);
+		}
+		return results;
+	}
+
 	/**
 	 * Execute a test case on an existing scope
 	 * 
@@ -355,7 +470,7 @@ public class TestCaseExecutor implements ThreadFactory {
 			logger.warn("Caught ThreadDeath during test execution");
 			ExecutionResult result = new ExecutionResult(tc, null);
 			result.setThrownExceptions(callable.getExceptionsThrown());
-			result.setTrace(ExecutionTracer.getExecutionTracer().getTrace());
+			result.setTrace(ExecutionTracer.getExecutionTracer().getTrace().lazyClone());
 			ExecutionTracer.getExecutionTracer().clear();
 			return result;
 
@@ -363,7 +478,7 @@ public class TestCaseExecutor implements ThreadFactory {
 			logger.info("InterruptedException");
 			ExecutionResult result = new ExecutionResult(tc, null);
 			result.setThrownExceptions(callable.getExceptionsThrown());
-			result.setTrace(ExecutionTracer.getExecutionTracer().getTrace());
+			result.setTrace(ExecutionTracer.getExecutionTracer().getTrace().lazyClone());
 			ExecutionTracer.getExecutionTracer().clear();
 			return result;
 		} catch (ExecutionException e1) {
@@ -378,7 +493,7 @@ public class TestCaseExecutor implements ThreadFactory {
 			logger.error("ExecutionException (this is likely a serious error in the framework)", e1);
 			ExecutionResult result = new ExecutionResult(tc, null);
 			result.setThrownExceptions(callable.getExceptionsThrown());
-			result.setTrace(ExecutionTracer.getExecutionTracer().getTrace());
+			result.setTrace(ExecutionTracer.getExecutionTracer().getTrace().lazyClone());
 			ExecutionTracer.getExecutionTracer().clear();
 			if (e1.getCause() instanceof Error) { // an error was thrown
 													// somewhere in evosuite
@@ -479,7 +594,7 @@ public class TestCaseExecutor implements ThreadFactory {
 			ExecutionResult result = new ExecutionResult(tc, null);
 			result.setThrownExceptions(callable.getExceptionsThrown());
 			result.reportNewThrownException(tc.size(), new TestCaseExecutor.TimeoutExceeded());
-			result.setTrace(ExecutionTracer.getExecutionTracer().getTrace());
+			result.setTrace(ExecutionTracer.getExecutionTracer().getTrace().lazyClone());
 			ExecutionTracer.getExecutionTracer().clear();
 			ExecutionTracer.setKillSwitch(false);
 			ExecutionTracer.enable();
@@ -552,6 +667,7 @@ public class TestCaseExecutor implements ThreadFactory {
 
 	public void setExecutionObservers(Set<ExecutionObserver> observers) {
 		this.observers = observers;
+		ExecutionResultCache.getInstance().clear();
 	}
 
 }
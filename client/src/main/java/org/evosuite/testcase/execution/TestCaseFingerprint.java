@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.testcase.TestCase;
+
+/**
+ * Structural identity of a test case: two test cases with the same
+ * fingerprint consist of the same statements, calling the same methods on the
+ * same variables with the same primitive values.
+ *
+ * The fingerprint is derived from the code of the test, which spells out all
+ * of these. A 64 bit hash is used for quick comparisons, and the code itself
+ * to rule out collisions.
+ */
+public final class TestCaseFingerprint {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final String code;
+
+	private final long hash;
+
+	private TestCaseFingerprint(String code) {
+		this.code = code;
+		long h = FNV_OFFSET;
+		for (int i = 0; i < code.length(); i++) {
+			h ^= code.charAt(i);
+			h *= FNV_PRIME;
+		}
+		this.hash = h;
+	}
+
+	public static TestCaseFingerprint of(TestCase test) {
+		return new TestCaseFingerprint(test.toCode());
+	}
+
+	public long getHash() {
+		return hash;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof TestCaseFingerprint))
+			return false;
+		TestCaseFingerprint other = (TestCaseFingerprint) obj;
+		return hash == other.hash && code.equals(other.code);
+	}
+
+	@Override
+	public String toString() {
+		return Long.toHexString(hash);
+	}
+}
@@ -178,6 +178,28 @@ public class TestRunnable implements InterfaceTestRunnable {
 		}
 	}
 	
+	/**
+	 * Reset the state of the EvoSuite runtime before the test is executed
+	 */
+	protected void resetRuntime() {
+		Runtime.getInstance().resetRuntime();
+	}
+
+	/**
+	 * Redirect System.out and System.err of the SUT, unless configured otherwise
+	 */
+	protected void muteOutput() {
+		if (!Properties.PRINT_TO_SYSTEM) {
+			LoggingUtils.muteCurrentOutAndErrStream();
+		}
+	}
+
+	protected void restoreOutput() {
+		if (!Properties.PRINT_TO_SYSTEM) {
+			LoggingUtils.restorePreviousOutAndErrStream();
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public ExecutionResult call() {
@@ -186,15 +208,13 @@ public class TestRunnable implements InterfaceTestRunnable {
 
 		runFinished = false;
 		ExecutionResult result = new ExecutionResult(test, null);
-		Runtime.getInstance().resetRuntime();
+		resetRuntime();
 		ExecutionTracer.enable();
 
 		PrintStream out = (Properties.PRINT_TO_SYSTEM ? System.out : new PrintStream(byteStream));
 		byteStream.reset();
 
-		if (!Properties.PRINT_TO_SYSTEM) {
-			LoggingUtils.muteCurrentOutAndErrStream();
-		}
+		muteOutput();
 
 		threadStopper.startRecordingTime();
 
@@ -243,9 +263,7 @@ public class TestRunnable implements InterfaceTestRunnable {
 			logger.error("Suppressed/ignored exception during test case execution on class "
 			                     + Properties.TARGET_CLASS + ": " + e.getMessage(), e);
 		} finally {
-			if (!Properties.PRINT_TO_SYSTEM) {
-				LoggingUtils.restorePreviousOutAndErrStream();
-			}
+			restoreOutput();
 			if(Properties.REPLACE_CALLS){
 				/*
 				 * For simplicity, we call it here. Ideally, we could call it among the
@@ -258,7 +276,7 @@ public class TestRunnable implements InterfaceTestRunnable {
 			runFinished = true;
 		}
 
-		result.setTrace(ExecutionTracer.getExecutionTracer().getTrace());
+		result.setTrace(ExecutionTracer.getExecutionTracer().getTrace().lazyClone());
 		result.setExecutionTime(System.currentTimeMillis() - threadStopper.getStartTime());
 		result.setExecutedStatements(num.get());
 		result.setThrownExceptions(exceptionsThrown);
@@ -90,11 +90,56 @@ class ClassReInitializeExecutor {
 		}
 	}
 
+	/**
+	 * Resets the classes in the list using the given class loader, without
+	 * touching the state shared with other threads: the loader of the
+	 * {@link ClassResetter} is left as it is, and the loop counter is only
+	 * switched off on the current thread. This is used by the workers of the
+	 * ParallelTestCaseExecutor, which each have their own copies of the
+	 * classes and already execute inside the sandbox of the whole batch. The
+	 * caller has to deactivate the mutation and the tracer of its thread.
+	 * 
+	 * @param classesToReset
+	 * @param loader
+	 */
+	public void resetClassesOnCurrentThread(List<String> classesToReset, ClassLoader loader) {
+		ClassResetter resetter = ClassResetter.getInstance();
+		for (String className : classesToReset) {
+			Method resetMethod = resetter.getResetMethod(className, loader);
+			if (resetMethod == null || resetter.restoreStaticState(className, loader)) {
+				continue;
+			}
+
+			logger.debug("Resetting class " + className);
+			boolean wasLoopCheckOn = LoopCounter.getInstance().isActivatedOnCurrentThread();
+			boolean completed = false;
+			try {
+				LoopCounter.getInstance().setActiveOnCurrentThread(false);
+				resetMethod.invoke(null, (Object[]) null);
+				completed = true;
+			} catch (Throwable e) {
+				resetter.logWarn(className, e.getClass() + " thrown during execution of method  __STATIC_RESET() for class "
+						+ className + ", " + e.getCause());
+			} finally {
+				LoopCounter.getInstance().setActiveOnCurrentThread(wasLoopCheckOn);
+			}
+
+			if (completed) {
+				resetter.captureStaticState(className, loader);
+			}
+		}
+	}
+
 	private void resetClass(String className) {
 
 		// className.__STATIC_RESET() exists
 		logger.debug("Resetting class " + className);
 
+		if (ClassResetter.getInstance().getResetMethod(className) != null
+				&& ClassResetter.getInstance().restoreStaticState(className)) {
+			return;
+		}
+
 		int mutationActive = MutationObserver.activeMutation;
 		MutationObserver.deactivateMutation();
 
@@ -105,12 +150,14 @@ class ClassReInitializeExecutor {
 		Runtime.getInstance().resetRuntime(); // it is important to initialize
 												// the VFS
 		boolean wasLoopCheckOn = LoopCounter.getInstance().isActivated();
+		boolean completed = false;
 
 		try {
 			Method resetMethod = ClassResetter.getInstance().getResetMethod(className);
 			if (resetMethod != null) {
 				LoopCounter.getInstance().setActive(false);
 				resetMethod.invoke(null, (Object[]) null);
+				completed = true;
 			}
 		} catch (Throwable e) {
 			ClassResetter.getInstance().logWarn(className,
@@ -122,5 +169,10 @@ class ClassReInitializeExecutor {
 			MutationObserver.activateMutation(mutationActive);
 			LoopCounter.getInstance().setActive(wasLoopCheckOn);
 		}
+
+		if (completed) {
+			// taken outside of the sandbox, as it needs reflection
+			ClassResetter.getInstance().captureStaticState(className);
+		}
 	}
 }
@@ -45,7 +45,35 @@ public class ClassReInitializer {
 		return instance;
 	}
 
+	/**
+	 * Loader of the copies of the classes reset by a re-initializer of a
+	 * worker thread, or null for the shared instance
+	 */
+	private final ClassLoader isolatedLoader;
+
 	private ClassReInitializer() {
+		this(null);
+	}
+
+	private ClassReInitializer(ClassLoader isolatedLoader) {
+		this.isolatedLoader = isolatedLoader;
+	}
+
+	/**
+	 * Create a re-initializer that is not shared, for a worker thread that
+	 * executes tests on its own copies of the classes. Its classes are reset
+	 * on the calling thread, using the given loader. Whether all observed
+	 * classes are reset follows the shared instance.
+	 * 
+	 * @param loader
+	 *            the loader of the copies of the classes
+	 * @return a new re-initializer
+	 */
+	public static ClassReInitializer forIsolatedLoader(ClassLoader loader) {
+		if (loader == null) {
+			throw new IllegalArgumentException("Null class loader");
+		}
+		return new ClassReInitializer(loader);
 	}
 
 	/*
@@ -133,7 +161,11 @@ public class ClassReInitializer {
 		} else {
 
 			// second, re-initialize classes
-			if (reset_all_observed_classes) {
+			boolean resetAll = isolatedLoader == null ? reset_all_observed_classes
+					: getInstance().reset_all_observed_classes;
+			if (isolatedLoader != null && resetAll) {
+				ClassReInitializeExecutor.getInstance().resetClassesOnCurrentThread(initializedClasses, isolatedLoader);
+			} else if (resetAll) {
 				ClassReInitializeExecutor.getInstance().resetClasses(initializedClasses);
 			} else {
 				// reset only classes that were "observed" to have some
@@ -157,7 +189,9 @@ public class ClassReInitializer {
 						loader = changedClassLoader;
 					}
 				}
-				if (loader == null) {
+				if (isolatedLoader != null) {
+					ClassReInitializeExecutor.getInstance().resetClassesOnCurrentThread(classesToReset, isolatedLoader);
+				} else if (loader == null) {
 					ClassReInitializeExecutor.getInstance().resetClasses(classesToReset);
 				} else {
 					ClassReInitializeExecutor.getInstance().resetClasses(classesToReset, loader);
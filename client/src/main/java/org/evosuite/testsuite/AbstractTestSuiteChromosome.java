@@ -21,8 +21,10 @@ package org.evosuite.testsuite;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.evosuite.Properties;
@@ -48,6 +50,9 @@ public abstract class AbstractTestSuiteChromosome<T extends ExecutableChromosome
 	protected List<T> tests = new ArrayList<T>();
 	protected ChromosomeFactory<T> testChromosomeFactory;
 
+	/** Summaries of the tests kept by fitness functions, shared with clones */
+	private transient Map<Object, Object> fitnessSummaries = null;
+
 	/**
 	 * only used for testing/debugging
 	 */
@@ -94,6 +99,9 @@ public abstract class AbstractTestSuiteChromosome<T extends ExecutableChromosome
 		this.setCoverageValues(source.getCoverageValues());
         this.setNumsOfCoveredGoals(source.getNumsOfCoveredGoals());
         this.setNumsOfNotCoveredGoals(source.getNumsNotCoveredGoals());
+		if (source.fitnessSummaries != null) {
+			this.fitnessSummaries = new HashMap<Object, Object>(source.fitnessSummaries);
+		}
 	}
 
 	/**
@@ -294,4 +302,29 @@ public abstract class AbstractTestSuiteChromosome<T extends ExecutableChromosome
 		tests.set(index, test);
 		this.setChanged(true);
 	}
+
+	/**
+	 * @param owner
+	 *            the fitness function that computed the summary
+	 * @return the summary of the tests previously stored by the owner, or
+	 *         null. Clones of the suite share the same summary object, so the
+	 *         owner needs to copy it before changing it for one of them.
+	 */
+	public Object getFitnessSummary(Object owner) {
+		return fitnessSummaries == null ? null : fitnessSummaries.get(owner);
+	}
+
+	/**
+	 * Remember a summary of the tests of this suite
+	 * 
+	 * @param owner
+	 *            the fitness function that computed the summary
+	 * @param summary
+	 */
+	public void setFitnessSummary(Object owner, Object summary) {
+		if (fitnessSummaries == null) {
+			fitnessSummaries = new HashMap<Object, Object>();
+		}
+		fitnessSummaries.put(owner, summary);
+	}
 }
@@ -76,7 +76,7 @@ public class RegressionTestSuiteSerialization {
 		// join previous regression test suite with new test suite
 		testSuite.addTests(previousSuite);
 
-		// serialize
-		TestSuiteSerialization.saveTests(testSuite, new File(regressionFile));
+		// serialize, with Java serialization as the compact format would drop the assertions
+		TestSuiteSerialization.saveTests(testSuite, new File(regressionFile), false);
 	}
 }
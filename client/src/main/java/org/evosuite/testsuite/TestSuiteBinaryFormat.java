@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+/**
+ * Constants of the compact binary format for serialized tests, written by
+ * {@link TestSuiteBinaryWriter} and read by {@link TestSuiteBinaryReader}.
+ *
+ * A file starts with {@link #MAGIC} and {@link #VERSION}, followed by a
+ * sequence of records, each starting with a tag byte:
+ * <ul>
+ * <li>{@link #RECORD_CLASS}: the name of the next class in the class table</li>
+ * <li>{@link #RECORD_MEMBER}: kind, class index, name and descriptor of the
+ * next constructor, method or field in the member table</li>
+ * <li>{@link #RECORD_TEST}: length and content of a test, whose statements
+ * refer to classes and members by their index</li>
+ * <li>{@link #RECORD_SERIALIZED_TEST}: length and content of a test written
+ * with Java serialization</li>
+ * <li>{@link #RECORD_END}: end of the stream</li>
+ * </ul>
+ * Table entries are always written before the first test that uses them, so
+ * a file can be read one test at a time. Numbers are written in a variable
+ * length encoding; assertions and execution results are not stored.
+ */
+class TestSuiteBinaryFormat {
+
+	/** "EVOT", chosen to differ from the header of Java object streams */
+	static final int MAGIC = 0x45564F54;
+
+	/** Needs to be increased on any incompatible change of the format */
+	static final short VERSION = 1;
+
+	static final byte RECORD_END = 0;
+	static final byte RECORD_CLASS = 1;
+	static final byte RECORD_MEMBER = 2;
+	static final byte RECORD_TEST = 3;
+	static final byte RECORD_SERIALIZED_TEST = 4;
+
+	// Statements and constant values
+	static final byte CONSTRUCTOR = 1;
+	static final byte METHOD = 2;
+	static final byte FIELD = 3;
+	static final byte ASSIGNMENT = 4;
+	static final byte ARRAY = 5;
+	static final byte EXPRESSION = 6;
+	static final byte NULL = 7;
+	static final byte BOOLEAN = 8;
+	static final byte BYTE = 9;
+	static final byte CHAR = 10;
+	static final byte SHORT = 11;
+	static final byte INT = 12;
+	static final byte LONG = 13;
+	static final byte FLOAT = 14;
+	static final byte DOUBLE = 15;
+	static final byte STRING = 16;
+	static final byte IMMUTABLE_STRING = 17;
+	static final byte ENUM = 18;
+	static final byte CLASS = 19;
+
+	// Variable references
+	static final byte REFERENCE_NONE = 0;
+	static final byte REFERENCE_VARIABLE = 1;
+	static final byte REFERENCE_ARRAY_INDEX = 2;
+	static final byte REFERENCE_FIELD = 3;
+	static final byte REFERENCE_CONSTANT = 4;
+	static final byte REFERENCE_NULL = 5;
+
+	// Types
+	static final byte TYPE_NONE = 0;
+	static final byte TYPE_CLASS = 1;
+	static final byte TYPE_PARAMETERIZED = 2;
+	static final byte TYPE_ARRAY = 3;
+	static final byte TYPE_WILDCARD = 4;
+
+	private TestSuiteBinaryFormat() {
+	}
+}
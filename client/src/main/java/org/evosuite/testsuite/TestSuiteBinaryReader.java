@@ -0,0 +1,529 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ClassPrimitiveStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.ImmutableStringPrimitiveStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.PrimitiveExpression;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BooleanPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BytePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.CharPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.FloatPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.ShortPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.ConstantValue;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.NullReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testcase.variable.VariableReferenceImpl;
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericArrayTypeImpl;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+import org.evosuite.utils.generic.WildcardTypeImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads tests written by {@link TestSuiteBinaryWriter}, one test at a time.
+ * Classes and members are only resolved when a test using them is read, and
+ * each of them only once.
+ *
+ * A test that cannot be loaded anymore, e.g. because a method it calls was
+ * removed from the class under test, is skipped with a warning.
+ */
+public class TestSuiteBinaryReader implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(TestSuiteBinaryReader.class);
+
+	private final DataInputStream in;
+
+	private final ClassLoader loader;
+
+	private final List<String> classNames = new ArrayList<>();
+
+	private final List<Class<?>> classes = new ArrayList<>();
+
+	private final List<Byte> memberKinds = new ArrayList<>();
+
+	private final List<Integer> memberClasses = new ArrayList<>();
+
+	private final List<String> memberNames = new ArrayList<>();
+
+	private final List<String> memberDescriptors = new ArrayList<>();
+
+	private final List<AccessibleObject> members = new ArrayList<>();
+
+	private boolean finished = false;
+
+	/**
+	 * @param stream
+	 *            positioned at the start of the format header
+	 * @param loader
+	 *            used to resolve the classes of the tests
+	 * @throws IOException
+	 *             if the stream does not contain tests in a supported
+	 *             version of the format
+	 */
+	public TestSuiteBinaryReader(InputStream stream, ClassLoader loader) throws IOException {
+		this.in = new DataInputStream(stream instanceof BufferedInputStream ? stream
+		        : new BufferedInputStream(stream));
+		this.loader = loader;
+
+		if (in.readInt() != TestSuiteBinaryFormat.MAGIC)
+			throw new IOException("Not a binary test file");
+		short version = in.readShort();
+		if (version > TestSuiteBinaryFormat.VERSION)
+			throw new IOException("Unsupported version of binary test file: " + version);
+	}
+
+	/**
+	 * Check if the stream starts with the header of the binary format,
+	 * without consuming it
+	 *
+	 * @param stream
+	 * @return
+	 * @throws IOException
+	 */
+	public static boolean isBinaryFormat(BufferedInputStream stream) throws IOException {
+		stream.mark(4);
+		try {
+			return new DataInputStream(stream).readInt() == TestSuiteBinaryFormat.MAGIC;
+		} catch (IOException e) {
+			return false;
+		} finally {
+			stream.reset();
+		}
+	}
+
+	/**
+	 * Read the next test of the stream
+	 *
+	 * @return the test, or null if there are no more tests
+	 * @throws IOException
+	 */
+	public TestChromosome readTest() throws IOException {
+		while (!finished) {
+			int record = in.read();
+			switch (record) {
+			case -1:
+			case TestSuiteBinaryFormat.RECORD_END:
+				finished = true;
+				break;
+			case TestSuiteBinaryFormat.RECORD_CLASS:
+				classNames.add(in.readUTF());
+				classes.add(null);
+				break;
+			case TestSuiteBinaryFormat.RECORD_MEMBER:
+				memberKinds.add(in.readByte());
+				memberClasses.add((int) readLength(in));
+				memberNames.add(in.readUTF());
+				memberDescriptors.add(in.readUTF());
+				members.add(null);
+				break;
+			case TestSuiteBinaryFormat.RECORD_TEST:
+				byte[] test = readRecord();
+				try {
+					return readTest(new DataInputStream(new ByteArrayInputStream(test)));
+				} catch (Exception e) {
+					logger.warn("Skipping test that cannot be loaded: " + e);
+				}
+				break;
+			case TestSuiteBinaryFormat.RECORD_SERIALIZED_TEST:
+				byte[] serialized = readRecord();
+				try (ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+					TestChromosome tc = (TestChromosome) objectStream.readObject();
+					for (Statement st : tc.getTestCase()) {
+						st.changeClassLoader(loader);
+					}
+					return tc;
+				} catch (Exception e) {
+					logger.warn("Skipping serialized test that cannot be loaded: " + e);
+				}
+				break;
+			default:
+				throw new IOException("Corrupt binary test file, unknown record " + record);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Read all remaining tests of the stream. Use {@link #readTest()} to
+	 * handle the tests one at a time, or to keep the tests read before a
+	 * problem with the stream.
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public List<TestChromosome> readTests() throws IOException {
+		List<TestChromosome> tests = new ArrayList<>();
+		for (TestChromosome test = readTest(); test != null; test = readTest()) {
+			tests.add(test);
+		}
+		return tests;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private byte[] readRecord() throws IOException {
+		byte[] bytes = new byte[(int) readLength(in)];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	private TestChromosome readTest(DataInputStream data) throws Exception {
+		TestCase test = new DefaultTestCase();
+		long size = readLength(data);
+		for (int i = 0; i < size; i++) {
+			readStatement(test, data);
+		}
+
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+		return chromosome;
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void readStatement(TestCase test, DataInputStream data) throws Exception {
+		byte tag = data.readByte();
+		Type type = tag == TestSuiteBinaryFormat.ASSIGNMENT ? null : readType(data);
+
+		Statement statement;
+		switch (tag) {
+		case TestSuiteBinaryFormat.CONSTRUCTOR:
+			GenericConstructor constructor = (GenericConstructor) readMember(data);
+			statement = new ConstructorStatement(test, constructor, readReferences(test, data));
+			break;
+		case TestSuiteBinaryFormat.METHOD:
+			GenericMethod method = (GenericMethod) readMember(data);
+			VariableReference callee = readReference(test, data);
+			statement = new MethodStatement(test, method, callee, readReferences(test, data));
+			break;
+		case TestSuiteBinaryFormat.FIELD:
+			GenericField field = (GenericField) readMember(data);
+			statement = new FieldStatement(test, field, readReference(test, data));
+			break;
+		case TestSuiteBinaryFormat.ASSIGNMENT:
+			VariableReference target = readReference(test, data);
+			statement = new AssignmentStatement(test, target, readReference(test, data));
+			break;
+		case TestSuiteBinaryFormat.ARRAY:
+			int[] lengths = new int[(int) readLength(data)];
+			for (int i = 0; i < lengths.length; i++) {
+				lengths[i] = (int) readLength(data);
+			}
+			statement = new ArrayStatement(test, type, lengths);
+			break;
+		case TestSuiteBinaryFormat.EXPRESSION:
+			VariableReference left = readReference(test, data);
+			PrimitiveExpression.Operator operator = PrimitiveExpression.Operator.values()[data.readByte()];
+			VariableReference right = readReference(test, data);
+			statement = new PrimitiveExpression(test, new VariableReferenceImpl(test, type), left,
+			        operator, right);
+			break;
+		case TestSuiteBinaryFormat.NULL:
+			statement = new NullStatement(test, type);
+			break;
+		case TestSuiteBinaryFormat.BOOLEAN:
+			statement = new BooleanPrimitiveStatement(test, data.readBoolean());
+			break;
+		case TestSuiteBinaryFormat.BYTE:
+			statement = new BytePrimitiveStatement(test, data.readByte());
+			break;
+		case TestSuiteBinaryFormat.CHAR:
+			statement = new CharPrimitiveStatement(test, data.readChar());
+			break;
+		case TestSuiteBinaryFormat.SHORT:
+			statement = new ShortPrimitiveStatement(test, data.readShort());
+			break;
+		case TestSuiteBinaryFormat.INT:
+			statement = new IntPrimitiveStatement(test, (int) readSigned(data));
+			break;
+		case TestSuiteBinaryFormat.LONG:
+			statement = new LongPrimitiveStatement(test, readSigned(data));
+			break;
+		case TestSuiteBinaryFormat.FLOAT:
+			statement = new FloatPrimitiveStatement(test, data.readFloat());
+			break;
+		case TestSuiteBinaryFormat.DOUBLE:
+			statement = new DoublePrimitiveStatement(test, data.readDouble());
+			break;
+		case TestSuiteBinaryFormat.STRING:
+			statement = new StringPrimitiveStatement(test, readString(data));
+			break;
+		case TestSuiteBinaryFormat.IMMUTABLE_STRING:
+			statement = new ImmutableStringPrimitiveStatement(test, readString(data));
+			break;
+		case TestSuiteBinaryFormat.ENUM:
+			Class enumClass = readClass(data);
+			String name = readString(data);
+			EnumPrimitiveStatement enumStatement = new EnumPrimitiveStatement(test, enumClass);
+			enumStatement.setValue(name == null ? null : Enum.valueOf(enumClass, name));
+			statement = enumStatement;
+			break;
+		case TestSuiteBinaryFormat.CLASS:
+			statement = new ClassPrimitiveStatement(test, readClass(data));
+			break;
+		default:
+			throw new IOException("Unknown statement " + tag);
+		}
+
+		VariableReference retval = test.addStatement(statement);
+		if (type != null && !type.equals(retval.getType()))
+			retval.setType(type);
+	}
+
+	private GenericAccessibleObject<?> readMember(DataInputStream data) throws Exception {
+		int index = (int) readLength(data);
+		Type ownerType = readType(data);
+
+		AccessibleObject member = members.get(index);
+		if (member == null) {
+			member = resolveMember(index);
+			members.set(index, member);
+		}
+
+		if (member instanceof Constructor<?>) {
+			Constructor<?> constructor = (Constructor<?>) member;
+			return new GenericConstructor(constructor, getOwner(ownerType, constructor.getDeclaringClass()));
+		} else if (member instanceof Method) {
+			Method method = (Method) member;
+			return new GenericMethod(method, getOwner(ownerType, method.getDeclaringClass()));
+		} else {
+			java.lang.reflect.Field field = (java.lang.reflect.Field) member;
+			return new GenericField(field, getOwner(ownerType, field.getDeclaringClass()));
+		}
+	}
+
+	private static GenericClass getOwner(Type ownerType, Class<?> declaringClass) {
+		return new GenericClass(ownerType == null ? declaringClass : ownerType);
+	}
+
+	/**
+	 * Members are looked up by descriptor, the same way as when
+	 * {@link GenericMethod} and {@link GenericConstructor} are deserialized
+	 */
+	private AccessibleObject resolveMember(int index) throws Exception {
+		Class<?> clazz = getClass(memberClasses.get(index));
+		String name = memberNames.get(index);
+		String descriptor = memberDescriptors.get(index);
+
+		switch (memberKinds.get(index)) {
+		case TestSuiteBinaryFormat.CONSTRUCTOR:
+			for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+				if (org.objectweb.asm.Type.getConstructorDescriptor(constructor).equals(descriptor))
+					return constructor;
+			}
+			throw new NoSuchMethodException(clazz.getName() + "." + name + descriptor);
+		case TestSuiteBinaryFormat.METHOD:
+			for (Method method : clazz.getDeclaredMethods()) {
+				if (method.getName().equals(name)
+				        && org.objectweb.asm.Type.getMethodDescriptor(method).equals(descriptor))
+					return method;
+			}
+			throw new NoSuchMethodException(clazz.getName() + "." + name + descriptor);
+		case TestSuiteBinaryFormat.FIELD:
+			return clazz.getDeclaredField(name);
+		default:
+			throw new IOException("Unknown member kind " + memberKinds.get(index));
+		}
+	}
+
+	private Class<?> getClass(int index) throws ClassNotFoundException {
+		Class<?> clazz = classes.get(index);
+		if (clazz == null) {
+			clazz = ClassUtils.getClass(loader, classNames.get(index), false);
+			classes.set(index, clazz);
+		}
+		return clazz;
+	}
+
+	private Class<?> readClass(DataInputStream data) throws Exception {
+		return getClass((int) readLength(data));
+	}
+
+	private Type readType(DataInputStream data) throws Exception {
+		byte tag = data.readByte();
+		switch (tag) {
+		case TestSuiteBinaryFormat.TYPE_NONE:
+			return null;
+		case TestSuiteBinaryFormat.TYPE_CLASS:
+			return readClass(data);
+		case TestSuiteBinaryFormat.TYPE_PARAMETERIZED:
+			Class<?> rawType = readClass(data);
+			Type ownerType = readType(data);
+			return new ParameterizedTypeImpl(rawType, readTypes(data), ownerType);
+		case TestSuiteBinaryFormat.TYPE_ARRAY:
+			return GenericArrayTypeImpl.createArrayType(readType(data));
+		case TestSuiteBinaryFormat.TYPE_WILDCARD:
+			Type[] upperBounds = readTypes(data);
+			return new WildcardTypeImpl(upperBounds, readTypes(data));
+		default:
+			throw new IOException("Unknown type " + tag);
+		}
+	}
+
+	private Type[] readTypes(DataInputStream data) throws Exception {
+		Type[] types = new Type[(int) readLength(data)];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = readType(data);
+		}
+		return types;
+	}
+
+	private List<VariableReference> readReferences(TestCase test, DataInputStream data)
+	        throws Exception {
+		int size = (int) readLength(data);
+		List<VariableReference> references = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			references.add(readReference(test, data));
+		}
+		return references;
+	}
+
+	private VariableReference readReference(TestCase test, DataInputStream data) throws Exception {
+		byte tag = data.readByte();
+		switch (tag) {
+		case TestSuiteBinaryFormat.REFERENCE_NONE:
+			return null;
+		case TestSuiteBinaryFormat.REFERENCE_VARIABLE:
+			return test.getReturnValue((int) readLength(data));
+		case TestSuiteBinaryFormat.REFERENCE_ARRAY_INDEX:
+			ArrayReference array = (ArrayReference) readReference(test, data);
+			int dimensions = (int) readLength(data);
+			List<Integer> indices = new ArrayList<>(dimensions);
+			for (int i = 0; i < dimensions; i++) {
+				indices.add((int) readLength(data));
+			}
+			return new ArrayIndex(test, array, indices);
+		case TestSuiteBinaryFormat.REFERENCE_FIELD:
+			GenericField field = (GenericField) readMember(data);
+			Type type = readType(data);
+			VariableReference source = readReference(test, data);
+			return source == null ? new FieldReference(test, field, type)
+			        : new FieldReference(test, field, type, source);
+		case TestSuiteBinaryFormat.REFERENCE_CONSTANT:
+			GenericClass constantType = new GenericClass(readType(data));
+			return new ConstantValue(test, constantType, readValue(data));
+		case TestSuiteBinaryFormat.REFERENCE_NULL:
+			return new NullReference(test, readType(data));
+		default:
+			throw new IOException("Unknown reference " + tag);
+		}
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Object readValue(DataInputStream data) throws Exception {
+		byte tag = data.readByte();
+		switch (tag) {
+		case TestSuiteBinaryFormat.NULL:
+			return null;
+		case TestSuiteBinaryFormat.BOOLEAN:
+			return data.readBoolean();
+		case TestSuiteBinaryFormat.BYTE:
+			return data.readByte();
+		case TestSuiteBinaryFormat.CHAR:
+			return data.readChar();
+		case TestSuiteBinaryFormat.SHORT:
+			return data.readShort();
+		case TestSuiteBinaryFormat.INT:
+			return (int) readSigned(data);
+		case TestSuiteBinaryFormat.LONG:
+			return readSigned(data);
+		case TestSuiteBinaryFormat.FLOAT:
+			return data.readFloat();
+		case TestSuiteBinaryFormat.DOUBLE:
+			return data.readDouble();
+		case TestSuiteBinaryFormat.STRING:
+			return readString(data);
+		case TestSuiteBinaryFormat.ENUM:
+			Class enumClass = readClass(data);
+			return Enum.valueOf(enumClass, readString(data));
+		case TestSuiteBinaryFormat.CLASS:
+			return readClass(data);
+		default:
+			throw new IOException("Unknown value " + tag);
+		}
+	}
+
+	private static String readString(DataInputStream data) throws IOException {
+		int length = (int) readLength(data);
+		if (length == 0)
+			return null;
+
+		byte[] bytes = new byte[length - 1];
+		data.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static long readLength(DataInputStream data) throws IOException {
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			byte b = data.readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+	}
+
+	private static long readSigned(DataInputStream data) throws IOException {
+		long value = readLength(data);
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,519 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ClassPrimitiveStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.ImmutableStringPrimitiveStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.PrimitiveExpression;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BooleanPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.BytePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.CharPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.DoublePrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.FloatPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.ShortPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ConstantValue;
+import org.evosuite.testcase.variable.FieldReference;
+import org.evosuite.testcase.variable.NullReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.DebuggingObjectOutputStream;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+
+import com.googlecode.gentyref.GenericTypeReflector;
+
+/**
+ * Writes tests in the compact binary format described in
+ * {@link TestSuiteBinaryFormat}. Tests are written one at a time, such that
+ * a suite never needs to be held in memory as a whole.
+ *
+ * Classes and members are written to a table the first time they are used,
+ * and referenced by their index afterwards. Tests that contain statements
+ * the format does not cover are written with Java serialization instead.
+ */
+public class TestSuiteBinaryWriter implements Closeable {
+
+	private final DataOutputStream out;
+
+	private final Map<String, Integer> classes = new HashMap<>();
+
+	private final Map<String, Integer> members = new HashMap<>();
+
+	private int numTests = 0;
+
+	private int numSerializedTests = 0;
+
+	public TestSuiteBinaryWriter(OutputStream stream) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.writeInt(TestSuiteBinaryFormat.MAGIC);
+		out.writeShort(TestSuiteBinaryFormat.VERSION);
+	}
+
+	/**
+	 * Append a test to the stream
+	 *
+	 * @param test
+	 * @throws IOException
+	 */
+	public void write(TestChromosome test) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try {
+			writeTest(test.getTestCase(), new DataOutputStream(buffer));
+			out.writeByte(TestSuiteBinaryFormat.RECORD_TEST);
+		} catch (NotSerializableException e) {
+			buffer.reset();
+			try (ObjectOutputStream objectStream = new DebuggingObjectOutputStream(buffer)) {
+				objectStream.writeObject(test);
+			}
+			out.writeByte(TestSuiteBinaryFormat.RECORD_SERIALIZED_TEST);
+			numSerializedTests++;
+		}
+		writeLength(out, buffer.size());
+		buffer.writeTo(out);
+		numTests++;
+	}
+
+	/**
+	 * @return the number of tests written so far
+	 */
+	public int getNumTests() {
+		return numTests;
+	}
+
+	/**
+	 * @return the number of tests that had to be written with Java
+	 *         serialization
+	 */
+	public int getNumSerializedTests() {
+		return numSerializedTests;
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.writeByte(TestSuiteBinaryFormat.RECORD_END);
+		out.close();
+	}
+
+	private void writeTest(TestCase test, DataOutputStream data) throws IOException {
+		writeLength(data, test.size());
+		for (Statement statement : test) {
+			writeStatement(test, statement, data);
+		}
+	}
+
+	private void writeStatement(TestCase test, Statement statement, DataOutputStream data)
+	        throws IOException {
+		byte tag = getTag(statement);
+		data.writeByte(tag);
+		// The return value of an assignment is the assigned reference, which is written below
+		if (tag != TestSuiteBinaryFormat.ASSIGNMENT)
+			writeType(statement.getReturnValue().getType(), data);
+
+		switch (tag) {
+		case TestSuiteBinaryFormat.CONSTRUCTOR:
+			ConstructorStatement constructorStatement = (ConstructorStatement) statement;
+			writeMember(constructorStatement.getConstructor(), data);
+			writeReferences(test, constructorStatement.getParameterReferences(), data);
+			break;
+		case TestSuiteBinaryFormat.METHOD:
+			MethodStatement methodStatement = (MethodStatement) statement;
+			writeMember(methodStatement.getMethod(), data);
+			writeNullableReference(test, methodStatement.getCallee(), data);
+			writeReferences(test, methodStatement.getParameterReferences(), data);
+			break;
+		case TestSuiteBinaryFormat.FIELD:
+			FieldStatement fieldStatement = (FieldStatement) statement;
+			writeMember(fieldStatement.getField(), data);
+			writeNullableReference(test, fieldStatement.getSource(), data);
+			break;
+		case TestSuiteBinaryFormat.ASSIGNMENT:
+			AssignmentStatement assignment = (AssignmentStatement) statement;
+			writeReference(test, assignment.getReturnValue(), data);
+			writeReference(test, assignment.getValue(), data);
+			break;
+		case TestSuiteBinaryFormat.ARRAY:
+			List<Integer> lengths = ((ArrayStatement) statement).getLengths();
+			writeLength(data, lengths.size());
+			for (Integer length : lengths) {
+				writeLength(data, length);
+			}
+			break;
+		case TestSuiteBinaryFormat.EXPRESSION:
+			PrimitiveExpression expression = (PrimitiveExpression) statement;
+			writeReference(test, expression.getLeftOperand(), data);
+			data.writeByte(expression.getOperator().ordinal());
+			writeReference(test, expression.getRightOperand(), data);
+			break;
+		case TestSuiteBinaryFormat.ENUM:
+			EnumPrimitiveStatement<?> enumStatement = (EnumPrimitiveStatement<?>) statement;
+			writeClass(enumStatement.getEnumClass(), data);
+			Enum<?> value = enumStatement.getValue();
+			writeString(data, value == null ? null : value.name());
+			break;
+		case TestSuiteBinaryFormat.CLASS:
+			writeClass(((ClassPrimitiveStatement) statement).getValue(), data);
+			break;
+		case TestSuiteBinaryFormat.NULL:
+			break;
+		default:
+			writePrimitive(tag, ((PrimitiveStatement<?>) statement).getValue(), data);
+		}
+	}
+
+	/**
+	 * Only the exact statement classes are supported, as subclasses might
+	 * carry additional state
+	 */
+	private static byte getTag(Statement statement) throws NotSerializableException {
+		Class<?> statementClass = statement.getClass();
+		if (statementClass == ConstructorStatement.class)
+			return TestSuiteBinaryFormat.CONSTRUCTOR;
+		if (statementClass == MethodStatement.class)
+			return TestSuiteBinaryFormat.METHOD;
+		if (statementClass == FieldStatement.class)
+			return TestSuiteBinaryFormat.FIELD;
+		if (statementClass == AssignmentStatement.class)
+			return TestSuiteBinaryFormat.ASSIGNMENT;
+		if (statementClass == ArrayStatement.class)
+			return TestSuiteBinaryFormat.ARRAY;
+		if (statementClass == PrimitiveExpression.class)
+			return TestSuiteBinaryFormat.EXPRESSION;
+		if (statementClass == NullStatement.class)
+			return TestSuiteBinaryFormat.NULL;
+		if (statementClass == BooleanPrimitiveStatement.class)
+			return TestSuiteBinaryFormat.BOOLEAN;
+		if (statementClass == BytePrimitiveStatement.class)
+			return TestSuiteBinaryFormat.BYTE;
+		if (statementClass == CharPrimitiveStatement.class)
+			return TestSuiteBinaryFormat.CHAR;
+		if (statementClass == ShortPrimitiveStatement.class)
+			return TestSuiteBinaryFormat.SHORT;
+		if (statementClass == IntPrimitiveStatement.class)
+			return TestSuiteBinaryFormat.INT;
+		if (statementClass == LongPrimitiveStatement.class)
+			return TestSuiteBinaryFormat.LONG;
+		if (statementClass == FloatPrimitiveStatement.class)
+			return TestSuiteBinaryFormat.FLOAT;
+		if (statementClass == DoublePrimitiveStatement.class)
+			return TestSuiteBinaryFormat.DOUBLE;
+		if (statementClass == StringPrimitiveStatement.class)
+			return TestSuiteBinaryFormat.STRING;
+		if (statementClass == ImmutableStringPrimitiveStatement.class)
+			return TestSuiteBinaryFormat.IMMUTABLE_STRING;
+		if (statementClass == EnumPrimitiveStatement.class)
+			return TestSuiteBinaryFormat.ENUM;
+		if (statementClass == ClassPrimitiveStatement.class)
+			return TestSuiteBinaryFormat.CLASS;
+
+		throw new NotSerializableException(statementClass.getName());
+	}
+
+	private void writeMember(GenericAccessibleObject<?> member, DataOutputStream data)
+	        throws IOException {
+		if (member.hasTypeParameters())
+			throw new NotSerializableException("Generic method " + member);
+
+		byte kind;
+		String name;
+		String descriptor;
+		if (member instanceof GenericConstructor) {
+			kind = TestSuiteBinaryFormat.CONSTRUCTOR;
+			name = "<init>";
+			descriptor = org.objectweb.asm.Type.getConstructorDescriptor(((GenericConstructor) member).getConstructor());
+		} else if (member instanceof GenericMethod) {
+			kind = TestSuiteBinaryFormat.METHOD;
+			name = member.getName();
+			descriptor = org.objectweb.asm.Type.getMethodDescriptor(((GenericMethod) member).getMethod());
+		} else if (member instanceof GenericField) {
+			kind = TestSuiteBinaryFormat.FIELD;
+			name = member.getName();
+			descriptor = org.objectweb.asm.Type.getDescriptor(((GenericField) member).getField().getType());
+		} else {
+			throw new NotSerializableException(member.toString());
+		}
+
+		int classIndex = getClassIndex(member.getDeclaringClass());
+		String key = kind + " " + classIndex + " " + name + descriptor;
+		Integer index = members.get(key);
+		if (index == null) {
+			index = members.size();
+			members.put(key, index);
+			out.writeByte(TestSuiteBinaryFormat.RECORD_MEMBER);
+			out.writeByte(kind);
+			writeLength(out, classIndex);
+			out.writeUTF(name);
+			out.writeUTF(descriptor);
+		}
+		writeLength(data, index);
+		writeType(member.getOwnerType(), data);
+	}
+
+	private int getClassIndex(Class<?> clazz) throws IOException {
+		Integer index = classes.get(clazz.getName());
+		if (index == null) {
+			index = classes.size();
+			classes.put(clazz.getName(), index);
+			out.writeByte(TestSuiteBinaryFormat.RECORD_CLASS);
+			out.writeUTF(clazz.getName());
+		}
+		return index;
+	}
+
+	private void writeClass(Class<?> clazz, DataOutputStream data) throws IOException {
+		writeLength(data, getClassIndex(clazz));
+	}
+
+	/**
+	 * Types are written the way {@link GenericClass} serializes them: type
+	 * variables are replaced by their erasure
+	 */
+	private void writeType(Type type, DataOutputStream data) throws IOException {
+		if (type == null) {
+			data.writeByte(TestSuiteBinaryFormat.TYPE_NONE);
+		} else if (type instanceof Class<?>) {
+			data.writeByte(TestSuiteBinaryFormat.TYPE_CLASS);
+			writeClass((Class<?>) type, data);
+		} else if (type instanceof ParameterizedType) {
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			data.writeByte(TestSuiteBinaryFormat.TYPE_PARAMETERIZED);
+			writeClass((Class<?>) parameterizedType.getRawType(), data);
+			writeType(parameterizedType.getOwnerType(), data);
+			Type[] arguments = parameterizedType.getActualTypeArguments();
+			writeLength(data, arguments.length);
+			for (Type argument : arguments) {
+				writeType(argument, data);
+			}
+		} else if (type instanceof GenericArrayType) {
+			data.writeByte(TestSuiteBinaryFormat.TYPE_ARRAY);
+			writeType(((GenericArrayType) type).getGenericComponentType(), data);
+		} else if (type instanceof WildcardType) {
+			WildcardType wildcardType = (WildcardType) type;
+			data.writeByte(TestSuiteBinaryFormat.TYPE_WILDCARD);
+			writeTypes(wildcardType.getUpperBounds(), data);
+			writeTypes(wildcardType.getLowerBounds(), data);
+		} else if (type instanceof TypeVariable<?>) {
+			data.writeByte(TestSuiteBinaryFormat.TYPE_CLASS);
+			writeClass(GenericTypeReflector.erase(type), data);
+		} else {
+			throw new NotSerializableException(type.toString());
+		}
+	}
+
+	private void writeTypes(Type[] types, DataOutputStream data) throws IOException {
+		writeLength(data, types.length);
+		for (Type type : types) {
+			writeType(type, data);
+		}
+	}
+
+	private void writeReferences(TestCase test, List<VariableReference> references,
+	        DataOutputStream data) throws IOException {
+		writeLength(data, references.size());
+		for (VariableReference reference : references) {
+			writeReference(test, reference, data);
+		}
+	}
+
+	private void writeNullableReference(TestCase test, VariableReference reference,
+	        DataOutputStream data) throws IOException {
+		if (reference == null) {
+			data.writeByte(TestSuiteBinaryFormat.REFERENCE_NONE);
+		} else {
+			writeReference(test, reference, data);
+		}
+	}
+
+	private void writeReference(TestCase test, VariableReference reference, DataOutputStream data)
+	        throws IOException {
+		if (reference instanceof ConstantValue) {
+			data.writeByte(TestSuiteBinaryFormat.REFERENCE_CONSTANT);
+			writeType(reference.getType(), data);
+			writeValue(((ConstantValue) reference).getValue(), data);
+		} else if (reference instanceof ArrayIndex) {
+			ArrayIndex index = (ArrayIndex) reference;
+			data.writeByte(TestSuiteBinaryFormat.REFERENCE_ARRAY_INDEX);
+			writeReference(test, index.getArray(), data);
+			writeLength(data, index.getArrayIndices().size());
+			for (Integer i : index.getArrayIndices()) {
+				writeLength(data, i);
+			}
+		} else if (reference instanceof FieldReference) {
+			FieldReference field = (FieldReference) reference;
+			data.writeByte(TestSuiteBinaryFormat.REFERENCE_FIELD);
+			writeMember(field.getField(), data);
+			writeType(field.getType(), data);
+			writeNullableReference(test, field.getSource(), data);
+		} else if (reference.getStPosition() >= 0
+		        && test.getReturnValue(reference.getStPosition()) == reference) {
+			data.writeByte(TestSuiteBinaryFormat.REFERENCE_VARIABLE);
+			writeLength(data, reference.getStPosition());
+		} else if (reference instanceof NullReference) {
+			data.writeByte(TestSuiteBinaryFormat.REFERENCE_NULL);
+			writeType(reference.getType(), data);
+		} else {
+			throw new NotSerializableException(reference.toString());
+		}
+	}
+
+	private void writeValue(Object value, DataOutputStream data) throws IOException {
+		if (value == null) {
+			data.writeByte(TestSuiteBinaryFormat.NULL);
+		} else if (value instanceof Enum<?>) {
+			data.writeByte(TestSuiteBinaryFormat.ENUM);
+			writeClass(((Enum<?>) value).getDeclaringClass(), data);
+			writeString(data, ((Enum<?>) value).name());
+		} else if (value instanceof Class<?>) {
+			data.writeByte(TestSuiteBinaryFormat.CLASS);
+			writeClass((Class<?>) value, data);
+		} else {
+			byte tag = getPrimitiveTag(value);
+			data.writeByte(tag);
+			writePrimitive(tag, value, data);
+		}
+	}
+
+	private static byte getPrimitiveTag(Object value) throws NotSerializableException {
+		if (value instanceof Boolean)
+			return TestSuiteBinaryFormat.BOOLEAN;
+		if (value instanceof Byte)
+			return TestSuiteBinaryFormat.BYTE;
+		if (value instanceof Character)
+			return TestSuiteBinaryFormat.CHAR;
+		if (value instanceof Short)
+			return TestSuiteBinaryFormat.SHORT;
+		if (value instanceof Integer)
+			return TestSuiteBinaryFormat.INT;
+		if (value instanceof Long)
+			return TestSuiteBinaryFormat.LONG;
+		if (value instanceof Float)
+			return TestSuiteBinaryFormat.FLOAT;
+		if (value instanceof Double)
+			return TestSuiteBinaryFormat.DOUBLE;
+		if (value instanceof String)
+			return TestSuiteBinaryFormat.STRING;
+
+		throw new NotSerializableException(value.getClass().getName());
+	}
+
+	private static void writePrimitive(byte tag, Object value, DataOutputStream data)
+	        throws IOException {
+		if (value == null && tag != TestSuiteBinaryFormat.STRING
+		        && tag != TestSuiteBinaryFormat.IMMUTABLE_STRING)
+			throw new NotSerializableException("Missing value of primitive " + tag);
+
+		switch (tag) {
+		case TestSuiteBinaryFormat.BOOLEAN:
+			data.writeBoolean((Boolean) value);
+			break;
+		case TestSuiteBinaryFormat.BYTE:
+			data.writeByte((Byte) value);
+			break;
+		case TestSuiteBinaryFormat.CHAR:
+			data.writeChar((Character) value);
+			break;
+		case TestSuiteBinaryFormat.SHORT:
+			data.writeShort((Short) value);
+			break;
+		case TestSuiteBinaryFormat.INT:
+			writeSigned(data, (Integer) value);
+			break;
+		case TestSuiteBinaryFormat.LONG:
+			writeSigned(data, (Long) value);
+			break;
+		case TestSuiteBinaryFormat.FLOAT:
+			data.writeFloat((Float) value);
+			break;
+		case TestSuiteBinaryFormat.DOUBLE:
+			data.writeDouble((Double) value);
+			break;
+		case TestSuiteBinaryFormat.STRING:
+		case TestSuiteBinaryFormat.IMMUTABLE_STRING:
+			writeString(data, (String) value);
+			break;
+		default:
+			throw new NotSerializableException("Unknown primitive " + tag);
+		}
+	}
+
+	private static void writeString(DataOutputStream data, String value) throws IOException {
+		if (value == null) {
+			writeLength(data, 0);
+		} else {
+			// Unlike writeUTF, this is not limited to 64k bytes
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeLength(data, bytes.length + 1);
+			data.write(bytes);
+		}
+	}
+
+	/**
+	 * Write a non-negative number in as few bytes as possible, seven bits at
+	 * a time
+	 */
+	static void writeLength(DataOutputStream data, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			data.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		data.writeByte((int) value);
+	}
+
+	/**
+	 * Zig-zag encoding, such that small negative numbers are short as well
+	 */
+	private static void writeSigned(DataOutputStream data, long value) throws IOException {
+		writeLength(data, (value << 1) ^ (value >> 63));
+	}
+}
@@ -20,13 +20,16 @@
 package org.evosuite.testsuite;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.testcase.ExecutableChromosome;
 import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.execution.ExecutionBatch;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionResultCache;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.slf4j.Logger;
@@ -57,6 +60,10 @@ public abstract class TestSuiteFitnessFunction extends
 	 */
 	@Deprecated
 	public ExecutionResult runTest(TestCase test) {
+		return ExecutionResultCache.getInstance().getOrExecute(test, this::executeTest);
+	}
+
+	private ExecutionResult executeTest(TestCase test) {
 		ExecutionResult result = new ExecutionResult(test, null);
 
 		try {
@@ -66,7 +73,7 @@ public abstract class TestSuiteFitnessFunction extends
 			logger.warn("TG: Exception caught: " + e.getMessage(), e);
 			try {
 				Thread.sleep(1000);
-				result.setTrace(ExecutionTracer.getExecutionTracer().getTrace());
+				result.setTrace(ExecutionTracer.getExecutionTracer().getTrace().lazyClone());
 			} catch (Exception e1) {
 				throw new Error(e1);
 			}
@@ -90,6 +97,7 @@ public abstract class TestSuiteFitnessFunction extends
 	protected List<ExecutionResult> runTestSuite(
 	        AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite) {
 		CurrentChromosomeTracker.getInstance().modification(suite);
+		ExecutionBatch.executeChanged(Collections.singletonList(suite), Collections.singletonList(this));
 		List<ExecutionResult> results = new ArrayList<ExecutionResult>();
 
 		for (ExecutableChromosome chromosome : suite.getTestChromosomes()) {
@@ -114,6 +122,17 @@ public abstract class TestSuiteFitnessFunction extends
 
 
 
+	/**
+	 * Whether the tests of a suite can be executed with
+	 * {@link TestCaseExecutor#execute(List)} rather than with
+	 * {@link #runTest(TestCase)}
+	 * 
+	 * @return true unless the execution of a test needs to be customized
+	 */
+	public boolean canRunTestsInParallel() {
+		return true;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.ga.FitnessFunction#isMaximizationFunction()
 	 */
@@ -19,6 +19,7 @@
  */
 package org.evosuite.testsuite;
 
+import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.statements.Statement;
@@ -30,6 +31,7 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Created by Andrea Arcuri on 08/06/15.
@@ -42,37 +44,47 @@ public class TestSuiteSerialization {
     public static boolean saveTests(List<TestSuiteChromosome> list, File target) throws IllegalArgumentException{
         Inputs.checkNull(list,target);
 
-        File parent = target.getParentFile();
-        if(!parent.exists()){
-            parent.mkdirs();
+        List<TestChromosome> tests = new ArrayList<>();
+        for(TestSuiteChromosome ts : list) {
+            tests.addAll(ts.getTestChromosomes());
         }
-
-        try(ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target));){
-            for(TestSuiteChromosome ts : list) {
-                for (TestChromosome tc : ts.getTestChromosomes()) {
-                    out.writeObject(tc);
-                }
-            }
-
-            out.flush();
-            out.close();
-        }catch (IOException e){
-            logger.error("Failed to open/handle "+target.getAbsolutePath()+" for writing: "+e.getMessage());
-            return false;
-        }
-
-        return true;
+        return saveTestChromosomes(tests, target, Properties.CTG_SEEDS_COMPACT);
     }
     
     public static boolean saveTests(TestSuiteChromosome ts, File target) throws IllegalArgumentException{
+        return saveTestChromosomes(ts.getTestChromosomes(), target, Properties.CTG_SEEDS_COMPACT);
+    }
+
+    /**
+     * @param compact whether to use the compact binary format, which does not
+     *                store the assertions of the tests
+     */
+    public static boolean saveTests(TestSuiteChromosome ts, File target, boolean compact) throws IllegalArgumentException{
+        return saveTestChromosomes(ts.getTestChromosomes(), target, compact);
+    }
+
+    private static boolean saveTestChromosomes(List<TestChromosome> tests, File target, boolean compact) {
         File parent = target.getParentFile();
         if(!parent.exists()){
             parent.mkdirs();
         }
 
+        if(compact){
+            try(TestSuiteBinaryWriter out = new TestSuiteBinaryWriter(new FileOutputStream(target))){
+                for (TestChromosome tc : tests) {
+                    out.write(tc);
+                }
+                logger.debug("Saved {} tests, {} of them with Java serialization", out.getNumTests(), out.getNumSerializedTests());
+            }catch (IOException e){
+                logger.error("Failed to open/handle "+target.getAbsolutePath()+" for writing: "+e.getMessage());
+                return false;
+            }
+            return true;
+        }
+
         try(ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target));){
-        	for (TestChromosome tc : ts.getTestChromosomes()) {
-        		out.writeObject(tc);
+            for (TestChromosome tc : tests) {
+                out.writeObject(tc);
             }
 
             out.flush();
@@ -108,9 +120,42 @@ public class TestSuiteSerialization {
     }
 
     public static List<TestChromosome> loadTests(File target) throws IllegalArgumentException{
-        Inputs.checkNull(target);
-
         List<TestChromosome> list = new ArrayList<>();
+        loadTests(target, list::add);
+        return list;
+    }
+
+    /**
+     * Read the tests of the given file one at a time, and hand each of them to
+     * {@code consumer} as soon as it is decoded. If the file is truncated or
+     * corrupt, the tests decoded before the problem are kept.
+     *
+     * @return the number of tests handed to the consumer
+     */
+    public static int loadTests(File target, Consumer<TestChromosome> consumer) throws IllegalArgumentException{
+        Inputs.checkNull(target, consumer);
+
+        int loaded = 0;
+
+        try(BufferedInputStream stream = new BufferedInputStream(new FileInputStream(target))){
+            if(TestSuiteBinaryReader.isBinaryFormat(stream)){
+                try(TestSuiteBinaryReader in = new TestSuiteBinaryReader(stream, TestGenerationContext.getInstance().getClassLoaderForSUT())){
+                    for(TestChromosome tc = in.readTest(); tc != null; tc = in.readTest()){
+                        consumer.accept(tc);
+                        loaded++;
+                    }
+                } catch (IOException e) {
+                    logger.warn("Problems when reading the tests from " + target.getAbsolutePath() + " after " + loaded + " of them: " + e.getMessage());
+                }
+                return loaded;
+            }
+        } catch (FileNotFoundException e) {
+            logger.warn("Cannot load tests because file does not exist: "+target.getAbsolutePath());
+            return loaded;
+        } catch (IOException e) {
+            logger.error("Failed to open/handle " + target.getAbsolutePath() + " for reading: " + e.getMessage());
+            return loaded;
+        }
 
         try(ObjectInputStream in = new ObjectInputStream(new FileInputStream(target)) ){
 
@@ -124,7 +169,8 @@ public class TestSuiteSerialization {
                             st.changeClassLoader(TestGenerationContext.getInstance().getClassLoaderForSUT());
                         }
 
-                        list.add(tc);
+                        consumer.accept(tc);
+                        loaded++;
                     }
                     obj = in.readObject();
                 }
@@ -141,6 +187,6 @@ public class TestSuiteSerialization {
             logger.error("Failed to open/handle " + target.getAbsolutePath() + " for reading: " + e.getMessage());
         }
 
-        return list;
+        return loaded;
     }
 }
@@ -0,0 +1,158 @@
+package org.evosuite.ga;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Test;
+
+public class DenseFitnessMapTest {
+
+	private static class ConstantFitness extends FitnessFunction<DummyChromosome> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final double value;
+
+		ConstantFitness(double value) {
+			this.value = value;
+		}
+
+		@Override
+		public double getFitness(DummyChromosome individual) {
+			return value;
+		}
+
+		@Override
+		public boolean isMaximizationFunction() {
+			return false;
+		}
+	}
+
+	@After
+	public void resetProperties() {
+		Properties.DENSE_FITNESS_VALUES = false;
+	}
+
+	private static List<FitnessFunction<?>> getGoals(int num) {
+		List<FitnessFunction<?>> goals = new ArrayList<FitnessFunction<?>>();
+		for (int i = 0; i < num; i++)
+			goals.add(new ConstantFitness(i));
+		return goals;
+	}
+
+	@Test
+	public void testBehavesLikeLinkedHashMap() {
+		List<FitnessFunction<?>> goals = getGoals(100);
+		Map<FitnessFunction<?>, Double> dense = new DenseFitnessMap.OfDouble();
+		Map<FitnessFunction<?>, Double> expected = new LinkedHashMap<FitnessFunction<?>, Double>();
+		for (int i = 0; i < goals.size(); i += 3) {
+			assertNull(dense.put(goals.get(i), (double) i));
+			expected.put(goals.get(i), (double) i);
+		}
+		assertEquals(3.0, dense.put(goals.get(3), 1.0 / 3), 0.0);
+		expected.put(goals.get(3), 1.0 / 3);
+		assertEquals(6.0, dense.remove(goals.get(6)), 0.0);
+		expected.remove(goals.get(6));
+
+		assertEquals(expected, dense);
+		assertEquals(expected.hashCode(), dense.hashCode());
+		assertEquals(new ArrayList<Double>(expected.values()), new ArrayList<Double>(dense.values()));
+		assertFalse(dense.containsKey(goals.get(1)));
+		assertFalse(dense.containsKey(goals.get(6)));
+		assertTrue(dense.containsKey(goals.get(99)));
+		assertNull(dense.get(new ConstantFitness(0)));
+	}
+
+	@Test
+	public void testCopyOnWrite() {
+		List<FitnessFunction<?>> goals = getGoals(3);
+		Map<FitnessFunction<?>, Integer> parent = new DenseFitnessMap.OfInteger();
+		parent.put(goals.get(0), -1);
+		parent.put(goals.get(1), 5);
+
+		Map<FitnessFunction<?>, Integer> child = new DenseFitnessMap.OfInteger();
+		child.putAll(parent);
+		assertEquals(parent, child);
+
+		child.put(goals.get(1), 7);
+		child.put(goals.get(2), 9);
+		assertEquals(Integer.valueOf(5), parent.get(goals.get(1)));
+		assertFalse(parent.containsKey(goals.get(2)));
+
+		parent.remove(goals.get(0));
+		assertEquals(Integer.valueOf(-1), child.get(goals.get(0)));
+		assertEquals(Arrays.asList(-1, 7, 9), new ArrayList<Integer>(child.values()));
+	}
+
+	@Test
+	public void testEntriesSurviveIndexReset() {
+		List<FitnessFunction<?>> goals = getGoals(3);
+		Map<FitnessFunction<?>, Double> old = new DenseFitnessMap.OfDouble();
+		old.put(goals.get(1), 1.0);
+		old.put(goals.get(2), 2.0);
+		Map<FitnessFunction<?>, Double> copy = new DenseFitnessMap.OfDouble();
+		copy.putAll(old);
+
+		FitnessFunctionIndex.reset();
+		// takes over the id goals.get(1) had before the reset
+		FitnessFunction<?> other = new ConstantFitness(42);
+		Map<FitnessFunction<?>, Double> fresh = new DenseFitnessMap.OfDouble();
+		fresh.put(other, 42.0);
+		fresh.put(goals.get(0), 0.0);
+
+		assertEquals(2, old.size());
+		assertFalse(old.containsKey(other));
+		assertFalse(old.containsKey(goals.get(0)));
+		assertEquals(1.0, old.get(goals.get(1)), 0.0);
+		assertEquals(2.0, old.get(goals.get(2)), 0.0);
+		assertEquals(Arrays.asList(goals.get(1), goals.get(2)), new ArrayList<FitnessFunction<?>>(copy.keySet()));
+		assertEquals(Arrays.asList(42.0, 0.0), new ArrayList<Double>(fresh.values()));
+	}
+
+	@Test
+	public void testClonedChromosomeKeepsFitness() {
+		Properties.DENSE_FITNESS_VALUES = true;
+		List<FitnessFunction<?>> goals = getGoals(2);
+		DummyChromosome parent = new DummyChromosome(1, 2);
+		parent.setFitness(goals.get(0), 3.0);
+		parent.setFitness(goals.get(1), 4.0);
+
+		DummyChromosome child = new DummyChromosome(parent);
+		child.setFitnessValues(parent.getFitnessValues());
+		child.setFitness(goals.get(0), 1.0);
+
+		assertEquals(7.0, parent.getFitness(), 0.0);
+		assertEquals(5.0, child.getFitness(), 0.0);
+	}
+
+	@Test
+	public void testSerializedAsLinkedHashMap() throws Exception {
+		List<FitnessFunction<?>> goals = getGoals(2);
+		Map<FitnessFunction<?>, Double> dense = new DenseFitnessMap.OfDouble();
+		dense.put(goals.get(1), 2.0);
+		dense.put(goals.get(0), 1.0);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(dense);
+		out.close();
+		Object copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+		assertTrue(copy instanceof LinkedHashMap);
+		assertEquals(Arrays.asList(2.0, 1.0), new ArrayList<Object>(((Map<?, ?>) copy).values()));
+	}
+}
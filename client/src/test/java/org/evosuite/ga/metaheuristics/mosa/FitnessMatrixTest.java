@@ -0,0 +1,148 @@
+package org.evosuite.ga.metaheuristics.mosa;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.DummyChromosome;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.ga.metaheuristics.mosa.comparators.MOSADominanceComparator;
+import org.junit.After;
+import org.junit.Test;
+
+public class FitnessMatrixTest {
+
+	private static final int NUM_GOALS = 4;
+
+	/** Fitness of a dummy chromosome for a goal is its gene at the goal's position */
+	private static class GeneFitness extends FitnessFunction<DummyChromosome> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int position;
+
+		GeneFitness(int position) {
+			this.position = position;
+		}
+
+		@Override
+		public double getFitness(DummyChromosome individual) {
+			return individual.get(position);
+		}
+
+		@Override
+		public boolean isMaximizationFunction() {
+			return false;
+		}
+	}
+
+	@After
+	public void resetProperties() {
+		Properties.PARALLEL_RANKING = false;
+	}
+
+	private static Set<FitnessFunction<DummyChromosome>> getGoals() {
+		Set<FitnessFunction<DummyChromosome>> goals = new LinkedHashSet<FitnessFunction<DummyChromosome>>();
+		for (int i = 0; i < NUM_GOALS; i++)
+			goals.add(new GeneFitness(i));
+		return goals;
+	}
+
+	private static List<DummyChromosome> getPopulation(int size) {
+		Random random = new Random(42);
+		List<DummyChromosome> population = new ArrayList<DummyChromosome>();
+		for (int i = 0; i < size; i++) {
+			Integer[] genes = new Integer[NUM_GOALS];
+			for (int j = 0; j < NUM_GOALS; j++)
+				genes[j] = random.nextInt(5);
+			population.add(new DummyChromosome(Arrays.asList(genes)));
+		}
+		return population;
+	}
+
+	@Test
+	public void testCompareAsDominanceComparator() {
+		Set<FitnessFunction<DummyChromosome>> goals = getGoals();
+		List<DummyChromosome> population = getPopulation(30);
+		FitnessMatrix<DummyChromosome> matrix = new FitnessMatrix<DummyChromosome>(population, goals);
+		MOSADominanceComparator<DummyChromosome> comparator = new MOSADominanceComparator<DummyChromosome>(goals);
+
+		int[][] dominated = matrix.getDominatedSolutions();
+		for (int p = 0; p < population.size(); p++) {
+			List<Integer> expected = new ArrayList<Integer>();
+			for (int q = 0; q < population.size(); q++) {
+				int flag = comparator.compare(population.get(p), population.get(q));
+				assertEquals(flag, matrix.compare(p, q));
+				if (flag == -1)
+					expected.add(q);
+			}
+			List<Integer> actual = new ArrayList<Integer>();
+			for (int q : dominated[p])
+				actual.add(q);
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void testParallelDominance() {
+		Set<FitnessFunction<DummyChromosome>> goals = getGoals();
+		List<DummyChromosome> population = getPopulation(50);
+		FitnessMatrix<DummyChromosome> matrix = new FitnessMatrix<DummyChromosome>(population, goals);
+
+		int[][] dominated = matrix.getDominatedSolutions();
+		double[] distances = matrix.getSubvectorDominanceDistances();
+
+		Properties.PARALLEL_RANKING = true;
+		assertArrayEquals(dominated, matrix.getDominatedSolutions());
+		assertArrayEquals(distances, matrix.getSubvectorDominanceDistances(), 0.0);
+	}
+
+	@Test
+	public void testSubvectorDominanceDistances() {
+		Set<FitnessFunction<DummyChromosome>> goals = getGoals();
+		List<DummyChromosome> front = new ArrayList<DummyChromosome>();
+		front.add(new DummyChromosome(0, 0, 3, 3));
+		front.add(new DummyChromosome(1, 1, 1, 1));
+		front.add(new DummyChromosome(0, 3, 0, 3));
+
+		new CrowdingDistance<DummyChromosome>().subvectorDominanceAssignment(front, goals);
+		assertEquals(1.0, front.get(0).getDistance(), 0.0);
+		assertEquals(2.0, front.get(1).getDistance(), 0.0);
+		assertEquals(1.0, front.get(2).getDistance(), 0.0);
+	}
+
+	@Test
+	public void testFastNonDominatedSorting() {
+		Set<FitnessFunction<DummyChromosome>> goals = getGoals();
+		List<DummyChromosome> population = getPopulation(40);
+		MOSADominanceComparator<DummyChromosome> comparator = new MOSADominanceComparator<DummyChromosome>(goals);
+
+		FastNonDominatedSorting<DummyChromosome> ranking = new FastNonDominatedSorting<DummyChromosome>();
+		ranking.computeRankingAssignment(population, goals);
+
+		int ranked = 0;
+		for (int i = 0; i < ranking.getNumberOfSubfronts(); i++) {
+			List<DummyChromosome> front = ranking.getSubfront(i);
+			assertFalse(front.isEmpty());
+			ranked += front.size();
+			for (DummyChromosome p : front) {
+				assertEquals(i + 1, p.getRank());
+				for (DummyChromosome q : front)
+					assertEquals(0, comparator.compare(p, q));
+				if (i == 0)
+					continue;
+				boolean dominated = false;
+				for (DummyChromosome q : ranking.getSubfront(i - 1))
+					dominated |= comparator.compare(q, p) == -1;
+				assertTrue(dominated);
+			}
+		}
+		assertEquals(population.size(), ranked);
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.File;
+import java.lang.reflect.Method;
+
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.examples.with.different.packagename.instrumentation.FinalGreeter;
+import com.examples.with.different.packagename.instrumentation.LoopingSum;
+
+public class InstrumentationCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final String DEFAULT_CACHE_DIR = Properties.INSTRUMENTATION_CACHE_DIR;
+
+	private static final boolean DEFAULT_MAKE_ACCESSIBLE = Properties.MAKE_ACCESSIBLE;
+
+	@Before
+	public void init() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		Properties.INSTRUMENTATION_CACHE_DIR = folder.getRoot().getAbsolutePath();
+	}
+
+	@After
+	public void reset() {
+		Properties.INSTRUMENTATION_CACHE_DIR = DEFAULT_CACHE_DIR;
+		Properties.MAKE_ACCESSIBLE = DEFAULT_MAKE_ACCESSIBLE;
+	}
+
+	private int numberOfEntries() {
+		File[] files = folder.getRoot().listFiles((dir, name) -> name.endsWith(".bin"));
+		return files == null ? 0 : files.length;
+	}
+
+	@Test
+	public void testCachedClassIsLoaded() throws Exception {
+		InstrumentationCache cache = InstrumentationCache.getInstance();
+		String className = FinalGreeter.class.getName();
+
+		new InstrumentingClassLoader().loadClass(className);
+		Assert.assertEquals(0, cache.getNumberOfHits());
+		Assert.assertEquals(1, numberOfEntries());
+
+		RemoveFinalClassAdapter.finalClasses.remove(className);
+		Class<?> clazz = new InstrumentingClassLoader().loadClass(className);
+		Assert.assertTrue(cache.getNumberOfHits() > 0);
+		Assert.assertEquals(1, numberOfEntries());
+
+		// The side effects of the instrumentation are restored
+		Assert.assertTrue(RemoveFinalClassAdapter.finalClasses.contains(className));
+
+		Object greeter = clazz.newInstance();
+		Method greet = clazz.getMethod("greet", String.class);
+		Assert.assertEquals("Hello, EvoSuite", greet.invoke(greeter, "EvoSuite"));
+	}
+
+	@Test
+	public void testLoopIndicesAreRelocated() throws Exception {
+		InstrumentationCache cache = InstrumentationCache.getInstance();
+		String className = LoopingSum.class.getName();
+
+		int first = LoopCounter.getInstance().getNextIndex();
+		new InstrumentingClassLoader().loadClass(className);
+		int numLoopIndices = LoopCounter.getInstance().getNextIndex() - first;
+		Assert.assertTrue(numLoopIndices > 0);
+
+		// The loop indices of the cached bytecode were taken by the first load
+		Class<?> clazz = new InstrumentingClassLoader().loadClass(className);
+		Assert.assertTrue(cache.getNumberOfHits() > 0);
+		Assert.assertTrue(LoopCounter.getInstance().getNextIndex() >= first + 2 * numLoopIndices);
+
+		Object sum = clazz.newInstance();
+		Method method = clazz.getMethod("sum", int.class);
+		Assert.assertEquals(45, method.invoke(sum, 10));
+	}
+
+	@Test
+	public void testConfigurationIsPartOfTheKey() throws Exception {
+		String className = FinalGreeter.class.getName();
+
+		Properties.MAKE_ACCESSIBLE = false;
+		new InstrumentingClassLoader().loadClass(className);
+		Assert.assertEquals(1, numberOfEntries());
+
+		Properties.MAKE_ACCESSIBLE = true;
+		new InstrumentingClassLoader().loadClass(className);
+		Assert.assertEquals(2, numberOfEntries());
+	}
+
+	@Test
+	public void testNoCacheByDefault() {
+		Properties.INSTRUMENTATION_CACHE_DIR = null;
+		Assert.assertNull(InstrumentationCache.getInstance());
+	}
+}
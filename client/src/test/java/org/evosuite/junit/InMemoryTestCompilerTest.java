@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.evosuite.classpath.ClassPathHandler;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InMemoryTestCompilerTest {
+
+	@Before
+	public void init() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+	}
+
+	@Test
+	public void testCompileWithInnerClass() throws Exception {
+		InMemoryTestCompiler compiler = InMemoryTestCompiler.getInstance();
+		Assert.assertNotNull(compiler);
+
+		Map<String, String> sources = new LinkedHashMap<>();
+		sources.put("Foo_ESTest", "package foo; public class Foo_ESTest { Runnable r = new Runnable() { public void run() {} }; }");
+
+		InMemoryTestCompiler.Result result = compiler.compile("foo", sources);
+		Assert.assertTrue(result.wasSuccessful());
+		Assert.assertEquals(2, result.getClasses().size());
+		Assert.assertTrue(result.getClasses().containsKey("foo.Foo_ESTest"));
+		Assert.assertTrue(result.getClasses().containsKey("foo.Foo_ESTest$1"));
+	}
+
+	@Test
+	public void testErrorsAreReportedPerUnit() throws Exception {
+		InMemoryTestCompiler compiler = InMemoryTestCompiler.getInstance();
+
+		Map<String, String> sources = new LinkedHashMap<>();
+		sources.put("Foo_0_ESTest", "public class Foo_0_ESTest { org.junit.Test t; }");
+		sources.put("Foo_1_ESTest", "public class Foo_1_ESTest { int x = \"not an int\"; }");
+		sources.put("Foo_2_ESTest", "public class Foo_2_ESTest { NoSuchClass y; }");
+
+		InMemoryTestCompiler.Result result = compiler.compile("", sources);
+		Assert.assertFalse(result.wasSuccessful());
+		Assert.assertTrue(result.getClasses().isEmpty());
+		Assert.assertEquals(2, result.getFailedUnits().size());
+		Assert.assertTrue(result.getFailedUnits().contains("Foo_1_ESTest"));
+		Assert.assertTrue(result.getFailedUnits().contains("Foo_2_ESTest"));
+
+		//the same compiler can be used again for the units that compile
+		sources.keySet().retainAll(Collections.singleton("Foo_0_ESTest"));
+		Assert.assertTrue(compiler.compile("", sources).wasSuccessful());
+	}
+}
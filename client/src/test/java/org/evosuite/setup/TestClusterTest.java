@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import java.util.Set;
+
+import org.evosuite.ga.ConstructionFailedException;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestClusterTest {
+
+	public static class Animal {
+		public Animal() {
+		}
+	}
+
+	public static class Dog extends Animal {
+		public Dog() {
+		}
+	}
+
+	public static class Cat extends Animal {
+		public Cat() {
+		}
+	}
+
+	public static class Box<T> {
+		public Box() {
+		}
+	}
+
+	private TestCluster cluster;
+
+	@Before
+	public void setUp() throws NoSuchMethodException {
+		TestCluster.reset();
+		cluster = TestCluster.getInstance();
+		cluster.addGenerator(new GenericClass(Animal.class),
+		                     new GenericConstructor(Animal.class.getConstructor(), Animal.class));
+		cluster.addGenerator(new GenericClass(Dog.class),
+		                     new GenericConstructor(Dog.class.getConstructor(), Dog.class));
+		cluster.addGenerator(new GenericClass(String.class),
+		                     new GenericConstructor(String.class.getConstructor(), String.class));
+	}
+
+	@After
+	public void tearDown() {
+		TestCluster.reset();
+	}
+
+	@Test
+	public void testGeneratorsOfSubclassesAreFound() throws ConstructionFailedException {
+		Set<GenericAccessibleObject<?>> animals = cluster.getGenerators(new GenericClass(Animal.class), false);
+		Assert.assertEquals(2, animals.size());
+
+		Set<GenericAccessibleObject<?>> dogs = cluster.getGenerators(new GenericClass(Dog.class), false);
+		Assert.assertEquals(1, dogs.size());
+		Assert.assertEquals(Dog.class, dogs.iterator().next().getDeclaringClass());
+	}
+
+	@Test
+	public void testNewGeneratorTypeIsIndexed() throws ConstructionFailedException, NoSuchMethodException {
+		GenericClass animal = new GenericClass(Animal.class);
+		Assert.assertEquals(2, cluster.getGenerators(animal, false).size());
+
+		GenericClass cat = new GenericClass(Cat.class);
+		cluster.addGenerator(cat, new GenericConstructor(Cat.class.getConstructor(), Cat.class));
+		cluster.invalidateGeneratorCache(cat);
+
+		Assert.assertEquals(3, cluster.getGenerators(animal, false).size());
+		Assert.assertEquals(1, cluster.getGenerators(new GenericClass(Dog.class), false).size());
+	}
+
+	@Test
+	public void testInvalidationOnlyAffectsSuperTypes() throws ConstructionFailedException {
+		Set<GenericAccessibleObject<?>> animals = cluster.getGenerators(new GenericClass(Animal.class), false);
+		Set<GenericAccessibleObject<?>> strings = cluster.getGenerators(new GenericClass(String.class), false);
+
+		cluster.invalidateGeneratorCache(new GenericClass(Dog.class));
+
+		Assert.assertNotSame(animals, cluster.getGenerators(new GenericClass(Animal.class), false));
+		Assert.assertSame(strings, cluster.getGenerators(new GenericClass(String.class), false));
+	}
+
+	@Test
+	public void testNewCastClassKeepsNonGenericGenerators() throws ConstructionFailedException, NoSuchMethodException {
+		cluster.addGenerator(new GenericClass(Box.class),
+		                     new GenericConstructor(Box.class.getConstructor(), Box.class));
+		Set<GenericAccessibleObject<?>> dogs = cluster.getGenerators(new GenericClass(Dog.class), false);
+
+		cluster.clearGeneratorCache(new GenericClass(Cat.class));
+
+		Assert.assertSame(dogs, cluster.getGenerators(new GenericClass(Dog.class), false));
+	}
+}
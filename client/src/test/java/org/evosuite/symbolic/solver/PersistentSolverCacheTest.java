@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentSolverCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static List<Constraint<?>> query(String x, String y, long concrete) {
+		IntegerVariable vx = new IntegerVariable(x, concrete, Long.MIN_VALUE, Long.MAX_VALUE);
+		IntegerVariable vy = new IntegerVariable(y, concrete, 0, 100);
+		List<Constraint<?>> constraints = new ArrayList<Constraint<?>>();
+		constraints.add(ConstraintFactory.lt(vx, new IntegerConstant(10)));
+		constraints.add(ConstraintFactory.eq(vy, vx));
+		return constraints;
+	}
+
+	private static SolverResult sat(String x, long xValue, String y, long yValue) {
+		Map<String, Object> model = new HashMap<String, Object>();
+		model.put(x, xValue);
+		model.put(y, yValue);
+		return SolverResult.newSAT(model);
+	}
+
+	@Test
+	public void testKeyIgnoresNamesOrderAndConcreteValues() {
+		List<Constraint<?>> first = query("x", "y", 1);
+		List<Constraint<?>> second = query("a", "b", 42);
+		Collection<Constraint<?>> reversed = new ArrayList<Constraint<?>>();
+		reversed.add(second.get(1));
+		reversed.add(second.get(0));
+
+		CanonicalQuery q1 = CanonicalQuery.create("solver", first);
+		CanonicalQuery q2 = CanonicalQuery.create("solver", reversed);
+		assertEquals(q1.getKey(), q2.getKey());
+		assertNotEquals(q1.getKey(), CanonicalQuery.create("otherSolver", first).getKey());
+	}
+
+	@Test
+	public void testKeyDependsOnBounds() {
+		IntegerVariable x = new IntegerVariable("x", 0, 0, 10);
+		IntegerVariable y = new IntegerVariable("x", 0, 0, 20);
+		List<Constraint<?>> c1 = new ArrayList<Constraint<?>>();
+		c1.add(ConstraintFactory.lt(x, new IntegerConstant(5)));
+		List<Constraint<?>> c2 = new ArrayList<Constraint<?>>();
+		c2.add(ConstraintFactory.lt(y, new IntegerConstant(5)));
+		assertNotEquals(CanonicalQuery.create("solver", c1).getKey(), CanonicalQuery.create("solver", c2).getKey());
+	}
+
+	@Test
+	public void testResultsSurviveReopening() throws IOException {
+		File file = new File(folder.getRoot(), "solver.cache");
+		PersistentSolverCache cache = new PersistentSolverCache(file, 10);
+		cache.put(CanonicalQuery.create("solver", query("x", "y", 1)), sat("x", 5L, "y", 5L));
+
+		List<Constraint<?>> unsat = new ArrayList<Constraint<?>>();
+		IntegerVariable z = new IntegerVariable("z", 1, Long.MIN_VALUE, Long.MAX_VALUE);
+		unsat.add(ConstraintFactory.neq(z, z));
+		cache.put(CanonicalQuery.create("solver", unsat), SolverResult.newUNSAT());
+		cache.close();
+
+		PersistentSolverCache reopened = new PersistentSolverCache(file, 10);
+		assertEquals(2, reopened.size());
+
+		SolverResult result = reopened.get(CanonicalQuery.create("solver", query("a", "b", 3)));
+		assertTrue(result.isSAT());
+		assertEquals(5L, result.getValue("a"));
+		assertEquals(5L, result.getValue("b"));
+
+		List<Constraint<?>> unsat2 = new ArrayList<Constraint<?>>();
+		IntegerVariable w = new IntegerVariable("w", 7, Long.MIN_VALUE, Long.MAX_VALUE);
+		unsat2.add(ConstraintFactory.neq(w, w));
+		assertTrue(reopened.get(CanonicalQuery.create("solver", unsat2)).isUNSAT());
+		reopened.close();
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEntriesAreEvicted() throws IOException {
+		File file = new File(folder.getRoot(), "solver.cache");
+		PersistentSolverCache cache = new PersistentSolverCache(file, 2);
+		List<CanonicalQuery> queries = new ArrayList<CanonicalQuery>();
+		for (int i = 0; i < 3; i++) {
+			List<Constraint<?>> constraints = new ArrayList<Constraint<?>>();
+			IntegerVariable x = new IntegerVariable("x", 0, Long.MIN_VALUE, Long.MAX_VALUE);
+			constraints.add(ConstraintFactory.eq(x, new IntegerConstant(i)));
+			queries.add(CanonicalQuery.create("solver", constraints));
+		}
+
+		Map<String, Object> model = new HashMap<String, Object>();
+		model.put("x", 0L);
+		cache.put(queries.get(0), SolverResult.newSAT(model));
+		long recordSize = file.length() - 4;
+		model.put("x", 1L);
+		cache.put(queries.get(1), SolverResult.newSAT(model));
+		cache.get(queries.get(0));
+		model.put("x", 2L);
+		cache.put(queries.get(2), SolverResult.newSAT(model));
+
+		assertEquals(2, cache.size());
+		assertNull(cache.get(queries.get(1)));
+		assertEquals(0L, cache.get(queries.get(0)).getValue("x"));
+
+		// 8 records written in total, at most 4 are kept in the file
+		for (int i = 0; i < 5; i++) {
+			cache.put(queries.get(2), SolverResult.newSAT(model));
+		}
+		long compacted = file.length();
+		cache.close();
+
+		PersistentSolverCache reopened = new PersistentSolverCache(file, 2);
+		assertEquals(2, reopened.size());
+		assertEquals(2L, reopened.get(queries.get(2)).getValue("x"));
+		assertTrue(compacted <= 4 + 4 * recordSize);
+		reopened.close();
+	}
+}
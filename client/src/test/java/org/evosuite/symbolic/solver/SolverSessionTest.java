@@ -0,0 +1,182 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SolverSessionTest {
+
+	/**
+	 * A fake solver that logs every command it receives, answers every
+	 * check-sat with sat, and hangs on queries asserting "hang"
+	 */
+	private static final String FAKE_SOLVER = "#!/bin/sh\n"
+			+ "while read -r line; do\n"
+			+ "  echo \"$line\" >> \"$1\"\n"
+			+ "  case \"$line\" in\n"
+			+ "    *hang*) sleep 10 ;;\n"
+			+ "    \"(check-sat)\") echo sat ;;\n"
+			+ "    \"(get-model)\") echo \"(model (define-fun x () Int 1))\" ;;\n"
+			+ "    \"(echo \"*) echo \"$line\" | cut -d '\"' -f 2 ;;\n"
+			+ "  esac\n"
+			+ "done\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File log;
+
+	private String solverCmd;
+
+	@Before
+	public void setUp() throws IOException {
+		File sh = new File("/bin/sh");
+		Assume.assumeTrue(sh.canExecute());
+		File script = folder.newFile("fake-solver.sh");
+		Files.write(script.toPath(), FAKE_SOLVER.getBytes(StandardCharsets.UTF_8));
+		log = new File(folder.getRoot(), "commands.log");
+		solverCmd = sh.getAbsolutePath() + " " + script.getAbsolutePath() + " " + log.getAbsolutePath();
+	}
+
+	@After
+	public void tearDown() {
+		SolverSession.closeAll();
+	}
+
+	private static String query(String... assertions) {
+		StringBuilder buff = new StringBuilder();
+		buff.append("(set-option :timeout 1000)\n");
+		buff.append("(declare-const x Int)\n");
+		buff.append("(declare-const y Int)\n");
+		for (String assertion : assertions) {
+			buff.append("(assert " + assertion + ")\n");
+		}
+		buff.append("(check-sat)\n");
+		buff.append("(get-model)\n");
+		buff.append("(exit)\n");
+		return buff.toString();
+	}
+
+	private String solve(String smtQuery, int timeout) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int exitCode = SolverSession.getSession(solverCmd).solve(smtQuery, timeout, out);
+		return exitCode + ":" + out.toString("UTF-8");
+	}
+
+	private List<String> commands() throws IOException {
+		// wait until the fake solver has logged the last marker
+		for (int i = 0; i < 50 && !log.exists(); i++) {
+			sleep();
+		}
+		return Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+	}
+
+	private static void sleep() {
+		try {
+			Thread.sleep(100);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static int count(List<String> commands, String command) {
+		int count = 0;
+		for (String c : commands) {
+			if (c.equals(command)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void testAnswerMatchesSingleProcessOutput() throws IOException {
+		String answer = solve(query("(> x 0)"), 5000);
+		assertEquals("0:sat\n(model (define-fun x () Int 1))\n", answer);
+	}
+
+	@Test
+	public void testSiblingQueriesShareCommonPrefix() throws IOException {
+		solve(query("(> x 0)", "(< y 5)"), 5000);
+		solve(query("(> x 0)", "(>= y 5)"), 5000);
+		solve(query("(> x 0)", "(>= y 5)", "(= x y)"), 5000);
+
+		List<String> commands = commands();
+		assertEquals(1, count(commands, "(set-option :timeout 1000)"));
+		assertEquals(1, count(commands, "(assert (> x 0))"));
+		assertEquals(1, count(commands, "(assert (>= y 5))"));
+		assertEquals(1, count(commands, "(declare-const x Int)"));
+		assertEquals(2, count(commands, "(declare-const y Int)"));
+		assertEquals(1, count(commands, "(pop 1)"));
+		assertEquals(3, count(commands, "(check-sat)"));
+		assertEquals(0, count(commands, "(exit)"));
+	}
+
+	@Test
+	public void testSessionIsRestartedAfterTimeout() throws IOException {
+		assertEquals("-1:", solve(query("(> x 0)", "hang"), 500));
+		assertEquals("0:sat\n(model (define-fun x () Int 1))\n", solve(query("(> x 0)"), 5000));
+
+		// the new process starts from scratch
+		List<String> commands = commands();
+		assertEquals(2, count(commands, "(set-option :timeout 1000)"));
+		assertEquals(2, count(commands, "(assert (> x 0))"));
+	}
+
+	@Test
+	public void testSplitQuery() {
+		SolverSession.SplitQuery query = SolverSession.split("(set-logic QF_S)\n"
+				+ "(declare-fun s () String)\n"
+				+ "(define-fun f ((!x Int)) Int (+ !x 1))\n"
+				+ "; a comment (\n"
+				+ "(assert (= s \"a)\"\"(b\"))\n"
+				+ "(check-sat)\n(get-model)\n(exit)\n");
+
+		assertEquals(Arrays.asList("(set-logic QF_S)"), query.header);
+		assertEquals(new ArrayList<String>(Arrays.asList("s", "f")),
+				new ArrayList<String>(query.declarations.keySet()));
+		assertEquals(Arrays.asList("(assert (= s \"a)\"\"(b\"))"), query.assertions);
+	}
+
+	@Test
+	public void testSplitRejectsMalformedQueries() {
+		assertNull(SolverSession.split("(assert (> x 0)"));
+		assertNull(SolverSession.split("(assert (> x 0)))"));
+		assertNull(SolverSession.split("(push 1)"));
+		assertNull(SolverSession.split("x"));
+	}
+}
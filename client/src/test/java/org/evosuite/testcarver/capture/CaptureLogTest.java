@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcarver.capture;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.evosuite.testcarver.codegen.CaptureLogAnalyzer;
+import org.evosuite.testcarver.codegen.ICodeGenerator;
+import org.junit.Test;
+
+import com.thoughtworks.xstream.XStream;
+
+public class CaptureLogTest {
+
+	private static final String APPEND_DESC = "(Ljava/lang/String;)Ljava/lang/StringBuilder;";
+
+	private static void capture(CaptureLog log, StringBuilder receiver) {
+		log.log(1, receiver, "append", APPEND_DESC, "bar");
+		log.logEnd(1, receiver, CaptureLog.RETURN_TYPE_VOID);
+		log.log(2, receiver, "append", APPEND_DESC, "bar");
+		log.logEnd(2, receiver, CaptureLog.RETURN_TYPE_VOID);
+	}
+
+	@Test
+	public void testRecords() {
+		StringBuilder receiver = new StringBuilder("foo");
+		CaptureLog log = new CaptureLog(-1);
+		capture(log, receiver);
+
+		assertEquals(Arrays.asList(CaptureLog.NOT_OBSERVED_INIT, CaptureLog.END_CAPTURE_PSEUDO_METHOD,
+				CaptureLog.PLAIN_INIT, CaptureLog.END_CAPTURE_PSEUDO_METHOD, "append",
+				CaptureLog.END_CAPTURE_PSEUDO_METHOD, "append", CaptureLog.END_CAPTURE_PSEUDO_METHOD),
+				log.methodNames);
+		assertEquals(APPEND_DESC, log.descList.get(4));
+		assertEquals(System.identityHashCode(receiver), (int) log.objectIds.get(4));
+		assertEquals(1, (int) log.captureIds.get(4));
+		assertEquals(2, (int) log.captureIds.get(6));
+		assertFalse(log.isStaticCallList.get(4));
+		assertArrayEquals(new Object[] { "bar" }, log.params.get(2));
+		assertEquals(StringBuilder.class.getName(), log.getTypeName(System.identityHashCode(receiver)));
+	}
+
+	@Test
+	public void testSpilledLogHasSameContent() {
+		StringBuilder receiver = new StringBuilder("foo");
+		CaptureLog inMemory = new CaptureLog(-1);
+		CaptureLog spilled = new CaptureLog(0);
+		capture(inMemory, receiver);
+		capture(spilled, receiver);
+
+		assertFalse(((SpillingParamList) inMemory.params).isSpilling());
+		assertTrue(((SpillingParamList) spilled.params).isSpilling());
+		assertEquals(inMemory.toString(), spilled.toString());
+		assertEquals(new XStream().toXML(receiver), spilled.params.get(0)[0]);
+
+		CaptureLog copy = spilled.clone();
+		spilled.clear();
+		assertFalse(((SpillingParamList) spilled.params).isSpilling());
+		assertEquals(inMemory.toString(), copy.toString());
+	}
+
+	private static int countSpillFiles() {
+		File[] files = new File(System.getProperty("java.io.tmpdir")).listFiles(
+				(dir, name) -> name.startsWith("EvoSuite_capture_log_"));
+		return files == null ? 0 : files.length;
+	}
+
+	@Test
+	public void testAnalysisDeletesSpillFileOfItsCopy() {
+		CaptureLog spilled = new CaptureLog(0);
+		capture(spilled, new StringBuilder("foo"));
+		int before = countSpillFiles();
+
+		// no target objects, so the analysis ends right after copying the log
+		new CaptureLogAnalyzer().analyze(spilled, mock(ICodeGenerator.class), Integer.class);
+
+		assertEquals(before, countSpillFiles());
+		assertTrue(((SpillingParamList) spilled.params).isSpilling());
+		spilled.clear();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSerializedLogDoesNotDependOnSpillFile() {
+		SpillingParamList params = new SpillingParamList(0);
+		params.add(new Object[] { "foo", 1 });
+		params.add(new Object[] { null });
+		assertTrue(params.isSpilling());
+
+		XStream xstream = new XStream();
+		String xml = xstream.toXML(params);
+		params.clear();
+
+		List<Object[]> restored = (List<Object[]>) xstream.fromXML(xml);
+		assertEquals(2, restored.size());
+		assertArrayEquals(new Object[] { "foo", 1 }, restored.get(0));
+		assertArrayEquals(new Object[] { null }, restored.get(1));
+	}
+
+	@Test
+	public void testInternedStringList() {
+		InternedStringList.Table table = new InternedStringList.Table();
+		InternedStringList names = new InternedStringList(table);
+		InternedStringList descriptors = new InternedStringList(table);
+		names.add("foo");
+		names.add("bar");
+		descriptors.add("foo");
+		names.set(1, "foo");
+
+		assertEquals(Arrays.asList("foo", "foo"), names);
+		assertEquals(Arrays.asList("foo"), descriptors);
+		assertEquals(2, table.size());
+	}
+}
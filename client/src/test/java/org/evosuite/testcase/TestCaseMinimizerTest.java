@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTraceProxy;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.PrimitiveExpression;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testcase.variable.VariableReferenceImpl;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestCaseMinimizerTest {
+
+	/**
+	 * Covered if the test contains an int constant with the given value, and
+	 * counts how often tests are "executed"
+	 */
+	private static class ContainsValueFitness extends TestFitnessFunction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int value;
+
+		private int executions = 0;
+
+		ContainsValueFitness(int value) {
+			this.value = value;
+		}
+
+		@Override
+		public ExecutionResult runTest(TestCase test) {
+			executions++;
+			ExecutionResult result = new ExecutionResult(test);
+			result.setTrace(new ExecutionTraceProxy());
+			return result;
+		}
+
+		@Override
+		public double getFitness(TestChromosome individual, ExecutionResult result) {
+			for (Statement statement : individual.getTestCase()) {
+				if (statement instanceof IntPrimitiveStatement
+				        && ((IntPrimitiveStatement) statement).getValue() == value)
+					return 0.0;
+			}
+			return 1.0;
+		}
+
+		@Override
+		public int compareTo(TestFitnessFunction other) {
+			return 0;
+		}
+
+		@Override
+		public int hashCode() {
+			return value;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other == this;
+		}
+
+		@Override
+		public String getTargetClass() {
+			return "";
+		}
+
+		@Override
+		public String getTargetMethod() {
+			return "";
+		}
+	}
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private static TestChromosome createTest(int length, int position, int value) {
+		DefaultTestCase test = new DefaultTestCase();
+		for (int i = 0; i < length; i++) {
+			test.addStatement(new IntPrimitiveStatement(test, i == position ? value : -i - 1));
+		}
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+		return chromosome;
+	}
+
+	private static int minimize(TestChromosome test, int value) {
+		ContainsValueFitness fitness = new ContainsValueFitness(value);
+		new TestCaseMinimizer(fitness).minimize(test);
+		assertEquals(1, test.size());
+		assertEquals(value, (int) ((IntPrimitiveStatement) test.getTestCase().getStatement(0)).getValue());
+		return fitness.executions;
+	}
+
+	@Test
+	public void testChunksReduceExecutions() {
+		Properties.MINIMIZE_CHUNKS = false;
+		int withoutChunks = minimize(createTest(64, 10, 42), 42);
+
+		Properties.MINIMIZE_CHUNKS = true;
+		int withChunks = minimize(createTest(64, 10, 42), 42);
+
+		assertTrue("Executions with chunks: " + withChunks + ", without: " + withoutChunks,
+		           withChunks * 4 < withoutChunks);
+	}
+
+	@Test
+	public void testRelevantStatementAtEitherEnd() {
+		minimize(createTest(33, 0, 42), 42);
+		minimize(createTest(33, 32, 42), 42);
+	}
+
+	@Test
+	public void testClosureContainsReferences() {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference a = test.addStatement(new IntPrimitiveStatement(test, 1));
+		VariableReference b = test.addStatement(new IntPrimitiveStatement(test, 2));
+		VariableReference sum = new VariableReferenceImpl(test, int.class);
+		sum = test.addStatement(new PrimitiveExpression(test, sum, a, PrimitiveExpression.Operator.PLUS, b));
+		test.addStatement(new IntPrimitiveStatement(test, 3));
+		VariableReference twice = new VariableReferenceImpl(test, int.class);
+		test.addStatement(new PrimitiveExpression(test, twice, sum, PrimitiveExpression.Operator.PLUS, sum));
+
+		Set<Integer> closure = TestCaseMinimizer.getClosure(test, 0, 1);
+		assertEquals(Arrays.asList(4, 2, 0), Arrays.asList(closure.toArray()));
+
+		closure = TestCaseMinimizer.getClosure(test, 3, 4);
+		assertEquals(Arrays.asList(3), Arrays.asList(closure.toArray()));
+	}
+
+	@Test
+	public void testClosureContainsAssignments() {
+		DefaultTestCase test = new DefaultTestCase();
+		ArrayReference array = (ArrayReference) test.addStatement(new ArrayStatement(test, int[].class, 2));
+		VariableReference value = test.addStatement(new IntPrimitiveStatement(test, 5));
+		test.addStatement(new AssignmentStatement(test, new ArrayIndex(test, array, 0), value));
+		test.addStatement(new IntPrimitiveStatement(test, 7));
+
+		// The assignment returns array[0], which is not defined at its own position
+		Set<Integer> closure = TestCaseMinimizer.getClosure(test, 1, 2);
+		assertEquals(Arrays.asList(2, 1), Arrays.asList(closure.toArray()));
+
+		closure = TestCaseMinimizer.getClosure(test, 0, 1);
+		assertEquals(Arrays.asList(2, 0), Arrays.asList(closure.toArray()));
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+public class ArrayExecutionTraceImplTest {
+
+	private static void passBranches(ExecutionTraceImpl trace) {
+		trace.branchPassed(1, 10, 0.0, 1.0);
+		trace.branchPassed(1, 10, 2.0, 0.0);
+		trace.branchPassed(3, 12, 5.0, 0.0);
+		trace.branchPassed(3, 12, 4.0, 0.0);
+		// beyond the initial capacity
+		trace.branchPassed(42, 20, 0.0, 3.0);
+	}
+
+	@Test
+	public void testSameDataAsMapTrace() {
+		ExecutionTraceImpl expected = new ExecutionTraceImpl();
+		ArrayExecutionTraceImpl actual = new ArrayExecutionTraceImpl(4);
+		passBranches(expected);
+		passBranches(actual);
+
+		assertEquals(expected.getCoveredPredicates(), actual.getCoveredPredicates());
+		assertEquals(expected.getPredicateExecutionCount(), actual.getPredicateExecutionCount());
+		assertEquals(expected.getCoveredTrueBranches(), actual.getCoveredTrueBranches());
+		assertEquals(expected.getCoveredFalseBranches(), actual.getCoveredFalseBranches());
+		assertEquals(expected.getTrueDistances(), actual.getTrueDistances());
+		assertEquals(expected.getFalseDistances(), actual.getFalseDistances());
+		assertEquals(expected.getTrueDistancesSum(), actual.getTrueDistancesSum());
+		assertEquals(expected.getFalseDistancesSum(), actual.getFalseDistancesSum());
+		assertEquals(4.0, actual.getTrueDistance(3), 0.0);
+		assertEquals(3.0, actual.getFalseDistance(42), 0.0);
+		assertTrue(actual.hasTrueDistance(42));
+		assertFalse(actual.hasTrueDistance(2));
+	}
+
+	@Test
+	public void testClear() {
+		ArrayExecutionTraceImpl trace = new ArrayExecutionTraceImpl(4);
+		passBranches(trace);
+		trace.clear();
+
+		assertTrue(trace.getCoveredPredicates().isEmpty());
+		assertTrue(trace.getTrueDistances().isEmpty());
+		assertFalse(trace.hasFalseDistance(1));
+
+		trace.branchPassed(1, 10, 7.0, 0.0);
+		assertEquals(7.0, trace.getTrueDistance(1), 0.0);
+		assertEquals(1, (int) trace.getPredicateExecutionCount().get(1));
+	}
+
+	@Test
+	public void testCloneIsIndependent() {
+		ArrayExecutionTraceImpl trace = new ArrayExecutionTraceImpl(4);
+		passBranches(trace);
+		ArrayExecutionTraceImpl copy = trace.clone();
+
+		assertEquals(trace.getTrueDistances(), copy.getTrueDistances());
+
+		copy.branchPassed(2, 11, 0.0, 1.0);
+		assertTrue(copy.hasTrueDistance(2));
+		assertFalse(trace.hasTrueDistance(2));
+	}
+
+	@Test
+	public void testInheritedCollectionsAreNotSynchronized() {
+		Class<?> synchronizedMap = Collections.synchronizedMap(new HashMap<Object, Object>()).getClass();
+		Class<?> synchronizedList = Collections.synchronizedList(new ArrayList<Object>()).getClass();
+
+		ArrayExecutionTraceImpl trace = new ArrayExecutionTraceImpl(4);
+		assertNotSame(synchronizedMap, trace.coveredMethods.getClass());
+		assertNotSame(synchronizedMap, trace.coveredBranchlessMethods.getClass());
+		assertNotSame(synchronizedMap, trace.coverage.getClass());
+		assertNotSame(synchronizedMap, trace.knownCallerObjects.getClass());
+		assertNotSame(synchronizedList, trace.finishedCalls.getClass());
+
+		// the map based trace keeps its synchronized collections
+		assertEquals(synchronizedMap, new ExecutionTraceImpl().coveredMethods.getClass());
+	}
+}
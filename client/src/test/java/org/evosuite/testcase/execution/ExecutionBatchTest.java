@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.ExecutableChromosome;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteFitnessFunction;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.concolic.TestCaseWithReset;
+
+public class ExecutionBatchTest {
+
+	private static class DefaultExecutionFitness extends TestSuiteFitnessFunction {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public double getFitness(AbstractTestSuiteChromosome<? extends ExecutableChromosome> individual) {
+			return 0;
+		}
+	}
+
+	private static class CustomExecutionFitness extends DefaultExecutionFitness {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean canRunTestsInParallel() {
+			return false;
+		}
+	}
+
+	private Class<?> targetClass;
+
+	@Before
+	public void setUp() throws ClassNotFoundException {
+		Properties.getInstance().resetToDefaults();
+		Properties.TARGET_CLASS = TestCaseWithReset.class.getCanonicalName();
+		Properties.TEST_EXECUTION_THREADS = 4;
+		Properties.VIRTUAL_FS = false;
+		Properties.VIRTUAL_NET = false;
+		Properties.JEE = false;
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		TestGenerationContext.getInstance().resetContext();
+		TestCaseExecutor.initExecutor();
+		targetClass = TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+	}
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private TestChromosome buildTest(int value) throws NoSuchMethodException {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference param = test.addStatement(new IntPrimitiveStatement(test, value));
+		Method isZero = targetClass.getMethod("isZero", int.class);
+		test.addStatement(new MethodStatement(test, new GenericMethod(isZero, targetClass), null,
+		        Collections.singletonList(param)));
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+		return chromosome;
+	}
+
+	private TestSuiteChromosome buildSuite(int size) throws NoSuchMethodException {
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		for (int i = 0; i < size; i++) {
+			suite.addTest(buildTest(i % 3));
+		}
+		return suite;
+	}
+
+	@Test
+	public void testChangedTestsAreExecuted() throws NoSuchMethodException {
+		TestSuiteChromosome suite = buildSuite(10);
+		List<FitnessFunction<?>> fitnessFunctions = new ArrayList<FitnessFunction<?>>();
+		fitnessFunctions.add(new DefaultExecutionFitness());
+
+		ExecutionBatch.executeChanged(Collections.singletonList(suite), fitnessFunctions);
+
+		for (TestChromosome test : suite.getTestChromosomes()) {
+			assertFalse(test.isChanged());
+			assertNotNull(test.getLastExecutionResult());
+			assertSame(test.getTestCase(), test.getLastExecutionResult().test);
+		}
+	}
+
+	@Test
+	public void testUnchangedTestsAreNotExecutedAgain() throws NoSuchMethodException {
+		TestSuiteChromosome suite = buildSuite(10);
+		List<FitnessFunction<?>> fitnessFunctions = new ArrayList<FitnessFunction<?>>();
+		fitnessFunctions.add(new DefaultExecutionFitness());
+		ExecutionBatch.executeChanged(Collections.singletonList(suite), fitnessFunctions);
+
+		List<ExecutionResult> before = new ArrayList<ExecutionResult>();
+		for (TestChromosome test : suite.getTestChromosomes()) {
+			before.add(test.getLastExecutionResult());
+		}
+		suite.getTestChromosome(3).setChanged(true);
+
+		ExecutionBatch.executeChanged(Collections.singletonList(suite), fitnessFunctions);
+		for (int i = 0; i < suite.size(); i++) {
+			if (i == 3) {
+				assertFalse(suite.getTestChromosome(i).isChanged());
+			} else {
+				assertSame(before.get(i), suite.getTestChromosome(i).getLastExecutionResult());
+			}
+		}
+	}
+
+	@Test
+	public void testNothingIsExecutedWithCustomExecution() throws NoSuchMethodException {
+		TestSuiteChromosome suite = buildSuite(10);
+		List<FitnessFunction<?>> fitnessFunctions = new ArrayList<FitnessFunction<?>>();
+		fitnessFunctions.add(new DefaultExecutionFitness());
+		fitnessFunctions.add(new CustomExecutionFitness());
+
+		ExecutionBatch.executeChanged(Collections.singletonList(suite), fitnessFunctions);
+
+		for (TestChromosome test : suite.getTestChromosomes()) {
+			assertNull(test.getLastExecutionResult());
+		}
+	}
+
+	@Test
+	public void testSameBatchGivesSameResults() throws NoSuchMethodException {
+		List<FitnessFunction<?>> fitnessFunctions = new ArrayList<FitnessFunction<?>>();
+		fitnessFunctions.add(new DefaultExecutionFitness());
+
+		TestSuiteChromosome first = buildSuite(20);
+		TestSuiteChromosome second = first.clone();
+		for (TestChromosome test : second.getTestChromosomes()) {
+			test.setChanged(true);
+		}
+		ExecutionBatch.executeChanged(Collections.singletonList(first), fitnessFunctions);
+		ExecutionBatch.executeChanged(Collections.singletonList(second), fitnessFunctions);
+
+		for (int i = 0; i < first.size(); i++) {
+			ExecutionTrace expected = first.getTestChromosome(i).getLastExecutionResult().getTrace();
+			ExecutionTrace actual = second.getTestChromosome(i).getLastExecutionResult().getTrace();
+			assertEquals(expected.getPredicateExecutionCount(), actual.getPredicateExecutionCount());
+			assertEquals(expected.getTrueDistances(), actual.getTrueDistances());
+			assertEquals(expected.getFalseDistances(), actual.getFalseDistances());
+		}
+	}
+}
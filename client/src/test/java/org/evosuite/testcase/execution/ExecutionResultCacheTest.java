@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.concolic.TestCaseWithReset;
+
+public class ExecutionResultCacheTest {
+
+	private Class<?> targetClass;
+
+	private final AtomicInteger executions = new AtomicInteger();
+
+	@Before
+	public void setUp() throws ClassNotFoundException {
+		Properties.getInstance().resetToDefaults();
+		Properties.TARGET_CLASS = TestCaseWithReset.class.getCanonicalName();
+		Properties.RESET_STATIC_FIELDS = true;
+		Properties.EXECUTION_RESULT_CACHE_SIZE = 10;
+		Properties.VIRTUAL_FS = false;
+		Properties.VIRTUAL_NET = false;
+		Properties.JEE = false;
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		TestGenerationContext.getInstance().resetContext();
+		TestCaseExecutor.initExecutor();
+		ExecutionResultCache.resetSingleton();
+		targetClass = TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+	}
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+		ExecutionResultCache.resetSingleton();
+	}
+
+	private DefaultTestCase buildTest(int value) throws NoSuchMethodException {
+		DefaultTestCase test = new DefaultTestCase();
+		VariableReference param = test.addStatement(new IntPrimitiveStatement(test, value));
+		Method isZero = targetClass.getMethod("isZero", int.class);
+		test.addStatement(new MethodStatement(test, new GenericMethod(isZero, targetClass), null,
+		        Collections.singletonList(param)));
+		return test;
+	}
+
+	private ExecutionResult execute(TestCase test) {
+		executions.incrementAndGet();
+		return TestCaseExecutor.runTest(test);
+	}
+
+	@Test
+	public void testFingerprint() throws NoSuchMethodException {
+		assertEquals(TestCaseFingerprint.of(buildTest(1)), TestCaseFingerprint.of(buildTest(1)));
+		assertEquals(TestCaseFingerprint.of(buildTest(1)).getHash(), TestCaseFingerprint.of(buildTest(1)).getHash());
+		assertNotEquals(TestCaseFingerprint.of(buildTest(1)), TestCaseFingerprint.of(buildTest(2)));
+	}
+
+	@Test
+	public void testIdenticalTestIsNotExecutedAgain() throws NoSuchMethodException {
+		ExecutionResultCache cache = ExecutionResultCache.getInstance();
+		DefaultTestCase first = buildTest(0);
+		DefaultTestCase second = buildTest(0);
+
+		ExecutionResult original = cache.getOrExecute(first, this::execute);
+		ExecutionResult reused = cache.getOrExecute(second, this::execute);
+		assertEquals(1, executions.get());
+		assertEquals(1, cache.getHits());
+
+		assertTrue(reused.test == second);
+		assertEquals(original.getExecutedStatements(), reused.getExecutedStatements());
+		assertEquals(original.getTrace().getTrueDistances(), reused.getTrace().getTrueDistances());
+		assertEquals(original.getTrace().getFalseDistances(), reused.getTrace().getFalseDistances());
+
+		cache.getOrExecute(buildTest(3), this::execute);
+		assertEquals(2, executions.get());
+	}
+
+	@Test
+	public void testClearedWhenObserversChange() throws NoSuchMethodException {
+		ExecutionResultCache cache = ExecutionResultCache.getInstance();
+		cache.getOrExecute(buildTest(0), this::execute);
+		TestCaseExecutor.getInstance().newObservers();
+		cache.getOrExecute(buildTest(0), this::execute);
+		assertEquals(2, executions.get());
+	}
+
+	@Test
+	public void testNotUsedWithoutStaticReset() throws NoSuchMethodException {
+		Properties.RESET_STATIC_FIELDS = false;
+		ExecutionResultCache cache = ExecutionResultCache.getInstance();
+		assertFalse(cache.isEnabled());
+		cache.getOrExecute(buildTest(0), this::execute);
+		cache.getOrExecute(buildTest(0), this::execute);
+		assertEquals(2, executions.get());
+	}
+}
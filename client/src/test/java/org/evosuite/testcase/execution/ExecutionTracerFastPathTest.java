@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+
+public class ExecutionTracerFastPathTest {
+
+	@Before
+	public void setUp() {
+		Properties.TRACER_FAST_PATH = true;
+		Properties.EXECUTION_TRACE_TYPE = Properties.ExecutionTraceType.ARRAY;
+		ExecutionTracer.setThread(Thread.currentThread());
+		ExecutionTracer.setKillSwitch(false);
+		ExecutionTracer.getExecutionTracer().clear();
+		ExecutionTracer.enable();
+	}
+
+	@After
+	public void tearDown() {
+		ExecutionTracer.disable();
+		ExecutionTracer.setKillSwitch(false);
+		ExecutionTracer.setThread(null);
+		ExecutionTracer.getExecutionTracer().clear();
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private static ExecutionTrace getTrace() {
+		return ExecutionTracer.getExecutionTracer().getTrace();
+	}
+
+	@Test
+	public void testEventsOfTestThreadAreRecorded() {
+		ExecutionTracer.passedBranch(0, Opcodes.IFEQ, 1, 10);
+		ExecutionTracer.passedBranch(3, Opcodes.IFEQ, 1, 10);
+
+		assertEquals(2, (int) getTrace().getPredicateExecutionCount().get(1));
+		assertEquals(0.0, getTrace().getTrueDistance(1), 0.0);
+	}
+
+	@Test
+	public void testEventsOfOtherThreadsAreIgnored() throws Exception {
+		Thread other = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				ExecutionTracer.passedBranch(0, Opcodes.IFEQ, 2, 11);
+			}
+		});
+		other.start();
+		other.join();
+
+		assertFalse(getTrace().getCoveredPredicates().contains(2));
+	}
+
+	@Test
+	public void testStalledTestThreadIsIgnored() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r);
+				ExecutionTracer.setThread(thread);
+				return thread;
+			}
+		});
+		try {
+			executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() {
+					ExecutionTracer.passedBranch(0, Opcodes.IFEQ, 3, 12);
+					return null;
+				}
+			}).get();
+			assertTrue(getTrace().getCoveredPredicates().contains(3));
+
+			// a new test thread takes over, the previous one has to be ignored
+			ExecutionTracer.setThread(Thread.currentThread());
+			executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() {
+					ExecutionTracer.passedBranch(0, Opcodes.IFEQ, 4, 13);
+					return null;
+				}
+			}).get();
+			assertFalse(getTrace().getCoveredPredicates().contains(4));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testClearReusesTraceAndKeepsCopies() {
+		ExecutionTracer.passedBranch(0, Opcodes.IFEQ, 5, 14);
+		ExecutionTrace copy = getTrace().lazyClone();
+		ExecutionTrace trace = getTrace();
+
+		ExecutionTracer.getExecutionTracer().clear();
+		ExecutionTracer.passedBranch(0, Opcodes.IFEQ, 6, 15);
+
+		assertSame(trace, getTrace());
+		assertFalse(getTrace().getCoveredPredicates().contains(5));
+		assertTrue(getTrace().getCoveredPredicates().contains(6));
+		assertTrue(copy.getCoveredPredicates().contains(5));
+		assertFalse(copy.getCoveredPredicates().contains(6));
+	}
+
+	@Test
+	public void testMapTraceTypeIsHonoured() {
+		Properties.EXECUTION_TRACE_TYPE = Properties.ExecutionTraceType.MAP;
+		ExecutionTracer.getExecutionTracer().clear();
+		ExecutionTrace trace = getTrace();
+		ExecutionTracer.passedBranch(0, Opcodes.IFEQ, 7, 16);
+
+		assertTrue(getTrace().getCoveredPredicates().contains(7));
+		ExecutionTracer.getExecutionTracer().clear();
+		// the map trace is not reused
+		assertFalse(trace == getTrace());
+	}
+
+	@Test
+	public void testKillSwitchIsCheckedPeriodically() {
+		ExecutionTracer.setKillSwitch(true);
+		int events = 0;
+		try {
+			while (events <= 1000) {
+				ExecutionTracer.passedLine("Foo", "bar()V", 1);
+				events++;
+			}
+			fail("Kill switch was never checked");
+		} catch (TestCaseExecutor.TimeoutExceeded e) {
+			// expected
+		}
+		assertTrue(events > 0);
+		assertTrue(events < 1000);
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.concolic.TestCaseWithReset;
+
+public class ParallelTestCaseExecutorTest {
+
+	private Class<?> targetClass;
+
+	@Before
+	public void setUp() throws ClassNotFoundException {
+		Properties.getInstance().resetToDefaults();
+		Properties.TARGET_CLASS = TestCaseWithReset.class.getCanonicalName();
+		Properties.TEST_EXECUTION_THREADS = 4;
+		Properties.VIRTUAL_FS = false;
+		Properties.VIRTUAL_NET = false;
+		Properties.JEE = false;
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		TestGenerationContext.getInstance().resetContext();
+		TestCaseExecutor.initExecutor();
+		targetClass = TestGenerationContext.getInstance().getClassLoaderForSUT().loadClass(Properties.TARGET_CLASS);
+	}
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private DefaultTestCase buildTest(boolean increment, int value) throws NoSuchMethodException {
+		DefaultTestCase test = new DefaultTestCase();
+		if (increment) {
+			Method inc = targetClass.getMethod("inc");
+			test.addStatement(new MethodStatement(test, new GenericMethod(inc, targetClass), null,
+			        Collections.<VariableReference> emptyList()));
+		}
+		VariableReference param = test.addStatement(new IntPrimitiveStatement(test, value));
+		Method isZero = targetClass.getMethod("isZero", int.class);
+		test.addStatement(new MethodStatement(test, new GenericMethod(isZero, targetClass), null,
+		        Collections.singletonList(param)));
+		return test;
+	}
+
+	@Test
+	public void testResultsInOrderOfTests() throws NoSuchMethodException {
+		List<DefaultTestCase> tests = new ArrayList<DefaultTestCase>();
+		for (int i = 0; i < 20; i++) {
+			tests.add(buildTest(false, i % 3));
+		}
+
+		List<ExecutionResult> parallel = TestCaseExecutor.getInstance().execute(
+		        new ArrayList<org.evosuite.testcase.TestCase>(tests));
+		assertEquals(tests.size(), parallel.size());
+
+		Properties.TEST_EXECUTION_THREADS = 1;
+		for (int i = 0; i < tests.size(); i++) {
+			ExecutionResult serial = TestCaseExecutor.getInstance().execute(tests.get(i));
+			assertTrue(parallel.get(i).test == tests.get(i));
+			assertFalse(parallel.get(i).hasTimeout());
+			assertEquals(serial.getTrace().getPredicateExecutionCount(),
+			        parallel.get(i).getTrace().getPredicateExecutionCount());
+			assertEquals(serial.getTrace().getTrueDistances(), parallel.get(i).getTrace().getTrueDistances());
+			assertEquals(serial.getTrace().getFalseDistances(), parallel.get(i).getTrace().getFalseDistances());
+		}
+	}
+
+	@Test
+	public void testStaticStateIsIsolated() throws NoSuchMethodException {
+		Properties.RESET_STATIC_FIELDS = true;
+		List<org.evosuite.testcase.TestCase> tests = new ArrayList<org.evosuite.testcase.TestCase>();
+		for (int i = 0; i < 20; i++) {
+			tests.add(buildTest(i % 2 == 0, 0));
+		}
+
+		List<ExecutionResult> results = TestCaseExecutor.getInstance().execute(tests);
+		for (int i = 0; i < tests.size(); i++) {
+			// count is only non-zero if the same test incremented it
+			int expectedPredicates = i % 2 == 0 ? 1 : 2;
+			assertEquals(expectedPredicates, results.get(i).getTrace().getPredicateExecutionCount().size());
+		}
+	}
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.ArrayStatement;
+import org.evosuite.testcase.statements.AssignmentStatement;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.EnumPrimitiveStatement;
+import org.evosuite.testcase.statements.FieldStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.PrimitiveExpression;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.LongPrimitiveStatement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testcase.variable.VariableReferenceImpl;
+import org.evosuite.utils.generic.GenericClass;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericField;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestSuiteBinaryFormatTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/** Not covered by the binary format, so it needs Java serialization */
+	public static class CustomIntPrimitiveStatement extends IntPrimitiveStatement {
+
+		private static final long serialVersionUID = 1L;
+
+		public CustomIntPrimitiveStatement(TestCase tc, Integer value) {
+			super(tc, value);
+		}
+	}
+
+	private static TestChromosome createTest() throws Exception {
+		TestCase test = new DefaultTestCase();
+
+		VariableReference string = test.addStatement(new StringPrimitiveStatement(test, "fooé"));
+		VariableReference builder = test.addStatement(new ConstructorStatement(test,
+		        new GenericConstructor(StringBuilder.class.getConstructor(String.class), StringBuilder.class),
+		        Arrays.asList(string)));
+		VariableReference number = test.addStatement(new IntPrimitiveStatement(test, -42));
+		test.addStatement(new MethodStatement(test,
+		        new GenericMethod(StringBuilder.class.getMethod("append", int.class), StringBuilder.class),
+		        builder, Arrays.asList(number)));
+
+		VariableReference max = test.addStatement(new FieldStatement(test,
+		        new GenericField(Integer.class.getField("MAX_VALUE"), Integer.class), null));
+		VariableReference sum = new VariableReferenceImpl(test, int.class);
+		test.addStatement(new PrimitiveExpression(test, sum, number, PrimitiveExpression.Operator.PLUS, max));
+
+		ArrayReference array = (ArrayReference) test.addStatement(new ArrayStatement(test, int[].class, 3));
+		test.addStatement(new AssignmentStatement(test, new ArrayIndex(test, array, 2), number));
+
+		test.addStatement(new EnumPrimitiveStatement<TimeUnit>(test, TimeUnit.SECONDS));
+		test.addStatement(new LongPrimitiveStatement(test, Long.MIN_VALUE));
+		test.addStatement(new NullStatement(test, String.class));
+
+		GenericClass stringList = new GenericClass(ArrayList.class).getWithParameterTypes(new Type[] { String.class });
+		test.addStatement(new ConstructorStatement(test,
+		        new GenericConstructor(ArrayList.class.getConstructor(), stringList),
+		        new ArrayList<VariableReference>()));
+
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+		return chromosome;
+	}
+
+	private static List<TestChromosome> roundTrip(List<TestChromosome> tests) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (TestSuiteBinaryWriter writer = new TestSuiteBinaryWriter(buffer)) {
+			for (TestChromosome test : tests) {
+				writer.write(test);
+			}
+		}
+
+		try (TestSuiteBinaryReader reader = new TestSuiteBinaryReader(
+		        new ByteArrayInputStream(buffer.toByteArray()), TestSuiteBinaryFormatTest.class.getClassLoader())) {
+			return reader.readTests();
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		TestChromosome test = createTest();
+		List<TestChromosome> copies = roundTrip(Arrays.asList(test, createTest()));
+
+		Assert.assertEquals(2, copies.size());
+		for (TestChromosome copy : copies) {
+			Assert.assertEquals(test.getTestCase().toCode(), copy.getTestCase().toCode());
+			for (int i = 0; i < test.size(); i++) {
+				Assert.assertEquals(test.getTestCase().getReturnValue(i).getType(),
+				                    copy.getTestCase().getReturnValue(i).getType());
+			}
+		}
+	}
+
+	@Test
+	public void testSmallerThanJavaSerialization() throws Exception {
+		List<TestChromosome> tests = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			tests.add(createTest());
+		}
+
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		try (TestSuiteBinaryWriter writer = new TestSuiteBinaryWriter(binary)) {
+			for (TestChromosome test : tests) {
+				writer.write(test);
+			}
+			Assert.assertEquals(0, writer.getNumSerializedTests());
+		}
+
+		ByteArrayOutputStream java = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(java)) {
+			for (TestChromosome test : tests) {
+				out.writeObject(test);
+			}
+		}
+
+		Assert.assertTrue(binary.size() * 10 < java.size());
+	}
+
+	@Test
+	public void testUnsupportedStatementIsSerialized() throws Exception {
+		TestCase test = new DefaultTestCase();
+		test.addStatement(new CustomIntPrimitiveStatement(test, 7));
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+
+		List<TestChromosome> copies = roundTrip(Arrays.asList(chromosome, createTest()));
+
+		Assert.assertEquals(2, copies.size());
+		Assert.assertTrue(copies.get(0).getTestCase().getStatement(0) instanceof CustomIntPrimitiveStatement);
+		Assert.assertEquals(7, ((IntPrimitiveStatement) copies.get(0).getTestCase().getStatement(0)).getValue().intValue());
+		Assert.assertEquals(createTest().getTestCase().toCode(), copies.get(1).getTestCase().toCode());
+	}
+
+	@Test
+	public void testNotBinaryFormat() throws IOException {
+		BufferedInputStream stream = new BufferedInputStream(
+		        new ByteArrayInputStream(new byte[] { (byte) 0xAC, (byte) 0xED, 0, 5 }));
+		Assert.assertFalse(TestSuiteBinaryReader.isBinaryFormat(stream));
+		Assert.assertEquals(0xAC, stream.read());
+	}
+
+	@Test
+	public void testTruncatedFileKeepsDecodedTests() throws Exception {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (TestSuiteBinaryWriter writer = new TestSuiteBinaryWriter(buffer)) {
+			for (int i = 0; i < 3; i++) {
+				writer.write(createTest());
+			}
+		}
+		// cut the file in the middle of the record of the last test
+		byte[] bytes = buffer.toByteArray();
+		File file = folder.newFile("truncated.tests");
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write(bytes, 0, bytes.length - 5);
+		}
+
+		List<TestChromosome> tests = new ArrayList<>();
+		Assert.assertEquals(2, TestSuiteSerialization.loadTests(file, tests::add));
+		Assert.assertEquals(2, tests.size());
+		for (TestChromosome test : tests) {
+			Assert.assertEquals(createTest().getTestCase().toCode(), test.getTestCase().toCode());
+		}
+		Assert.assertEquals(2, TestSuiteSerialization.loadTests(file).size());
+	}
+}
@@ -170,7 +170,7 @@ public class ContinuousTestGeneration {
 			configuration = configuration.getWithChangedTime(Properties.CTG_TIME_PER_CLASS, data.getTotalNumberOfTestableCUTs());
 		}
 
-		JobScheduler scheduler = new JobScheduler(data, configuration);
+		JobScheduler scheduler = new JobScheduler(data, configuration, storage);
 		JobExecutor executor = new JobExecutor(storage, projectClassPath, configuration);
 
 		//loop: define (partial) schedule
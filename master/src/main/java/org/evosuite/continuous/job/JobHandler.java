@@ -35,6 +35,7 @@ import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
 
 import org.evosuite.Properties;
+import org.evosuite.Properties.AvailableSchedule;
 import org.evosuite.Properties.StoppingCondition;
 import org.evosuite.classpath.ClassPathHandler;
 import org.evosuite.continuous.persistency.StorageManager;
@@ -328,6 +329,14 @@ public class JobHandler extends Thread {
 		commands.add("-Dtest_dir=" + tests.getAbsolutePath());
 
 		String seedsFileName = job.cut + "." + Properties.CTG_SEEDS_EXT;
+		if (executor.configuration.schedule == AvailableSchedule.ADAPTIVE
+				&& new File(seedOut, seedsFileName).exists()) {
+			/*
+			 * the CUT was already targeted by a previous round of the adaptive
+			 * schedule: continue the search from there
+			 */
+			seedIn = seedOut;
+		}
 		commands.add("-Dctg_seeds_file_out=" + seedOut.getAbsolutePath() + File.separator +seedsFileName);
 		commands.add("-Dctg_seeds_file_in=" + seedIn.getAbsolutePath() + File.separator +seedsFileName);
 
@@ -23,12 +23,14 @@ import java.util.List;
 
 import org.evosuite.Properties.AvailableSchedule;
 import org.evosuite.continuous.CtgConfiguration;
+import org.evosuite.continuous.job.schedule.AdaptiveSchedule;
 import org.evosuite.continuous.job.schedule.BudgetAndSeedingSchedule;
 import org.evosuite.continuous.job.schedule.BudgetSchedule;
 import org.evosuite.continuous.job.schedule.HistorySchedule;
 import org.evosuite.continuous.job.schedule.ScheduleType;
 import org.evosuite.continuous.job.schedule.SeedingSchedule;
 import org.evosuite.continuous.job.schedule.SimpleSchedule;
+import org.evosuite.continuous.persistency.StorageManager;
 import org.evosuite.continuous.project.ProjectStaticData;
 import org.evosuite.continuous.project.ProjectStaticData.ClassInfo;
 import org.slf4j.Logger;
@@ -51,6 +53,12 @@ public class JobScheduler {
 	
 	protected  final CtgConfiguration configuration;
 
+	/**
+	 * Where the results of the jobs executed so far are written.
+	 * Can be <code>null</code>, eg when no job is going to be executed
+	 */
+	private final StorageManager storage;
+
 	private ScheduleType currentSchedule;
 	
 	/**
@@ -60,9 +68,23 @@ public class JobScheduler {
 	 */
 	public JobScheduler(ProjectStaticData projectData,
 			CtgConfiguration conf) {
+		this(projectData, conf, null);
+	}
+
+	/**
+	 * Constructor for schedules that need to look at the results of the jobs
+	 * they have already scheduled
+	 * 
+	 * @param projectData
+	 * @param conf
+	 * @param storage
+	 */
+	public JobScheduler(ProjectStaticData projectData,
+			CtgConfiguration conf, StorageManager storage) {
 		super();
 		this.projectData = projectData;	
 		this.configuration = conf;
+		this.storage = storage;
 		chooseScheduleType(configuration.schedule);
 	}
 	
@@ -85,6 +107,9 @@ public class JobScheduler {
 			case HISTORY:
                 currentSchedule = new HistorySchedule(this);
                 break;
+			case ADAPTIVE:
+				currentSchedule = new AdaptiveSchedule(this);
+				break;
 			default:
 				throw new IllegalArgumentException("Schedule '"+schedule+"' is not supported");				
 		}
@@ -101,11 +126,13 @@ public class JobScheduler {
 		}
 		logger.info("Creating new schedule with "+currentSchedule.getClass().getSimpleName());
 
-		// update some extra information of each Class-Under-Test
+		// update some extra information of each Class-Under-Test.
+		// with an adaptive schedule, a CUT can be in more than one (partial) schedule, so budgets add up
+		boolean cumulative = currentSchedule instanceof AdaptiveSchedule;
 		List<JobDefinition> jobs = currentSchedule.createNewSchedule();
 		for (JobDefinition job : jobs) {
 		  ClassInfo classInfo = this.projectData.getClassInfo(job.cut);
-		  classInfo.setTimeBudgetInSeconds(job.seconds);
+		  classInfo.setTimeBudgetInSeconds(cumulative ? classInfo.getTimeBudgetInSeconds() + job.seconds : job.seconds);
 		  classInfo.setMemoryInMB(job.memoryInMB);
 		}
 
@@ -132,4 +159,8 @@ public class JobScheduler {
 	public CtgConfiguration getConfiguration() {
 		return configuration;
 	}
+
+	public StorageManager getStorage() {
+		return storage;
+	}
 }
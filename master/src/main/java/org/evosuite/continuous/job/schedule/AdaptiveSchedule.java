@@ -0,0 +1,353 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job.schedule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.continuous.job.JobDefinition;
+import org.evosuite.continuous.job.JobScheduler;
+import org.evosuite.continuous.persistency.CsvJUnitData;
+import org.evosuite.continuous.persistency.StorageManager;
+import org.evosuite.continuous.persistency.StorageManager.TestsOnDisk;
+import org.evosuite.continuous.project.ProjectStaticData;
+import org.evosuite.continuous.project.ProjectStaticData.ClassInfo;
+import org.evosuite.utils.LoggingUtils;
+
+/**
+ * A schedule that allocates the budget in rounds, instead of all at once.
+ * 
+ * <p>
+ * In the first round, only part of the budget is given to the CUTs, based
+ * on their number of branches and on how much coverage per second EvoSuite
+ * gained on them in previous CTG runs. After each round, the coverage reached
+ * by each job is compared with the one the CUT had before: CUTs that did not
+ * improve (ie, reached a plateau) get no more budget, and what is left is given
+ * to the CUTs that are still improving, in proportion to their gain rate.
+ * A CUT that is scheduled again continues its search from the test suite
+ * generated in the previous round.
+ */
+public class AdaptiveSchedule extends ScheduleType {
+
+	/**
+	 * Fraction of the total budget that is used in the first round
+	 */
+	protected static final double FIRST_ROUND_BUDGET = 0.5;
+
+	/**
+	 * Maximum number of rounds. The last one gets all the budget left
+	 */
+	protected static final int MAX_ROUNDS = 3;
+
+	/**
+	 * A CUT whose coverage (in [0,1], averaged over all criteria) improved less
+	 * than this in a round is considered to have reached a plateau
+	 */
+	protected static final double PLATEAU_GAIN = 0.01;
+
+	/**
+	 * How many previous CTG runs to consider when estimating the gain rate of a CUT
+	 */
+	protected static final int HISTORY_WINDOW = 5;
+
+	private int round = 0;
+
+	private boolean finished = false;
+
+	private long startTimeInMs = -1;
+
+	/**
+	 * Budget (in seconds, summed over all cores) allocated so far
+	 */
+	private int usedBudget = 0;
+
+	/**
+	 * The jobs of the last round that has been scheduled
+	 */
+	private List<JobDefinition> lastRound = Collections.emptyList();
+
+	/**
+	 * The next round to execute, if already computed
+	 */
+	private List<JobDefinition> nextRound = null;
+
+	/**
+	 * Key -> name of CUT.
+	 * Value -> coverage of the CUT before the last round it was scheduled in
+	 */
+	private final Map<String, Double> coverageBefore = new LinkedHashMap<>();
+
+	public AdaptiveSchedule(JobScheduler scheduler) {
+		super(scheduler);
+	}
+
+	@Override
+	public boolean canExecuteMore() {
+		if (nextRound == null && !finished) {
+			nextRound = planNextRound();
+			if (nextRound.isEmpty()) {
+				finished = true;
+			}
+		}
+		return !finished;
+	}
+
+	@Override
+	public List<JobDefinition> createNewSchedule() throws IllegalStateException {
+		if (!canExecuteMore()) {
+			throw new IllegalStateException("Schedule has already used all of its budget");
+		}
+
+		List<JobDefinition> jobs = nextRound;
+		nextRound = null;
+		lastRound = jobs;
+		round++;
+		for (JobDefinition job : jobs) {
+			usedBudget += job.seconds;
+		}
+		return jobs;
+	}
+
+	/**
+	 * @return the number of rounds scheduled so far
+	 */
+	public int getNumberOfRounds() {
+		return round;
+	}
+
+	private int getTotalBudget() {
+		return 60 * scheduler.getConfiguration().timeInMinutes * scheduler.getConfiguration().getNumberOfUsableCores();
+	}
+
+	private int getMinimumBudgetPerJob() {
+		return 60 * scheduler.getConfiguration().minMinutesPerJob;
+	}
+
+	/**
+	 * No job can last longer than the wall-clock time left
+	 */
+	private int getMaximumBudgetPerJob() {
+		int max = 60 * scheduler.getConfiguration().timeInMinutes;
+		if (startTimeInMs > 0) {
+			max -= (int) ((System.currentTimeMillis() - startTimeInMs) / 1000);
+		}
+		return max;
+	}
+
+	private int getRemainingBudget() {
+		int remaining = getTotalBudget() - usedBudget;
+		if (startTimeInMs > 0) {
+			int elapsed = (int) ((System.currentTimeMillis() - startTimeInMs) / 1000);
+			remaining = Math.min(remaining, (60 * scheduler.getConfiguration().timeInMinutes - elapsed)
+					* scheduler.getConfiguration().getNumberOfUsableCores());
+		}
+		return remaining;
+	}
+
+	private List<JobDefinition> planNextRound() {
+		if (round == 0) {
+			startTimeInMs = System.currentTimeMillis();
+			return planFirstRound();
+		}
+		if (round >= MAX_ROUNDS) {
+			return Collections.emptyList();
+		}
+		return planFollowingRound();
+	}
+
+	private List<JobDefinition> planFirstRound() {
+
+		if (!enoughBudgetForAll()) {
+			LoggingUtils.getEvoLogger().info("There is no enough time budget to generate test cases for all classes in the project");
+			/*
+			 * no point in having further rounds, as there are CUTs that will not be
+			 * targeted at all
+			 */
+			round = MAX_ROUNDS;
+			return createScheduleForWhenNotEnoughBudget();
+		}
+
+		ProjectStaticData data = scheduler.getProjectData();
+
+		/*
+		 * CUTs without history are assumed to improve as fast as the average of the
+		 * ones with history
+		 */
+		double knownRates = 0.0;
+		int known = 0;
+		for (ClassInfo info : data.getClassInfos()) {
+			double rate = data.getCoverageGainPerSecond(info.getClassName(), HISTORY_WINDOW);
+			if (rate >= 0) {
+				knownRates += rate;
+				known++;
+			}
+		}
+		double defaultRate = known == 0 || knownRates == 0.0 ? 1.0 : knownRates / known;
+
+		Map<String, Double> weights = new LinkedHashMap<>();
+		for (ClassInfo info : data.getClassInfos()) {
+			if (!info.isTestable() || !info.isToTest()) {
+				continue;
+			}
+			String cut = info.getClassName();
+			double coverage = data.getLastCoverage(cut);
+			double rate = data.getCoverageGainPerSecond(cut, HISTORY_WINDOW);
+			if (rate < 0) {
+				rate = defaultRate;
+			}
+			// even CUTs that did not improve in the past get a chance
+			rate = Math.max(rate, 0.1 * defaultRate);
+
+			coverageBefore.put(cut, coverage);
+			weights.put(cut, getWeight(info, rate, coverage));
+		}
+
+		int budget = Math.max((int) (getTotalBudget() * FIRST_ROUND_BUDGET),
+				weights.size() * getMinimumBudgetPerJob());
+		budget = Math.min(budget, getTotalBudget());
+
+		return allocate(weights, budget);
+	}
+
+	private List<JobDefinition> planFollowingRound() {
+
+		ProjectStaticData data = scheduler.getProjectData();
+		Map<String, Double> reached = getCoverageOfLastRound();
+
+		Map<String, Double> weights = new LinkedHashMap<>();
+		for (JobDefinition job : lastRound) {
+			Double after = reached.get(job.cut);
+			if (after == null) {
+				//the job failed, so likely it would fail again
+				LoggingUtils.getEvoLogger().info("- No result for " + job.cut + ", it will not be given more budget");
+				continue;
+			}
+			double before = coverageBefore.containsKey(job.cut) ? coverageBefore.get(job.cut) : 0.0;
+			double gain = after - before;
+			coverageBefore.put(job.cut, after);
+
+			if (after >= 1.0 || gain < PLATEAU_GAIN) {
+				LoggingUtils.getEvoLogger().info("- Coverage of " + job.cut + " has reached a plateau at " + after);
+				continue;
+			}
+
+			double rate = gain / Math.max(1, job.seconds);
+			weights.put(job.cut, getWeight(data.getClassInfo(job.cut), rate, after));
+		}
+
+		if (weights.isEmpty()) {
+			LoggingUtils.getEvoLogger().info("No class is still improving its coverage");
+			return Collections.emptyList();
+		}
+
+		int remaining = getRemainingBudget();
+		int needed = weights.size() * getMinimumBudgetPerJob();
+		if (remaining < getMinimumBudgetPerJob()) {
+			return Collections.emptyList();
+		}
+
+		int budget = remaining;
+		if (round < MAX_ROUNDS - 1 && remaining / 2 >= needed) {
+			budget = remaining / 2;
+		}
+
+		LoggingUtils.getEvoLogger().info("Giving " + budget + " more seconds to " + weights.size()
+				+ " classes still improving their coverage");
+
+		return allocate(weights, budget);
+	}
+
+	/**
+	 * How many branches per second we expect to cover, bounded by how many are
+	 * still left to cover
+	 */
+	private double getWeight(ClassInfo info, double rate, double coverage) {
+		double potential = Math.max(1.0 - coverage, PLATEAU_GAIN);
+		return rate * potential * (info.numberOfBranches + 1);
+	}
+
+	/**
+	 * Give each CUT the minimum budget, plus a share of what is left in proportion
+	 * to its weight. If the budget is not enough for all CUTs, the ones with
+	 * highest weight are chosen
+	 */
+	private List<JobDefinition> allocate(Map<String, Double> weights, int budget) {
+
+		int minBudget = getMinimumBudgetPerJob();
+		int maxBudget = Math.max(minBudget, getMaximumBudgetPerJob());
+
+		List<Map.Entry<String, Double>> entries = new ArrayList<>(weights.entrySet());
+		//most promising first
+		entries.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+
+		int n = Math.min(entries.size(), budget / minBudget);
+		entries = entries.subList(0, n);
+
+		double totalWeight = 0.0;
+		for (Map.Entry<String, Double> entry : entries) {
+			totalWeight += entry.getValue();
+		}
+
+		int extra = budget - (n * minBudget);
+
+		List<JobDefinition> jobs = new LinkedList<>();
+		for (Map.Entry<String, Double> entry : entries) {
+			double share = totalWeight > 0 ? entry.getValue() / totalWeight : 1.0 / n;
+			int seconds = Math.min(maxBudget, minBudget + (int) (extra * share));
+
+			LoggingUtils.getEvoLogger().info("+ Going to generate test cases for " + entry.getKey()
+					+ " using a time budget of " + seconds + " seconds (round " + (round + 1) + ")");
+
+			jobs.add(new JobDefinition(seconds, scheduler.getConfiguration().getConstantMemoryPerJob(),
+					entry.getKey(), 0, null, null));
+		}
+		return jobs;
+	}
+
+	/**
+	 * Read the coverage achieved by the jobs executed so far in this CTG run
+	 * 
+	 * @return a map from CUT name to its coverage (in [0,1], averaged over all criteria)
+	 */
+	protected Map<String, Double> getCoverageOfLastRound() {
+		Map<String, Double> coverage = new LinkedHashMap<>();
+		StorageManager storage = scheduler.getStorage();
+		if (storage == null) {
+			return coverage;
+		}
+
+		for (TestsOnDisk tests : storage.gatherGeneratedTestsOnDisk()) {
+			CsvJUnitData csv = tests.csvData;
+			if (csv.getNumberOfCoverageValues() == 0) {
+				continue;
+			}
+			double sum = 0.0;
+			for (String variable : csv.getCoverageVariables()) {
+				sum += csv.getCoverage(variable);
+			}
+			coverage.put(tests.cut, sum / csv.getNumberOfCoverageValues());
+		}
+		return coverage;
+	}
+}
@@ -22,6 +22,7 @@ package org.evosuite.continuous.persistency;
 import java.io.File;
 import java.io.FileReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -68,6 +69,8 @@ public class CsvJUnitData {
 	 * Open and extract all data from the given csv file.
 	 * 
 	 * @param file the csv file, having 1 line of header, and 1 line of data
+	 *         per search on the CUT. If the CUT was searched more than once
+	 *         in the same CTG run, only the last line is considered
 	 * @return <code>null</code> in case of any problem in reading the file
 	 */
 	public static CsvJUnitData openFile(File file){
@@ -86,11 +89,16 @@ public class CsvJUnitData {
 			return null;
 		}
 
-		if(rows.size() != 2){
+		if(rows.size() < 2){
 			logger.error("Cannot parse "+file.getAbsolutePath()+" as it has "+rows.size()+" rows");
 			return null;
 		}
 
+		if(rows.size() > 2){
+			//statistics are appended, so the latest search is in the last row
+			rows = Arrays.asList(rows.get(0), rows.get(rows.size() - 1));
+		}
+
 		CsvJUnitData data = new CsvJUnitData();
 		try{
 			data.targetClass = getValue(rows, "TARGET_CLASS").trim();		
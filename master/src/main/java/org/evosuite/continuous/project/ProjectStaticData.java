@@ -36,8 +36,10 @@ import java.util.stream.Collectors;
 import org.evosuite.Properties;
 import org.evosuite.continuous.persistency.StorageManager;
 import org.evosuite.xsd.CUT;
+import org.evosuite.xsd.Coverage;
 import org.evosuite.xsd.Generation;
 import org.evosuite.xsd.Project;
+import org.evosuite.xsd.TestSuite;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -390,6 +392,94 @@ public class ProjectStaticData {
         return false;
     }
 
+    /**
+     * Average coverage (over all criteria) of the latest test suite
+     * generated for 'className' in previous CTG runs.
+     * 
+     * @param className
+     * @return 0 if no test suite has been generated so far
+     */
+    public double getLastCoverage(String className) {
+
+        CUT cut = getCUT(className);
+        if (cut == null) {
+            return 0.0;
+        }
+
+        for (int i = cut.getGeneration().size() - 1; i >= 0; i--) {
+            TestSuite suite = cut.getGeneration().get(i).getSuite();
+            if (suite != null) {
+                return getAverageCoverage(suite);
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * How much coverage (in [0,1], averaged over all criteria) EvoSuite gained
+     * per second of search budget on 'className' in the last N generations.
+     * Generations that did not produce a better test suite count as no gain,
+     * so classes that have reached a plateau get a rate close to 0.
+     * 
+     * @param className
+     * @param n
+     * @return a negative value if there is no data to compute the rate
+     */
+    public double getCoverageGainPerSecond(String className, int n) {
+
+        CUT cut = getCUT(className);
+        if (cut == null) {
+            return -1.0;
+        }
+
+        List<Generation> generations = cut.getGeneration();
+        double previousCoverage = 0.0;
+        double totalGain = 0.0;
+        long totalTime = 0;
+
+        for (int i = 0; i < generations.size(); i++) {
+            Generation generation = generations.get(i);
+            double coverage = previousCoverage;
+            if (generation.getSuite() != null) {
+                coverage = Math.max(previousCoverage, getAverageCoverage(generation.getSuite()));
+            }
+
+            // only the last N generations in which EvoSuite actually run count for the rate
+            if (i >= generations.size() - n && !generation.isFailed()
+                    && generation.getTimeBudgetInSeconds() != null
+                    && generation.getTimeBudgetInSeconds().intValue() > 0) {
+                totalGain += coverage - previousCoverage;
+                totalTime += generation.getTimeBudgetInSeconds().intValue();
+            }
+            previousCoverage = coverage;
+        }
+
+        if (totalTime == 0) {
+            return -1.0;
+        }
+        return totalGain / (double) totalTime;
+    }
+
+    private CUT getCUT(String className) {
+        if (this.project == null) {
+            return null;
+        }
+        return this.project.getCut().stream()
+          .filter(p -> p.getFullNameOfTargetClass().equals(className))
+          .findFirst().orElse(null);
+    }
+
+    private static double getAverageCoverage(TestSuite suite) {
+        if (suite.getCoverage().isEmpty()) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (Coverage coverage : suite.getCoverage()) {
+            sum += coverage.getCoverageValue();
+        }
+        return sum / suite.getCoverage().size();
+    }
+
 	/**
 	 * Return a read-only view of the current project CUT graph
 	 * 
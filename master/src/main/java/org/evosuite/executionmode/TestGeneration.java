@@ -175,6 +175,7 @@ public class TestGeneration {
 		LoggingUtils.getEvoLogger().info("* Found " + classes.size()
 		                                         + " matching classes for prefix "
 		                                         + prefix);
+		List<String> targets = new ArrayList<String>();
 		for (String sut : classes) {
 			try {
 				if (ResourceList.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).isClassAnInterface(sut)) {
@@ -185,9 +186,9 @@ public class TestGeneration {
 				LoggingUtils.getEvoLogger().info("Could not load class: " + sut);
 				continue;
 			}
-			LoggingUtils.getEvoLogger().info("* Current class: "+ sut);
-			results.addAll(generateTests(Strategy.EVOSUITE,sut,args));
+			targets.add(sut);
 		}
+		results.addAll(generateTests(Strategy.EVOSUITE,targets,args));
 		return results;
 	}
 	
@@ -205,20 +206,85 @@ public class TestGeneration {
 	
 	private static List<List<TestGenerationResult>> generateTests(Properties.Strategy strategy, String target,
 	        List<String> args) {
-		
-		LoggingUtils.getEvoLogger().info("* Going to generate test cases for class: "+target);
-		
-		if (!findTargetClass(target)) {
-		    return Arrays.asList(Arrays.asList(new TestGenerationResult[]{TestGenerationResultBuilder.buildErrorResult("Could not find target class") }));
+		return generateTests(strategy, Collections.singletonList(target), args);
+	}
+
+	/**
+	 * Generate tests for each of the given classes. A client process is started
+	 * for the first class left; if {@link Properties#REUSE_CLIENT} is set, the
+	 * same client is then handed the following classes, until either all are done
+	 * or the client fails, in which case a new one is started for the rest.
+	 * 
+	 * <p>
+	 * A class that cannot be handled gets an error result, unless it is the only
+	 * one, in which case an {@link IllegalArgumentException} is thrown. Results
+	 * are returned in the order of the given classes.
+	 * 
+	 * <p>
+	 * This is only used for -class, -prefix and -target runs. Continuous test
+	 * generation (CTG) schedules each class as a job with its own EvoSuite
+	 * process, budget and memory, so clients are never reused there.
+	 */
+	private static List<List<TestGenerationResult>> generateTests(Properties.Strategy strategy, List<String> targets,
+	        List<String> args) {
+
+		Map<String, List<List<TestGenerationResult>>> resultsByTarget = new HashMap<String, List<List<TestGenerationResult>>>();
+		Deque<String> remaining = new ArrayDeque<String>();
+
+		for (String target : targets) {
+			if (!findTargetClass(target)) {
+				resultsByTarget.put(target, Collections.singletonList(Arrays.asList(new TestGenerationResult[]{TestGenerationResultBuilder.buildErrorResult("Could not find target class") })));
+				continue;
+			}
+
+			if (!BytecodeInstrumentation.checkIfCanInstrument(target)) {
+				String message = "Cannot consider "
+				        + target
+				        + " because it belongs to one of the packages EvoSuite cannot currently handle";
+				if (targets.size() == 1) {
+					throw new IllegalArgumentException(message);
+				}
+				LoggingUtils.getEvoLogger().info("* " + message);
+				resultsByTarget.put(target, Collections.singletonList(Arrays.asList(new TestGenerationResult[]{TestGenerationResultBuilder.buildErrorResult(message) })));
+				continue;
+			}
+			remaining.add(target);
 		}
 
+		while (!remaining.isEmpty()) {
+			Map<String, List<List<TestGenerationResult>>> clientResults = generateTestsOnNewClient(strategy, remaining, args);
+			if (clientResults == null) {
+				if (resultsByTarget.isEmpty()) {
+					return null;
+				}
+				// keep the results of the previous clients
+				logger.error("Failed to start a client for the remaining " + (remaining.size() + 1) + " classes");
+				break;
+			}
+			resultsByTarget.putAll(clientResults);
+		}
 
-		if (!BytecodeInstrumentation.checkIfCanInstrument(target)) {
-			throw new IllegalArgumentException(
-			        "Cannot consider "
-			                + target
-			                + " because it belongs to one of the packages EvoSuite cannot currently handle");
+		List<List<TestGenerationResult>> results = new ArrayList<List<TestGenerationResult>>();
+		for (String target : targets) {
+			if (resultsByTarget.containsKey(target)) {
+				results.addAll(resultsByTarget.remove(target));
+			}
 		}
+		return results;
+	}
+
+	/**
+	 * Start a client process for the first of the remaining classes, and remove
+	 * from the queue all the classes the client has been given
+	 * 
+	 * @return the results of the client, for each of the classes it has been given
+	 */
+	private static Map<String, List<List<TestGenerationResult>>> generateTestsOnNewClient(Properties.Strategy strategy,
+	        Deque<String> remaining, List<String> args) {
+
+		String target = remaining.poll();
+		LoggingUtils.getEvoLogger().info("* Current class: " + target);
+		LoggingUtils.getEvoLogger().info("* Going to generate test cases for class: "+target);
 
 		List<String> cmdLine = new ArrayList<>();
 		cmdLine.add(EvoSuite.JAVA_CMD);
@@ -444,6 +510,13 @@ public class TestGeneration {
 
 		handler.setBaseDir(EvoSuite.base_dir_path);
 		
+		Map<String, List<List<TestGenerationResult>>> results = new LinkedHashMap<String, List<List<TestGenerationResult>>>();
+
+		/*
+		 * whether the client is still working on a class whose results have not been collected yet
+		 */
+		boolean hasPendingTarget = true;
+
 		if (handler.startProcess(newArgs)) {
 
 			Set<ClientNodeRemote> clients = null;
@@ -460,19 +533,44 @@ public class TestGeneration {
 				 * The clients have started, and connected back to Master.
 				 * So now we just need to tell them to start a search
 				 */
-				for (ClientNodeRemote client : clients) {
-					try {
-						client.startNewSearch();
-					} catch (RemoteException e) {
-						logger.error("Error in starting clients", e);
+				boolean reuse = Properties.REUSE_CLIENT && !remaining.isEmpty();
+				startSearch(clients, reuse);
+
+				int time = TimeController.getInstance().calculateForHowLongClientWillRunInSeconds();
+				boolean waitForClients = true;
+
+				while (reuse) {
+					if (!waitUntilTargetIsDone(clients, time * 1000)) {
+						/*
+						 * The client is stuck or lost: it gets killed, and the classes
+						 * left are given to a new one
+						 */
+						waitForClients = false;
+						break;
+					}
+					results.put(target, collectResults());
+
+					target = remaining.poll();
+					Properties.TARGET_CLASS = target;
+					LoggingUtils.getEvoLogger().info("* Current class: " + target);
+					LoggingUtils.getEvoLogger().info("* Going to generate test cases for class: "+target);
+					if (!changeTargetClass(clients, target)) {
+						remaining.addFirst(target);
+						hasPendingTarget = false;
+						waitForClients = false;
+						break;
 					}
+
+					reuse = !remaining.isEmpty();
+					startSearch(clients, reuse);
 				}
 
-				int time = TimeController.getInstance().calculateForHowLongClientWillRunInSeconds();
-				handler.waitForResult(time * 1000); 
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e) {
+				if (waitForClients) {
+					handler.waitForResult(time * 1000); 
+					try {
+						Thread.sleep(100);
+					} catch (InterruptedException e) {
+					}
 				}
 			}
 			
@@ -485,6 +583,75 @@ public class TestGeneration {
 			LoggingUtils.getEvoLogger().info("* Could not connect to client process");
 		}
 
+		if (hasPendingTarget) {
+			results.put(target, collectResults());
+		}
+
+		handler.closeServer();
+
+		if (Properties.CLIENT_ON_THREAD) {
+			handler.stopAndWaitForClientOnThread(10000);
+		} else {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+			}
+			logUtils.closeLogServer();
+		}
+		
+		logger.debug("Master process has finished to wait for client");
+
+		return results;
+	}
+
+	private static void startSearch(Set<ClientNodeRemote> clients, boolean reusable) {
+		for (ClientNodeRemote client : clients) {
+			try {
+				client.setReusable(reusable);
+				client.startNewSearch();
+			} catch (RemoteException e) {
+				logger.error("Error in starting clients", e);
+			}
+		}
+	}
+
+	private static boolean waitUntilTargetIsDone(Set<ClientNodeRemote> clients, long timeoutInMs) {
+		long start = System.currentTimeMillis();
+		try {
+			for (ClientNodeRemote client : clients) {
+				long remaining = Math.max(1, timeoutInMs - (System.currentTimeMillis() - start));
+				if (!client.waitUntilTargetIsDone(remaining)) {
+					logger.error("Class " + Properties.TARGET_CLASS + ". Clients have not finished yet, although a timeout occurred.\n"
+							+ MasterServices.getInstance().getMasterNode().getSummaryOfClientStatuses());
+					return false;
+				}
+			}
+		} catch (InterruptedException e) {
+			return false;
+		} catch (RemoteException e) {
+			logger.error("Class " + Properties.TARGET_CLASS + ". Lost connection with clients", e);
+			return false;
+		}
+		return true;
+	}
+
+	private static boolean changeTargetClass(Set<ClientNodeRemote> clients, String target) {
+		for (ClientNodeRemote client : clients) {
+			try {
+				client.changeTargetClass(target);
+			} catch (RemoteException | IllegalStateException e) {
+				logger.error("Failed to hand class " + target + " to client", e);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Write the statistics of the class the client has just finished, and get
+	 * its results
+	 */
+	private static List<List<TestGenerationResult>> collectResults() {
 		boolean hasFailed = false;
 		
 		if (Properties.NEW_STATISTICS) {
@@ -503,27 +670,13 @@ public class TestGeneration {
 		List<List<TestGenerationResult>> results = SearchStatistics.getInstance().getTestGenerationResults();
 		SearchStatistics.clearInstance();
 
-		handler.closeServer();
-
-		if (Properties.CLIENT_ON_THREAD) {
-			handler.stopAndWaitForClientOnThread(10000);
-		} else {
-			try {
-				Thread.sleep(100);
-			} catch (InterruptedException e) {
-			}
-			logUtils.closeLogServer();
-		}
-		
-		logger.debug("Master process has finished to wait for client");
-
 		//FIXME: tmp hack till understood what TestGenerationResult is...
 		if(hasFailed){
 			logger.error("failed to write statistics data");
 			//note: cannot throw exception because would require refactoring of many SystemTests
 			return new ArrayList<List<TestGenerationResult>>();
 		}
-		
+
 		return results;
 	}
 
@@ -578,6 +731,7 @@ public class TestGeneration {
 			return results;
 		}
 
+		List<String> targets = new ArrayList<String>();
 		for (String sut : classes) {
 			try {
 				if (ResourceList.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).isClassAnInterface(sut)) {
@@ -588,9 +742,9 @@ public class TestGeneration {
 				LoggingUtils.getEvoLogger().info("Could not load class: " + sut);
 				continue;
 			}
-			LoggingUtils.getEvoLogger().info("* Current class: " + sut);
-			results.addAll(generateTests(strategy,sut,args));
+			targets.add(sut);
 		}
+		results.addAll(generateTests(strategy,targets,args));
 		
 		return results;
 	}
@@ -106,6 +106,9 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		case DEBUG:
 			backend = new DebugStatisticsBackend();
 			break;
+		case STREAM:
+			backend = new StreamingStatisticsBackend();
+			break;
 		case NONE:
 		default:
 			// If no backend is specified, there is no output
@@ -162,6 +165,8 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 	}
 
 	public static void clearInstance() {
+		if(instance != null && instance.backend instanceof StreamingStatisticsBackend)
+			((StreamingStatisticsBackend) instance.backend).close();
 		instance = null;
 	}
 
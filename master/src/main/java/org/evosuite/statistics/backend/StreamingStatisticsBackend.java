@@ -0,0 +1,318 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.OutputVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This statistics backend appends the output variables to a binary file,
+ * column by column: rows are buffered, and written as a block in which all
+ * values of a variable are stored next to each other. Timeline variables
+ * (e.g., CoverageTimeline_T1, CoverageTimeline_T2, ...) are stored as a
+ * single column holding an array of values per row.
+ * 
+ * <p>
+ * Blocks are written on a background thread, either when enough rows are
+ * buffered, at regular intervals, or when the JVM shuts down. The thread is
+ * shared by all backends of the JVM, and a backend that is no longer used
+ * should be closed. Nothing is ever rewritten, and several processes can
+ * append to the same file, as each block is written under a file lock. Use
+ * {@link StreamingStatisticsReader} to read the data back.
+ * 
+ * <p>
+ * File layout: a header (magic number and version), followed by blocks. Each
+ * block starts with its length in bytes and the CRC-32 of its content, so a
+ * block left incomplete by a process that died while writing it is detected
+ * by the reader. The content holds the number of rows and of columns, and then
+ * for each column its name, its type, a bitmap of the rows that have a value,
+ * and the values. Strings are stored as their length in bytes followed by
+ * their UTF-8 bytes.
+ */
+public class StreamingStatisticsBackend implements StatisticsBackend {
+
+	private static final Logger logger = LoggerFactory.getLogger(StreamingStatisticsBackend.class);
+
+	public static final String FILE_NAME = "statistics.evstat";
+
+	static final int MAGIC = 0x45565354; // "EVST"
+
+	static final short VERSION = 2;
+
+	static final byte TYPE_LONG = 0;
+
+	static final byte TYPE_DOUBLE = 1;
+
+	static final byte TYPE_STRING = 2;
+
+	static final byte TYPE_SERIES = 3;
+
+	/** Number of buffered rows that triggers a flush */
+	static final int BLOCK_SIZE = 64;
+
+	/** Buffered rows are flushed at least this often */
+	private static final long FLUSH_INTERVAL_SECONDS = 30;
+
+	private static final Pattern TIMELINE_ENTRY = Pattern.compile("(.*Timeline)_T(\\d+)");
+
+	private final File file;
+
+	private List<Map<String, Object>> buffer = new ArrayList<Map<String, Object>>();
+
+	private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "StatisticsFlusher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * File locks are held by the whole JVM, so blocks written by backends of
+	 * the same JVM are serialized here before taking the file lock
+	 */
+	private static final Object WRITE_LOCK = new Object();
+
+	private final ScheduledFuture<?> periodicFlush;
+
+	private final Thread shutdownHook = new Thread(this::flushBuffered);
+
+	public StreamingStatisticsBackend() {
+		this(new File(CSVStatisticsBackend.getReportDir(), FILE_NAME));
+	}
+
+	public StreamingStatisticsBackend(File file) {
+		this.file = file;
+		periodicFlush = flusher.scheduleWithFixedDelay(this::flushBuffered, FLUSH_INTERVAL_SECONDS,
+		        FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	@Override
+	public void writeData(Chromosome result, Map<String, OutputVariable<?>> data) {
+		Map<String, Object> row = toRow(data);
+		synchronized (this) {
+			buffer.add(row);
+			if (buffer.size() < BLOCK_SIZE)
+				return;
+		}
+		flusher.execute(this::flushBuffered);
+	}
+
+	/**
+	 * Write all buffered rows, and wait until they are on disk
+	 */
+	public void flush() {
+		try {
+			flusher.submit(this::flushBuffered).get();
+		} catch (Exception e) {
+			logger.warn("Error while flushing statistics: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Write all buffered rows, and stop flushing this backend
+	 */
+	public void close() {
+		periodicFlush.cancel(false);
+		flush();
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException e) {
+			// the JVM is already shutting down, and the hook flushes again
+		}
+	}
+
+	/**
+	 * Merge the entries of timeline variables into one array per timeline
+	 */
+	private static Map<String, Object> toRow(Map<String, OutputVariable<?>> data) {
+		Map<String, Object> row = new LinkedHashMap<String, Object>();
+		Map<String, List<Number>> timelines = new LinkedHashMap<String, List<Number>>();
+		for (OutputVariable<?> variable : data.values()) {
+			Object value = variable.getValue();
+			Matcher matcher = TIMELINE_ENTRY.matcher(variable.getName());
+			if (value instanceof Number && matcher.matches()) {
+				String name = matcher.group(1);
+				int index = Integer.parseInt(matcher.group(2)) - 1;
+				if (!timelines.containsKey(name)) {
+					timelines.put(name, new ArrayList<Number>());
+					row.put(name, null); // keep position
+				}
+				List<Number> values = timelines.get(name);
+				while (values.size() <= index)
+					values.add(Double.NaN);
+				values.set(index, (Number) value);
+			} else {
+				row.put(variable.getName(), value);
+			}
+		}
+		for (Map.Entry<String, List<Number>> timeline : timelines.entrySet()) {
+			double[] values = new double[timeline.getValue().size()];
+			for (int i = 0; i < values.length; i++)
+				values[i] = timeline.getValue().get(i).doubleValue();
+			row.put(timeline.getKey(), values);
+		}
+		return row;
+	}
+
+	private void flushBuffered() {
+		List<Map<String, Object>> rows;
+		synchronized (this) {
+			if (buffer.isEmpty())
+				return;
+			rows = buffer;
+			buffer = new ArrayList<Map<String, Object>>();
+		}
+
+		try {
+			byte[] block = encodeBlock(rows);
+			File parent = file.getAbsoluteFile().getParentFile();
+			if (parent != null && !parent.exists())
+				parent.mkdirs();
+			synchronized (WRITE_LOCK) {
+				try (RandomAccessFile out = new RandomAccessFile(file, "rw");
+				        FileChannel channel = out.getChannel();
+				        FileLock lock = channel.lock()) {
+					if (out.length() == 0L) {
+						out.writeInt(MAGIC);
+						out.writeShort(VERSION);
+					}
+					CRC32 crc = new CRC32();
+					crc.update(block);
+					out.seek(out.length());
+					out.writeInt(block.length);
+					out.writeInt((int) crc.getValue());
+					out.write(block);
+				}
+			}
+		} catch (IOException | OverlappingFileLockException e) {
+			logger.warn("Error while writing statistics: " + e.getMessage());
+		}
+	}
+
+	static byte[] encodeBlock(List<Map<String, Object>> rows) throws IOException {
+		Map<String, Byte> columns = new LinkedHashMap<String, Byte>();
+		for (Map<String, Object> row : rows) {
+			for (Map.Entry<String, Object> entry : row.entrySet()) {
+				if (entry.getValue() == null)
+					continue;
+				byte type = typeOf(entry.getValue());
+				Byte previous = columns.get(entry.getKey());
+				columns.put(entry.getKey(), previous == null ? type : widen(previous, type));
+			}
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(rows.size());
+		out.writeInt(columns.size());
+		for (Map.Entry<String, Byte> column : columns.entrySet()) {
+			String name = column.getKey();
+			byte type = column.getValue();
+			out.writeUTF(name);
+			out.writeByte(type);
+
+			byte[] present = new byte[(rows.size() + 7) / 8];
+			for (int i = 0; i < rows.size(); i++) {
+				if (rows.get(i).get(name) != null)
+					present[i / 8] |= 1 << (i % 8);
+			}
+			out.write(present);
+
+			for (Map<String, Object> row : rows) {
+				Object value = row.get(name);
+				if (value == null)
+					continue;
+				switch (type) {
+				case TYPE_LONG:
+					out.writeLong(((Number) value).longValue());
+					break;
+				case TYPE_DOUBLE:
+					out.writeDouble(((Number) value).doubleValue());
+					break;
+				case TYPE_SERIES:
+					double[] series = (double[]) value;
+					out.writeInt(series.length);
+					for (double v : series)
+						out.writeDouble(v);
+					break;
+				default:
+					writeString(out, value instanceof double[] ? Arrays.toString((double[]) value) : value.toString());
+				}
+			}
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Unlike {@link DataOutputStream#writeUTF(String)}, this is not limited to
+	 * strings of 64KB, such as the source code of a test
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(utf8.length);
+		out.write(utf8);
+	}
+
+	private static byte typeOf(Object value) {
+		if (value instanceof double[])
+			return TYPE_SERIES;
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+			return TYPE_LONG;
+		if (value instanceof Number)
+			return TYPE_DOUBLE;
+		return TYPE_STRING;
+	}
+
+	/**
+	 * Type that can represent values of both types
+	 */
+	private static byte widen(byte a, byte b) {
+		if (a == b)
+			return a;
+		if ((a == TYPE_LONG && b == TYPE_DOUBLE) || (a == TYPE_DOUBLE && b == TYPE_LONG))
+			return TYPE_DOUBLE;
+		return TYPE_STRING;
+	}
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the files written by {@link StreamingStatisticsBackend}, and
+ * aggregates them across runs.
+ * 
+ * <p>
+ * Values are returned as {@link Long}, {@link Double}, {@link String}, or
+ * {@code double[]} for timelines. Can also be run from the command line,
+ * in which case the mean of each numeric variable and timeline over all rows
+ * of the given files is printed.
+ */
+public class StreamingStatisticsReader {
+
+	private static final Logger logger = LoggerFactory.getLogger(StreamingStatisticsReader.class);
+
+	private StreamingStatisticsReader() {
+	}
+
+	/**
+	 * Read all rows of a statistics file, in the order they were written.
+	 * Reading stops at the first block that is incomplete or does not match
+	 * its checksum, as left by a process that died while writing it; the rows
+	 * of the blocks before it are returned.
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be read, or is not a statistics file
+	 */
+	public static List<Map<String, Object>> readRows(File file) throws IOException {
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != StreamingStatisticsBackend.MAGIC)
+				throw new IOException("Not a statistics file: " + file);
+			short version = in.readShort();
+			if (version != StreamingStatisticsBackend.VERSION)
+				throw new IOException("Unsupported version " + version + " of statistics file: " + file);
+
+			long remaining = file.length() - 6; // magic number and version
+			while (remaining > 0) {
+				if (remaining < 8) {
+					logger.warn("Ignoring incomplete block at the end of statistics file " + file);
+					break;
+				}
+				int length = in.readInt();
+				int checksum = in.readInt();
+				remaining -= 8;
+				if (length < 0 || length > remaining) {
+					logger.warn("Ignoring incomplete block at the end of statistics file " + file);
+					break;
+				}
+				byte[] block = new byte[length];
+				in.readFully(block);
+				remaining -= length;
+				CRC32 crc = new CRC32();
+				crc.update(block);
+				if ((int) crc.getValue() != checksum) {
+					logger.warn("Ignoring corrupt block and the rest of statistics file " + file);
+					break;
+				}
+				readBlock(new DataInputStream(new ByteArrayInputStream(block)), rows);
+			}
+		}
+		return rows;
+	}
+
+	private static void readBlock(DataInputStream in, List<Map<String, Object>> rows) throws IOException {
+		int numRows = in.readInt();
+		List<Map<String, Object>> block = new ArrayList<Map<String, Object>>(numRows);
+		for (int i = 0; i < numRows; i++)
+			block.add(new LinkedHashMap<String, Object>());
+
+		int numColumns = in.readInt();
+		for (int c = 0; c < numColumns; c++) {
+			String name = in.readUTF();
+			byte type = in.readByte();
+			byte[] present = new byte[(numRows + 7) / 8];
+			in.readFully(present);
+			for (int i = 0; i < numRows; i++) {
+				if ((present[i / 8] & (1 << (i % 8))) == 0)
+					continue;
+				Object value;
+				switch (type) {
+				case StreamingStatisticsBackend.TYPE_LONG:
+					value = in.readLong();
+					break;
+				case StreamingStatisticsBackend.TYPE_DOUBLE:
+					value = in.readDouble();
+					break;
+				case StreamingStatisticsBackend.TYPE_SERIES:
+					double[] series = new double[in.readInt()];
+					for (int j = 0; j < series.length; j++)
+						series[j] = in.readDouble();
+					value = series;
+					break;
+				case StreamingStatisticsBackend.TYPE_STRING:
+					byte[] utf8 = new byte[in.readInt()];
+					in.readFully(utf8);
+					value = new String(utf8, StandardCharsets.UTF_8);
+					break;
+				default:
+					throw new IOException("Unknown column type " + type + " of column " + name);
+				}
+				block.get(i).put(name, value);
+			}
+		}
+		rows.addAll(block);
+	}
+
+	/**
+	 * Mean of each numeric variable over all rows of all the given files.
+	 * Rows without a value for a variable are not counted for it.
+	 */
+	public static Map<String, Double> meanValues(List<File> files) throws IOException {
+		Map<String, double[]> sums = new LinkedHashMap<String, double[]>(); // sum, count
+		for (File file : files) {
+			for (Map<String, Object> row : readRows(file)) {
+				for (Map.Entry<String, Object> entry : row.entrySet()) {
+					if (!(entry.getValue() instanceof Number))
+						continue;
+					double[] sum = sums.computeIfAbsent(entry.getKey(), k -> new double[2]);
+					sum[0] += ((Number) entry.getValue()).doubleValue();
+					sum[1]++;
+				}
+			}
+		}
+		Map<String, Double> means = new LinkedHashMap<String, Double>();
+		for (Map.Entry<String, double[]> sum : sums.entrySet())
+			means.put(sum.getKey(), sum.getValue()[0] / sum.getValue()[1]);
+		return means;
+	}
+
+	/**
+	 * Point-wise mean of each timeline over all rows of all the given files.
+	 * Timelines of different lengths are averaged over the rows that reach
+	 * each point, and NaN entries are skipped.
+	 */
+	public static Map<String, double[]> meanTimelines(List<File> files) throws IOException {
+		Map<String, double[]> sums = new LinkedHashMap<String, double[]>();
+		Map<String, int[]> counts = new LinkedHashMap<String, int[]>();
+		for (File file : files) {
+			for (Map<String, Object> row : readRows(file)) {
+				for (Map.Entry<String, Object> entry : row.entrySet()) {
+					if (!(entry.getValue() instanceof double[]))
+						continue;
+					double[] series = (double[]) entry.getValue();
+					double[] sum = sums.get(entry.getKey());
+					int[] count = counts.get(entry.getKey());
+					if (sum == null || sum.length < series.length) {
+						sum = sum == null ? new double[series.length] : Arrays.copyOf(sum, series.length);
+						count = count == null ? new int[series.length] : Arrays.copyOf(count, series.length);
+						sums.put(entry.getKey(), sum);
+						counts.put(entry.getKey(), count);
+					}
+					for (int i = 0; i < series.length; i++) {
+						if (Double.isNaN(series[i]))
+							continue;
+						sum[i] += series[i];
+						count[i]++;
+					}
+				}
+			}
+		}
+		Map<String, double[]> means = new LinkedHashMap<String, double[]>();
+		for (Map.Entry<String, double[]> sum : sums.entrySet()) {
+			int[] count = counts.get(sum.getKey());
+			double[] mean = new double[sum.getValue().length];
+			for (int i = 0; i < mean.length; i++)
+				mean[i] = count[i] == 0 ? Double.NaN : sum.getValue()[i] / count[i];
+			means.put(sum.getKey(), mean);
+		}
+		return means;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Usage: StreamingStatisticsReader <statistics file>...");
+			System.exit(1);
+		}
+		List<File> files = new ArrayList<File>();
+		for (String arg : args)
+			files.add(new File(arg));
+
+		for (Map.Entry<String, Double> mean : meanValues(files).entrySet())
+			System.out.println(mean.getKey() + "," + mean.getValue());
+		for (Map.Entry<String, double[]> mean : meanTimelines(files).entrySet()) {
+			StringBuilder line = new StringBuilder(mean.getKey());
+			for (double value : mean.getValue())
+				line.append(",").append(value);
+			System.out.println(line);
+		}
+	}
+}
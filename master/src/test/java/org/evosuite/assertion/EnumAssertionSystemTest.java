@@ -3,6 +3,7 @@ package org.evosuite.assertion;
 import com.examples.with.different.packagename.ExampleNullAssertion;
 import com.examples.with.different.packagename.assertion.ExampleReturningEnum;
 import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
 import org.evosuite.SystemTestBase;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.strategy.TestGenerationStrategy;
@@ -82,4 +83,51 @@ public class EnumAssertionSystemTest extends SystemTestBase {
         Assert.assertEquals("Wrong number of goals: ", 3, goals);
         Assert.assertEquals("Non-optimal coverage: ", 1d, suite.getCoverage(), 0.05);
     }
+
+    @Test
+    public void testEnumAssertionsWithMutantsExecutedInParallel() {
+        Properties.TEST_EXECUTION_THREADS = 4;
+        Properties.VIRTUAL_FS = false;
+        Properties.VIRTUAL_NET = false;
+        Properties.JEE = false;
+
+        EvoSuite evosuite = new EvoSuite();
+
+        String targetClass = ExampleReturningEnum.class.getCanonicalName();
+
+        String[] command = new String[] {
+                "-generateSuite", "-class", targetClass, "-Dassertion_strategy=mutation" };
+
+        Object result = evosuite.parseCommandLine(command);
+
+        GeneticAlgorithm<?> ga = getGAFromResult(result);
+        TestSuiteChromosome suite = (TestSuiteChromosome) ga.getBestIndividual();
+        System.out.println(suite.toString());
+
+        Assert.assertTrue(suite.size() > 0);
+
+        Properties.TEST_EXECUTION_THREADS = 1;
+        RecordingMutationAssertionGenerator sequential = new RecordingMutationAssertionGenerator();
+        TestSuiteChromosome sequentialSuite = sequential.regenerateAssertions(suite);
+        Assert.assertEquals(0, sequential.getLargestParallelBatch());
+
+        Properties.TEST_EXECUTION_THREADS = 4;
+        RecordingMutationAssertionGenerator parallel = new RecordingMutationAssertionGenerator();
+        TestSuiteChromosome parallelSuite = parallel.regenerateAssertions(suite);
+        Assert.assertTrue("Mutants were not executed in parallel",
+                parallel.getLargestParallelBatch() > 1);
+        Assert.assertEquals(RecordingMutationAssertionGenerator.getCode(sequentialSuite),
+                RecordingMutationAssertionGenerator.getCode(parallelSuite));
+        for (TestCase test : suite.getTests()) {
+            boolean hasEnumAssertion = false;
+            for(Assertion ass : test.getAssertions()) {
+                if(ass instanceof PrimitiveAssertion) {
+                    Assert.assertTrue(((PrimitiveAssertion)ass).getValue().getClass().isEnum());
+                    hasEnumAssertion = true;
+                }
+            }
+            Assert.assertTrue("Test has no enum assertions: " + test.toCode(),
+                    hasEnumAssertion);
+        }
+    }
 }
@@ -138,4 +138,84 @@ public class MutationAssertionSystemTest extends SystemTestBase {
 		Assert.assertEquals("Wrong number of goals: ", 3, goals);
 		Assert.assertEquals("Non-optimal coverage: ", 1d, suite.getCoverage(), 0.05);
 	}
+
+	@Test
+	public void testsAssertionsAreGeneratedWithMutantsExecutedInParallel() {
+		Properties.TEST_EXECUTION_THREADS = 4;
+		Properties.VIRTUAL_FS = false;
+		Properties.VIRTUAL_NET = false;
+		Properties.JEE = false;
+
+		EvoSuite evosuite = new EvoSuite();
+
+		String targetClass = ExampleNullAssertion.class.getCanonicalName();
+
+		String[] command = new String[] {
+				"-generateSuite", "-class", targetClass,
+				"-criterion=INPUT",
+				"-Djunit_tests=false", "-Dshow_progress=false",
+				"-Dassertions=true", "-Dassertion_strategy=mutation" };
+
+		Object result = evosuite.parseCommandLine(command);
+
+		GeneticAlgorithm<?> ga = getGAFromResult(result);
+		TestSuiteChromosome suite = (TestSuiteChromosome) ga.getBestIndividual();
+
+		Assert.assertTrue(suite.size() > 0);
+
+		Properties.TEST_EXECUTION_THREADS = 1;
+		RecordingMutationAssertionGenerator sequential = new RecordingMutationAssertionGenerator();
+		TestSuiteChromosome sequentialSuite = sequential.regenerateAssertions(suite);
+		Assert.assertEquals(0, sequential.getLargestParallelBatch());
+
+		Properties.TEST_EXECUTION_THREADS = 4;
+		RecordingMutationAssertionGenerator parallel = new RecordingMutationAssertionGenerator();
+		TestSuiteChromosome parallelSuite = parallel.regenerateAssertions(suite);
+		Assert.assertTrue("Mutants were not executed in parallel",
+				parallel.getLargestParallelBatch() > 1);
+		Assert.assertEquals(RecordingMutationAssertionGenerator.getCode(sequentialSuite),
+				RecordingMutationAssertionGenerator.getCode(parallelSuite));
+		for (TestCase test : suite.getTests()) {
+			if (test.size() > 1)
+				Assert.assertTrue("Test has no assertions: " + test.toCode(),
+						test.hasAssertions());
+		}
+	}
+
+	@Test
+	public void testsAssertionsAreGeneratedWithEarlyExit() {
+		Properties.ASSERTION_EARLY_EXIT = true;
+
+		EvoSuite evosuite = new EvoSuite();
+
+		String targetClass = ExampleNullAssertion.class.getCanonicalName();
+
+		String[] command = new String[] {
+				"-generateSuite", "-class", targetClass,
+				"-criterion=INPUT",
+				"-Djunit_tests=false", "-Dshow_progress=false",
+				"-Dassertions=true", "-Dassertion_strategy=mutation" };
+
+		Object result = evosuite.parseCommandLine(command);
+
+		GeneticAlgorithm<?> ga = getGAFromResult(result);
+		TestSuiteChromosome suite = (TestSuiteChromosome) ga.getBestIndividual();
+
+		Assert.assertTrue(suite.size() > 0);
+
+		Properties.ASSERTION_EARLY_EXIT = false;
+		RecordingMutationAssertionGenerator allMutants = new RecordingMutationAssertionGenerator();
+		allMutants.regenerateAssertions(suite);
+
+		Properties.ASSERTION_EARLY_EXIT = true;
+		RecordingMutationAssertionGenerator earlyExit = new RecordingMutationAssertionGenerator();
+		earlyExit.regenerateAssertions(suite);
+		Assert.assertTrue("Early exit never skipped mutants",
+				earlyExit.getNumExecutedMutants() < allMutants.getNumExecutedMutants());
+		for (TestCase test : suite.getTests()) {
+			if (test.size() > 1)
+				Assert.assertTrue("Test has no assertions: " + test.toCode(),
+						test.hasAssertions());
+		}
+	}
 }
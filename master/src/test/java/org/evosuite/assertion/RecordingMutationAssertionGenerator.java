@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.assertion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.evosuite.TimeController;
+import org.evosuite.coverage.mutation.Mutation;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.Randomness;
+
+/**
+ * Mutation-based assertion generator that records how the mutants are
+ * executed, to check which execution path the assertions come from
+ */
+public class RecordingMutationAssertionGenerator extends SimpleMutationAssertionGenerator {
+
+	private int numExecutedMutants = 0;
+
+	private int largestParallelBatch = 0;
+
+	@Override
+	protected List<ExecutionResult> runTests(TestCase test, List<Mutation> mutants) {
+		numExecutedMutants += mutants.size();
+		return super.runTests(test, mutants);
+	}
+
+	@Override
+	protected List<ExecutionResult> runTestsInParallel(TestCase test, List<Mutation> mutants) {
+		largestParallelBatch = Math.max(largestParallelBatch, mutants.size());
+		return super.runTestsInParallel(test, mutants);
+	}
+
+	public int getNumExecutedMutants() {
+		return numExecutedMutants;
+	}
+
+	/**
+	 * @return the largest number of mutants a test was executed on at the same
+	 *         time, or 0 if mutants were only executed one by one
+	 */
+	public int getLargestParallelBatch() {
+		return largestParallelBatch;
+	}
+
+	/**
+	 * Generate assertions again for a copy of a suite produced by a search
+	 *
+	 * @param suite
+	 * @return the copy, with the new assertions
+	 */
+	public TestSuiteChromosome regenerateAssertions(TestSuiteChromosome suite) {
+		TestSuiteChromosome copy = suite.clone();
+		for (TestCase test : copy.getTests()) {
+			test.removeAssertions();
+		}
+		// The search is over, and its time budget with it
+		TimeController.resetSingleton();
+		TestCaseExecutor.initExecutor();
+		// Mutants are executed in random order
+		Randomness.setSeed(42);
+		addAssertions(copy);
+		return copy;
+	}
+
+	/**
+	 * @return the code of each test, including its assertions
+	 */
+	public static List<String> getCode(TestSuiteChromosome suite) {
+		List<String> code = new ArrayList<String>();
+		for (TestCase test : suite.getTests()) {
+			code.add(test.toCode());
+		}
+		return code;
+	}
+}
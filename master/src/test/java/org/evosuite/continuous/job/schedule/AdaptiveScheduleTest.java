@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job.schedule;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties.AvailableSchedule;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.continuous.CtgConfiguration;
+import org.evosuite.continuous.job.JobDefinition;
+import org.evosuite.continuous.job.JobScheduler;
+import org.evosuite.continuous.project.ProjectAnalyzer;
+import org.evosuite.continuous.project.ProjectStaticData;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.continuous.MoreBranches;
+import com.examples.with.different.packagename.continuous.NoBranches;
+import com.examples.with.different.packagename.continuous.SomeBranches;
+
+public class AdaptiveScheduleTest {
+
+	private static class FixedCoverageSchedule extends AdaptiveSchedule {
+
+		private final Map<String, Double> coverage = new HashMap<>();
+
+		public FixedCoverageSchedule(JobScheduler scheduler) {
+			super(scheduler);
+		}
+
+		@Override
+		protected Map<String, Double> getCoverageOfLastRound() {
+			return coverage;
+		}
+	}
+
+	@BeforeClass
+	public static void initClass(){
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+	}
+
+	private JobScheduler getScheduler(int cores, int budget) {
+		String[] cuts = new String[] { NoBranches.class.getName(),
+				SomeBranches.class.getName(), MoreBranches.class.getName() };
+
+		ProjectAnalyzer analyzer = new ProjectAnalyzer(cuts);
+		ProjectStaticData data = analyzer.analyze();
+
+		CtgConfiguration conf = new CtgConfiguration(1400, cores, budget, 1, false, AvailableSchedule.ADAPTIVE);
+		return new JobScheduler(data, conf);
+	}
+
+	private static int sum(List<JobDefinition> jobs) {
+		int sum = 0;
+		for (JobDefinition job : jobs) {
+			sum += job.seconds;
+		}
+		return sum;
+	}
+
+	@Test
+	public void testFirstRoundUsesPartOfBudget() {
+		int cores = 2;
+		int budget = 10;
+		JobScheduler scheduler = getScheduler(cores, budget);
+
+		List<JobDefinition> jobs = scheduler.createNewSchedule();
+		Assert.assertEquals(3, jobs.size());
+
+		//more complex CUTs get more time
+		Assert.assertEquals(MoreBranches.class.getName(), jobs.get(0).cut);
+		Assert.assertTrue(jobs.get(0).seconds > jobs.get(2).seconds);
+
+		int total = cores * budget * 60;
+		Assert.assertTrue(sum(jobs) <= total * AdaptiveSchedule.FIRST_ROUND_BUDGET);
+		for (JobDefinition job : jobs) {
+			Assert.assertTrue(job.seconds >= 60);
+		}
+
+		//no result is available, so no CUT can be shown to still improve
+		Assert.assertFalse(scheduler.canExecuteMore());
+	}
+
+	@Test
+	public void testBudgetMovesToImprovingClasses() {
+		int cores = 2;
+		int budget = 10;
+		JobScheduler scheduler = getScheduler(cores, budget);
+		FixedCoverageSchedule schedule = new FixedCoverageSchedule(scheduler);
+
+		Assert.assertTrue(schedule.canExecuteMore());
+		List<JobDefinition> first = schedule.createNewSchedule();
+		Assert.assertEquals(3, first.size());
+
+		schedule.coverage.put(MoreBranches.class.getName(), 0.5);
+		schedule.coverage.put(SomeBranches.class.getName(), 1.0);
+		schedule.coverage.put(NoBranches.class.getName(), 0.005);
+
+		Assert.assertTrue(schedule.canExecuteMore());
+		List<JobDefinition> second = schedule.createNewSchedule();
+		Assert.assertEquals(1, second.size());
+		Assert.assertEquals(MoreBranches.class.getName(), second.get(0).cut);
+
+		JobDefinition previous = first.stream().filter(j -> j.cut.equals(MoreBranches.class.getName())).findFirst().get();
+		Assert.assertTrue(second.get(0).seconds >= previous.seconds);
+		Assert.assertTrue(sum(first) + sum(second) <= cores * budget * 60);
+
+		//no improvement any more
+		schedule.coverage.put(MoreBranches.class.getName(), 0.505);
+		Assert.assertFalse(schedule.canExecuteMore());
+		Assert.assertEquals(2, schedule.getNumberOfRounds());
+	}
+
+	@Test
+	public void testNoMoreThanMaxRounds() {
+		int cores = 1;
+		int budget = 30;
+		JobScheduler scheduler = getScheduler(cores, budget);
+		FixedCoverageSchedule schedule = new FixedCoverageSchedule(scheduler);
+
+		int total = 0;
+		double coverage = 0.0;
+		while (schedule.canExecuteMore()) {
+			total += sum(schedule.createNewSchedule());
+			coverage += 0.2;
+			schedule.coverage.put(MoreBranches.class.getName(), coverage);
+			schedule.coverage.put(SomeBranches.class.getName(), coverage);
+			schedule.coverage.put(NoBranches.class.getName(), coverage);
+		}
+
+		Assert.assertEquals(AdaptiveSchedule.MAX_ROUNDS, schedule.getNumberOfRounds());
+		Assert.assertTrue(total <= cores * budget * 60);
+	}
+}
@@ -20,6 +20,7 @@
 package org.evosuite.continuous.project;
 
 import org.evosuite.xsd.CUT;
+import org.evosuite.xsd.Coverage;
 import org.evosuite.xsd.Generation;
 import org.evosuite.xsd.Project;
 import org.evosuite.xsd.TestSuite;
@@ -222,4 +223,46 @@ public class ProjectStaticDataTest {
     // coverage has improved
     Assert.assertTrue(data.isToTest("foo.Bar", 3));
   }
+
+  @Test
+  public void testCoverageGainPerSecond() {
+    Project project = new Project();
+    project.setTotalNumberOfTestableClasses(XSDUtils.convert(1));
+
+    CUT cut = new CUT();
+    cut.setFullNameOfTargetClass("foo.Bar");
+    cut.setFullNameOfTestSuite("foo.BarTest");
+
+    double[] coverages = new double[] {0.4, -1, 0.6};
+    for (int i = 0; i < coverages.length; i++) {
+      Generation g = new Generation();
+      g.setId(XSDUtils.convert(i));
+      g.setFailed(false);
+      g.setModified(false);
+      g.setTimeBudgetInSeconds(XSDUtils.convert(100));
+      if (coverages[i] >= 0) {
+        // a suite is only stored when it is better than the previous one
+        Coverage coverage = new Coverage();
+        coverage.setCriterion("BranchCoverage");
+        coverage.setCoverageValue(coverages[i]);
+        TestSuite suite = new TestSuite();
+        suite.getCoverage().add(coverage);
+        g.setSuite(suite);
+      }
+      cut.getGeneration().add(g);
+    }
+    project.getCut().add(cut);
+
+    ProjectStaticData data = new ProjectStaticData();
+    data.setProject(project);
+
+    Assert.assertEquals(0.6, data.getLastCoverage("foo.Bar"), 0.0001);
+    // 0.6 coverage in 300 seconds
+    Assert.assertEquals(0.002, data.getCoverageGainPerSecond("foo.Bar", 3), 0.0001);
+    // last 2 generations: from 0.4 to 0.6 in 200 seconds
+    Assert.assertEquals(0.001, data.getCoverageGainPerSecond("foo.Bar", 2), 0.0001);
+    // no data at all
+    Assert.assertTrue(data.getCoverageGainPerSecond("foo.Foo", 3) < 0);
+    Assert.assertEquals(0.0, data.getLastCoverage("foo.Foo"), 0.0001);
+  }
 }
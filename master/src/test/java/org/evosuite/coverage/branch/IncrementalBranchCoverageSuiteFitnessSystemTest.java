@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.coverage.branch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.SystemTestBase;
+import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.Randomness;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.BMICalculator;
+
+public class IncrementalBranchCoverageSuiteFitnessSystemTest extends SystemTestBase {
+
+	private double getFullFitness(TestSuiteChromosome suite) {
+		boolean incremental = Properties.INCREMENTAL_SUITE_FITNESS;
+		Properties.INCREMENTAL_SUITE_FITNESS = false;
+		try {
+			BranchCoverageSuiteFitness fitness = new BranchCoverageSuiteFitness();
+			return fitness.getFitness(suite);
+		} finally {
+			Properties.INCREMENTAL_SUITE_FITNESS = incremental;
+		}
+	}
+
+	/**
+	 * Check that the incremental evaluation ran, ie that the contribution of
+	 * each test is cached on its execution result
+	 */
+	private List<Object> assertContributionsCached(TestSuiteChromosome suite, BranchCoverageSuiteFitness fitness) {
+		List<Object> contributions = new ArrayList<Object>();
+		for (TestChromosome test : suite.getTestChromosomes()) {
+			ExecutionResult result = test.getLastExecutionResult();
+			if (result.hasTimeout() || result.hasTestException())
+				continue;
+			Object contribution = result.getTraceSummary(fitness);
+			Assert.assertNotNull(contribution);
+			contributions.add(contribution);
+		}
+		Assert.assertFalse(contributions.isEmpty());
+		return contributions;
+	}
+
+	private TestSuiteChromosome generateSuite() {
+		EvoSuite evosuite = new EvoSuite();
+		String targetClass = BMICalculator.class.getCanonicalName();
+		Properties.TARGET_CLASS = targetClass;
+		Properties.TEST_ARCHIVE = false;
+		Properties.MINIMIZE = false;
+
+		String[] command = new String[] { "-generateSuite", "-class", targetClass };
+		Object result = evosuite.parseCommandLine(command);
+		GeneticAlgorithm<?> ga = getGAFromResult(result);
+		TestSuiteChromosome best = (TestSuiteChromosome) ga.getBestIndividual();
+		Assert.assertTrue(best.size() > 1);
+		TestCaseExecutor.initExecutor(); //needed because it gets pulled down after the search
+		return best;
+	}
+
+	@Test
+	public void testSameFitnessAsFullEvaluation() {
+		TestSuiteChromosome best = generateSuite();
+
+		Properties.INCREMENTAL_SUITE_FITNESS = true;
+		BranchCoverageSuiteFitness incremental = new BranchCoverageSuiteFitness();
+		double expected = getFullFitness(best.clone());
+		Assert.assertTrue(Properties.INCREMENTAL_SUITE_FITNESS);
+		TestSuiteChromosome suite = best.clone();
+		Assert.assertEquals(expected, incremental.getFitness(suite), 0.0);
+		List<Object> contributions = assertContributionsCached(suite, incremental);
+		// Second evaluation only merges the cached contributions
+		Assert.assertEquals(expected, incremental.getFitness(suite), 0.0);
+		List<Object> merged = assertContributionsCached(suite, incremental);
+		Assert.assertEquals(contributions.size(), merged.size());
+		for (int i = 0; i < contributions.size(); i++) {
+			Assert.assertSame(contributions.get(i), merged.get(i));
+		}
+
+		// Cached contributions are shared by clones, and stay valid when tests are removed
+		TestSuiteChromosome reduced = suite.clone();
+		TestChromosome removed = reduced.getTestChromosome(0);
+		reduced.deleteTest(removed.getTestCase());
+		Assert.assertEquals(getFullFitness(reduced.clone()), incremental.getFitness(reduced), 0.0);
+		assertContributionsCached(reduced, incremental);
+
+		// Changed tests are analyzed again
+		TestSuiteChromosome changed = suite.clone();
+		changed.getTestChromosome(0).getTestCase().chop(1);
+		changed.getTestChromosome(0).setChanged(true);
+		Assert.assertEquals(getFullFitness(changed.clone()), incremental.getFitness(changed), 0.0);
+		assertContributionsCached(changed, incremental);
+	}
+
+	@Test
+	public void testSameFitnessAfterRepeatedMutations() {
+		TestSuiteChromosome suite = generateSuite();
+
+		Properties.INCREMENTAL_SUITE_FITNESS = true;
+		BranchCoverageSuiteFitness incremental = new BranchCoverageSuiteFitness();
+		Assert.assertEquals(getFullFitness(suite.clone()), incremental.getFitness(suite), 0.0);
+		Object sum = suite.getFitnessSummary(incremental);
+		Assert.assertNotNull(sum);
+
+		Randomness.setSeed(42);
+		for (int i = 0; i < 100; i++) {
+			TestSuiteChromosome offspring = suite.clone();
+			offspring.mutate();
+			double expected = getFullFitness(offspring.clone());
+			Assert.assertEquals("Mutation " + i, expected, incremental.getFitness(offspring), 0.0);
+			assertContributionsCached(offspring, incremental);
+
+			// The offspring updates its own copy of the sum, the parent's stays as it is
+			Assert.assertSame(sum, suite.getFitnessSummary(incremental));
+			Assert.assertNotSame(sum, offspring.getFitnessSummary(incremental));
+			Assert.assertEquals(getFullFitness(suite.clone()), incremental.getFitness(suite), 0.0);
+			Assert.assertSame(sum, suite.getFitnessSummary(incremental));
+
+			suite = offspring;
+			sum = suite.getFitnessSummary(incremental);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.SystemTestBase;
+import org.evosuite.result.TestGenerationResult;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.reuse.FirstReusedTarget;
+import com.examples.with.different.packagename.reuse.SecondReusedTarget;
+
+public class ReuseClientSystemTest extends SystemTestBase {
+
+	@SuppressWarnings("unchecked")
+	private List<List<TestGenerationResult>> generateForPrefix() {
+		EvoSuite evosuite = new EvoSuite();
+
+		String prefix = FirstReusedTarget.class.getPackage().getName();
+		String[] command = new String[] { "-generateSuite", "-prefix", prefix };
+
+		return (List<List<TestGenerationResult>>) evosuite.parseCommandLine(command);
+	}
+
+	private void checkResults(List<List<TestGenerationResult>> results) {
+		Assert.assertEquals(2, results.size());
+
+		Set<String> classes = new HashSet<String>();
+		for (List<TestGenerationResult> result : results) {
+			TestGenerationResult r = result.get(0);
+			classes.add(r.getClassUnderTest());
+			TestSuiteChromosome best = (TestSuiteChromosome) r.getGeneticAlgorithm().getBestIndividual();
+			Assert.assertEquals("Non-optimal coverage for " + r.getClassUnderTest() + ": ", 1d, best.getCoverage(), 0.001);
+		}
+		Assert.assertTrue(classes.contains(FirstReusedTarget.class.getCanonicalName()));
+		Assert.assertTrue(classes.contains(SecondReusedTarget.class.getCanonicalName()));
+	}
+
+	@Test
+	public void testOneClientPerClass() {
+		Properties.REUSE_CLIENT = false;
+		checkResults(generateForPrefix());
+	}
+
+	@Test
+	public void testReusedClient() {
+		Properties.REUSE_CLIENT = true;
+		checkResults(generateForPrefix());
+	}
+}
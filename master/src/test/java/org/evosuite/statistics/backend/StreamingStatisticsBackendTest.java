@@ -0,0 +1,174 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.statistics.OutputVariable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StreamingStatisticsBackendTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static Map<String, OutputVariable<?>> getData(String targetClass, Object coverage, double... timeline) {
+		Map<String, OutputVariable<?>> data = new LinkedHashMap<String, OutputVariable<?>>();
+		data.put("TARGET_CLASS", new OutputVariable<String>("TARGET_CLASS", targetClass));
+		data.put("Coverage", new OutputVariable<Object>("Coverage", coverage));
+		data.put("Total_Goals", new OutputVariable<Integer>("Total_Goals", 10));
+		for (int i = 0; i < timeline.length; i++) {
+			String name = "CoverageTimeline_T" + (i + 1);
+			data.put(name, new OutputVariable<Double>(name, timeline[i]));
+		}
+		return data;
+	}
+
+	@Test
+	public void testRowsAreReadBack() throws Exception {
+		File file = new File(folder.getRoot(), StreamingStatisticsBackend.FILE_NAME);
+		StreamingStatisticsBackend backend = new StreamingStatisticsBackend(file);
+		backend.writeData(null, getData("Foo", 1, 0.5, 1.0));
+		backend.writeData(null, getData("Bar", 0.25, 0.0));
+		backend.close();
+
+		List<Map<String, Object>> rows = StreamingStatisticsReader.readRows(file);
+		assertEquals(2, rows.size());
+		assertEquals(Arrays.asList("TARGET_CLASS", "Coverage", "Total_Goals", "CoverageTimeline"),
+		        Arrays.asList(rows.get(0).keySet().toArray()));
+		assertEquals("Foo", rows.get(0).get("TARGET_CLASS"));
+		// integers and doubles in the same column are stored as doubles
+		assertEquals(1.0, rows.get(0).get("Coverage"));
+		assertEquals(10L, rows.get(1).get("Total_Goals"));
+		assertArrayEquals(new double[] { 0.5, 1.0 }, (double[]) rows.get(0).get("CoverageTimeline"), 0.0);
+		assertArrayEquals(new double[] { 0.0 }, (double[]) rows.get(1).get("CoverageTimeline"), 0.0);
+	}
+
+	@Test
+	public void testBlocksAreAppended() throws Exception {
+		File file = new File(folder.getRoot(), StreamingStatisticsBackend.FILE_NAME);
+		for (int run = 0; run < 2; run++) {
+			StreamingStatisticsBackend backend = new StreamingStatisticsBackend(file);
+			for (int i = 0; i <= StreamingStatisticsBackend.BLOCK_SIZE; i++)
+				backend.writeData(null, getData("Foo" + i, 0.5, 0.5));
+			backend.close();
+		}
+		assertEquals(2 * (StreamingStatisticsBackend.BLOCK_SIZE + 1), StreamingStatisticsReader.readRows(file).size());
+	}
+
+	@Test
+	public void testBackendsSharingFile() throws Exception {
+		File file = new File(folder.getRoot(), StreamingStatisticsBackend.FILE_NAME);
+		StreamingStatisticsBackend first = new StreamingStatisticsBackend(file);
+		StreamingStatisticsBackend second = new StreamingStatisticsBackend(file);
+		for (int i = 0; i < 3 * StreamingStatisticsBackend.BLOCK_SIZE; i++) {
+			first.writeData(null, getData("Foo" + i, 0.5, 0.5));
+			second.writeData(null, getData("Bar" + i, 0.5, 0.5));
+		}
+		first.close();
+		second.close();
+		assertEquals(6 * StreamingStatisticsBackend.BLOCK_SIZE, StreamingStatisticsReader.readRows(file).size());
+	}
+
+	/**
+	 * Write a full block followed by a block of a single row
+	 */
+	private static File writeTwoBlocks(File file) {
+		StreamingStatisticsBackend backend = new StreamingStatisticsBackend(file);
+		for (int i = 0; i <= StreamingStatisticsBackend.BLOCK_SIZE; i++)
+			backend.writeData(null, getData("Foo" + i, 0.5, 0.5));
+		backend.close();
+		return file;
+	}
+
+	@Test
+	public void testTruncatedBlockIsIgnored() throws Exception {
+		File file = writeTwoBlocks(new File(folder.getRoot(), StreamingStatisticsBackend.FILE_NAME));
+		try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+			out.setLength(out.length() - 5);
+		}
+		List<Map<String, Object>> rows = StreamingStatisticsReader.readRows(file);
+		assertEquals(StreamingStatisticsBackend.BLOCK_SIZE, rows.size());
+		assertEquals("Foo0", rows.get(0).get("TARGET_CLASS"));
+	}
+
+	@Test
+	public void testCorruptBlockIsIgnored() throws Exception {
+		File file = writeTwoBlocks(new File(folder.getRoot(), StreamingStatisticsBackend.FILE_NAME));
+		try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+			out.seek(out.length() - 1);
+			int last = out.read();
+			out.seek(out.length() - 1);
+			out.write(last ^ 0xFF);
+		}
+		assertEquals(StreamingStatisticsBackend.BLOCK_SIZE, StreamingStatisticsReader.readRows(file).size());
+	}
+
+	@Test
+	public void testLongStringsAreKept() throws Exception {
+		StringBuilder builder = new StringBuilder();
+		while (builder.length() <= 70000)
+			builder.append("BRANCH:LINE:é");
+		String longString = builder.toString();
+
+		File file = new File(folder.getRoot(), StreamingStatisticsBackend.FILE_NAME);
+		StreamingStatisticsBackend backend = new StreamingStatisticsBackend(file);
+		backend.writeData(null, getData(longString, 1.0));
+		backend.writeData(null, getData("Foo", 0.5));
+		backend.close();
+
+		List<Map<String, Object>> rows = StreamingStatisticsReader.readRows(file);
+		assertEquals(2, rows.size());
+		assertEquals(longString, rows.get(0).get("TARGET_CLASS"));
+		assertEquals("Foo", rows.get(1).get("TARGET_CLASS"));
+	}
+
+	@Test
+	public void testAggregationAcrossRuns() throws Exception {
+		File first = new File(folder.getRoot(), "first.evstat");
+		StreamingStatisticsBackend backend = new StreamingStatisticsBackend(first);
+		backend.writeData(null, getData("Foo", 0.5, 0.2, 0.4));
+		backend.close();
+
+		File second = new File(folder.getRoot(), "second.evstat");
+		backend = new StreamingStatisticsBackend(second);
+		backend.writeData(null, getData("Foo", 1.0, 0.6));
+		backend.close();
+
+		List<File> files = Arrays.asList(first, second);
+		Map<String, Double> means = StreamingStatisticsReader.meanValues(files);
+		assertEquals(0.75, means.get("Coverage"), 0.0001);
+		assertFalse(means.containsKey("TARGET_CLASS"));
+
+		double[] timeline = StreamingStatisticsReader.meanTimelines(files).get("CoverageTimeline");
+		assertArrayEquals(new double[] { 0.4, 0.4 }, timeline, 0.0001);
+	}
+}
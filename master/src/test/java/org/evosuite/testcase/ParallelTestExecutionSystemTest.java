@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.SystemTestBase;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.ga.stoppingconditions.MaxFitnessEvaluationsStoppingCondition;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.Randomness;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.RandomBranch;
+import com.examples.with.different.packagename.staticfield.StaticIntField;
+
+public class ParallelTestExecutionSystemTest extends SystemTestBase {
+
+	@Before
+	public void setUpProperties() {
+		Properties.TEST_EXECUTION_THREADS = 4;
+		Properties.VIRTUAL_FS = false;
+		Properties.VIRTUAL_NET = false;
+		Properties.JEE = false;
+	}
+
+	private TestSuiteChromosome generateSuite() {
+		return generateSuite(StaticIntField.class);
+	}
+
+	private TestSuiteChromosome generateSuite(Class<?> target) {
+		EvoSuite evosuite = new EvoSuite();
+
+		String targetClass = target.getCanonicalName();
+		Properties.TARGET_CLASS = targetClass;
+		String[] command = new String[] { "-generateSuite", "-class", targetClass };
+
+		Object result = evosuite.parseCommandLine(command);
+
+		GeneticAlgorithm<?> ga = getGAFromResult(result);
+		return (TestSuiteChromosome) ga.getBestIndividual();
+	}
+
+	@Test
+	public void testParallelExecution() {
+		TestSuiteChromosome best = generateSuite();
+		Assert.assertEquals("Non-optimal coverage: ", 1d, best.getCoverage(), 0.001);
+	}
+
+	@Test
+	public void testParallelExecutionWithStaticReset() {
+		Properties.RESET_STATIC_FIELDS = true;
+		TestSuiteChromosome best = generateSuite();
+		Assert.assertEquals("Non-optimal coverage: ", 1d, best.getCoverage(), 0.001);
+	}
+
+	@Test
+	public void testParallelExecutionWithStandardGA() {
+		Properties.ALGORITHM = Properties.Algorithm.STANDARDGA;
+		TestSuiteChromosome best = generateSuite();
+		Assert.assertEquals("Non-optimal coverage: ", 1d, best.getCoverage(), 0.001);
+	}
+
+	@Test
+	public void testSameSeedGivesSameSuite() {
+		// The values of the mocked Random decide the branches of the SUT
+		Properties.REPLACE_CALLS = true;
+		Properties.STOPPING_CONDITION = Properties.StoppingCondition.MAXSTATEMENTS;
+		Properties.SEARCH_BUDGET = 20000;
+		long seed = Randomness.getSeed();
+
+		TestSuiteChromosome first = generateSuite(RandomBranch.class);
+
+		TestGenerationContext.getInstance().resetContext();
+		Randomness.setSeed(seed);
+		TestSuiteChromosome second = generateSuite(RandomBranch.class);
+
+		Assert.assertEquals(first.getFitness(), second.getFitness(), 0.0);
+		Assert.assertEquals(first.toString(), second.toString());
+	}
+
+	@Test
+	public void testMOSAStaysWithinEvaluationBudget() {
+		Properties.STOPPING_CONDITION = Properties.StoppingCondition.MAXFITNESSEVALUATIONS;
+		Properties.SEARCH_BUDGET = 300;
+
+		EvoSuite evosuite = new EvoSuite();
+		String targetClass = StaticIntField.class.getCanonicalName();
+		Properties.TARGET_CLASS = targetClass;
+		String[] command = new String[] { "-generateMOSuite", "-class", targetClass };
+		evosuite.parseCommandLine(command);
+
+		// offspring are evaluated one batch at a time, checking the budget in between
+		Assert.assertTrue("Evaluations exceed the budget: " + MaxFitnessEvaluationsStoppingCondition.getNumFitnessEvaluations(),
+				MaxFitnessEvaluationsStoppingCondition.getNumFitnessEvaluations() <= Properties.SEARCH_BUDGET);
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.SystemTestBase;
+import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.testcase.TestChromosome;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.coverage.MethodReturnsPrimitive;
+
+public class TestSuiteSerializationSystemTest extends SystemTestBase {
+
+	private TestSuiteChromosome generate(String targetClass) {
+		EvoSuite evosuite = new EvoSuite();
+		Properties.TARGET_CLASS = targetClass;
+
+		String[] command = new String[] { "-generateSuite", "-class", targetClass };
+		Object result = evosuite.parseCommandLine(command);
+		GeneticAlgorithm<?> ga = getGAFromResult(result);
+		return (TestSuiteChromosome) ga.getBestIndividual();
+	}
+
+	@Test
+	public void testSeedsAreWrittenInBinaryFormatAndLoaded() throws IOException {
+		File seeds = File.createTempFile("evosuite", ".seed");
+		seeds.deleteOnExit();
+		String targetClass = MethodReturnsPrimitive.class.getCanonicalName();
+
+		Properties.CTG_SEEDS_FILE_OUT = seeds.getAbsolutePath();
+		generate(targetClass);
+
+		try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(seeds))) {
+			Assert.assertTrue(TestSuiteBinaryReader.isBinaryFormat(in));
+		}
+		List<TestChromosome> tests = TestSuiteSerialization.loadTests(seeds);
+		Assert.assertFalse(tests.isEmpty());
+
+		File newSeeds = File.createTempFile("evosuite", ".seed");
+		newSeeds.deleteOnExit();
+		Properties.CTG_SEEDS_FILE_OUT = newSeeds.getAbsolutePath();
+		Properties.CTG_SEEDS_FILE_IN = seeds.getAbsolutePath();
+		Properties.TEST_FACTORY = Properties.TestFactory.SERIALIZATION;
+		Properties.SEED_CLONE = 1.0;
+		TestSuiteChromosome best = generate(targetClass);
+
+		Assert.assertEquals("Non-optimal coverage: ", 1d, best.getCoverage(), 0.001);
+	}
+
+	@Test
+	public void testJavaSerializationIsStillLoaded() throws IOException {
+		File seeds = File.createTempFile("evosuite", ".seed");
+		seeds.deleteOnExit();
+
+		Properties.CTG_SEEDS_COMPACT = false;
+		Properties.CTG_SEEDS_FILE_OUT = seeds.getAbsolutePath();
+		generate(MethodReturnsPrimitive.class.getCanonicalName());
+
+		try (BufferedInputStream in = new BufferedInputStream(new FileInputStream(seeds))) {
+			Assert.assertFalse(TestSuiteBinaryReader.isBinaryFormat(in));
+		}
+		Assert.assertFalse(TestSuiteSerialization.loadTests(seeds).isEmpty());
+	}
+}
@@ -101,7 +101,7 @@ public class GenerateMojo extends AbstractMojo {
 	private String extraArgs;
 
 	/**
-	 * Schedule used to run CTG (SIMPLE, BUDGET, SEEDING, BUDGET_AND_SEEDING, HISTORY)
+	 * Schedule used to run CTG (SIMPLE, BUDGET, SEEDING, BUDGET_AND_SEEDING, HISTORY, ADAPTIVE)
 	 */
 	@Parameter( property = "schedule", defaultValue = "BUDGET" )
 	private String schedule;
@@ -19,8 +19,8 @@
  */
 package org.evosuite.runtime;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * In some cases, we can end up with infinite loops: eg due to a bug, a seeded mutation,
@@ -37,16 +37,66 @@ public class LoopCounter {
 
     private static final LoopCounter singleton = new LoopCounter();
 
-    private boolean activated = true;
+    /**
+     * Whether loops are checked at all, on any thread
+     */
+    private volatile boolean activated = true;
     
     /**
-     * Number of iterations so far
+     * Loop state of a single thread: the number of iterations of each loop so far,
+     * how many static initializers are currently running, and whether loops are
+     * checked on this thread
+     */
+    private static final class ThreadCounters {
+
+        private boolean activated = true;
+
+        private long[] iterations = new long[64];
+
+        /** Highest loop index counted since the last reset, -1 if none */
+        private int maxIndex = -1;
+
+        private int staticInitDepth = 0;
+
+        private void grow(int index) {
+            int length = iterations.length;
+            while (length <= index) {
+                length *= 2;
+                if (length <= 0) {
+                    length = Integer.MAX_VALUE - 8;
+                    break;
+                }
+            }
+            iterations = Arrays.copyOf(iterations, length);
+        }
+
+        private void clear() {
+            if (maxIndex >= 0) {
+                Arrays.fill(iterations, 0, maxIndex + 1, 0L);
+                maxIndex = -1;
+            }
+        }
+    }
+
+    /**
+     * Number of iterations so far. Each thread has its own counters, as tests
+     * may be executed in parallel
      */
-    private List<Long> counters;
+    private final ThreadLocal<ThreadCounters> counters = new ThreadLocal<ThreadCounters>(){
+        @Override
+        protected ThreadCounters initialValue() {
+            return new ThreadCounters();
+        }
+    };
+
+    /**
+     * Next index to assign to a loop. This is shared by all threads, as classes
+     * may be instrumented by a different thread than the one executing them
+     */
+    private final AtomicInteger nextIndex = new AtomicInteger(0);
 
 
     private LoopCounter(){
-        counters = new LinkedList<>();
     }
 
     public static LoopCounter getInstance(){
@@ -54,9 +104,34 @@ public class LoopCounter {
     }
 
     public void reset(){
-        counters.clear();
+        counters.get().clear();
+    }
+
+    /**
+     * This is added by the instrumentation at the beginning of each static initializer.
+     * Loops executed by the current thread until the matching {@link #exitStaticInit()}
+     * are not stopped, as a failed class initialization cannot be recovered
+     */
+    public void enterStaticInit(){
+        counters.get().staticInitDepth++;
+    }
+
+    /**
+     * This is added by the instrumentation at each exit of a static initializer,
+     * both normal and exceptional
+     */
+    public void exitStaticInit(){
+        ThreadCounters state = counters.get();
+        if(state.staticInitDepth > 0) {
+            state.staticInitDepth--;
+        }
     }
     
+    /**
+     * Turn loop checks on or off for all threads, eg while the SUT runs outside of a test
+     *
+     * @param active
+     */
     public void setActive(boolean active) {
     	this.activated = active;
     }
@@ -65,6 +140,25 @@ public class LoopCounter {
         return activated;
     }
 
+    /**
+     * Turn loop checks on or off for the current thread only, eg while it resets the
+     * static state of a class. Tests that are executed in parallel on other threads
+     * are still checked.
+     *
+     * @param active
+     */
+    public void setActiveOnCurrentThread(boolean active) {
+        counters.get().activated = active;
+    }
+
+    /**
+     * @return whether loops executed by the current thread are checked, as long
+     *         as they are checked for all threads (see {@link #isActivated()})
+     */
+    public boolean isActivatedOnCurrentThread() {
+        return counters.get().activated;
+    }
+
     /**
      * This is called during bytecode instrumentation to determine which index
      * to assign to a new parsed loop
@@ -72,14 +166,34 @@ public class LoopCounter {
      * @return the next valid index for a new loop
      */
     public int getNewIndex(){
-        int index = counters.size();
-        counters.add(0l);
-        return index;
+        return nextIndex.getAndIncrement();
+    }
+
+    /**
+     * @return the index that will be assigned to the next parsed loop
+     */
+    public int getNextIndex(){
+        return nextIndex.get();
+    }
+
+    /**
+     * Assign a range of indices at once, eg to loops in instrumented bytecode
+     * that was not produced in this JVM
+     *
+     * @param count the number of indices to assign
+     * @return the first index of the range
+     */
+    public int getNewIndices(int count){
+        if(count < 0){
+            throw new IllegalArgumentException("Number of indices cannot be negative");
+        }
+        return nextIndex.getAndAdd(count);
     }
 
 
     /**
-     * This is added directly in the instrumented CUT after each loop statement
+     * This is added directly in the instrumented CUT after each loop statement.
+     * Iterations are counted separately for each thread.
      *
      * @param index
      * @throws TooManyResourcesException if this loop has executed too many iterations
@@ -97,21 +211,29 @@ public class LoopCounter {
             return; //do nothing, no check
         }
         
+        ThreadCounters state = this.counters.get();
+        if(!state.activated)
+            return;
+
         //first check initialization
-        int size = counters.size();
-        if(index >= size){
-            for(int i=0; i < 1 + (index - size); i++){
-                counters.add(0l);
-            }
+        if(index >= state.iterations.length){
+            state.grow(index);
+        }
+        if(index > state.maxIndex){
+            state.maxIndex = index;
         }
-        assert index < counters.size();
 
         //do increment
-        long value = counters.get(index) + 1l;
-        counters.set(index , value);
-
-        if(value >= RuntimeSettings.maxNumberOfIterationsPerLoop && !isInStaticInit()) {
-            this.reset();
+        long value = ++state.iterations[index];
+
+        if(value >= RuntimeSettings.maxNumberOfIterationsPerLoop) {
+            if(state.staticInitDepth > 0 || isInStaticInit()) {
+                //static initializers of classes that were not instrumented are only found
+                //on the stack, so do not look for them again before the next limit
+                state.iterations[index] = 0;
+                return;
+            }
+            state.clear();
             throw new TooManyResourcesException("Loop has been executed more times than the allowed " +
                     RuntimeSettings.maxNumberOfIterationsPerLoop);
         }
@@ -33,13 +33,64 @@ import java.util.UUID;
  */
 public class Random {
 
-	private static boolean wasAccessed = false;
+	/**
+	 * State of the replacement functions
+	 */
+	private static final class State {
+
+		private boolean wasAccessed = false;
+
+		/**
+		 * We have a unique number that is increased every time a new random
+		 * number is accessed
+		 */
+		private int currentNumber = 0;
+	}
+
+	private static final State sharedState = new State();
 
 	/**
-	 * We have a unique number that is increased every time a new random number
-	 * is accessed
+	 * Threads that execute tests in parallel each have their own state, such
+	 * that the numbers a test gets do not depend on the other tests
 	 */
-	private static int currentNumber = 0;
+	private static final ThreadLocal<State> threadState = new ThreadLocal<State>();
+
+	/** Avoids looking up the thread local as long as no thread has its own state */
+	private static volatile boolean hasThreadStates = false;
+
+	private static State state() {
+		if (hasThreadStates) {
+			State state = threadState.get();
+			if (state != null)
+				return state;
+		}
+		return sharedState;
+	}
+
+	private static State access() {
+		State state = state();
+		state.wasAccessed = true;
+		if (state != sharedState) {
+			// accesses on any thread are reported by wasAccessed()
+			sharedState.wasAccessed = true;
+		}
+		return state;
+	}
+
+	/**
+	 * Give the current thread its own state, starting from the initial one
+	 */
+	public static void bindToCurrentThread() {
+		threadState.set(new State());
+		hasThreadStates = true;
+	}
+
+	/**
+	 * Let the current thread use the shared state again
+	 */
+	public static void unbindFromCurrentThread() {
+		threadState.remove();
+	}
 
 	/**
 	 * Replacement function for nextInt
@@ -47,8 +98,7 @@ public class Random {
 	 * @return a int.
 	 */
 	public static int nextInt() {
-		wasAccessed = true;
-		return currentNumber++;
+		return access().currentNumber++;
 	}
 
 	/**
@@ -59,8 +109,7 @@ public class Random {
 	 * @return a int.
 	 */
 	public static int nextInt(int max) {
-		wasAccessed = true;
-		return currentNumber % max;
+		return access().currentNumber % max;
 	}
 
 	/**
@@ -69,8 +118,7 @@ public class Random {
 	 * @return a float.
 	 */
 	public static float nextFloat() {
-		wasAccessed = true;
-		return (currentNumber++ % 10F) / 10F;
+		return (access().currentNumber++ % 10F) / 10F;
 	}
 	
 
@@ -79,7 +127,7 @@ public class Random {
 	 * @param bytes
 	 */
 	 public static void nextBytes(byte[] bytes) {
-			wasAccessed = true;
+			access();
 
 		   for (int i = 0; i < bytes.length; )
 		     for (int rnd = nextInt(), n = Math.min(bytes.length - i, 4);
@@ -94,8 +142,7 @@ public class Random {
 	 * @return a float.
 	 */
 	public static double nextDouble() {
-		wasAccessed = true;
-		return (currentNumber++ % 10.0) / 10.0;
+		return (access().currentNumber++ % 10.0) / 10.0;
 	}
 
 	/**
@@ -104,7 +151,7 @@ public class Random {
 	 * @return a double.
 	 */
 	public static double nextGaussian() {
-		wasAccessed = true;
+		access();
 		return nextDouble();
 	}
 	
@@ -114,7 +161,7 @@ public class Random {
 	 * @return a boolean.
 	 */
 	public static boolean nextBoolean() {
-		wasAccessed = true;
+		access();
 		return nextInt(1)!=0;
 	}
 
@@ -125,8 +172,7 @@ public class Random {
 	 * @return a long.
 	 */
 	public static long nextLong() {
-		wasAccessed = true;
-		return currentNumber++;
+		return access().currentNumber++;
 	}
 
 	/**
@@ -136,15 +182,17 @@ public class Random {
 	 *            a int.
 	 */
 	public static void setNextRandom(int number) {
-		currentNumber = Math.abs(number);
+		state().currentNumber = Math.abs(number);
 	}
 
 	/**
-	 * Reset runtime to initial state
+	 * Reset runtime to initial state, for the current thread only if it has
+	 * its own state
 	 */
 	public static void reset() {
-		currentNumber = 0;
-		wasAccessed = false;
+		State state = state();
+		state.currentNumber = 0;
+		state.wasAccessed = false;
 	}
 
 	/**
@@ -154,7 +202,7 @@ public class Random {
 	 * @return a boolean.
 	 */
 	public static boolean wasAccessed() {
-		return wasAccessed;
+		return state().wasAccessed;
 	}
 
 	/**
@@ -162,7 +210,7 @@ public class Random {
 	 * @return
 	 */
     public static UUID randomUUID() {
-		wasAccessed = true;
+		access();
 
         byte[] randomBytes = new byte[16];
         nextBytes(randomBytes);
@@ -193,6 +241,6 @@ public class Random {
     }
 
     public static int getCurrentNumber() {
-    	return currentNumber;
+    	return state().currentNumber;
     }
 }
@@ -75,6 +75,12 @@ public class RuntimeSettings {
      */
     public static boolean resetStaticState = false;
 
+    /**
+     * Should the static state of a class be restored from a snapshot taken after its
+     * first reset, when possible, instead of re-executing its static initializer?
+     */
+    public static boolean resetStaticStateFromSnapshot = false;
+
 
     /**
      * How is the sandbox configured?
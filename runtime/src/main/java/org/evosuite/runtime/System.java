@@ -46,7 +46,37 @@ public class System {
 
 	private static final Logger logger = LoggerFactory.getLogger(System.class);
 
-	private static boolean wasTimeAccessed = false;
+	/**
+	 * State of the replacement functions for time and identity hash codes
+	 */
+	private static final class State {
+
+		private boolean wasTimeAccessed = false;
+
+		// Initialised to 2014-02-14, 20:21
+		private long currentTime = 1392409281320L;
+
+		private final Map<Integer, Integer> hashKeys = new HashMap<Integer, Integer>();
+
+		private void reset() {
+			currentTime = 1392409281320L; // 2014-02-14, 20:21
+			wasTimeAccessed = false;
+			synchronized (hashKeys) {
+				hashKeys.clear();
+			}
+		}
+	}
+
+	private static final State sharedState = new State();
+
+	/**
+	 * Threads that execute tests in parallel each have their own state, such
+	 * that the time and hash codes a test sees do not depend on the other tests
+	 */
+	private static final ThreadLocal<State> threadState = new ThreadLocal<State>();
+
+	/** Avoids looking up the thread local as long as no thread has its own state */
+	private static volatile boolean hasThreadStates = false;
 
 	/**
 	 * Default Java properties before we run the SUT
@@ -178,7 +208,7 @@ public class System {
 	 *            a int.
 	 */
 	public static void exit(int status) {
-		wasTimeAccessed = true;
+		accessTime();
 
 		/*
 		 * TODO: Here we could handle the calls to the JVM shutdown hooks, if any is present
@@ -187,18 +217,13 @@ public class System {
 		throw new SystemExitException();
 	}
 
-	/** Current time returns numbers increased by 1 */
-	// Initialised to 2014-02-14, 20:21
-	private static long currentTime = 1392409281320L;
-
 	/**
 	 * Replacement function for System.currentTimeMillis
 	 * 
 	 * @return a long.
 	 */
 	public static long currentTimeMillis() {
-		wasTimeAccessed = true;
-		return currentTime; //++;
+		return accessTime().currentTime; //++;
 	}
 
 	/**
@@ -210,11 +235,9 @@ public class System {
 	 */
 	public static long getCurrentTimeMillisForVFS() {
 		//wasTimeAccessed = true;
-		return currentTime; //++;
+		return state().currentTime; //++;
 	}
 
-	private static final Map<Integer, Integer> hashKeys = new HashMap<Integer, Integer>();
-
 	public static void registerObjectForIdentityHashCode(Object o) {
 		identityHashCode(o);
 	}
@@ -223,6 +246,7 @@ public class System {
 		if(o == null)
 			return 0;
 
+		Map<Integer, Integer> hashKeys = state().hashKeys;
 		synchronized (hashKeys) {
 			Integer realId = java.lang.System.identityHashCode(o);
 			if(!hashKeys.containsKey(realId))
@@ -245,8 +269,7 @@ public class System {
 	 * @return a long.
 	 */
 	public static long nanoTime() {
-		wasTimeAccessed = true;
-		return currentTime * 1000; //++;
+		return accessTime().currentTime * 1000; //++;
 	}
 
 	/**
@@ -289,7 +312,7 @@ public class System {
 	 *            a long.
 	 */
 	public static void setCurrentTimeMillis(long time) {
-		currentTime = time;
+		state().currentTime = time;
 	}
 
 	/**
@@ -301,13 +324,54 @@ public class System {
 		throw new SecurityException("Permission Denied");
 	}
 
+	/**
+	 * Give the current thread its own time and identity hash codes, starting
+	 * from the initial ones. System properties are still shared.
+	 */
+	public static void bindToCurrentThread() {
+		threadState.set(new State());
+		hasThreadStates = true;
+	}
+
+	/**
+	 * Let the current thread use the shared state again
+	 */
+	public static void unbindFromCurrentThread() {
+		threadState.remove();
+	}
+
+	private static State state() {
+		if (hasThreadStates) {
+			State state = threadState.get();
+			if (state != null)
+				return state;
+		}
+		return sharedState;
+	}
+
+	private static State accessTime() {
+		State state = state();
+		state.wasTimeAccessed = true;
+		if (state != sharedState) {
+			// accesses on any thread are reported by wasTimeAccessed()
+			sharedState.wasTimeAccessed = true;
+		}
+		return state;
+	}
+
+	/**
+	 * Reset the time and identity hash codes to their initial state, for the
+	 * current thread only if it has its own state
+	 */
+	public static void resetThreadState() {
+		state().reset();
+	}
+
 	/**
 	 * Reset runtime to initial state
 	 */
 	public static void resetRuntime() {
-		currentTime = 1392409281320L; // 2014-02-14, 20:21
-		wasTimeAccessed = false;
-		hashKeys.clear();
+		state().reset();
 		restoreProperties(); 
 		needToRestoreProperties = false;
 		//readProperties.clear(); //we cannot reset read properties here		
@@ -337,6 +401,6 @@ public class System {
 	 * @return a boolean.
 	 */
 	public static boolean wasTimeAccessed() {
-		return wasTimeAccessed;
+		return state().wasTimeAccessed;
 	}
 }
@@ -60,8 +60,15 @@ public class ClassResetter {
 	
 	private final Map<ClassLoader, Map<String, Method>> resetMethodCache;
 
+	/**
+	 * Static state of each class right after its first reset. A null value
+	 * means that the state of the class cannot be restored from a snapshot
+	 */
+	private final Map<ClassLoader, Map<String, StaticStateSnapshot>> snapshotCache;
+
 	private ClassResetter(){
 		resetMethodCache = new HashMap<>();
+		snapshotCache = new HashMap<>();
 	}
 
 	/**
@@ -89,7 +96,7 @@ public class ClassResetter {
 		AtMostOnceLogger.warn(logger,msg);
 	}
 
-	private void cacheResetMethod(String classNameWithDots) {
+	private void cacheResetMethod(String classNameWithDots, ClassLoader loader) {
 
 		if (!resetMethodCache.containsKey(loader)) {
             resetMethodCache.put(loader, new HashMap<>());
@@ -120,10 +127,118 @@ public class ClassResetter {
 	}
 	
 	public Method getResetMethod(String classNameWithDots) {
-		cacheResetMethod(classNameWithDots);
+		return getResetMethod(classNameWithDots, loader);
+	}
+
+	/**
+	 * Same as {@link #getResetMethod(String)}, but for the copy of the class
+	 * defined by the given loader instead of the one set with
+	 * {@link #setClassLoader(ClassLoader)}. Can be called by several threads
+	 * with different loaders.
+	 *
+	 * @param classNameWithDots
+	 * @param loader
+	 * @return the __STATIC_RESET() method, or {@code null} if the class has none
+	 */
+	public synchronized Method getResetMethod(String classNameWithDots, ClassLoader loader) {
+		cacheResetMethod(classNameWithDots, loader);
 		return resetMethodCache.get(loader).get(classNameWithDots);
 	}
 
+	/**
+	 * Drop the reset methods and snapshots of the classes of a loader that is
+	 * no longer used
+	 *
+	 * @param loader
+	 */
+	public synchronized void forgetClassLoader(ClassLoader loader) {
+		resetMethodCache.remove(loader);
+		snapshotCache.remove(loader);
+	}
+
+	/**
+	 * Write back the values the static fields of the class had right after it
+	 * was last reset, if {@link RuntimeSettings#resetStaticStateFromSnapshot} is
+	 * on and a snapshot of the class was taken
+	 *
+	 * @param classNameWithDots
+	 * @return {@code true} if the state was restored, {@code false} if
+	 *         __STATIC_RESET() needs to be invoked instead
+	 */
+	public boolean restoreStaticState(String classNameWithDots) {
+		return restoreStaticState(classNameWithDots, loader);
+	}
+
+	/**
+	 * Same as {@link #restoreStaticState(String)}, for the copy of the class
+	 * defined by the given loader
+	 *
+	 * @param classNameWithDots
+	 * @param loader
+	 * @return {@code true} if the state was restored
+	 */
+	public synchronized boolean restoreStaticState(String classNameWithDots, ClassLoader loader) {
+		if (!RuntimeSettings.resetStaticStateFromSnapshot) {
+			return false;
+		}
+		Map<String, StaticStateSnapshot> snapshots = snapshotCache.get(loader);
+		StaticStateSnapshot snapshot = snapshots == null ? null : snapshots.get(classNameWithDots);
+		if (snapshot == null) {
+			return false;
+		}
+		try {
+			snapshot.restore();
+			return true;
+		} catch (IllegalAccessException | IllegalArgumentException e) {
+			logWarn(classNameWithDots, e.getClass() + " thrown while restoring the static state of class " + classNameWithDots);
+			snapshots.put(classNameWithDots, null);
+			return false;
+		}
+	}
+
+	/**
+	 * Take a snapshot of the static fields of the class, to be used by
+	 * {@link #restoreStaticState(String)} instead of the following resets.
+	 * This should be called right after __STATIC_RESET() completed normally.
+	 * Only one snapshot is taken for each class.
+	 *
+	 * @param classNameWithDots
+	 */
+	public void captureStaticState(String classNameWithDots) {
+		captureStaticState(classNameWithDots, loader);
+	}
+
+	/**
+	 * Same as {@link #captureStaticState(String)}, for the copy of the class
+	 * defined by the given loader
+	 *
+	 * @param classNameWithDots
+	 * @param loader
+	 */
+	public synchronized void captureStaticState(String classNameWithDots, ClassLoader loader) {
+		if (!RuntimeSettings.resetStaticStateFromSnapshot) {
+			return;
+		}
+		if (!snapshotCache.containsKey(loader)) {
+			snapshotCache.put(loader, new HashMap<>());
+		}
+		Map<String, StaticStateSnapshot> snapshots = snapshotCache.get(loader);
+		if (snapshots.containsKey(classNameWithDots)) {
+			return;
+		}
+
+		StaticStateSnapshot snapshot = null;
+		try {
+			snapshot = StaticStateSnapshot.capture(loader.loadClass(classNameWithDots));
+		} catch (Exception | Error e) {
+			logger.debug("Cannot take snapshot of static state of class {}: {}", classNameWithDots, e.toString());
+		}
+		if (snapshot == null) {
+			logger.debug("Static state of class {} will be reset by __STATIC_RESET()", classNameWithDots);
+		}
+		snapshots.put(classNameWithDots, snapshot);
+	}
+
 	/**
 	 * Invoke the duplicated version of class initializar <clinit> 
 	 *  
@@ -143,20 +258,26 @@ public class ClassResetter {
             return;
         }
 
+		if(restoreStaticState(classNameWithDots)) {
+			return;
+		}
+
 		boolean safe = Sandbox.isSafeToExecuteSUTCode();
 
 		assert !Sandbox.isSecurityManagerInitialized() || Sandbox.isOnAndExecutingSUTCode();
 
 		InstrumentingAgent.activate();
 		org.evosuite.runtime.Runtime.getInstance().resetRuntime();
-		boolean wasLoopCheckOn = LoopCounter.getInstance().isActivated();
+		boolean wasLoopCheckOn = LoopCounter.getInstance().isActivatedOnCurrentThread();
+		boolean completed = false;
 
 		try {
 			if(!safe){
 				Sandbox.goingToExecuteUnsafeCodeOnSameThread();
 			}
-			LoopCounter.getInstance().setActive(false);
+			LoopCounter.getInstance().setActiveOnCurrentThread(false);
 			m.invoke(null, (Object[]) null);
+			completed = true;
 		} catch (IllegalAccessException | IllegalArgumentException e) {
             logger.error(""+e,e);
         } catch (NoClassDefFoundError e){
@@ -176,7 +297,11 @@ public class ClassResetter {
 			if(!safe){
 				Sandbox.doneWithExecutingUnsafeCodeOnSameThread();
 			}
-			LoopCounter.getInstance().setActive(wasLoopCheckOn);
+			LoopCounter.getInstance().setActiveOnCurrentThread(wasLoopCheckOn);
+		}
+
+		if(completed) {
+			captureStaticState(classNameWithDots);
 		}
 
 		InstrumentingAgent.deactivate();
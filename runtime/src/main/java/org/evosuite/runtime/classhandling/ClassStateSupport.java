@@ -126,13 +126,13 @@ public class ClassStateSupport {
 			String classNameToLoad = classNames[i];
 
 			Sandbox.goingToExecuteSUTCode();
-			boolean wasLoopCheckOn = LoopCounter.getInstance().isActivated();
+			boolean wasLoopCheckOn = LoopCounter.getInstance().isActivatedOnCurrentThread();
 
 			try {
 				if(!safe){
 					Sandbox.goingToExecuteUnsafeCodeOnSameThread();
 				}
-				LoopCounter.getInstance().setActive(false);
+				LoopCounter.getInstance().setActiveOnCurrentThread(false);
 				Class<?> aClass = Class.forName(classNameToLoad, true, classLoader);
 				classes.add(aClass);
 
@@ -143,7 +143,7 @@ public class ClassStateSupport {
 					Sandbox.doneWithExecutingUnsafeCodeOnSameThread();
 				}
 				Sandbox.doneWithExecutingSUTCode();
-				LoopCounter.getInstance().setActive(wasLoopCheckOn);
+				LoopCounter.getInstance().setActiveOnCurrentThread(wasLoopCheckOn);
 			}
 		}
 		InstrumentingAgent.deactivate();
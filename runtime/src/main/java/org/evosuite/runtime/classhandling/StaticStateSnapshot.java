@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.classhandling;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The values of the static fields of a class right after its static
+ * initializer was executed, such that they can be written back instead of
+ * executing the initializer again.
+ *
+ * <p>
+ * As the values are restored by reference, a snapshot can only be taken if
+ * all of them are immutable: primitives, null, strings, boxed primitives,
+ * enum constants and the like. If a field refers to anything else, a test
+ * could have changed the referred object, and only re-executing the
+ * initializer gives back a fresh one.
+ *
+ * <p>
+ * Fields that are still final after instrumentation are ignored, as
+ * __STATIC_RESET() does not update them either.
+ */
+final class StaticStateSnapshot {
+
+	private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+			String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+			Float.class, Double.class, BigInteger.class, BigDecimal.class, Class.class));
+
+	private final Field[] fields;
+
+	private final Object[] values;
+
+	private StaticStateSnapshot(Field[] fields, Object[] values) {
+		this.fields = fields;
+		this.values = values;
+	}
+
+	/**
+	 * Take a snapshot of the current values of the static fields of the class
+	 *
+	 * @param clazz
+	 * @return {@code null} if the class has a static field whose value is not
+	 *         known to be immutable
+	 */
+	static StaticStateSnapshot capture(Class<?> clazz) throws IllegalAccessException {
+		List<Field> fields = new ArrayList<Field>();
+		List<Object> values = new ArrayList<Object>();
+
+		for (Field field : clazz.getDeclaredFields()) {
+			int modifiers = field.getModifiers();
+			if (!Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+				continue;
+			}
+			field.setAccessible(true);
+			Object value = field.get(null);
+			if (!field.getType().isPrimitive() && !isImmutable(value)) {
+				return null;
+			}
+			fields.add(field);
+			values.add(value);
+		}
+
+		return new StaticStateSnapshot(fields.toArray(new Field[0]), values.toArray());
+	}
+
+	private static boolean isImmutable(Object value) {
+		if (value == null || value instanceof Enum) {
+			return true;
+		}
+		Class<?> type = value.getClass();
+		if (IMMUTABLE_TYPES.contains(type)) {
+			return true;
+		}
+		// an empty array cannot be changed, whereas others could be shared
+		// with, and changed through, other classes
+		return type.isArray() && Array.getLength(value) == 0;
+	}
+
+	/**
+	 * Write the values of the snapshot back into the static fields
+	 */
+	void restore() throws IllegalAccessException {
+		for (int i = 0; i < fields.length; i++) {
+			fields[i].set(null, values[i]);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.instrumentation;
+
+import org.evosuite.runtime.LoopCounter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.TryCatchBlockSorter;
+
+/**
+ * Mark the execution of a static initializer in the {@link LoopCounter}, such
+ * that loops in the methods it calls are not stopped.
+ *
+ * <p>
+ * The body is wrapped in calls to {@link LoopCounter#enterStaticInit()} and
+ * {@link LoopCounter#exitStaticInit()}, the latter also in a catch-all handler
+ * that rethrows the exception.
+ *
+ * <p>
+ * The catch-all handler has to be declared before the body is visited, ie
+ * before the handlers of the static initializer itself. Handlers are thus
+ * sorted from the innermost to the outermost before being written, such that
+ * the original ones still take precedence.
+ */
+public class LoopCounterStaticInitAdapter extends MethodVisitor {
+
+    private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+    private final Label start = new Label();
+
+    private final Label end = new Label();
+
+    private final Label handler = new Label();
+
+    public LoopCounterStaticInitAdapter(MethodVisitor mv, int access, String name,
+                                        String desc, String signature, String[] exceptions) {
+        super(Opcodes.ASM5, new TryCatchBlockSorter(mv, access, name, desc, signature, exceptions));
+    }
+
+    @Override
+    public void visitCode() {
+        super.visitCode();
+        super.visitTryCatchBlock(start, end, handler, null);
+        super.visitLabel(start);
+        callLoopCounter("enterStaticInit");
+    }
+
+    @Override
+    public void visitInsn(int opcode) {
+        if (opcode == Opcodes.RETURN) {
+            callLoopCounter("exitStaticInit");
+        }
+        super.visitInsn(opcode);
+    }
+
+    @Override
+    public void visitMaxs(int maxStack, int maxLocals) {
+        super.visitLabel(end);
+        super.visitLabel(handler);
+        callLoopCounter("exitStaticInit");
+        super.visitInsn(Opcodes.ATHROW);
+        super.visitMaxs(maxStack + 2, maxLocals);
+    }
+
+    private void callLoopCounter(String method) {
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, LOOP_COUNTER,
+                "getInstance", "()L" + LOOP_COUNTER + ";", false);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, LOOP_COUNTER,
+                method, "()V", false);
+    }
+}
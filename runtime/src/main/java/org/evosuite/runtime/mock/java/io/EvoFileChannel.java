@@ -34,6 +34,7 @@ import java.nio.channels.WritableByteChannel;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.evosuite.runtime.mock.java.lang.MockIllegalArgumentException;
+import org.evosuite.runtime.vfs.VFile;
 import org.evosuite.runtime.vfs.VirtualFileSystem;
 
 
@@ -77,6 +78,11 @@ public class EvoFileChannel extends FileChannel{  //FIXME mock FileChannel
 
 	private final Object readWriteMonitor = new Object();
 
+	/**
+	 * Size of the chunks in which data is moved by transferTo/transferFrom
+	 */
+	private static final int TRANSFER_BUFFER_SIZE = 8192;
+
 	/**
 	 * Main constructor
 	 * 
@@ -128,31 +134,38 @@ public class EvoFileChannel extends FileChannel{  //FIXME mock FileChannel
 			throw new NonReadableChannelException();
 		}
 
+		if( (offset < 0) || (offset > dsts.length) ||  (length < 0) || (length > dsts.length-offset) ){
+			throw new IndexOutOfBoundsException();
+		}
+
 		throwExceptionIfClosed();
 
 		int counter = 0;
 
 		synchronized(readWriteMonitor){
-			for(int j=offset; j<length; j++){
+			for(int j=offset; j<offset+length; j++){
 				ByteBuffer dst = dsts[j];
-				int r = dst.remaining();
-				for(int i=0; i<r; i++){
-					int b = NativeMockedIO.read(path, posToUpdate);
-					if(b < 0){ //end of stream
-						return -1;
-					}
-
-					if(closed){
-						throw new AsynchronousCloseException();
-					}
-
-					if(Thread.currentThread().isInterrupted()){
-						close();
-						throw new ClosedByInterruptException();
-					}
-
-					dst.put((byte)b);
-					counter++;
+				if(!dst.hasRemaining()){
+					continue;
+				}
+				int n = NativeMockedIO.read(path, posToUpdate, dst);
+				if(n < 0){ //end of stream
+					return counter == 0 ? -1 : counter;
+				}
+
+				if(closed){
+					throw new AsynchronousCloseException();
+				}
+
+				if(Thread.currentThread().isInterrupted()){
+					close();
+					throw new ClosedByInterruptException();
+				}
+
+				counter += n;
+				if(dst.hasRemaining()){
+					//reached the end of the file
+					break;
 				}
 			}
 		}
@@ -203,26 +216,18 @@ public class EvoFileChannel extends FileChannel{  //FIXME mock FileChannel
 
 		int counter = 0;
 
-		byte[] buffer = new byte[1];
-
 		synchronized(readWriteMonitor){
-			for(int j=offset; j<length; j++){
+			for(int j=offset; j<offset+length; j++){
 				ByteBuffer src = srcs[j];
-				int r = src.remaining();
-				for(int i=0; i<r; i++){
-					byte b = src.get();
-					buffer[0] = b;
-					NativeMockedIO.writeBytes(path, posToUpdate, buffer, 0, 1);
-					counter++;
-
-					if(closed){
-						throw new AsynchronousCloseException();
-					}
-
-					if(Thread.currentThread().isInterrupted()){
-						close();
-						throw new ClosedByInterruptException();
-					}
+				counter += NativeMockedIO.writeBytes(path, posToUpdate, src);
+
+				if(closed){
+					throw new AsynchronousCloseException();
+				}
+
+				if(Thread.currentThread().isInterrupted()){
+					close();
+					throw new ClosedByInterruptException();
 				}
 			}
 		}
@@ -294,15 +299,81 @@ public class EvoFileChannel extends FileChannel{  //FIXME mock FileChannel
 	@Override
 	public long transferTo(long position, long count, WritableByteChannel target)
 			throws IOException {
-		// TODO 		
-		throw new MockIOException("transferTo is not supported yet");
+		throwExceptionIfClosed();
+
+		if(position < 0 || count < 0){
+			throw new MockIllegalArgumentException();
+		}
+
+		if(!isOpenForRead){
+			throw new NonReadableChannelException();
+		}
+
+		if(position > Integer.MAX_VALUE){
+			return 0;
+		}
+
+		AtomicInteger tmp = new AtomicInteger((int)position);
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, TRANSFER_BUFFER_SIZE));
+		long transferred = 0;
+
+		synchronized(readWriteMonitor){
+			while(transferred < count){
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), count - transferred));
+				if(NativeMockedIO.read(path, tmp, buffer) <= 0){
+					break;
+				}
+				buffer.flip();
+				transferred += target.write(buffer);
+				if(buffer.hasRemaining()){
+					//target does not accept more bytes now
+					break;
+				}
+			}
+		}
+
+		return transferred;
 	}
 
 	@Override
 	public long transferFrom(ReadableByteChannel src, long position, long count)
 			throws IOException {
-		// TODO 
-		throw new MockIOException("transferFrom is not supported yet");
+		throwExceptionIfClosed();
+
+		if(position < 0 || count < 0){
+			throw new MockIllegalArgumentException();
+		}
+
+		if(!isOpenForWrite){
+			throw new NonWritableChannelException();
+		}
+
+		VFile vf = NativeMockedIO.getFileForWriting(path);
+		if(vf==null){
+			throw new MockIOException();
+		}
+		if(position > vf.getDataSize()){
+			return 0;
+		}
+
+		AtomicInteger tmp = new AtomicInteger((int)position);
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, TRANSFER_BUFFER_SIZE));
+		long transferred = 0;
+
+		synchronized(readWriteMonitor){
+			while(transferred < count){
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), count - transferred));
+				if(src.read(buffer) <= 0){
+					break;
+				}
+				buffer.flip();
+				transferred += NativeMockedIO.writeBytes(path, tmp, buffer);
+			}
+		}
+
+		return transferred;
 	}
 
 
@@ -19,8 +19,8 @@
  */
 package org.evosuite.runtime.vfs;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Representation of a virtual file
@@ -30,46 +30,56 @@ import java.util.List;
  */
 public class VFile extends FSObject{
 
+	private static final int INITIAL_CAPACITY = 1024;
+
 	/**
-	 * the actual data contained in file as a list of bytes
+	 * the actual data contained in file. Only the first {@code size} bytes are valid,
+	 * the rest of the array is spare capacity for future writes
 	 */
-	private final List<Byte> data;
+	private byte[] data;
+
+	private int size;
 
 	public VFile(String path, VFolder parent) {
 		super(path, parent);
 
-		//TODO might need a better type of data structure supporting multi-threading
-		data = new ArrayList<Byte>(1024);
+		data = new byte[INITIAL_CAPACITY];
+		size = 0;
 	}
 
-	public void eraseData(){
-		data.clear();
+	public synchronized void eraseData(){
+		if(data.length > INITIAL_CAPACITY){
+			data = new byte[INITIAL_CAPACITY];
+		} else {
+			Arrays.fill(data, 0, size, (byte) 0);
+		}
+		size = 0;
 	}
 
 	public synchronized int getDataSize(){
-		return data.size();
+		return size;
 	}
 
 
 	public synchronized void setLength(int newLength){
-
-		/*
-		 * Note: this implementation is not particularly efficient...
-		 * but setLength is rarely called
-		 */
-
-		while(newLength > data.size()){
-			data.add((byte)0);
+		if(newLength > size){
+			ensureCapacity(newLength);
+		} else {
+			//bytes beyond the new length must read as 0 if the file grows again
+			Arrays.fill(data, newLength, size, (byte) 0);
 		}
+		size = newLength;
+	}
 
-		if(newLength==0){
-			data.clear();
+	private void ensureCapacity(int capacity){
+		if(capacity <= data.length){
 			return;
 		}
-		
-		while(data.size() > newLength){
-			data.remove(data.size()-1);
+		int newCapacity = data.length * 2;
+		if(newCapacity < capacity || newCapacity < 0){
+			newCapacity = capacity;
 		}
+		data = Arrays.copyOf(data, newCapacity);
 	}
 
     /**
@@ -82,15 +92,56 @@ public class VFile extends FSObject{
 			throw new IllegalArgumentException("Position in the file cannot be negative");
 		}
 
-		if(position >= data.size()){
+		if(position >= size){
 			return -1; //this represent the end of the stream
 		}
 
-		return data.get(position) & 0xFF;
+		return data[position] & 0xFF;
+	}
+
+	/**
+	 * Copy up to {@code len} bytes starting at {@code position} into {@code b}
+	 *
+	 * @return the number of bytes copied, or -1 if {@code position} is at or after the end of the file
+	 */
+	public synchronized int read(int position, byte b[], int off, int len) throws IllegalArgumentException{
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
+		}
+		if(off < 0 || len < 0 || len > b.length - off){
+			throw new IndexOutOfBoundsException();
+		}
+
+		if(position >= size){
+			return -1;
+		}
+
+		int n = Math.min(len, size - position);
+		System.arraycopy(data, position, b, off, n);
+		return n;
+	}
+
+	/**
+	 * Copy bytes starting at {@code position} into the remaining space of {@code dst}
+	 *
+	 * @return the number of bytes copied, or -1 if {@code position} is at or after the end of the file
+	 */
+	public synchronized int read(int position, ByteBuffer dst) throws IllegalArgumentException{
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
+		}
+
+		if(position >= size){
+			return -1;
+		}
+
+		int n = Math.min(dst.remaining(), size - position);
+		dst.put(data, position, n);
+		return n;
 	}
 
 	public synchronized int writeBytes(byte b[], int off, int len){
-		return writeBytes(data.size(),b,off,len);
+		return writeBytes(size,b,off,len);
 	}
 
 	
@@ -104,26 +155,54 @@ public class VFile extends FSObject{
 			return 0;
 		}
 
-		if(position >= data.size()){
-			setLength(position);
+		int written = Math.max(0, Math.min(len, b.length - off));
+		reserve(position, written);
+		System.arraycopy(b, off, data, position, written);
+
+		setLastModified(getCurrentTimeMillis());
+
+		return written;
+	}
+
+	/**
+	 * Write the remaining bytes of {@code src} starting at {@code position}
+	 *
+	 * @return the number of bytes written, 0 if the file cannot be written
+	 */
+	public synchronized int writeBytes(int position, ByteBuffer src) throws IllegalArgumentException{
+
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
 		}
 
-		int written = 0;
-		for(int i=off; i<b.length & (i-off)<len; i++){
-			if(position < data.size()){
-				data.set(position,(b[i]));
-			} else {
-				data.add(b[i]);
-			}
-			position++;
-			written++;
+		if(deleted || !isWritePermission()){
+			return 0;
 		}
 
+		int written = src.remaining();
+		reserve(position, written);
+		src.get(data, position, written);
+
 		setLastModified(getCurrentTimeMillis());
 
 		return written;
 	}
 
+	/**
+	 * Make room for {@code len} bytes at {@code position}, filling any gap after the
+	 * current end of the file with 0s
+	 */
+	private void reserve(int position, int len){
+		int end = position + len;
+		if(end < 0){
+			throw new IllegalArgumentException("Virtual file system does not handle files larger than " + Integer.MAX_VALUE + " bytes");
+		}
+		if(end > size){
+			ensureCapacity(end);
+			size = end;
+		}
+	}
+
 
 	@Override
 	public synchronized boolean delete(){
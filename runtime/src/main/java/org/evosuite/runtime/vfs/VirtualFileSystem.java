@@ -23,8 +23,11 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -100,6 +103,47 @@ public final class VirtualFileSystem {
 	 * 
 	 */
 	private final Set<LeakingResource> leakingResources;
+
+	/**
+	 * Maximum number of raw paths for which the normalized form is cached
+	 */
+	private static final int MAX_NORMALIZED_PATHS = 4096;
+
+	/**
+	 * All objects reachable from the root, indexed by their normalized path
+	 * tokens joined with the file separator (the root is indexed by the
+	 * empty string). This gives the same results as walking the folders from
+	 * the root, but in constant time. It is updated by every operation of
+	 * this class that changes the tree.
+	 */
+	private final Map<String, FSObject> pathIndex;
+
+	/**
+	 * Normalized form of recently used raw paths
+	 */
+	private final Map<String, NormalizedPath> normalizedPaths;
+
+	/**
+	 * The working directory relative paths in {@link #normalizedPaths} were
+	 * resolved against
+	 */
+	private volatile String normalizedPathsWorkingDir;
+
+	/**
+	 * A raw path turned into an absolute path, and into the key of the
+	 * object it refers to in the {@link #pathIndex}
+	 */
+	private static final class NormalizedPath {
+
+		private final String absolutePath;
+
+		private final String key;
+
+		private NormalizedPath(String absolutePath, String key) {
+			this.absolutePath = absolutePath;
+			this.key = key;
+		}
+	}
 	
 	//--------------------------------------------------------------------------
 
@@ -111,6 +155,8 @@ public final class VirtualFileSystem {
 		accessedFiles = new CopyOnWriteArraySet<>(); //we only add during test execution, and read after
 		leakingResources =  new CopyOnWriteArraySet<>();
 		classesThatShouldThrowIOException = new CopyOnWriteArraySet<>(); //should only contain very few values
+		pathIndex = new ConcurrentHashMap<>();
+		normalizedPaths = new ConcurrentHashMap<>();
 	}
 
 	/**
@@ -127,6 +173,8 @@ public final class VirtualFileSystem {
 	 */
 	public void resetSingleton() {
 		root = null;
+		pathIndex.clear();
+		normalizedPaths.clear();
 		tmpFileCounter.set(0);
 		accessedFiles.clear();
 		shouldAllThrowIOException = false;
@@ -208,6 +256,8 @@ public final class VirtualFileSystem {
 	public void init() {
 
 		root = new VFolder(null, null);
+		pathIndex.clear();
+		pathIndex.put("", root);
 
 		String workingDir = getWorkingDirPath();
 		createFolder(workingDir);
@@ -298,12 +348,27 @@ public final class VirtualFileSystem {
 	 * @return {@code null} if the object does not exist in the VFS
 	 */
 	public FSObject findFSObject(String rawPath) {
-		String path = new File(rawPath).getAbsolutePath();
-		String[] tokens = tokenize(path);
+		NormalizedPath normalized = normalize(rawPath);
 
-		markAccessedFile(path);
+		markAccessedFile(normalized.absolutePath);
 
+		FSObject obj = pathIndex.get(normalized.key);
+		if (obj == null || obj.isDeleted()) {
+			return null;
+		}
+		return obj;
+	}
+
+	/**
+	 * Resolve the given tokens by walking the folders from the root
+	 * 
+	 * @return {@code null} if the object does not exist in the VFS
+	 */
+	private FSObject walk(String[] tokens) {
 		VFolder parent = root;
+		if (parent == null) {
+			return null;
+		}
 		for (int i = 0; i < tokens.length; i++) {
 			String name = tokens[i];
 			FSObject child = parent.getChild(name);
@@ -328,12 +393,88 @@ public final class VirtualFileSystem {
 		return parent;
 	}
 
+	private NormalizedPath normalize(String rawPath) {
+		String workingDir = getWorkingDirPath();
+		if (workingDir == null ? normalizedPathsWorkingDir != null : !workingDir.equals(normalizedPathsWorkingDir)) {
+			normalizedPaths.clear();
+			normalizedPathsWorkingDir = workingDir;
+		}
+
+		NormalizedPath normalized = normalizedPaths.get(rawPath);
+		if (normalized == null) {
+			String path = new File(rawPath).getAbsolutePath();
+			String[] tokens = tokenize(path);
+			normalized = new NormalizedPath(path, toKey(tokens, tokens.length));
+			if (normalizedPaths.size() >= MAX_NORMALIZED_PATHS) {
+				normalizedPaths.clear();
+			}
+			normalizedPaths.put(rawPath, normalized);
+		}
+		return normalized;
+	}
+
+	private static String toKey(String[] tokens, int length) {
+		StringBuilder key = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			if (i > 0) {
+				key.append(File.separatorChar);
+			}
+			key.append(tokens[i]);
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Bring the index in line with the tree for the given key, and for all
+	 * the keys below it if {@code subtree} is set
+	 */
+	private void reindex(String key, boolean subtree) {
+		synchronized (pathIndex) {
+			pathIndex.remove(key);
+			if (subtree) {
+				String prefix = key + File.separatorChar;
+				Iterator<String> iter = pathIndex.keySet().iterator();
+				while (iter.hasNext()) {
+					if (iter.next().startsWith(prefix)) {
+						iter.remove();
+					}
+				}
+			}
+
+			FSObject obj = walk(tokenize(key));
+			if (obj != null) {
+				addToIndex(key, obj);
+			}
+		}
+	}
+
+	private void addToIndex(String key, FSObject obj) {
+		if (pathIndex.containsKey(key) || obj.isDeleted()) {
+			//as when walking the tree, the first child with a given name wins
+			return;
+		}
+		pathIndex.put(key, obj);
+		if (obj.isFolder()) {
+			VFolder folder = (VFolder) obj;
+			for (String name : folder.getChildrenNames()) {
+				FSObject child = folder.getChild(name);
+				if (child != null) {
+					addToIndex(key + File.separatorChar + name, child);
+				}
+			}
+		}
+	}
+
 	public boolean deleteFSObject(String rawPath) {
 		FSObject obj = findFSObject(rawPath);
 		if (obj == null || !obj.isWritePermission()) {
 			return false;
 		}
-		return obj.delete();
+		boolean deleted = obj.delete();
+		if (deleted) {
+			reindex(normalize(rawPath).key, false);
+		}
+		return deleted;
 	}
 
 	public boolean createFile(String rawPath) {
@@ -350,6 +491,9 @@ public final class VirtualFileSystem {
 		VFolder folder = (VFolder) findFSObject(parent);
 		VFile file = new VFile(rawPath, folder);
 		folder.addChild(file);
+		synchronized (pathIndex) {
+			addToIndex(normalize(rawPath).key, file);
+		}
 
 		if (!tmp) {
 			markAccessedFile(file.getPath());
@@ -381,14 +525,20 @@ public final class VirtualFileSystem {
 			return false;
 		}
 
-		return src.rename(destination);
+		boolean renamed = src.rename(destination);
+		if (renamed) {
+			reindex(normalize(source).key, src.isFolder());
+			reindex(normalize(destination).key, src.isFolder());
+		}
+		return renamed;
 	}
 
 	public boolean createFolder(String rawPath) {
 		String[] tokens = tokenize(new File(rawPath).getAbsolutePath());
 
 		VFolder parent = root;
-		for (String name : tokens) {
+		for (int i = 0; i < tokens.length; i++) {
+			String name = tokens[i];
 
 			if (!parent.isReadPermission() || !parent.isWritePermission()
 			        || parent.isDeleted()) {
@@ -406,6 +556,10 @@ public final class VirtualFileSystem {
 					path = name;
 				}
 				folder = new VFolder(path, parent);
+				parent.addChild(folder);
+				synchronized (pathIndex) {
+					addToIndex(toKey(tokens, i + 1), folder);
+				}
 			} else {
 				FSObject child = parent.getChild(name);
 				if (!child.isFolder()) {
@@ -414,7 +568,6 @@ public final class VirtualFileSystem {
 				folder = (VFolder) child;
 			}
 
-			parent.addChild(folder);
 			parent = folder;
 		}
 
@@ -19,6 +19,8 @@
  */
 package org.evosuite.runtime;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -69,4 +71,121 @@ public class LoopCounterTest {
 		LoopCounter.getInstance().checkLoop(5);
 		LoopCounter.getInstance().checkLoop(6);
     }
+
+    @Test
+    public void testNewIndices(){
+        int first = LoopCounter.getInstance().getNewIndices(3);
+        Assert.assertEquals(first + 3, LoopCounter.getInstance().getNextIndex());
+        Assert.assertEquals(first + 3, LoopCounter.getInstance().getNewIndex());
+    }
+
+    @Test
+    public void testLargeIndex(){
+        int limit = (int) RuntimeSettings.maxNumberOfIterationsPerLoop;
+        Assert.assertTrue(limit > 0);
+        for (int i = 0; i < limit - 1; i++) {
+            LoopCounter.getInstance().checkLoop(100000);
+        }
+        try {
+            LoopCounter.getInstance().checkLoop(100000);
+            Assert.fail();
+        } catch (TooManyResourcesException e) {
+            //expected
+        }
+        //counters are cleared after the limit was hit
+        LoopCounter.getInstance().checkLoop(100000);
+    }
+
+    @Test(timeout = 10000)
+    public void testStaticInitIsNotStopped(){
+        int index = LoopCounter.getInstance().getNewIndex();
+        long limit = RuntimeSettings.maxNumberOfIterationsPerLoop;
+
+        LoopCounter.getInstance().enterStaticInit();
+        try {
+            for (long i = 0; i < 3 * limit; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+        } finally {
+            LoopCounter.getInstance().exitStaticInit();
+        }
+
+        try {
+            for (long i = 0; i < 3 * limit; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+            Assert.fail();
+        } catch (TooManyResourcesException e) {
+            //expected
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testDeactivationOnOtherThreadDoesNotStopChecks() throws InterruptedException {
+        final int index = LoopCounter.getInstance().getNewIndex();
+        long limit = RuntimeSettings.maxNumberOfIterationsPerLoop;
+
+        Thread other = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                LoopCounter.getInstance().setActiveOnCurrentThread(false);
+            }
+        });
+        other.start();
+        other.join();
+
+        Assert.assertTrue(LoopCounter.getInstance().isActivatedOnCurrentThread());
+        try {
+            for (long i = 0; i < 3 * limit; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+            Assert.fail();
+        } catch (TooManyResourcesException e) {
+            //expected
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testDeactivationOnCurrentThread() {
+        int index = LoopCounter.getInstance().getNewIndex();
+        long limit = RuntimeSettings.maxNumberOfIterationsPerLoop;
+
+        LoopCounter.getInstance().setActiveOnCurrentThread(false);
+        try {
+            for (long i = 0; i < 3 * limit; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+        } finally {
+            LoopCounter.getInstance().setActiveOnCurrentThread(true);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testIterationsAreCountedPerThread() throws InterruptedException {
+        final int index = LoopCounter.getInstance().getNewIndex();
+        final long limit = RuntimeSettings.maxNumberOfIterationsPerLoop;
+        final AtomicBoolean stopped = new AtomicBoolean(false);
+
+        Runnable belowLimit = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (long i = 0; i < limit - 1; i++) {
+                        LoopCounter.getInstance().checkLoop(index);
+                    }
+                } catch (TooManyResourcesException e) {
+                    stopped.set(true);
+                }
+            }
+        };
+        Thread first = new Thread(belowLimit);
+        Thread second = new Thread(belowLimit);
+        first.start();
+        second.start();
+        first.join();
+        second.join();
+
+        // together the threads exceed the limit, but each of them stays below it
+        Assert.assertFalse(stopped.get());
+    }
 }
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The mocked Random and time of threads that execute tests in parallel
+ */
+public class ThreadBoundRuntimeStateTest {
+
+    @Before
+    public void init() {
+        Random.reset();
+        System.resetRuntime();
+    }
+
+    @After
+    public void tearDown() {
+        Random.reset();
+        System.resetRuntime();
+    }
+
+    private static <T> T runOnBoundThread(final Callable<T> callable) throws InterruptedException {
+        final AtomicReference<T> result = new AtomicReference<T>();
+        final AtomicReference<Exception> error = new AtomicReference<Exception>();
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Random.bindToCurrentThread();
+                System.bindToCurrentThread();
+                try {
+                    result.set(callable.call());
+                } catch (Exception e) {
+                    error.set(e);
+                } finally {
+                    System.unbindFromCurrentThread();
+                    Random.unbindFromCurrentThread();
+                }
+            }
+        });
+        thread.start();
+        thread.join();
+        Assert.assertNull(error.get());
+        return result.get();
+    }
+
+    @Test
+    public void testBoundThreadStartsFromInitialRandom() throws InterruptedException {
+        Random.nextInt();
+        Random.nextInt();
+        Assert.assertEquals(2, Random.getCurrentNumber());
+
+        int first = runOnBoundThread(new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                return Random.nextInt();
+            }
+        });
+        Assert.assertEquals(0, first);
+
+        // the shared state is not affected by the other thread
+        Assert.assertEquals(2, Random.nextInt());
+    }
+
+    @Test
+    public void testResetOnBoundThreadKeepsSharedState() throws InterruptedException {
+        Random.setNextRandom(42);
+        System.setCurrentTimeMillis(1000L);
+
+        runOnBoundThread(new Callable<Void>() {
+            @Override
+            public Void call() {
+                Random.nextInt();
+                System.setCurrentTimeMillis(5000L);
+                Random.reset();
+                System.resetThreadState();
+                return null;
+            }
+        });
+
+        Assert.assertEquals(42, Random.getCurrentNumber());
+        Assert.assertEquals(1000L, System.currentTimeMillis());
+    }
+
+    @Test
+    public void testAccessOnBoundThreadIsReported() throws InterruptedException {
+        Assert.assertFalse(Random.wasAccessed());
+        Assert.assertFalse(System.wasTimeAccessed());
+
+        runOnBoundThread(new Callable<Void>() {
+            @Override
+            public Void call() {
+                Random.nextInt();
+                System.currentTimeMillis();
+                return null;
+            }
+        });
+
+        Assert.assertTrue(Random.wasAccessed());
+        Assert.assertTrue(System.wasTimeAccessed());
+    }
+}
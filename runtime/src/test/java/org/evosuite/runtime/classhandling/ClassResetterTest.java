@@ -35,4 +35,60 @@ public class ClassResetterTest {
         val = (Boolean) m.invoke(null);
         Assert.assertTrue(val);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testResetFromSnapshot() throws Exception{
+
+        ClassLoader loader = new EvoClassLoader();
+        RuntimeSettings.resetStaticState = true;
+        RuntimeSettings.resetStaticStateFromSnapshot = true;
+        try {
+            ClassResetter.getInstance().setClassLoader(loader);
+
+            String cut = "com.examples.with.different.packagename.classhandling.StaticCounter";
+
+            Class<?> klass = loader.loadClass(cut);
+            Method m = klass.getDeclaredMethod("increment");
+
+            Assert.assertEquals(1, ((Integer) m.invoke(null)).intValue());
+            //no snapshot before the first reset
+            Assert.assertFalse(ClassResetter.getInstance().restoreStaticState(cut));
+
+            ClassResetter.getInstance().reset(cut);
+            Assert.assertEquals(1, ((Integer) m.invoke(null)).intValue());
+            Assert.assertEquals(2, ((Integer) m.invoke(null)).intValue());
+
+            Assert.assertTrue(ClassResetter.getInstance().restoreStaticState(cut));
+            Assert.assertEquals(1, ((Integer) m.invoke(null)).intValue());
+        } finally {
+            RuntimeSettings.resetStaticStateFromSnapshot = false;
+        }
+    }
+
+    @Test
+    public void testNoSnapshotOfMutableState() throws Exception{
+
+        ClassLoader loader = new EvoClassLoader();
+        RuntimeSettings.resetStaticState = true;
+        RuntimeSettings.resetStaticStateFromSnapshot = true;
+        try {
+            ClassResetter.getInstance().setClassLoader(loader);
+
+            String cut = "com.examples.with.different.packagename.classhandling.StaticList";
+
+            Class<?> klass = loader.loadClass(cut);
+            Method m = klass.getDeclaredMethod("add", String.class);
+
+            Assert.assertEquals(1, ((Integer) m.invoke(null, "a")).intValue());
+            ClassResetter.getInstance().reset(cut);
+            Assert.assertEquals(1, ((Integer) m.invoke(null, "a")).intValue());
+
+            //the list could have been changed, so it has to be created again
+            Assert.assertFalse(ClassResetter.getInstance().restoreStaticState(cut));
+            ClassResetter.getInstance().reset(cut);
+            Assert.assertEquals(1, ((Integer) m.invoke(null, "a")).intValue());
+        } finally {
+            RuntimeSettings.resetStaticStateFromSnapshot = false;
+        }
+    }
+}
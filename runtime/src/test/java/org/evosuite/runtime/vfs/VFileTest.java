@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2010-2016 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vfs;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VFileTest {
+
+	private static VFile newFile(){
+		return new VFile("/foo", null);
+	}
+
+	private static byte[] bytes(int n, int seed){
+		byte[] b = new byte[n];
+		for(int i=0; i<n; i++){
+			b[i] = (byte)(i * 31 + seed);
+		}
+		return b;
+	}
+
+	@Test
+	public void testBulkWriteAndRead(){
+		VFile file = newFile();
+		byte[] data = bytes(5000, 7);
+
+		Assert.assertEquals(5000, file.writeBytes(data, 0, data.length));
+		Assert.assertEquals(5000, file.getDataSize());
+
+		byte[] read = new byte[6000];
+		Assert.assertEquals(5000, file.read(0, read, 0, read.length));
+		for(int i=0; i<data.length; i++){
+			Assert.assertEquals(data[i], read[i]);
+			Assert.assertEquals(data[i] & 0xFF, file.read(i));
+		}
+		Assert.assertEquals(-1, file.read(5000, read, 0, 10));
+		Assert.assertEquals(-1, file.read(5000));
+	}
+
+	@Test
+	public void testWriteAfterEndFillsGapWithZeros(){
+		VFile file = newFile();
+		file.writeBytes(bytes(10, 1), 0, 10);
+		file.setLength(2);
+		file.writeBytes(20, new byte[]{5}, 0, 1);
+
+		Assert.assertEquals(21, file.getDataSize());
+		for(int i=2; i<20; i++){
+			Assert.assertEquals(0, file.read(i));
+		}
+		Assert.assertEquals(5, file.read(20));
+
+		file.eraseData();
+		file.setLength(4);
+		for(int i=0; i<4; i++){
+			Assert.assertEquals(0, file.read(i));
+		}
+	}
+
+	@Test
+	public void testByteBufferWriteAndRead(){
+		VFile file = newFile();
+		byte[] data = bytes(3000, 3);
+
+		Assert.assertEquals(3000, file.writeBytes(0, ByteBuffer.wrap(data)));
+		Assert.assertEquals(10, file.writeBytes(1000, ByteBuffer.wrap(data, 0, 10)));
+		Assert.assertEquals(3000, file.getDataSize());
+
+		ByteBuffer dst = ByteBuffer.allocate(20);
+		Assert.assertEquals(20, file.read(995, dst));
+		dst.flip();
+		for(int i=995; i<1015; i++){
+			byte expected = i >= 1000 && i < 1010 ? data[i - 1000] : data[i];
+			Assert.assertEquals(expected, dst.get());
+		}
+	}
+
+	@Test
+	public void testNoWriteWithoutPermission(){
+		VFile file = newFile();
+		file.setWritePermission(false);
+		Assert.assertEquals(0, file.writeBytes(new byte[]{1, 2}, 0, 2));
+		Assert.assertEquals(0, file.writeBytes(0, ByteBuffer.wrap(new byte[]{1, 2})));
+		Assert.assertEquals(0, file.getDataSize());
+	}
+}
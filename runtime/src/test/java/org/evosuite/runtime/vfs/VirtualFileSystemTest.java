@@ -75,6 +75,33 @@ public class VirtualFileSystemTest {
 		Assert.assertEquals(0, VirtualFileSystem.getInstance().getAccessedFiles().size());
 	}
 	
+	@Test
+	public void testRenameFolderMovesChildren() throws IOException{
+		VirtualFileSystem vfs = VirtualFileSystem.getInstance();
+		String base = new File("renameBase").getAbsolutePath();
+		String child = base + File.separator + "a" + File.separator + "child.txt";
+		String moved = base + File.separator + "b" + File.separator + "child.txt";
+
+		Assert.assertTrue(vfs.createFile(child));
+		Assert.assertTrue(vfs.exists(child));
+
+		Assert.assertTrue(vfs.rename(base + File.separator + "a", base + File.separator + "b"));
+		Assert.assertFalse(vfs.exists(base + File.separator + "a"));
+		Assert.assertFalse(vfs.exists(child));
+		Assert.assertTrue(vfs.exists(base + File.separator + "b"));
+		Assert.assertTrue(vfs.exists(moved));
+
+		Assert.assertFalse(vfs.deleteFSObject(base + File.separator + "b"));
+		Assert.assertTrue(vfs.deleteFSObject(moved));
+		Assert.assertTrue(vfs.deleteFSObject(base + File.separator + "b"));
+		Assert.assertFalse(vfs.exists(base + File.separator + "b"));
+
+		//a deleted folder can be created again
+		Assert.assertTrue(vfs.createFolder(base + File.separator + "b"));
+		Assert.assertTrue(vfs.exists(base + File.separator + "b"));
+		Assert.assertTrue(vfs.findFSObject(base + File.separator + "b").isFolder());
+	}
+
 	@Test 
 	public void testRename() throws IOException{
 		File bla = new MockFile("bla");